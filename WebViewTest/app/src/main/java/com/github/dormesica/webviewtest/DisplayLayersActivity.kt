@@ -6,6 +6,7 @@ import android.util.Log
 import androidx.recyclerview.widget.LinearLayoutManager
 import androidx.recyclerview.widget.RecyclerView
 import com.github.dormesica.mapcontroller.layers.VectorLayer
+import com.github.dormesica.mapcontroller.parcel.Parcels
 import com.github.dormesica.webviewtest.adapters.VectorLayerAdapter
 
 class DisplayLayersActivity : AppCompatActivity() {
@@ -24,7 +25,7 @@ class DisplayLayersActivity : AppCompatActivity() {
         super.onCreate(savedInstanceState)
         setContentView(R.layout.activity_display_layers)
 
-        val layers = intent.getParcelableArrayListExtra<VectorLayer>(EXTRA_LAYER_LIST)
+        val layers = Parcels.unwrapAll<VectorLayer>(intent.getParcelableArrayListExtra(EXTRA_LAYER_LIST)) ?: emptyList()
 
         viewManager = LinearLayoutManager(this)
         layersAdapter = VectorLayerAdapter(layers)
@@ -10,6 +10,7 @@ import android.view.ViewGroup
 import android.widget.Button
 import android.widget.TextView
 import com.github.dormesica.mapcontroller.layers.Entity
+import com.github.dormesica.mapcontroller.parcel.Parcels
 import com.google.android.material.button.MaterialButton
 import java.lang.ClassCastException
 import java.lang.Exception
@@ -45,7 +46,7 @@ class EntityDetailFragment : Fragment() {
 
         var entity: Entity? = null
         arguments?.let {
-            entity = it.getParcelable(ARG_ENTITY)
+            entity = Parcels.unwrap(it.getParcelable(ARG_ENTITY))
         }
 
         if (entity == null) {
@@ -82,7 +83,7 @@ class EntityDetailFragment : Fragment() {
         fun newInstance(entity: Entity) =
             EntityDetailFragment().apply {
                 arguments = Bundle().apply {
-                    putParcelable(ARG_ENTITY, entity)
+                    putParcelable(ARG_ENTITY, Parcels.wrap(entity))
                 }
             }
 
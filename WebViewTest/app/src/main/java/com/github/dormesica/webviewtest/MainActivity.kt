@@ -13,6 +13,7 @@ import com.github.dormesica.mapcontroller.event.OnMapReadyListener
 import com.github.dormesica.mapcontroller.layers.Entity
 import com.github.dormesica.mapcontroller.layers.GeoJsonLayerDescriptor
 import com.github.dormesica.mapcontroller.layers.VectorLayer
+import com.github.dormesica.mapcontroller.parcel.Parcels
 import com.google.android.material.navigation.NavigationView
 
 class MainActivity : FragmentActivity(), NavigationView.OnNavigationItemSelectedListener, OnMapReadyListener,
@@ -40,7 +41,10 @@ class MainActivity : FragmentActivity(), NavigationView.OnNavigationItemSelected
         return when (item.itemId) {
             R.id.vector_layers_display -> {
                 val startLayerIntent = Intent(this, DisplayLayersActivity::class.java)
-                startLayerIntent.putParcelableArrayListExtra(DisplayLayersActivity.EXTRA_LAYER_LIST, layersList)
+                startLayerIntent.putParcelableArrayListExtra(
+                    DisplayLayersActivity.EXTRA_LAYER_LIST,
+                    Parcels.wrapAll(layersList)
+                )
                 startActivity(startLayerIntent)
                 true
             }
@@ -0,0 +1,65 @@
+package com.github.dormesica.mapcontroller.benchmarks;
+
+import com.github.dormesica.mapcontroller.cluster.ClusterIndex;
+import com.github.dormesica.mapcontroller.layers.Entity;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.github.dormesica.mapcontroller.util.JsonConverter;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Measures the construction of a {@link ClusterIndex} and the query of the clusters in views of different zoom levels.
+ * The points are spread around a few centers, so clusters are formed at every zoom level.
+ */
+@State(Scope.Benchmark)
+public class ClusterIndexBenchmark {
+
+    private static final Rectangle WORLD = new Rectangle(90, -180, -90, 180);
+    private static final Rectangle CITY = new Rectangle(32.2, 34.6, 31.9, 35.0);
+    private static final double[][] CENTERS = {{34.78, 32.08}, {35.21, 31.77}, {34.99, 32.79}, {-74.0, 40.7}};
+
+    @Param({"100000", "1000000"})
+    public int pointCount;
+
+    private List<Entity> mPoints;
+    private ClusterIndex mIndex;
+    private double[] mClusters;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Gson gson = JsonConverter.getConverter();
+        Random random = new Random(pointCount);
+        mPoints = new ArrayList<>(pointCount);
+        for (int i = 0; i < pointCount; i++) {
+            double[] center = CENTERS[random.nextInt(CENTERS.length)];
+            double lon = center[0] + random.nextGaussian() * 0.3;
+            double lat = center[1] + random.nextGaussian() * 0.3;
+            mPoints.add(gson.fromJson(String.format(Locale.ROOT,
+                    "{\"type\":\"point\",\"id\":\"p%d\",\"isVisible\":true,\"location\":{\"lon\":%f,\"lat\":%f}}",
+                    i, lon, lat), Entity.class));
+        }
+
+        mIndex = ClusterIndex.Builder.create().build(mPoints);
+        mClusters = new double[ClusterIndex.PACKED_STRIDE * pointCount];
+    }
+
+    @Benchmark
+    public ClusterIndex build() {
+        return ClusterIndex.Builder.create().build(mPoints);
+    }
+
+    @Benchmark
+    public int queryWorld() {
+        return mIndex.getClusters(WORLD, 2, mClusters);
+    }
+
+    @Benchmark
+    public int queryCity() {
+        return mIndex.getClusters(CITY, 11.5, mClusters);
+    }
+}
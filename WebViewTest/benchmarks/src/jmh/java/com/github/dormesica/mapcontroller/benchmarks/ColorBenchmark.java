@@ -0,0 +1,45 @@
+package com.github.dormesica.mapcontroller.benchmarks;
+
+import com.github.dormesica.mapcontroller.graphics.Color;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the parsing and formatting of CSS color strings by {@link Color}.
+ */
+@State(Scope.Benchmark)
+public class ColorBenchmark {
+
+    private static final String[] LONG_COLOR_STRINGS = {"#EA3603", "#00ff7f", "#1E90FF", "#808080"};
+    private static final String[] SHORT_COLOR_STRINGS = {"#F00", "#0f8", "#ABC", "#777"};
+
+    private Color[] mColors;
+    private int mNext;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mColors = new Color[LONG_COLOR_STRINGS.length];
+        for (int i = 0; i < mColors.length; i++) {
+            mColors[i] = new Color(LONG_COLOR_STRINGS[i], 0.5);
+        }
+    }
+
+    @Benchmark
+    public Color parseLongColorString() {
+        return new Color(LONG_COLOR_STRINGS[next()], 0.5);
+    }
+
+    @Benchmark
+    public Color parseShortColorString() {
+        return new Color(SHORT_COLOR_STRINGS[next()], 0.5);
+    }
+
+    @Benchmark
+    public String getColorString() {
+        return mColors[next()].getColorString();
+    }
+
+    private int next() {
+        mNext = (mNext + 1) & 3;
+        return mNext;
+    }
+}
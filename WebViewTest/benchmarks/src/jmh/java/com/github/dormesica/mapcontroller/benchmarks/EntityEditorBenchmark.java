@@ -0,0 +1,58 @@
+package com.github.dormesica.mapcontroller.benchmarks;
+
+import com.github.dormesica.mapcontroller.graphics.Color;
+import com.github.dormesica.mapcontroller.layers.Entity;
+import com.github.dormesica.mapcontroller.layers.Line;
+import com.github.dormesica.mapcontroller.layers.Point;
+import com.github.dormesica.mapcontroller.layers.Polygon;
+import com.github.dormesica.mapcontroller.util.JsonConverter;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the serialization of style editors by {@code EntityEditorTypeAdapter}, which {@code MapView} performs for
+ * every style change.
+ */
+@State(Scope.Benchmark)
+public class EntityEditorBenchmark {
+
+    private Gson mConverter;
+    private Point.Editor mPointEditor;
+    private Line.Editor mLineEditor;
+    private Polygon.Editor mPolygonEditor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mConverter = JsonConverter.getConverter();
+
+        String[] entities = LayerFixtures.entityJsons(LayerFixtures.SYNTHETIC, 3);
+        Point point = (Point) mConverter.fromJson(entities[0], Entity.class);
+        Line line = (Line) mConverter.fromJson(entities[1], Entity.class);
+        Polygon polygon = (Polygon) mConverter.fromJson(entities[2], Entity.class);
+
+        mPointEditor = point.edit();
+        mPointEditor.setMarker(Point.DEFAULT_POINT_ICON).setColor(Color.RED);
+
+        mLineEditor = line.edit();
+        mLineEditor.setWidth(3).setColor(Color.BLUE);
+
+        mPolygonEditor = polygon.edit();
+        mPolygonEditor.hasFill(true).hasOutline(true).setOutlineColor(Color.BLACK).setHeight(12.5).setWidth(2);
+        mPolygonEditor.setColor(Color.GREEN.setAlpha(0.5));
+    }
+
+    @Benchmark
+    public String serializePointEditor() {
+        return mConverter.toJson(mPointEditor);
+    }
+
+    @Benchmark
+    public String serializeLineEditor() {
+        return mConverter.toJson(mLineEditor);
+    }
+
+    @Benchmark
+    public String serializePolygonEditor() {
+        return mConverter.toJson(mPolygonEditor);
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.dormesica.mapcontroller.benchmarks;
+
+import com.github.dormesica.mapcontroller.layers.GeoJsonLayerDescriptor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+
+/**
+ * Measures the creation of GeoJSON layer descriptors from GeoJSON objects, which serializes the whole object.
+ */
+@State(Scope.Benchmark)
+public class GeoJsonLayerDescriptorBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int featureCount;
+
+    @Param({LayerFixtures.SYNTHETIC, LayerFixtures.REALISTIC})
+    public String fixture;
+
+    private Map<String, Object> mGeoJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mGeoJson = LayerFixtures.geoJson(fixture, featureCount);
+    }
+
+    @Benchmark
+    public GeoJsonLayerDescriptor buildFromObject() {
+        return GeoJsonLayerDescriptor.Builder.from(mGeoJson).build();
+    }
+}
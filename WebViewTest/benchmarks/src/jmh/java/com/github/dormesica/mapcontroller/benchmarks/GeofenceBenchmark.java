@@ -0,0 +1,64 @@
+package com.github.dormesica.mapcontroller.benchmarks;
+
+import com.github.dormesica.mapcontroller.geofence.GeofenceService;
+import com.github.dormesica.mapcontroller.layers.VectorLayer;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.github.dormesica.mapcontroller.util.JsonConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+
+/**
+ * Measures the processing of position fixes by a {@link GeofenceService} whose zones are the polygons of a layer. The
+ * fixes are spread uniformly over the extent of the layer and attributed to a fixed set of tracked objects.
+ */
+@State(Scope.Benchmark)
+public class GeofenceBenchmark {
+
+    private static final int FIX_COUNT = 10_000;
+    private static final int TRACK_COUNT = 1000;
+
+    @Param({"1000", "100000"})
+    public int featureCount;
+
+    @Param({LayerFixtures.SYNTHETIC, LayerFixtures.REALISTIC})
+    public String fixture;
+
+    private GeofenceService mService;
+    private String[] mTrackIds;
+    private double[] mPositions;
+    private int mNextFix;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        VectorLayer layer = JsonConverter.getConverter()
+                .fromJson(LayerFixtures.layerJson(fixture, featureCount), VectorLayer.class);
+        mService = new GeofenceService(layer);
+
+        Rectangle extent = layer.getExtent();
+        Random random = new Random(featureCount);
+        mTrackIds = new String[FIX_COUNT];
+        mPositions = new double[2 * FIX_COUNT];
+        for (int i = 0; i < FIX_COUNT; i++) {
+            mTrackIds[i] = "track-" + random.nextInt(TRACK_COUNT);
+            mPositions[2 * i] = extent.getWest() + random.nextDouble() * (extent.getEast() - extent.getWest());
+            mPositions[2 * i + 1] = extent.getSouth() + random.nextDouble() * (extent.getNorth() - extent.getSouth());
+        }
+
+        // create the state of every track in advance, so only the steady state is measured
+        mService.updateAll(mTrackIds, mPositions, FIX_COUNT);
+    }
+
+    @Benchmark
+    public int singleFix() {
+        int fix = mNextFix;
+        mNextFix = (fix + 1) % FIX_COUNT;
+        return mService.update(mTrackIds[fix], mPositions[2 * fix], mPositions[2 * fix + 1]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIX_COUNT)
+    public void parallelBatch() {
+        mService.updateAll(mTrackIds, mPositions, FIX_COUNT);
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.dormesica.mapcontroller.benchmarks;
+
+import com.github.dormesica.mapcontroller.layers.Entity;
+import com.github.dormesica.mapcontroller.layers.Line;
+import com.github.dormesica.mapcontroller.layers.Polygon;
+import com.github.dormesica.mapcontroller.layers.VectorLayer;
+import com.github.dormesica.mapcontroller.location.Coordinates;
+import com.github.dormesica.mapcontroller.location.Geodesy;
+import com.github.dormesica.mapcontroller.util.JsonConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the geometry computations of the lines and polygons of a layer. Every invocation computes the value for all
+ * the matching entities of the layer.
+ */
+@State(Scope.Benchmark)
+public class GeometryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int featureCount;
+
+    @Param({LayerFixtures.SYNTHETIC, LayerFixtures.REALISTIC})
+    public String fixture;
+
+    private List<Line> mLines;
+    private List<Polygon> mPolygons;
+
+    private double[] mPackedLines;
+    private int[] mLineOffsets;
+    private double[] mLengths;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        VectorLayer layer = JsonConverter.getConverter()
+                .fromJson(LayerFixtures.layerJson(fixture, featureCount), VectorLayer.class);
+
+        mLines = new ArrayList<>();
+        mPolygons = new ArrayList<>();
+        for (Entity entity : layer) {
+            if (entity instanceof Line) {
+                mLines.add((Line) entity);
+            } else if (entity instanceof Polygon) {
+                mPolygons.add((Polygon) entity);
+            }
+        }
+
+        // all the lines in a single packed array, the i-th line spans positions mLineOffsets[i] to mLineOffsets[i+1]
+        mLineOffsets = new int[mLines.size() + 1];
+        for (int i = 0; i < mLines.size(); i++) {
+            mLineOffsets[i + 1] = mLineOffsets[i] + mLines.get(i).size();
+        }
+        mPackedLines = new double[2 * mLineOffsets[mLines.size()]];
+        for (int i = 0; i < mLines.size(); i++) {
+            Line line = mLines.get(i);
+            for (int j = 0; j < line.size(); j++) {
+                Coordinates position = line.getPointAt(j);
+                mPackedLines[2 * (mLineOffsets[i] + j)] = position.getLon();
+                mPackedLines[2 * (mLineOffsets[i] + j) + 1] = position.getLat();
+            }
+        }
+        mLengths = new double[mLineOffsets[mLines.size()]];
+    }
+
+    @Benchmark
+    public double lineLengths() {
+        double total = 0;
+        for (Line line : mLines) {
+            total += line.length();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double packedLineLengths() {
+        double total = 0;
+        for (int i = 0; i < mLineOffsets.length - 1; i++) {
+            total += Geodesy.pathLength(mPackedLines, mLineOffsets[i], mLineOffsets[i + 1] - mLineOffsets[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double[] packedCumulativeLengths() {
+        for (int i = 0; i < mLineOffsets.length - 1; i++) {
+            int count = mLineOffsets[i + 1] - mLineOffsets[i];
+            Geodesy.cumulativeLengths(mPackedLines, mLineOffsets[i], count, mLengths, mLineOffsets[i]);
+        }
+        return mLengths;
+    }
+
+    @Benchmark
+    public double polygonPerimeters() {
+        double total = 0;
+        for (Polygon polygon : mPolygons) {
+            total += polygon.perimeter();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double polygonAreas() {
+        double total = 0;
+        for (Polygon polygon : mPolygons) {
+            total += polygon.area();
+        }
+        return total;
+    }
+}
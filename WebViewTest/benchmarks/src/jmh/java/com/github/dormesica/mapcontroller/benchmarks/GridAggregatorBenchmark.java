@@ -0,0 +1,80 @@
+package com.github.dormesica.mapcontroller.benchmarks;
+
+import com.github.dormesica.mapcontroller.cluster.GridAggregator;
+import com.github.dormesica.mapcontroller.layers.Entity;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.github.dormesica.mapcontroller.util.JsonConverter;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Measures the aggregation of points into the cells of a {@link GridAggregator}, the query of the cells in a view and
+ * the incremental update of a moved point. The points are spread around a few centers.
+ */
+@State(Scope.Benchmark)
+public class GridAggregatorBenchmark {
+
+    private static final Rectangle CITY = new Rectangle(32.2, 34.6, 31.9, 35.0);
+    private static final double[][] CENTERS = {{34.78, 32.08}, {35.21, 31.77}, {34.99, 32.79}, {-74.0, 40.7}};
+    private static final double ZOOM = 11.5;
+
+    @Param({"100000", "1000000"})
+    public int pointCount;
+
+    @Param({"" + GridAggregator.SQUARE, "" + GridAggregator.HEXAGON})
+    public int lattice;
+
+    private List<Entity> mPoints;
+    private GridAggregator mAggregator;
+    private double[] mCells;
+    private int mNextPoint;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Gson gson = JsonConverter.getConverter();
+        Random random = new Random(pointCount);
+        mPoints = new ArrayList<>(pointCount);
+        for (int i = 0; i < pointCount; i++) {
+            double[] center = CENTERS[random.nextInt(CENTERS.length)];
+            mPoints.add(gson.fromJson(String.format(Locale.ROOT,
+                    "{\"type\":\"point\",\"id\":\"p%d\",\"isVisible\":true,\"location\":{\"lon\":%f,\"lat\":%f}," +
+                            "\"properties\":{\"weight\":%d}}",
+                    i, center[0] + random.nextGaussian() * 0.3, center[1] + random.nextGaussian() * 0.3,
+                    random.nextInt(10)), Entity.class));
+        }
+
+        mAggregator = newAggregator();
+        mCells = new double[GridAggregator.PACKED_STRIDE * pointCount];
+        mAggregator.getCells(CITY, ZOOM, mCells);
+    }
+
+    @Benchmark
+    public int aggregate() {
+        return newAggregator().getCells(CITY, ZOOM, mCells);
+    }
+
+    @Benchmark
+    public int query() {
+        return mAggregator.getCells(CITY, ZOOM, mCells);
+    }
+
+    @Benchmark
+    public void update() {
+        // updates a point in place, so its cells exist and the aggregated levels are kept
+        int point = mNextPoint;
+        mNextPoint = (point + 1) % pointCount;
+        mAggregator.update(mPoints.get(point));
+    }
+
+    private GridAggregator newAggregator() {
+        return GridAggregator.Builder.create()
+                .setLattice(lattice)
+                .setWeightKey("weight")
+                .build(mPoints);
+    }
+}
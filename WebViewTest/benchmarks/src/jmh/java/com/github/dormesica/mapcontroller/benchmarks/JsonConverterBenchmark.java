@@ -0,0 +1,63 @@
+package com.github.dormesica.mapcontroller.benchmarks;
+
+import com.github.dormesica.mapcontroller.layers.Entity;
+import com.github.dormesica.mapcontroller.layers.VectorLayer;
+import com.github.dormesica.mapcontroller.util.JsonConverter;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the decoding of layers and entities that are passed from the map, which {@code MapView} performs for every
+ * loaded layer.
+ */
+@State(Scope.Benchmark)
+public class JsonConverterBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int featureCount;
+
+    @Param({LayerFixtures.SYNTHETIC, LayerFixtures.REALISTIC})
+    public String fixture;
+
+    private Gson mConverter;
+    private String mLayerJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mConverter = JsonConverter.getConverter();
+        mLayerJson = LayerFixtures.layerJson(fixture, featureCount);
+    }
+
+    @Benchmark
+    public VectorLayer decodeLayer() {
+        return mConverter.fromJson(mLayerJson, VectorLayer.class);
+    }
+
+    /**
+     * Measures the decoding of single entities, which does not depend on the size of the layer.
+     */
+    @State(Scope.Benchmark)
+    public static class Entities {
+
+        private static final int ENTITY_COUNT = 1024;
+
+        @Param({LayerFixtures.SYNTHETIC, LayerFixtures.REALISTIC})
+        public String fixture;
+
+        private Gson mConverter;
+        private String[] mEntityJsons;
+        private int mNextEntity;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            mConverter = JsonConverter.getConverter();
+            mEntityJsons = LayerFixtures.entityJsons(fixture, ENTITY_COUNT);
+        }
+
+        @Benchmark
+        public Entity decodeEntity() {
+            mNextEntity = (mNextEntity + 1) % ENTITY_COUNT;
+            return mConverter.fromJson(mEntityJsons[mNextEntity], Entity.class);
+        }
+    }
+}
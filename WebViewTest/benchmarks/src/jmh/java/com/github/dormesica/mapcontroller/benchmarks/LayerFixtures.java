@@ -0,0 +1,283 @@
+package com.github.dormesica.mapcontroller.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generates the fixtures the benchmarks run on.
+ * <p>
+ * Two kinds of fixtures are supported:
+ * <ul>
+ * <li>{@code synthetic} - uniformly distributed features with an even mix of points, lines and polygons, fixed-size
+ * geometries and a small, flat attribute table.</li>
+ * <li>{@code realistic} - features clustered around a few city centers. Most features are points, lines are road-like
+ * random walks and polygons are building footprints, with a varied attribute table that contains nested objects,
+ * arrays, non-ASCII text and missing values.</li>
+ * </ul>
+ * Fixtures are generated from a fixed seed, so every run of a benchmark uses the same data.
+ */
+public final class LayerFixtures {
+
+    public static final String SYNTHETIC = "synthetic";
+    public static final String REALISTIC = "realistic";
+
+    private static final long SEED = 0x5EEDL;
+
+    private static final double[][] CITY_CENTERS = {
+            {34.7818, 32.0853}, {35.2137, 31.7683}, {34.9896, 32.7940}, {34.7915, 31.2530}, {34.8044, 31.9642},
+    };
+    private static final String[] LAND_USES = {"residential", "commercial", "industrial", "park", "school"};
+    private static final String[] NAMES = {"רחוב הרצל", "שדרות רוטשילד", "Jaffa Road", "דרך בגין", "Allenby St."};
+    private static final double METERS_PER_DEGREE = 111_320;
+
+    private LayerFixtures() {
+    }
+
+    /**
+     * Creates the JSON of a loaded vector layer, as it is passed from the map to the Android framework.
+     *
+     * @param kind         The kind of the fixture.
+     * @param featureCount The amount of entities in the layer.
+     * @return The serialized layer.
+     */
+    public static String layerJson(String kind, int featureCount) {
+        StringBuilder json = new StringBuilder(featureCount * 256);
+        json.append("{\"id\":\"").append(new UUID(SEED, featureCount)).append("\",\"isVisible\":true,\"entities\":[");
+
+        Generator generator = new Generator(kind);
+        for (int i = 0; i < featureCount; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            generator.appendEntity(json, i);
+        }
+
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Creates the JSON of single entities, as they are passed from the map to the Android framework.
+     *
+     * @param kind  The kind of the fixture.
+     * @param count The amount of entities to create.
+     * @return The serialized entities.
+     */
+    public static String[] entityJsons(String kind, int count) {
+        Generator generator = new Generator(kind);
+        String[] entities = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder json = new StringBuilder(256);
+            generator.appendEntity(json, i);
+            entities[i] = json.toString();
+        }
+
+        return entities;
+    }
+
+    /**
+     * Creates the JSON of attribute tables of entities.
+     *
+     * @param kind  The kind of the fixture.
+     * @param count The amount of attribute tables to create.
+     * @return The serialized attribute tables.
+     */
+    public static String[] propertiesJsons(String kind, int count) {
+        Generator generator = new Generator(kind);
+        String[] properties = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder json = new StringBuilder(128);
+            generator.appendProperties(json, i);
+            properties[i] = json.toString();
+        }
+
+        return properties;
+    }
+
+    /**
+     * Creates a GeoJSON feature collection as a tree of maps, lists and arrays, the way an application would build
+     * one before passing it to {@code GeoJsonLayerDescriptor.Builder.from(Object)}.
+     *
+     * @param kind         The kind of the fixture.
+     * @param featureCount The amount of features in the collection.
+     * @return The GeoJSON object.
+     */
+    public static Map<String, Object> geoJson(String kind, int featureCount) {
+        Generator generator = new Generator(kind);
+        List<Object> features = new ArrayList<>(featureCount);
+        for (int i = 0; i < featureCount; i++) {
+            features.add(generator.feature(i));
+        }
+
+        Map<String, Object> collection = new LinkedHashMap<>();
+        collection.put("type", "FeatureCollection");
+        collection.put("features", features);
+        return collection;
+    }
+
+    /**
+     * Generates the geometries and attributes of the features of a fixture.
+     */
+    private static final class Generator {
+
+        private final boolean mIsRealistic;
+        private final Random mRandom;
+
+        Generator(String kind) {
+            if (!SYNTHETIC.equals(kind) && !REALISTIC.equals(kind)) {
+                throw new IllegalArgumentException("Unknown fixture kind " + kind);
+            }
+
+            mIsRealistic = REALISTIC.equals(kind);
+            mRandom = new Random(SEED);
+        }
+
+        void appendEntity(StringBuilder json, int index) {
+            int type = entityType(index);
+            json.append("{\"type\":\"").append(type == 0 ? "point" : type == 1 ? "line" : "polygon")
+                    .append("\",\"id\":\"").append(new UUID(SEED, index)).append("\",\"isVisible\":true,");
+
+            if (type == 0) {
+                json.append("\"location\":");
+                appendCoordinates(json, location());
+            } else {
+                json.append(type == 1 ? "\"path\":[" : "\"perimeter\":[");
+                double[][] geometry = type == 1 ? path() : ring();
+                for (int i = 0; i < geometry.length; i++) {
+                    if (i > 0) {
+                        json.append(',');
+                    }
+                    appendCoordinates(json, geometry[i]);
+                }
+                json.append(']');
+            }
+
+            json.append(",\"properties\":");
+            appendProperties(json, index);
+            json.append('}');
+        }
+
+        void appendProperties(StringBuilder json, int index) {
+            if (!mIsRealistic) {
+                json.append("{\"fid\":").append(index)
+                        .append(",\"label\":\"feature-").append(index)
+                        .append("\",\"value\":").append(mRandom.nextDouble())
+                        .append('}');
+                return;
+            }
+
+            json.append("{\"parcel_id\":\"P-").append(100000 + index).append('"')
+                    .append(",\"name\":\"").append(NAMES[mRandom.nextInt(NAMES.length)]).append('"')
+                    .append(",\"landuse\":\"").append(LAND_USES[mRandom.nextInt(LAND_USES.length)]).append('"')
+                    .append(",\"height\":").append(Math.round(mRandom.nextDouble() * 4000) / 100.0)
+                    .append(",\"floors\":").append(1 + mRandom.nextInt(30));
+            if (mRandom.nextInt(4) == 0) {
+                json.append(",\"comment\":null");
+            }
+            json.append(",\"address\":{\"city\":\"").append(NAMES[index % NAMES.length])
+                    .append("\",\"number\":").append(1 + mRandom.nextInt(200)).append('}')
+                    .append(",\"tags\":[\"survey-2019\",\"verified\"]}");
+        }
+
+        Map<String, Object> feature(int index) {
+            Map<String, Object> geometry = new HashMap<>();
+            switch (entityType(index)) {
+                case 0:
+                    geometry.put("type", "Point");
+                    geometry.put("coordinates", location());
+                    break;
+                case 1:
+                    geometry.put("type", "LineString");
+                    geometry.put("coordinates", path());
+                    break;
+                default:
+                    geometry.put("type", "Polygon");
+                    geometry.put("coordinates", new double[][][]{ring()});
+                    break;
+            }
+
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("fid", index);
+            properties.put("name", NAMES[index % NAMES.length]);
+            if (mIsRealistic) {
+                properties.put("landuse", LAND_USES[mRandom.nextInt(LAND_USES.length)]);
+                properties.put("height", mRandom.nextDouble() * 40);
+            }
+
+            Map<String, Object> feature = new HashMap<>();
+            feature.put("type", "Feature");
+            feature.put("id", index);
+            feature.put("geometry", geometry);
+            feature.put("properties", properties);
+            return feature;
+        }
+
+        /**
+         * Returns 0 for points, 1 for lines and 2 for polygons.
+         */
+        private int entityType(int index) {
+            if (!mIsRealistic) {
+                return index % 3;
+            }
+
+            int roll = mRandom.nextInt(10);
+            return roll < 7 ? 0 : roll < 9 ? 1 : 2;
+        }
+
+        private double[] location() {
+            if (!mIsRealistic) {
+                return new double[]{mRandom.nextDouble() * 360 - 180, mRandom.nextDouble() * 170 - 85};
+            }
+
+            double[] center = CITY_CENTERS[mRandom.nextInt(CITY_CENTERS.length)];
+            return new double[]{
+                    center[0] + mRandom.nextGaussian() * 0.05,
+                    center[1] + mRandom.nextGaussian() * 0.05,
+            };
+        }
+
+        private double[][] path() {
+            int size = mIsRealistic ? 4 + mRandom.nextInt(29) : 8;
+            double[][] path = new double[size][];
+            path[0] = location();
+
+            double heading = mRandom.nextDouble() * 2 * Math.PI;
+            double step = (mIsRealistic ? 50 : 500) / METERS_PER_DEGREE;
+            for (int i = 1; i < size; i++) {
+                heading += mIsRealistic ? mRandom.nextGaussian() * 0.3 : 0;
+                path[i] = new double[]{
+                        path[i - 1][0] + Math.sin(heading) * step,
+                        path[i - 1][1] + Math.cos(heading) * step,
+                };
+            }
+
+            return path;
+        }
+
+        private double[][] ring() {
+            int size = mIsRealistic ? 4 + mRandom.nextInt(9) : 8;
+            double[] center = location();
+            double radius = (mIsRealistic ? 5 + mRandom.nextDouble() * 25 : 1000) / METERS_PER_DEGREE;
+
+            double[][] ring = new double[size + 1][];
+            for (int i = 0; i < size; i++) {
+                double angle = -2 * Math.PI * i / size;
+                double distance = mIsRealistic ? radius * (0.7 + mRandom.nextDouble() * 0.3) : radius;
+                ring[i] = new double[]{center[0] + Math.cos(angle) * distance, center[1] + Math.sin(angle) * distance};
+            }
+            ring[size] = ring[0];
+
+            return ring;
+        }
+
+        private static void appendCoordinates(StringBuilder json, double[] coordinates) {
+            json.append("{\"lon\":").append(coordinates[0])
+                    .append(",\"lat\":").append(coordinates[1])
+                    .append(",\"alt\":0}");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.dormesica.mapcontroller.benchmarks;
+
+import com.github.dormesica.mapcontroller.layers.Properties;
+import com.github.dormesica.mapcontroller.util.JsonConverter;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the conversion of attribute tables by {@code PropertiesTypeAdapter} and the typed access to their values.
+ */
+@State(Scope.Benchmark)
+public class PropertiesBenchmark {
+
+    private static final int PROPERTIES_COUNT = 1024;
+
+    @Param({LayerFixtures.SYNTHETIC, LayerFixtures.REALISTIC})
+    public String fixture;
+
+    private Gson mConverter;
+    private JsonElement[] mTrees;
+    private Properties[] mProperties;
+    private int mNext;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mConverter = JsonConverter.getConverter();
+
+        String[] jsons = LayerFixtures.propertiesJsons(fixture, PROPERTIES_COUNT);
+        mTrees = new JsonElement[PROPERTIES_COUNT];
+        mProperties = new Properties[PROPERTIES_COUNT];
+        for (int i = 0; i < PROPERTIES_COUNT; i++) {
+            mTrees[i] = mConverter.fromJson(jsons[i], JsonElement.class);
+            mProperties[i] = mConverter.fromJson(jsons[i], Properties.class);
+        }
+    }
+
+    @Benchmark
+    public Properties deserialize() {
+        return mConverter.fromJson(mTrees[next()], Properties.class);
+    }
+
+    @Benchmark
+    public JsonElement serialize() {
+        return mConverter.toJsonTree(mProperties[next()]);
+    }
+
+    @Benchmark
+    public void readValues(Blackhole blackhole) {
+        Properties properties = mProperties[next()];
+        for (String key : properties.keySet()) {
+            JsonElement value = properties.getAs(key, JsonElement.class);
+            if (value != null && value.isJsonPrimitive() && value.getAsJsonPrimitive().isNumber()) {
+                blackhole.consume(properties.getDouble(key));
+            } else if (value != null && value.isJsonPrimitive() && value.getAsJsonPrimitive().isString()) {
+                blackhole.consume(properties.getString(key));
+            }
+        }
+    }
+
+    private int next() {
+        mNext = (mNext + 1) % PROPERTIES_COUNT;
+        return mNext;
+    }
+}
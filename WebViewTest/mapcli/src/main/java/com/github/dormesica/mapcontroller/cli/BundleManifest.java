@@ -0,0 +1,146 @@
+package com.github.dormesica.mapcontroller.cli;
+
+import com.github.dormesica.mapcontroller.location.Rectangle;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The description of a layer bundle, written as {@code manifest.json} in the bundle directory.
+ * <p>
+ * A bundle is made of parts, each of them a minified GeoJSON {@code FeatureCollection} that can be loaded as is using
+ * {@code GeoJsonLayerDescriptor.Builder.from}. Features are grouped into parts by their location, so every part covers
+ * a compact area, and the manifest lists the parts along with their bounds so an application can load only the parts
+ * that are in view.
+ *
+ * @since 1.0.0
+ */
+public class BundleManifest {
+
+    private final String name;
+    private final String source;
+    private final int precision;
+    private final int featureCount;
+    private final int droppedCount;
+    private final Rectangle bounds;
+    private final List<Part> parts;
+
+    BundleManifest(String name, String source, int precision, int featureCount, int droppedCount, Rectangle bounds,
+                   List<Part> parts) {
+        this.name = name;
+        this.source = source;
+        this.precision = precision;
+        this.featureCount = featureCount;
+        this.droppedCount = droppedCount;
+        this.bounds = bounds;
+        this.parts = parts;
+    }
+
+    /**
+     * Returns the name of the bundle.
+     *
+     * @return The name of the bundle.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the name of the GeoJSON file the bundle was created from.
+     *
+     * @return The source file name.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the amount of decimal digits kept in the coordinates of the bundle.
+     *
+     * @return The coordinates precision.
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Returns the amount of features in the bundle.
+     *
+     * @return The amount of features.
+     */
+    public int getFeatureCount() {
+        return featureCount;
+    }
+
+    /**
+     * Returns the amount of features of the source that were dropped since they have no geometry.
+     *
+     * @return The amount of dropped features.
+     */
+    public int getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Returns the bounds of all the features in the bundle.
+     *
+     * @return The bounds of the bundle, or {@code null} if the bundle is empty.
+     */
+    public Rectangle getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Returns the parts of the bundle.
+     *
+     * @return The parts of the bundle, in the order of their locations along a Hilbert curve.
+     */
+    public List<Part> getParts() {
+        return Collections.unmodifiableList(parts);
+    }
+
+    /**
+     * The description of a single part of a bundle.
+     *
+     * @since 1.0.0
+     */
+    public static class Part {
+
+        private final String file;
+        private final int featureCount;
+        private final Rectangle bounds;
+
+        Part(String file, int featureCount, Rectangle bounds) {
+            this.file = file;
+            this.featureCount = featureCount;
+            this.bounds = bounds;
+        }
+
+        /**
+         * Returns the name of the part's file, relative to the bundle directory.
+         *
+         * @return The file name.
+         */
+        public String getFile() {
+            return file;
+        }
+
+        /**
+         * Returns the amount of features in the part.
+         *
+         * @return The amount of features.
+         */
+        public int getFeatureCount() {
+            return featureCount;
+        }
+
+        /**
+         * Returns the bounds of the features in the part.
+         *
+         * @return The bounds of the part.
+         */
+        public Rectangle getBounds() {
+            return bounds;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.github.dormesica.mapcontroller.cli;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The options of a {@link LayerBundler} run.
+ *
+ * @since 1.0.0
+ */
+public class BundleOptions {
+
+    /**
+     * Usage message of the command line tool.
+     */
+    static final String USAGE = "Usage: mapbundle -o <output dir> [options] <input.geojson>...\n"
+            + "\n"
+            + "Options:\n"
+            + "  -o, --output <dir>         Directory in which a bundle is created for every input file.\n"
+            + "  -p, --precision <digits>   Decimal digits kept in coordinates (default 6, ~10cm).\n"
+            + "  -c, --chunk-size <count>   Maximum amount of features in a single bundle part (default 5000).\n"
+            + "  -t, --threads <count>      Amount of worker threads (default: available processors).\n"
+            + "  -k, --keep <a,b,...>       Keep only the given feature properties (default: all).\n"
+            + "  -h, --help                 Print this message.\n";
+
+    private static final int DEFAULT_PRECISION = 6;
+    private static final int DEFAULT_CHUNK_SIZE = 5000;
+
+    private Path outputDirectory;
+    private List<Path> inputs = new ArrayList<>();
+    private int precision = DEFAULT_PRECISION;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private Set<String> keptProperties = null;
+    private boolean isHelp = false;
+
+    /**
+     * Creates a new {@code BundleOptions} object with the given values.
+     *
+     * @param outputDirectory Directory in which the bundles are created.
+     * @param inputs          The GeoJSON files to bundle.
+     * @param precision       Amount of decimal digits kept in coordinates.
+     * @param chunkSize       Maximum amount of features in a single part of a bundle.
+     * @param threads         Amount of worker threads.
+     * @param keptProperties  Names of the properties to keep, or {@code null} to keep all the properties.
+     * @throws IllegalArgumentException In case one of the numeric values is out of range.
+     */
+    public BundleOptions(@NonNull Path outputDirectory, @NonNull List<Path> inputs, int precision, int chunkSize,
+                         int threads, @Nullable Set<String> keptProperties) throws IllegalArgumentException {
+        this.outputDirectory = outputDirectory;
+        this.inputs = new ArrayList<>(inputs);
+        this.precision = precision;
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+        this.keptProperties = keptProperties;
+        validate();
+    }
+
+    private BundleOptions() {
+    }
+
+    /**
+     * Parses the command line arguments of the tool.
+     *
+     * @param args The command line arguments.
+     * @return The options described by the arguments.
+     * @throws IllegalArgumentException In case the arguments are invalid.
+     */
+    @NonNull
+    public static BundleOptions parse(@NonNull String[] args) throws IllegalArgumentException {
+        BundleOptions options = new BundleOptions();
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-h":
+                case "--help":
+                    options.isHelp = true;
+                    return options;
+                case "-o":
+                case "--output":
+                    options.outputDirectory = Paths.get(valueOf(args, ++i, arg));
+                    break;
+                case "-p":
+                case "--precision":
+                    options.precision = intValueOf(args, ++i, arg);
+                    break;
+                case "-c":
+                case "--chunk-size":
+                    options.chunkSize = intValueOf(args, ++i, arg);
+                    break;
+                case "-t":
+                case "--threads":
+                    options.threads = intValueOf(args, ++i, arg);
+                    break;
+                case "-k":
+                case "--keep":
+                    options.keptProperties = new HashSet<>(Arrays.asList(valueOf(args, ++i, arg).split(",")));
+                    break;
+                default:
+                    if (arg.startsWith("-")) {
+                        throw new IllegalArgumentException("Unknown option " + arg);
+                    }
+                    options.inputs.add(Paths.get(arg));
+            }
+        }
+
+        options.validate();
+        return options;
+    }
+
+    /**
+     * Returns the directory in which the bundles are created.
+     *
+     * @return The output directory.
+     */
+    public Path getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    /**
+     * Returns the GeoJSON files to bundle.
+     *
+     * @return The input files.
+     */
+    public List<Path> getInputs() {
+        return Collections.unmodifiableList(inputs);
+    }
+
+    /**
+     * Returns the amount of decimal digits kept in coordinates.
+     *
+     * @return The coordinates precision.
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Returns the maximum amount of features in a single part of a bundle.
+     *
+     * @return The chunk size.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Returns the amount of worker threads.
+     *
+     * @return The amount of threads.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Returns the names of the properties that are kept in the bundle.
+     *
+     * @return The kept properties, or {@code null} if all the properties are kept.
+     */
+    @Nullable
+    public Set<String> getKeptProperties() {
+        return keptProperties;
+    }
+
+    /**
+     * Returns whether the usage message was requested.
+     *
+     * @return {@code true} if the usage message should be printed, otherwise {@code false}.
+     */
+    public boolean isHelp() {
+        return isHelp;
+    }
+
+    /**
+     * Validates the options.
+     *
+     * @throws IllegalArgumentException In case an option is missing or out of range.
+     */
+    private void validate() throws IllegalArgumentException {
+        if (outputDirectory == null) {
+            throw new IllegalArgumentException("An output directory must be specified");
+        }
+        if (inputs.isEmpty()) {
+            throw new IllegalArgumentException("At least one input file must be specified");
+        }
+        if (precision < 0 || precision > 15) {
+            throw new IllegalArgumentException("Precision must be between 0 and 15");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Amount of threads must be positive");
+        }
+    }
+
+    private static String valueOf(String[] args, int i, String option) throws IllegalArgumentException {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+
+        return args[i];
+    }
+
+    private static int intValueOf(String[] args, int i, String option) throws IllegalArgumentException {
+        String value = valueOf(args, i, option);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " expects a number but got " + value);
+        }
+    }
+}
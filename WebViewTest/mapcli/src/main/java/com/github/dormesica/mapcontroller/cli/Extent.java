@@ -0,0 +1,56 @@
+package com.github.dormesica.mapcontroller.cli;
+
+import androidx.annotation.Nullable;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+
+/**
+ * A mutable bounding box that grows to contain the positions added to it.
+ * <p>
+ * Instances are not thread safe; every worker accumulates its own extent and the results are merged.
+ */
+class Extent {
+
+    private double north = Double.NEGATIVE_INFINITY;
+    private double south = Double.POSITIVE_INFINITY;
+    private double east = Double.NEGATIVE_INFINITY;
+    private double west = Double.POSITIVE_INFINITY;
+
+    /**
+     * Extends the extent to contain the given position.
+     *
+     * @param lon The longitude of the position.
+     * @param lat The latitude of the position.
+     */
+    void add(double lon, double lat) {
+        north = Math.max(north, lat);
+        south = Math.min(south, lat);
+        east = Math.max(east, lon);
+        west = Math.min(west, lon);
+    }
+
+    /**
+     * Extends the extent to contain the given extent.
+     *
+     * @param other The extent to contain.
+     */
+    void add(Extent other) {
+        north = Math.max(north, other.north);
+        south = Math.min(south, other.south);
+        east = Math.max(east, other.east);
+        west = Math.min(west, other.west);
+    }
+
+    /**
+     * Returns the extent as a {@link Rectangle}.
+     *
+     * @return The rectangle, or {@code null} if no position was added.
+     */
+    @Nullable
+    Rectangle toRectangle() {
+        if (north < south) {
+            return null;
+        }
+
+        return new Rectangle(north, west, south, east);
+    }
+}
@@ -0,0 +1,181 @@
+package com.github.dormesica.mapcontroller.cli;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prepares a single GeoJSON feature for a bundle.
+ * <p>
+ * The optimizer:
+ * <ul>
+ * <li>Rounds coordinates to a fixed amount of decimal digits.</li>
+ * <li>Removes consecutive duplicate positions from lines and rings, which rounding tends to create.</li>
+ * <li>Removes {@code null} properties and, optionally, properties that were not asked for.</li>
+ * <li>Assigns an ID to features that have none, so entities can be addressed after the layer is loaded.</li>
+ * </ul>
+ * Instances hold no mutable state and can be shared between threads.
+ */
+class FeatureOptimizer {
+
+    private final double mScale;
+    private final Set<String> mKeptProperties;
+
+    /**
+     * Creates a new {@code FeatureOptimizer}.
+     *
+     * @param precision      Amount of decimal digits kept in coordinates.
+     * @param keptProperties Names of the properties to keep, or {@code null} to keep all of them.
+     */
+    FeatureOptimizer(int precision, @Nullable Set<String> keptProperties) {
+        mScale = Math.pow(10, precision);
+        mKeptProperties = keptProperties;
+    }
+
+    /**
+     * Optimizes the given feature.
+     *
+     * @param feature   A GeoJSON feature.
+     * @param defaultId The ID assigned to the feature in case it has no ID.
+     * @param extent    The extent that is extended to contain the feature.
+     * @return The optimized feature, or {@code null} if the feature has no geometry and should be dropped.
+     */
+    @Nullable
+    JsonObject optimize(@NonNull JsonObject feature, @NonNull String defaultId, @NonNull Extent extent) {
+        JsonElement geometry = feature.get("geometry");
+        if (geometry == null || !geometry.isJsonObject()) {
+            return null;
+        }
+
+        JsonObject optimized = new JsonObject();
+        optimized.addProperty("type", "Feature");
+
+        JsonElement id = feature.get("id");
+        if (id == null || id.isJsonNull()) {
+            optimized.addProperty("id", defaultId);
+        } else {
+            optimized.add("id", id);
+        }
+
+        optimized.add("properties", optimizeProperties(feature.get("properties")));
+        optimized.add("geometry", optimizeGeometry(geometry.getAsJsonObject(), extent));
+
+        return optimized;
+    }
+
+    private JsonObject optimizeProperties(@Nullable JsonElement properties) {
+        JsonObject optimized = new JsonObject();
+        if (properties == null || !properties.isJsonObject()) {
+            return optimized;
+        }
+
+        for (Map.Entry<String, JsonElement> entry : properties.getAsJsonObject().entrySet()) {
+            if (entry.getValue().isJsonNull()) {
+                continue;
+            }
+            if (mKeptProperties != null && !mKeptProperties.contains(entry.getKey())) {
+                continue;
+            }
+            optimized.add(entry.getKey(), entry.getValue());
+        }
+
+        return optimized;
+    }
+
+    private JsonObject optimizeGeometry(JsonObject geometry, Extent extent) {
+        String type = geometry.get("type").getAsString();
+        JsonObject optimized = new JsonObject();
+        optimized.addProperty("type", type);
+
+        if (type.equals("GeometryCollection")) {
+            JsonArray geometries = new JsonArray();
+            for (JsonElement child : geometry.getAsJsonArray("geometries")) {
+                geometries.add(optimizeGeometry(child.getAsJsonObject(), extent));
+            }
+            optimized.add("geometries", geometries);
+            return optimized;
+        }
+
+        JsonArray coordinates = geometry.getAsJsonArray("coordinates");
+        switch (type) {
+            case "Point":
+                optimized.add("coordinates", roundPosition(coordinates, extent));
+                break;
+            case "MultiPoint":
+                optimized.add("coordinates", roundPath(coordinates, 1, extent));
+                break;
+            case "LineString":
+                optimized.add("coordinates", roundPath(coordinates, 2, extent));
+                break;
+            case "MultiLineString":
+                optimized.add("coordinates", roundPaths(coordinates, 2, extent));
+                break;
+            case "Polygon":
+                optimized.add("coordinates", roundPaths(coordinates, 4, extent));
+                break;
+            case "MultiPolygon":
+                JsonArray polygons = new JsonArray();
+                for (JsonElement polygon : coordinates) {
+                    polygons.add(roundPaths(polygon.getAsJsonArray(), 4, extent));
+                }
+                optimized.add("coordinates", polygons);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown geometry type " + type);
+        }
+
+        return optimized;
+    }
+
+    private JsonArray roundPaths(JsonArray paths, int minPositions, Extent extent) {
+        JsonArray rounded = new JsonArray();
+        for (JsonElement path : paths) {
+            rounded.add(roundPath(path.getAsJsonArray(), minPositions, extent));
+        }
+
+        return rounded;
+    }
+
+    /**
+     * Rounds the positions of a path and drops positions that are equal to the position before them.
+     * <p>
+     * Duplicates are kept if removing them would leave the path with less than {@code minPositions} positions, so the
+     * geometry stays valid.
+     */
+    private JsonArray roundPath(JsonArray path, int minPositions, Extent extent) {
+        JsonArray rounded = new JsonArray();
+        JsonArray deduplicated = new JsonArray();
+        JsonArray previous = null;
+
+        for (JsonElement position : path) {
+            JsonArray current = roundPosition(position.getAsJsonArray(), extent);
+            rounded.add(current);
+            if (minPositions == 1 || !current.equals(previous)) {
+                deduplicated.add(current);
+            }
+            previous = current;
+        }
+
+        return deduplicated.size() >= minPositions ? deduplicated : rounded;
+    }
+
+    private JsonArray roundPosition(JsonArray position, Extent extent) {
+        JsonArray rounded = new JsonArray();
+        for (JsonElement value : position) {
+            rounded.add(new JsonPrimitive(round(value.getAsDouble())));
+        }
+        extent.add(rounded.get(0).getAsDouble(), rounded.get(1).getAsDouble());
+
+        return rounded;
+    }
+
+    private double round(double value) {
+        return Math.round(value * mScale) / mScale;
+    }
+}
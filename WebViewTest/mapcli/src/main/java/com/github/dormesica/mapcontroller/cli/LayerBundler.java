@@ -0,0 +1,424 @@
+package com.github.dormesica.mapcontroller.cli;
+
+import androidx.annotation.NonNull;
+import com.github.dormesica.mapcontroller.util.JsonConverter;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Converts raw GeoJSON files into layer bundles that are ready to be loaded on a device.
+ * <p>
+ * Every input {@code FeatureCollection} is streamed twice. The first pass orders the features by their location (see
+ * {@link SpatialOrder}) and assigns them to chunks, so every part of the bundle covers a compact area. The second pass
+ * spills the features to a temporary file per chunk, and every complete chunk is optimized (see
+ * {@link FeatureOptimizer}) and written as a bundle part by a pool of worker threads while the input is still being
+ * read. Only the locations of the features and the chunks waiting for a worker, whose amount is bounded, are held in
+ * memory. Finally, a {@link BundleManifest} that describes the parts is written to the bundle directory.
+ * <p>
+ * The bundle of {@code roads.geojson} is written to the {@code roads} directory under the output directory:
+ * <pre>
+ * roads/manifest.json
+ * roads/part-00000.geojson
+ * roads/part-00001.geojson
+ * ...
+ * </pre>
+ *
+ * @since 1.0.0
+ */
+public class LayerBundler implements Closeable {
+
+    private static final String MANIFEST_FILE = "manifest.json";
+    private static final String PART_FILE_FORMAT = "part-%05d.geojson";
+    private static final String PART_FILE_GLOB = "part-*.geojson";
+    private static final String CHUNK_FILE_FORMAT = "chunk-%05d.jsonl";
+    // chunk files whose writers are kept open while the input is spilled, others are reopened when needed
+    private static final int MAX_OPEN_CHUNKS = 64;
+
+    private static final int EXIT_FAILURE = 1;
+    private static final int EXIT_USAGE = 2;
+
+    private final BundleOptions mOptions;
+    private final FeatureOptimizer mOptimizer;
+    private final ExecutorService mExecutor;
+    private final Semaphore mPendingChunks;
+    private final Gson mGson = new Gson();
+
+    /**
+     * Creates a new {@code LayerBundler} with the given options.
+     *
+     * @param options The options of the bundler.
+     */
+    public LayerBundler(@NonNull BundleOptions options) {
+        mOptions = options;
+        mOptimizer = new FeatureOptimizer(options.getPrecision(), options.getKeptProperties());
+        mExecutor = Executors.newFixedThreadPool(options.getThreads());
+        mPendingChunks = new Semaphore(options.getThreads() * 2);
+    }
+
+    /**
+     * Creates a bundle for every input file in the options.
+     *
+     * @return The manifests of the bundles, in the order of the input files.
+     * @throws IOException In case an input file cannot be read or is not a valid GeoJSON, or a bundle cannot be
+     *                     written.
+     */
+    @NonNull
+    public List<BundleManifest> run() throws IOException {
+        List<BundleManifest> manifests = new ArrayList<>();
+        for (Path input : mOptions.getInputs()) {
+            manifests.add(bundle(input));
+        }
+
+        return manifests;
+    }
+
+    /**
+     * Creates a bundle from the given GeoJSON file.
+     *
+     * @param input A GeoJSON file that contains a {@code FeatureCollection}.
+     * @return The manifest of the bundle.
+     * @throws IOException In case the input cannot be read or is not a valid GeoJSON, or the bundle cannot be written.
+     */
+    @NonNull
+    public BundleManifest bundle(@NonNull Path input) throws IOException {
+        String name = bundleName(input);
+        Path directory = mOptions.getOutputDirectory().resolve(name);
+        prepareDirectory(directory);
+
+        List<BundleManifest.Part> parts = new ArrayList<>();
+        Extent extent = new Extent();
+        int featureCount = 0;
+        int droppedCount = 0;
+        Path chunkDirectory = Files.createTempDirectory(directory, "chunks");
+        try {
+            List<Future<ChunkResult>> chunks = new ArrayList<>();
+            try {
+                readChunks(input, name, chunkDirectory, directory, chunks);
+            } catch (IOException | RuntimeException e) {
+                // parts that are still being written must not outlive the failed bundle
+                for (Future<ChunkResult> chunk : chunks) {
+                    if (chunk != null) {
+                        chunk.cancel(true);
+                    }
+                }
+                throw e;
+            }
+
+            for (Future<ChunkResult> chunk : chunks) {
+                ChunkResult result = await(chunk);
+                droppedCount += result.droppedCount;
+                if (result.part != null) {
+                    parts.add(result.part);
+                    featureCount += result.part.getFeatureCount();
+                    extent.add(result.extent);
+                }
+            }
+        } finally {
+            deleteDirectory(chunkDirectory);
+        }
+
+        BundleManifest manifest = new BundleManifest(name, input.getFileName().toString(), mOptions.getPrecision(),
+                featureCount, droppedCount, extent.toRectangle(), parts);
+        Gson converter = JsonConverter.getConverter().newBuilder().setPrettyPrinting().create();
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(MANIFEST_FILE), StandardCharsets.UTF_8)) {
+            converter.toJson(manifest, writer);
+        }
+
+        return manifest;
+    }
+
+    /**
+     * Shuts down the worker threads of the bundler.
+     */
+    @Override
+    public void close() {
+        mExecutor.shutdownNow();
+    }
+
+    /**
+     * Streams the features of the input twice, first to assign them to chunks by their location and then to spill them
+     * to the files of their chunks, and submits every chunk to the workers once all of its features are spilled.
+     *
+     * @param input          The input file.
+     * @param name           The name of the bundle.
+     * @param chunkDirectory The temporary directory of the chunk files.
+     * @param directory      The bundle directory.
+     * @param chunks         The list to which the submitted chunks are added, in the order of the parts.
+     * @throws IOException In case the input cannot be read or is not a GeoJSON {@code FeatureCollection}.
+     */
+    private void readChunks(Path input, String name, Path chunkDirectory, Path directory,
+                            List<Future<ChunkResult>> chunks) throws IOException {
+        SpatialOrder order = new SpatialOrder();
+        readFeatures(input, order::add);
+
+        int[] chunkOf = order.assignChunks(mOptions.getChunkSize());
+        int chunkCount = (order.size() + mOptions.getChunkSize() - 1) / mOptions.getChunkSize();
+        int[] remaining = new int[chunkCount];
+        for (int chunk : chunkOf) {
+            remaining[chunk]++;
+        }
+        chunks.addAll(Collections.nCopies(chunkCount, null));
+
+        // access ordered, so the writer of the chunk that was least recently written to is closed first
+        LinkedHashMap<Integer, Writer> writers = new LinkedHashMap<>(16, 0.75f, true);
+        int[] featureIndex = new int[1];
+        try {
+            readFeatures(input, feature -> {
+                int index = featureIndex[0]++;
+                int chunk = chunkOf[index];
+                Path file = chunkDirectory.resolve(String.format(Locale.ROOT, CHUNK_FILE_FORMAT, chunk));
+                Writer writer = writers.get(chunk);
+                if (writer == null) {
+                    if (writers.size() == MAX_OPEN_CHUNKS) {
+                        Iterator<Writer> eldest = writers.values().iterator();
+                        eldest.next().close();
+                        eldest.remove();
+                    }
+                    writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                            StandardOpenOption.APPEND);
+                    writers.put(chunk, writer);
+                }
+
+                // every line holds the input index of the feature, from which its default ID is created
+                writer.write(Integer.toString(index));
+                writer.write(' ');
+                mGson.toJson(feature, writer);
+                writer.write('\n');
+
+                if (--remaining[chunk] == 0) {
+                    writers.remove(chunk).close();
+                    chunks.set(chunk, submit(name, directory, chunk, file));
+                }
+            });
+        } finally {
+            for (Writer writer : writers.values()) {
+                writer.close();
+            }
+        }
+    }
+
+    /**
+     * Streams the features of the input to the given consumer.
+     *
+     * @throws IOException In case the input cannot be read or is not a GeoJSON {@code FeatureCollection}.
+     */
+    private static void readFeatures(Path input, FeatureConsumer consumer) throws IOException {
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(input, StandardCharsets.UTF_8))) {
+            JsonParser parser = new JsonParser();
+            boolean hasFeatures = false;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals("features")) {
+                    reader.skipValue();
+                    continue;
+                }
+
+                hasFeatures = true;
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    consumer.accept(parser.parse(reader).getAsJsonObject());
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+
+            if (!hasFeatures) {
+                throw new IOException(input + " is not a GeoJSON FeatureCollection");
+            }
+        } catch (IllegalStateException | JsonParseException e) {
+            throw new IOException(input + " is not a valid GeoJSON: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Submits a chunk of features to the workers, blocking while too many chunks are waiting for a worker.
+     */
+    private Future<ChunkResult> submit(String name, Path directory, int index, Path chunkFile)
+            throws InterruptedIOException {
+        try {
+            mPendingChunks.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while bundling " + name);
+        }
+
+        return mExecutor.submit(() -> {
+            try {
+                return writePart(name, directory, index, chunkFile);
+            } finally {
+                mPendingChunks.release();
+            }
+        });
+    }
+
+    /**
+     * Optimizes a chunk of features and writes it as a part of the bundle.
+     */
+    private ChunkResult writePart(String name, Path directory, int index, Path chunkFile) throws IOException {
+        List<JsonObject> optimized = new ArrayList<>();
+        Extent extent = new Extent();
+        int featureCount = 0;
+        JsonParser parser = new JsonParser();
+        try (BufferedReader reader = Files.newBufferedReader(chunkFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf(' ');
+                JsonObject feature = parser.parse(line.substring(separator + 1)).getAsJsonObject();
+                feature = mOptimizer.optimize(feature, name + "-" + line.substring(0, separator), extent);
+                if (feature != null) {
+                    optimized.add(feature);
+                }
+                featureCount++;
+            }
+        }
+        Files.delete(chunkFile);
+
+        int droppedCount = featureCount - optimized.size();
+        if (optimized.isEmpty()) {
+            return new ChunkResult(null, extent, droppedCount);
+        }
+
+        String file = String.format(Locale.ROOT, PART_FILE_FORMAT, index);
+        try (JsonWriter writer = new JsonWriter(
+                Files.newBufferedWriter(directory.resolve(file), StandardCharsets.UTF_8))) {
+            writer.beginObject();
+            writer.name("type").value("FeatureCollection");
+            writer.name("features").beginArray();
+            for (JsonObject feature : optimized) {
+                mGson.toJson(feature, writer);
+            }
+            writer.endArray();
+            writer.endObject();
+        }
+
+        BundleManifest.Part part = new BundleManifest.Part(file, optimized.size(), extent.toRectangle());
+        return new ChunkResult(part, extent, droppedCount);
+    }
+
+    /**
+     * Creates the bundle directory, or removes the parts of a previous bundle in case it exists.
+     */
+    private static void prepareDirectory(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> parts = Files.newDirectoryStream(directory, PART_FILE_GLOB)) {
+            for (Path part : parts) {
+                Files.delete(part);
+            }
+        }
+    }
+
+    /**
+     * Deletes a directory along with the files in it.
+     */
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private static ChunkResult await(Future<ChunkResult> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a bundle part");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to write a bundle part", cause);
+        }
+    }
+
+    private static String bundleName(Path input) {
+        String fileName = input.getFileName().toString();
+        int extension = fileName.lastIndexOf('.');
+
+        return extension > 0 ? fileName.substring(0, extension) : fileName;
+    }
+
+    /**
+     * Entry point of the {@code mapbundle} command line tool.
+     *
+     * @param args The command line arguments, see {@link BundleOptions#parse(String[])}.
+     */
+    public static void main(String[] args) {
+        BundleOptions options;
+        try {
+            options = BundleOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(BundleOptions.USAGE);
+            System.exit(EXIT_USAGE);
+            return;
+        }
+
+        if (options.isHelp()) {
+            System.out.print(BundleOptions.USAGE);
+            return;
+        }
+
+        try (LayerBundler bundler = new LayerBundler(options)) {
+            for (BundleManifest manifest : bundler.run()) {
+                System.out.printf(Locale.ROOT, "%s: %d features in %d parts (%d dropped)%n", manifest.getName(),
+                        manifest.getFeatureCount(), manifest.getParts().size(), manifest.getDroppedCount());
+            }
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(EXIT_FAILURE);
+        }
+    }
+
+    /**
+     * Receives the features of an input file as they are read.
+     */
+    private interface FeatureConsumer {
+        void accept(JsonObject feature) throws IOException;
+    }
+
+    /**
+     * The result of writing a single chunk of features.
+     */
+    private static class ChunkResult {
+        final BundleManifest.Part part;
+        final Extent extent;
+        final int droppedCount;
+
+        ChunkResult(BundleManifest.Part part, Extent extent, int droppedCount) {
+            this.part = part;
+            this.extent = extent;
+            this.droppedCount = droppedCount;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.github.dormesica.mapcontroller.cli;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.Arrays;
+
+/**
+ * Orders the features of a bundle by their location along a Hilbert curve, so features that are close to each other
+ * end up in the same part and every part covers a compact area.
+ * <p>
+ * Every feature is represented by the center of the bounds of its geometry. The extent of all the features is divided
+ * into a grid of {@code 2^15} by {@code 2^15} cells that is traversed by the curve; features in the same cell keep
+ * their input order, and features without a geometry are ordered last. Only the centers of the features are held, so
+ * the features themselves can be streamed.
+ */
+class SpatialOrder {
+
+    private static final int ORDER = 15;
+    private static final int SIDE = 1 << ORDER;
+    // greater than the index of every cell of the curve
+    private static final long NO_GEOMETRY = (long) SIDE * SIDE;
+
+    // the center of every feature, packed as longitude and latitude, NaN for features without a geometry
+    private double[] centers = new double[2 * 1024];
+    private int count;
+    private double north = Double.NEGATIVE_INFINITY;
+    private double south = Double.POSITIVE_INFINITY;
+    private double east = Double.NEGATIVE_INFINITY;
+    private double west = Double.POSITIVE_INFINITY;
+
+    /**
+     * Adds the next feature in the input order.
+     *
+     * @param feature A GeoJSON feature.
+     */
+    void add(@NonNull JsonObject feature) {
+        Extent extent = new Extent();
+        JsonElement geometry = feature.get("geometry");
+        if (geometry != null && geometry.isJsonObject()) {
+            addGeometry(geometry.getAsJsonObject(), extent);
+        }
+        Rectangle bounds = extent.toRectangle();
+
+        if (2 * count == centers.length) {
+            centers = Arrays.copyOf(centers, 2 * centers.length);
+        }
+        if (bounds == null) {
+            centers[2 * count] = Double.NaN;
+            centers[2 * count + 1] = Double.NaN;
+        } else {
+            double lon = (bounds.getWest() + bounds.getEast()) / 2;
+            double lat = (bounds.getSouth() + bounds.getNorth()) / 2;
+            centers[2 * count] = lon;
+            centers[2 * count + 1] = lat;
+            north = Math.max(north, lat);
+            south = Math.min(south, lat);
+            east = Math.max(east, lon);
+            west = Math.min(west, lon);
+        }
+        count++;
+    }
+
+    /**
+     * Returns the amount of features that were added.
+     *
+     * @return The amount of features.
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * Splits the features into chunks of consecutive features along the curve.
+     *
+     * @param chunkSize The amount of features in every chunk but the last.
+     * @return The chunk of every feature, by the input order of the features.
+     */
+    @NonNull
+    int[] assignChunks(int chunkSize) {
+        // the cell of every feature in the high bits, and its input index in the low bits
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = cellOf(centers[2 * i], centers[2 * i + 1]) << 32 | i;
+        }
+        Arrays.sort(keys);
+
+        int[] chunks = new int[count];
+        for (int rank = 0; rank < count; rank++) {
+            chunks[(int) keys[rank]] = rank / chunkSize;
+        }
+
+        return chunks;
+    }
+
+    private long cellOf(double lon, double lat) {
+        if (Double.isNaN(lon)) {
+            return NO_GEOMETRY;
+        }
+
+        return hilbertIndex(scale(lon, west, east), scale(lat, south, north));
+    }
+
+    private static int scale(double value, double min, double max) {
+        return max > min ? (int) ((value - min) / (max - min) * (SIDE - 1)) : 0;
+    }
+
+    /**
+     * Returns the distance along the Hilbert curve of the given cell of the grid.
+     */
+    private static long hilbertIndex(int x, int y) {
+        long index = 0;
+        for (int s = SIDE / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            index += (long) s * s * ((3 * rx) ^ ry);
+
+            // rotates the quadrant so the curve is continuous
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = SIDE - 1 - x;
+                    y = SIDE - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+
+        return index;
+    }
+
+    private static void addGeometry(JsonObject geometry, Extent extent) {
+        JsonElement geometries = geometry.get("geometries");
+        if (geometries != null && geometries.isJsonArray()) {
+            for (JsonElement child : geometries.getAsJsonArray()) {
+                if (child.isJsonObject()) {
+                    addGeometry(child.getAsJsonObject(), extent);
+                }
+            }
+        }
+
+        addCoordinates(geometry.get("coordinates"), extent);
+    }
+
+    /**
+     * Adds the positions of a GeoJSON coordinates array of any depth to the extent.
+     */
+    private static void addCoordinates(@Nullable JsonElement coordinates, Extent extent) {
+        if (coordinates == null || !coordinates.isJsonArray()) {
+            return;
+        }
+
+        JsonArray array = coordinates.getAsJsonArray();
+        if (array.size() >= 2 && isNumber(array.get(0)) && isNumber(array.get(1))) {
+            extent.add(array.get(0).getAsDouble(), array.get(1).getAsDouble());
+            return;
+        }
+
+        for (JsonElement element : array) {
+            addCoordinates(element, extent);
+        }
+    }
+
+    private static boolean isNumber(JsonElement element) {
+        return element.isJsonPrimitive() && element.getAsJsonPrimitive().isNumber();
+    }
+}
@@ -0,0 +1,149 @@
+package com.github.dormesica.mapcontroller;
+
+import com.github.dormesica.mapcontroller.cli.BundleManifest;
+import com.github.dormesica.mapcontroller.cli.BundleOptions;
+import com.github.dormesica.mapcontroller.cli.LayerBundler;
+import com.github.dormesica.mapcontroller.layers.GeoJsonLayerDescriptor;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+public class LayerBundlerTest {
+
+    private static final String POINT = "{\"type\":\"Feature\",\"properties\":{\"name\":\"p%s\",\"empty\":null},\"geometry\":{\"type\":\"Point\",\"coordinates\":[34.8154860734939%s,31.958445584725023]}}";
+    private static final String LINE = "{\"type\":\"Feature\",\"id\":\"line\",\"properties\":{},\"geometry\":{\"type\":\"LineString\",\"coordinates\":[[34.81553971,31.95843875],[34.81553972,31.95843876],[34.81603324,31.95905773]]}}";
+    private static final String LOCATED_POINT = "{\"type\":\"Feature\",\"properties\":{},\"geometry\":{\"type\":\"Point\",\"coordinates\":[%f,31.9]}}";
+    private static final String NO_GEOMETRY = "{\"type\":\"Feature\",\"properties\":{},\"geometry\":null}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void bundle() throws IOException {
+        StringBuilder features = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            features.append(String.format(POINT, i, i)).append(',');
+        }
+        features.append(LINE).append(',').append(NO_GEOMETRY);
+        Path input = write("points.geojson", "{\"type\":\"FeatureCollection\",\"features\":[" + features + "]}");
+        Path output = folder.newFolder("out").toPath();
+
+        BundleOptions options = new BundleOptions(output, Collections.singletonList(input), 5, 4, 3, null);
+        BundleManifest manifest;
+        try (LayerBundler bundler = new LayerBundler(options)) {
+            manifest = bundler.run().get(0);
+        }
+
+        Assert.assertEquals("points", manifest.getName());
+        Assert.assertEquals(11, manifest.getFeatureCount());
+        Assert.assertEquals(1, manifest.getDroppedCount());
+        Assert.assertEquals(3, manifest.getParts().size());
+        Assert.assertEquals(34.81549, manifest.getBounds().getWest(), 1e-9);
+        Assert.assertEquals(31.95906, manifest.getBounds().getNorth(), 1e-9);
+        Assert.assertTrue(Files.exists(output.resolve("points").resolve("manifest.json")));
+
+        JsonObject first = readPart(output, manifest.getParts().get(0));
+        Assert.assertEquals(4, first.getAsJsonArray("features").size());
+        JsonObject point = first.getAsJsonArray("features").get(1).getAsJsonObject();
+        Assert.assertEquals("points-1", point.get("id").getAsString());
+        Assert.assertFalse(point.getAsJsonObject("properties").has("empty"));
+        Assert.assertEquals(34.81549, point.getAsJsonObject("geometry").getAsJsonArray("coordinates").get(0)
+                .getAsDouble(), 0);
+
+        JsonObject last = readPart(output, manifest.getParts().get(2));
+        JsonObject line = last.getAsJsonArray("features").get(2).getAsJsonObject();
+        Assert.assertEquals("line", line.get("id").getAsString());
+        JsonArray path = line.getAsJsonObject("geometry").getAsJsonArray("coordinates");
+        Assert.assertEquals(2, path.size());
+
+        // parts are loadable as they are
+        GeoJsonLayerDescriptor.Builder.from(new String(Files.readAllBytes(
+                output.resolve("points").resolve(manifest.getParts().get(1).getFile())), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void bundleByLocation() throws IOException {
+        // the features of two distant areas are interleaved in the input
+        StringBuilder features = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            double lon = i % 2 == 0 ? 34.8 + i * 0.001 : 35.2 + i * 0.001;
+            features.append(i > 0 ? "," : "").append(String.format(Locale.ROOT, LOCATED_POINT, lon));
+        }
+        Path input = write("points.geojson", "{\"type\":\"FeatureCollection\",\"features\":[" + features + "]}");
+        Path output = folder.newFolder("out").toPath();
+
+        BundleOptions options = new BundleOptions(output, Collections.singletonList(input), 6, 4, 2, null);
+        BundleManifest manifest;
+        try (LayerBundler bundler = new LayerBundler(options)) {
+            manifest = bundler.run().get(0);
+        }
+
+        Assert.assertEquals(2, manifest.getParts().size());
+        Rectangle first = manifest.getParts().get(0).getBounds();
+        Rectangle second = manifest.getParts().get(1).getBounds();
+        Assert.assertFalse(first.intersects(second));
+        Assert.assertTrue(first.getEast() - first.getWest() < 0.01);
+        Assert.assertTrue(second.getEast() - second.getWest() < 0.01);
+
+        // features keep the IDs of their position in the input
+        JsonObject part = readPart(output, manifest.getParts().get(0));
+        String id = part.getAsJsonArray("features").get(0).getAsJsonObject().get("id").getAsString();
+        Assert.assertTrue(id.equals("points-0") || id.equals("points-1"));
+
+        // the temporary chunk files are deleted
+        try (Stream<Path> files = Files.list(output.resolve("points"))) {
+            Assert.assertTrue(files.noneMatch(Files::isDirectory));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void notFeatureCollection() throws IOException {
+        Path input = write("geometry.geojson", "{\"type\":\"Point\",\"coordinates\":[34.8,31.9]}");
+        BundleOptions options = new BundleOptions(folder.getRoot().toPath(), Collections.singletonList(input), 6,
+                10, 1, null);
+
+        try (LayerBundler bundler = new LayerBundler(options)) {
+            bundler.run();
+        }
+    }
+
+    @Test
+    public void parseOptions() {
+        BundleOptions options = BundleOptions.parse(new String[]{"-o", "out", "-p", "4", "--keep", "name,type",
+                "a.geojson", "b.geojson"});
+
+        Assert.assertEquals("out", options.getOutputDirectory().toString());
+        Assert.assertEquals(4, options.getPrecision());
+        Assert.assertEquals(2, options.getInputs().size());
+        Assert.assertEquals(2, options.getKeptProperties().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseOptionsWithoutOutput() {
+        BundleOptions.parse(new String[]{"a.geojson"});
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path file = folder.getRoot().toPath().resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static JsonObject readPart(Path output, BundleManifest.Part part) throws IOException {
+        byte[] content = Files.readAllBytes(output.resolve("points").resolve(part.getFile()));
+        return new JsonParser().parse(new String(content, StandardCharsets.UTF_8)).getAsJsonObject();
+    }
+}
@@ -3,6 +3,8 @@ package com.github.dormesica.mapcontroller;
 import android.os.Parcel;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 import com.github.dormesica.mapcontroller.graphics.Color;
+import com.github.dormesica.mapcontroller.parcel.ParcelableModel;
+import com.github.dormesica.mapcontroller.parcel.Parcels;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -19,10 +21,10 @@ public class ColorAndroidTest {
         Parcel parcel = Parcel.obtain();
 
         Color color = new Color(RED, GREEN, BLUE, ALPHA);
-        color.writeToParcel(parcel, color.describeContents());
+        Parcels.wrap(color).writeToParcel(parcel, 0);
 
         parcel.setDataPosition(0);
-        Color fromParcel = Color.CREATOR.createFromParcel(parcel);
+        Color fromParcel = Parcels.unwrap(ParcelableModel.CREATOR.createFromParcel(parcel));
 
         Assert.assertNotNull(fromParcel);
         Assert.assertEquals(RED, fromParcel.red());
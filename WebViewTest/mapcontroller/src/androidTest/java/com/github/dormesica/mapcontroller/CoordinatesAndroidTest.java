@@ -3,6 +3,8 @@ package com.github.dormesica.mapcontroller;
 import android.os.Parcel;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 import com.github.dormesica.mapcontroller.location.Coordinates;
+import com.github.dormesica.mapcontroller.parcel.ParcelableModel;
+import com.github.dormesica.mapcontroller.parcel.Parcels;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -18,10 +20,10 @@ public class CoordinatesAndroidTest {
         Parcel parcel = Parcel.obtain();
 
         Coordinates coordinates = new Coordinates(LON, LAT, ALT);
-        coordinates.writeToParcel(parcel, coordinates.describeContents());
+        Parcels.wrap(coordinates).writeToParcel(parcel, 0);
 
         parcel.setDataPosition(0);
-        Coordinates fromParcel = Coordinates.CREATOR.createFromParcel(parcel);
+        Coordinates fromParcel = Parcels.unwrap(ParcelableModel.CREATOR.createFromParcel(parcel));
 
         Assert.assertNotNull(fromParcel);
         Assert.assertEquals(LON, fromParcel.getLon(), 0.001);
@@ -0,0 +1,78 @@
+package com.github.dormesica.mapcontroller;
+
+import android.content.Context;
+import android.os.SystemClock;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import com.github.dormesica.mapcontroller.layers.GeoJsonLayerDescriptor;
+import com.github.dormesica.mapcontroller.layers.VectorLayer;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@RunWith(AndroidJUnit4.class)
+public class MapWebViewPoolAndroidTest {
+
+    private static final long TIMEOUT = 60_000;
+    private static final String GEO_JSON = "{\"type\":\"FeatureCollection\",\"features\":[{\"type\":\"Feature\",\"id\":\"a\",\"properties\":{},\"geometry\":{\"type\":\"Point\",\"coordinates\":[34.8,31.9]}}]}";
+    private static final String SCRIPT_LAYER_COUNT = MapView.JS_MAP_NAME + "._viewer.dataSources.length + " +
+            MapView.JS_MAP_NAME + "._featuresMap.size";
+
+    @Test
+    public void reacquiredMapHasNoLayers() throws InterruptedException {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        AtomicReference<MapView> mapView = new AtomicReference<>();
+        runOnMainSync(() -> mapView.set(new MapView(context)));
+        awaitInitialized(mapView.get());
+
+        CountDownLatch loaded = new CountDownLatch(1);
+        AtomicReference<VectorLayer> layer = new AtomicReference<>();
+        runOnMainSync(() -> mapView.get().load(GeoJsonLayerDescriptor.Builder.from(GEO_JSON).build(), result -> {
+            layer.set(result);
+            loaded.countDown();
+        }));
+        Assert.assertTrue(loaded.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        Assert.assertNotNull(layer.get());
+        Assert.assertEquals("2", evaluate(mapView.get()));
+
+        // the recycled map is reset and is taken by the next view
+        MapWebView recycled = (MapWebView) mapView.get().getChildAt(0);
+        runOnMainSync(() -> {
+            mapView.get().recycle();
+            mapView.set(new MapView(context));
+        });
+        Assert.assertSame(recycled, mapView.get().getChildAt(0));
+        awaitInitialized(mapView.get());
+
+        Assert.assertEquals("0", evaluate(mapView.get()));
+        runOnMainSync(() -> mapView.get().recycle());
+    }
+
+    private static void awaitInitialized(MapView mapView) {
+        long deadline = SystemClock.uptimeMillis() + TIMEOUT;
+        while (!mapView.isInitialized()) {
+            Assert.assertTrue("The map was not initialized", SystemClock.uptimeMillis() < deadline);
+            SystemClock.sleep(100);
+        }
+    }
+
+    private static String evaluate(MapView mapView) throws InterruptedException {
+        CountDownLatch evaluated = new CountDownLatch(1);
+        AtomicReference<String> result = new AtomicReference<>();
+        runOnMainSync(() -> ((MapWebView) mapView.getChildAt(0)).evaluateJavascript(SCRIPT_LAYER_COUNT, value -> {
+            result.set(value);
+            evaluated.countDown();
+        }));
+        Assert.assertTrue(evaluated.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        return result.get();
+    }
+
+    private static void runOnMainSync(Runnable runnable) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(runnable);
+    }
+}
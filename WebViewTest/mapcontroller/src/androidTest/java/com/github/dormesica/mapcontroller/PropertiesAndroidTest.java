@@ -3,6 +3,8 @@ package com.github.dormesica.mapcontroller;
 import android.os.Parcel;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 import com.github.dormesica.mapcontroller.layers.Properties;
+import com.github.dormesica.mapcontroller.parcel.ParcelableModel;
+import com.github.dormesica.mapcontroller.parcel.Parcels;
 import com.github.dormesica.mapcontroller.util.JsonConverter;
 import com.google.gson.JsonElement;
 import org.junit.Assert;
@@ -25,10 +27,10 @@ public class PropertiesAndroidTest {
         Parcel parcel = Parcel.obtain();
 
         Properties properties = JsonConverter.getConverter().fromJson(JSON_STRING, Properties.class);
-        properties.writeToParcel(parcel, properties.describeContents());
+        Parcels.wrap(properties).writeToParcel(parcel, 0);
 
         parcel.setDataPosition(0);
-        Properties fromParcel = Properties.CREATOR.createFromParcel(parcel);
+        Properties fromParcel = Parcels.unwrap(ParcelableModel.CREATOR.createFromParcel(parcel));
 
         Assert.assertNotNull(fromParcel);
         Set<String> keys = properties.keySet();
@@ -3,6 +3,8 @@ package com.github.dormesica.mapcontroller;
 import android.os.Parcel;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.github.dormesica.mapcontroller.parcel.ParcelableModel;
+import com.github.dormesica.mapcontroller.parcel.Parcels;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -21,10 +23,10 @@ public class RectangleAndroidTest {
         Parcel parcel = Parcel.obtain();
 
         Rectangle rectangle = new Rectangle(NORTH, WEST, SOUTH, EAST);
-        rectangle.writeToParcel(parcel, rectangle.describeContents());
+        Parcels.wrap(rectangle).writeToParcel(parcel, 0);
 
         parcel.setDataPosition(0);
-        Rectangle fromParcel = Rectangle.CREATOR.createFromParcel(parcel);
+        Rectangle fromParcel = Parcels.unwrap(ParcelableModel.CREATOR.createFromParcel(parcel));
 
         Assert.assertNotNull(fromParcel);
         Assert.assertEquals(NORTH, fromParcel.getNorth(), TOLERANCE);
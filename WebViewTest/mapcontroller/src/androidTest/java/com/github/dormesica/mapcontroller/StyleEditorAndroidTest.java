@@ -6,6 +6,8 @@ import com.github.dormesica.mapcontroller.layers.Entity;
 import com.github.dormesica.mapcontroller.layers.Line;
 import com.github.dormesica.mapcontroller.layers.Point;
 import com.github.dormesica.mapcontroller.layers.Polygon;
+import com.github.dormesica.mapcontroller.parcel.ParcelableModel;
+import com.github.dormesica.mapcontroller.parcel.Parcels;
 import com.github.dormesica.mapcontroller.util.JsonConverter;
 import com.google.gson.Gson;
 import org.junit.Assert;
@@ -30,10 +32,10 @@ public class StyleEditorAndroidTest {
         Point point = converter.fromJson(pointString, Point.class);
         Point.Editor pointEditor = point.edit()
                 .setMarker(new URL("http://www.google.com"));
-        pointEditor.writeToParcel(parcel, pointEditor.describeContents());
+        Parcels.wrap(pointEditor).writeToParcel(parcel, 0);
 
         parcel.setDataPosition(0);
-        Entity.Editor fromParcel = Point.Editor.CREATOR.createFromParcel(parcel);
+        Entity.Editor fromParcel = Parcels.unwrap(ParcelableModel.CREATOR.createFromParcel(parcel));
 
         Assert.assertNotNull(fromParcel);
         Assert.assertEquals(converter.toJsonTree(pointEditor), converter.toJsonTree(fromParcel));
@@ -44,10 +46,10 @@ public class StyleEditorAndroidTest {
         Line line = converter.fromJson(lineString, Line.class);
         Line.Editor lineEditor = line.edit()
                 .setWidth(5);
-        lineEditor.writeToParcel(parcel, line.describeContents());
+        Parcels.wrap(lineEditor).writeToParcel(parcel, 0);
 
         parcel.setDataPosition(0);
-        fromParcel = Line.Editor.CREATOR.createFromParcel(parcel);
+        fromParcel = Parcels.unwrap(ParcelableModel.CREATOR.createFromParcel(parcel));
 
         Assert.assertNotNull(fromParcel);
         Assert.assertEquals(converter.toJsonTree(lineEditor), converter.toJsonTree(fromParcel));
@@ -59,10 +61,10 @@ public class StyleEditorAndroidTest {
         Polygon.Editor polygonEditor = polygon.edit()
                 .hasFill(false)
                 .setHeight(5.5);
-        polygonEditor.writeToParcel(parcel, polygon.describeContents());
+        Parcels.wrap(polygonEditor).writeToParcel(parcel, 0);
 
         parcel.setDataPosition(0);
-        fromParcel = Polygon.Editor.CREATOR.createFromParcel(parcel);
+        fromParcel = Parcels.unwrap(ParcelableModel.CREATOR.createFromParcel(parcel));
 
         Assert.assertNotNull(fromParcel);
         Assert.assertEquals(converter.toJsonTree(polygonEditor), converter.toJsonTree(fromParcel));
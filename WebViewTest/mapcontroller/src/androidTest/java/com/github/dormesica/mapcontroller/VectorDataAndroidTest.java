@@ -7,6 +7,8 @@ import com.github.dormesica.mapcontroller.layers.Point;
 import com.github.dormesica.mapcontroller.layers.Polygon;
 import com.github.dormesica.mapcontroller.layers.VectorLayer;
 import com.github.dormesica.mapcontroller.location.Coordinates;
+import com.github.dormesica.mapcontroller.parcel.ParcelableModel;
+import com.github.dormesica.mapcontroller.parcel.Parcels;
 import com.github.dormesica.mapcontroller.util.JsonConverter;
 import org.junit.Assert;
 import org.junit.Test;
@@ -21,10 +23,10 @@ public class VectorDataAndroidTest {
         Parcel parcel = Parcel.obtain();
 
         Point point = JsonConverter.getConverter().fromJson(pointString, Point.class);
-        point.writeToParcel(parcel, point.describeContents());
+        Parcels.wrap(point).writeToParcel(parcel, 0);
 
         parcel.setDataPosition(0);
-        Point fromParcel = Point.CREATOR.createFromParcel(parcel);
+        Point fromParcel = Parcels.unwrap(ParcelableModel.CREATOR.createFromParcel(parcel));
 
         Assert.assertNotNull(fromParcel);
         Assert.assertEquals("1031744e-2a0a-4538-8230-b15f4bcdfeb0", fromParcel.getId());
@@ -46,10 +48,10 @@ public class VectorDataAndroidTest {
         Parcel parcel = Parcel.obtain();
 
         Line line = JsonConverter.getConverter().fromJson(lineString, Line.class);
-        line.writeToParcel(parcel, line.describeContents());
+        Parcels.wrap(line).writeToParcel(parcel, 0);
 
         parcel.setDataPosition(0);
-        Line fromParcel = Line.CREATOR.createFromParcel(parcel);
+        Line fromParcel = Parcels.unwrap(ParcelableModel.CREATOR.createFromParcel(parcel));
 
         Assert.assertEquals("1ab57c41-ad10-4067-afd2-7f66ff348802", fromParcel.getId());
         Assert.assertNull(fromParcel.getName());
@@ -66,10 +68,10 @@ public class VectorDataAndroidTest {
         Parcel parcel = Parcel.obtain();
 
         Polygon polygon = JsonConverter.getConverter().fromJson(polygonString, Polygon.class);
-        polygon.writeToParcel(parcel, polygon.describeContents());
+        Parcels.wrap(polygon).writeToParcel(parcel, 0);
 
         parcel.setDataPosition(0);
-        Polygon fromParcel = Polygon.CREATOR.createFromParcel(parcel);
+        Polygon fromParcel = Parcels.unwrap(ParcelableModel.CREATOR.createFromParcel(parcel));
 
         // TODO complete
     }
@@ -80,10 +82,10 @@ public class VectorDataAndroidTest {
         Parcel parcel = Parcel.obtain();
 
         VectorLayer layer = JsonConverter.getConverter().fromJson(layerString, VectorLayer.class);
-        layer.writeToParcel(parcel, layer.describeContents());
+        Parcels.wrap(layer).writeToParcel(parcel, 0);
 
         parcel.setDataPosition(0);
-        VectorLayer fromParcel = VectorLayer.CREATOR.createFromParcel(parcel);
+        VectorLayer fromParcel = Parcels.unwrap(ParcelableModel.CREATOR.createFromParcel(parcel));
 
         Assert.assertEquals(layer.getId(), fromParcel.getId());
 
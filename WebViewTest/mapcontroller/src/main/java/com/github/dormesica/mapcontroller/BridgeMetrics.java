@@ -0,0 +1,248 @@
+package com.github.dormesica.mapcontroller;
+
+import android.os.Trace;
+import android.webkit.ValueCallback;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.github.dormesica.mapcontroller.util.LatencyHistogram;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of the bridge between a {@link MapView} and its map.
+ * <p>
+ * Every script that is sent to the map and every message the map sends back are counted, with the size of their
+ * payload. The latency of every operation is recorded in a {@link LatencyHistogram}: from the time an operation is
+ * sent until its result is received for operations like {@code load}, {@code remove} and {@code getViewExtent}, and
+ * from the time an event of the map is posted until it is delivered on the main thread for the {@code event.*}
+ * operations. All the metrics are recorded without locking.
+ * <p>
+ * When {@link #setTracingEnabled(boolean) tracing is enabled}, the dispatch of every script and the handling of every
+ * result and event are also emitted as {@link Trace} sections named {@code MapView.<operation>}, which appear in
+ * systrace and Perfetto traces.
+ *
+ * @since 1.0.0
+ */
+public final class BridgeMetrics {
+
+    private static final String TRACE_PREFIX = "MapView.";
+
+    private final ConcurrentHashMap<String, LatencyHistogram> mLatencies = new ConcurrentHashMap<>();
+    private final AtomicLong mMessagesToMap = new AtomicLong();
+    private final AtomicLong mBytesToMap = new AtomicLong();
+    private final AtomicLong mMessagesFromMap = new AtomicLong();
+    private final AtomicLong mBytesFromMap = new AtomicLong();
+    private volatile boolean mIsTracingEnabled;
+
+    BridgeMetrics() {
+    }
+
+    /**
+     * Returns the operations whose latency has been recorded.
+     *
+     * @return An unmodifiable view of the names of the operations.
+     */
+    @NonNull
+    public Set<String> getOperations() {
+        return Collections.unmodifiableSet(mLatencies.keySet());
+    }
+
+    /**
+     * Returns the latencies of an operation.
+     *
+     * @param operation The name of the operation, e.g. {@code load}.
+     * @return The histogram of the latencies of the operation, or {@code null} if none was recorded.
+     */
+    @Nullable
+    public LatencyHistogram getLatency(@NonNull String operation) {
+        return mLatencies.get(operation);
+    }
+
+    /**
+     * Returns the amount of scripts that were sent to the map.
+     *
+     * @return The amount of scripts.
+     */
+    public long getMessagesToMap() {
+        return mMessagesToMap.get();
+    }
+
+    /**
+     * Returns the total size of the scripts that were sent to the map.
+     *
+     * @return The size of the scripts in bytes, counting two bytes per character.
+     */
+    public long getBytesToMap() {
+        return mBytesToMap.get();
+    }
+
+    /**
+     * Returns the amount of results and events that the map sent.
+     *
+     * @return The amount of messages.
+     */
+    public long getMessagesFromMap() {
+        return mMessagesFromMap.get();
+    }
+
+    /**
+     * Returns the total size of the results and events that the map sent.
+     *
+     * @return The size of the messages in bytes, counting two bytes per character.
+     */
+    public long getBytesFromMap() {
+        return mBytesFromMap.get();
+    }
+
+    /**
+     * Returns whether the bridge emits {@link Trace} sections.
+     *
+     * @return {@code true} if tracing is enabled, otherwise {@code false}.
+     */
+    public boolean isTracingEnabled() {
+        return mIsTracingEnabled;
+    }
+
+    /**
+     * Sets whether the bridge emits {@link Trace} sections for systrace and Perfetto. Defaults to {@code false}.
+     *
+     * @param isTracingEnabled {@code true} to emit trace sections.
+     */
+    public void setTracingEnabled(boolean isTracingEnabled) {
+        mIsTracingEnabled = isTracingEnabled;
+    }
+
+    /**
+     * Removes all the recorded metrics.
+     */
+    public void reset() {
+        mLatencies.clear();
+        mMessagesToMap.set(0);
+        mBytesToMap.set(0);
+        mMessagesFromMap.set(0);
+        mBytesFromMap.set(0);
+    }
+
+    /**
+     * Evaluates a script in the given web view, counting it and tracing its dispatch.
+     *
+     * @param webView  The web view of the map.
+     * @param script   The script.
+     * @param callback The callback of the script, or {@code null}.
+     */
+    void dispatch(@NonNull MapWebView webView, @NonNull String script, @Nullable ValueCallback<String> callback) {
+        mMessagesToMap.incrementAndGet();
+        mBytesToMap.addAndGet(2L * script.length());
+
+        boolean isTraced = beginSection("dispatch");
+        try {
+            webView.evaluateJavascript(script, callback);
+        } finally {
+            endSection(isTraced);
+        }
+    }
+
+    /**
+     * Wraps the callback of an operation, so the latency from now until every time it is invoked is recorded, along
+     * with the size of the results.
+     *
+     * @param operation The name of the operation.
+     * @param callback  The callback of the operation.
+     * @return The callback to send to the map.
+     */
+    @NonNull
+    ValueCallback<String> time(@NonNull String operation, @NonNull ValueCallback<String> callback) {
+        long start = System.nanoTime();
+        return value -> {
+            record(operation, System.nanoTime() - start);
+            receive(operation, value, callback);
+        };
+    }
+
+    /**
+     * Wraps a callback that the map invokes repeatedly, e.g. whenever its view changes, so the size of its values is
+     * recorded.
+     *
+     * @param operation The name of the operation.
+     * @param callback  The callback.
+     * @return The callback to send to the map.
+     */
+    @NonNull
+    ValueCallback<String> count(@NonNull String operation, @NonNull ValueCallback<String> callback) {
+        return value -> receive(operation, value, callback);
+    }
+
+    /**
+     * Wraps the delivery of an event of the map on the main thread, so the time it waits in the queue of the main
+     * looper is recorded as the latency of {@code event.<name>}.
+     *
+     * @param event   The name of the event.
+     * @param payload The payload of the event, or {@code null}.
+     * @param handler The handling of the event.
+     * @return The runnable to post to the main thread.
+     */
+    @NonNull
+    Runnable event(@NonNull String event, @Nullable String payload, @NonNull Runnable handler) {
+        receive(payload);
+
+        String operation = "event." + event;
+        long start = System.nanoTime();
+        return () -> {
+            record(operation, System.nanoTime() - start);
+
+            boolean isTraced = beginSection(operation);
+            try {
+                handler.run();
+            } finally {
+                endSection(isTraced);
+            }
+        };
+    }
+
+    /**
+     * Counts a message the map sent, which is handled on the thread it was received on.
+     *
+     * @param payload The payload of the message, or {@code null}.
+     */
+    void receive(@Nullable String payload) {
+        mMessagesFromMap.incrementAndGet();
+        mBytesFromMap.addAndGet(payload != null ? 2L * payload.length() : 0);
+    }
+
+    private void receive(String operation, String value, ValueCallback<String> callback) {
+        receive(value);
+
+        boolean isTraced = beginSection(operation);
+        try {
+            callback.onReceiveValue(value);
+        } finally {
+            endSection(isTraced);
+        }
+    }
+
+    private void record(String operation, long nanos) {
+        LatencyHistogram histogram = mLatencies.get(operation);
+        if (histogram == null) {
+            histogram = mLatencies.computeIfAbsent(operation, key -> new LatencyHistogram());
+        }
+        histogram.record(nanos);
+    }
+
+    private boolean beginSection(String operation) {
+        boolean isTraced = mIsTracingEnabled;
+        if (isTraced) {
+            Trace.beginSection(TRACE_PREFIX + operation);
+        }
+        return isTraced;
+    }
+
+    private static void endSection(boolean isTraced) {
+        // sections must be ended on the thread that began them, even if tracing was disabled in between
+        if (isTraced) {
+            Trace.endSection();
+        }
+    }
+}
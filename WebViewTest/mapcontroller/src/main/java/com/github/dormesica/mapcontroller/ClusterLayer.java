@@ -0,0 +1,143 @@
+package com.github.dormesica.mapcontroller;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.github.dormesica.mapcontroller.cluster.ClusterIndex;
+import com.github.dormesica.mapcontroller.layers.ClusterLayerDescriptor;
+import com.github.dormesica.mapcontroller.layers.Layer;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.github.dormesica.mapcontroller.util.CallbackSync;
+import com.github.dormesica.mapcontroller.util.JsonConverter;
+import com.google.gson.Gson;
+
+/**
+ * This class represents a layer of clustered points that has been loaded on to a {@link MapView}.
+ * <p>
+ * The map reports every change of its view to the layer, which queries the clusters in the view from its
+ * {@link ClusterIndex} and sends only them back to the map. The points themselves are never sent to the map, so the
+ * cost of rendering the layer depends on the amount of clusters in the view rather than on the amount of points. The
+ * content of a cluster is available from the index of the layer.
+ * <p>
+ * Cluster layers are created using {@link MapView#load(ClusterLayerDescriptor, android.webkit.ValueCallback)}.
+ *
+ * @since 1.0.0
+ */
+public class ClusterLayer extends Layer {
+
+    /**
+     * Script format for watching the view of the map.
+     * First string is the layer ID, second is the callback ID to publish the view to.
+     */
+    private static final String SCRIPT_WATCH_VIEW =
+            MapView.JS_MAP_NAME + "." + MapView.JS_CLUSTER_LAYER_MANAGER + ".watchView(\"%s\", \"%s\");";
+    /**
+     * Script format for rendering clusters.
+     * First string is the layer ID, second is the packed clusters.
+     */
+    private static final String SCRIPT_RENDER =
+            MapView.JS_MAP_NAME + "." + MapView.JS_CLUSTER_LAYER_MANAGER + ".render(\"%s\", [%s]);";
+
+    private static final Gson sJsonConverter = JsonConverter.getConverter();
+
+    private final MapView mMapView;
+    private final Handler mHandler;
+    private final ClusterIndex mIndex;
+    private final String mViewCallbackId;
+
+    // accessed only on the JavaScript bridge thread, on which views are reported
+    private double[] mClusters = new double[ClusterIndex.PACKED_STRIDE * 256];
+
+    private volatile Rectangle mExtent;
+    private volatile double mZoom;
+
+    /**
+     * Creates a new {@code ClusterLayer} for a layer that was added to the map, and starts watching the view of the
+     * map. Must be called on the main thread.
+     *
+     * @param mapView    The map the layer was added to.
+     * @param id         The ID of the layer.
+     * @param descriptor The descriptor the layer was created from.
+     */
+    ClusterLayer(@NonNull MapView mapView, @NonNull String id, @NonNull ClusterLayerDescriptor descriptor) {
+        super(id);
+
+        mMapView = mapView;
+        mHandler = new Handler(Looper.getMainLooper());
+        mIndex = descriptor.getIndex();
+        mViewCallbackId = CallbackSync.getInstance()
+                .register(mapView.getBridgeMetrics().count("clusterView", this::onViewChanged));
+
+        mMapView.evaluateJavascript(String.format(SCRIPT_WATCH_VIEW, id, mViewCallbackId));
+    }
+
+    /**
+     * Returns the index whose clusters are displayed by the layer.
+     *
+     * @return The cluster index of the layer.
+     */
+    @NonNull
+    public ClusterIndex getIndex() {
+        return mIndex;
+    }
+
+    /**
+     * Returns the extent of the view whose clusters were last displayed.
+     *
+     * @return The extent of the view, or {@code null} if no clusters were displayed yet.
+     */
+    @Nullable
+    public Rectangle getExtent() {
+        return mExtent;
+    }
+
+    /**
+     * Returns the zoom level of the view whose clusters were last displayed.
+     *
+     * @return The zoom level of the view.
+     * @see ClusterIndex#getClusters(Rectangle, double)
+     */
+    public double getZoom() {
+        return mZoom;
+    }
+
+    /**
+     * Stops watching the view of the map, after the layer is removed from it.
+     */
+    void detach() {
+        CallbackSync.getInstance().unregister(mViewCallbackId);
+    }
+
+    private void onViewChanged(String viewJsonString) {
+        ViewDescriptor view = sJsonConverter.fromJson(viewJsonString, ViewDescriptor.class);
+        double zoom = mIndex.getZoom(view.height, view.latitude, view.fieldOfView, view.viewportHeight);
+
+        int count = mIndex.getClusters(view.extent, zoom, mClusters);
+        if (ClusterIndex.PACKED_STRIDE * count > mClusters.length) {
+            mClusters = new double[ClusterIndex.PACKED_STRIDE * count];
+            mIndex.getClusters(view.extent, zoom, mClusters);
+        }
+        mExtent = view.extent;
+        mZoom = zoom;
+
+        String script = String.format(SCRIPT_RENDER, getId(), packClusters(mClusters, count));
+        // only the latest clusters are rendered when the map resumes
+        mHandler.post(() -> mMapView.evaluateJavascript(script, this));
+    }
+
+    private static String packClusters(double[] clusters, int count) {
+        StringBuilder packed = new StringBuilder(count * 40);
+        for (int i = 0; i < ClusterIndex.PACKED_STRIDE * count; i += ClusterIndex.PACKED_STRIDE) {
+            if (i > 0) {
+                packed.append(',');
+            }
+            packed.append((int) clusters[i]).append(',')
+                    .append(clusters[i + 1]).append(',')
+                    .append(clusters[i + 2]).append(',')
+                    .append((int) clusters[i + 3]);
+        }
+
+        return packed.toString();
+    }
+}
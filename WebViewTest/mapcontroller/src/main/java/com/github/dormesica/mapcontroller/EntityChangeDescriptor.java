@@ -0,0 +1,11 @@
+package com.github.dormesica.mapcontroller;
+
+/**
+ * Internal class the describes the JSON received from the {@link MapView} for an entity whose visibility was changed
+ * on the map.
+ */
+class EntityChangeDescriptor {
+
+    String id;
+    boolean isVisible;
+}
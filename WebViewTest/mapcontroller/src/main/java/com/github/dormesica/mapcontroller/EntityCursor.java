@@ -0,0 +1,90 @@
+package com.github.dormesica.mapcontroller;
+
+import android.webkit.ValueCallback;
+import androidx.annotation.NonNull;
+import com.github.dormesica.mapcontroller.layers.Entity;
+import com.github.dormesica.mapcontroller.layers.VectorLayer;
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A cursor that pages through the entities of a {@link VectorLayer} and fetches the content of stubs from the map.
+ * <p>
+ * Pages are returned in the order of the entities in the layer. Entities that are not stubs are returned as they are,
+ * while stubs are completed in place before the page is passed to the callback. A cursor is obtained using
+ * {@link MapView#openCursor(VectorLayer, int)}.
+ * <p>
+ * The cursor pages through the entities the layer had when the cursor was opened, so the layer can be updated while it
+ * is paged through. Entities that are added afterwards are not returned, and entities that are removed afterwards are
+ * left out of their page, which may therefore hold less than the page size.
+ *
+ * @since 1.0.0
+ */
+public class EntityCursor {
+
+    private final MapView mMapView;
+    // removing entities reorders the layer, so the cursor pages through a snapshot of it
+    private final Entity[] mEntities;
+    private final int mPageSize;
+    private int mPosition;
+
+    /**
+     * Creates a new {@code EntityCursor} positioned at the first entity of the layer.
+     *
+     * @param mapView  The map onto which the layer is loaded.
+     * @param layer    The layer to page through.
+     * @param pageSize The maximal amount of entities in each page.
+     */
+    EntityCursor(MapView mapView, VectorLayer layer, int pageSize) {
+        mMapView = mapView;
+        mEntities = new Entity[layer.size()];
+        for (int i = 0; i < mEntities.length; i++) {
+            mEntities[i] = layer.get(i);
+        }
+        mPageSize = pageSize;
+        mPosition = 0;
+    }
+
+    /**
+     * Returns whether there are more entities to page through.
+     *
+     * @return {@code true} if there are more entities, otherwise {@code false}.
+     */
+    public boolean hasNext() {
+        return mPosition < mEntities.length;
+    }
+
+    /**
+     * Returns the index of the first entity of the next page among the entities the layer had when the cursor was
+     * opened.
+     *
+     * @return The position of the cursor.
+     */
+    public int getPosition() {
+        return mPosition;
+    }
+
+    /**
+     * Asynchronously fetches the next page of entities and advances the cursor. <code>callback</code> is invoked on
+     * the main thread with the complete entities of the page.
+     *
+     * @param callback Called when the content of the page has been fetched.
+     * @throws IllegalStateException In case there are no more entities.
+     */
+    public void next(@NonNull ValueCallback<List<Entity>> callback) throws IllegalStateException {
+        Preconditions.checkState(hasNext(), "The cursor has reached the end of the layer.");
+
+        int end = Math.min(mPosition + mPageSize, mEntities.length);
+        List<Entity> page = new ArrayList<>(end - mPosition);
+        for (int i = mPosition; i < end; i++) {
+            if (mMapView.containsEntity(mEntities[i])) {
+                page.add(mEntities[i]);
+            }
+        }
+        mPosition = end;
+
+        mMapView.fetch(page, callback);
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.dormesica.mapcontroller;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import com.github.dormesica.mapcontroller.cluster.GridAggregator;
+import com.github.dormesica.mapcontroller.layers.HeatmapLayerDescriptor;
+import com.github.dormesica.mapcontroller.layers.Layer;
+import com.github.dormesica.mapcontroller.util.CallbackSync;
+import com.github.dormesica.mapcontroller.util.JsonConverter;
+import com.google.gson.Gson;
+
+/**
+ * This class represents a layer of aggregated points that has been loaded on to a {@link MapView}.
+ * <p>
+ * The map reports every change of its view to the layer, which queries the cells in the view from its
+ * {@link GridAggregator} and sends only them back to the map. The points themselves are never sent to the map, so the
+ * cost of rendering the layer depends on the amount of cells in the view rather than on the amount of points.
+ * <p>
+ * Points may be added, moved or removed through the aggregator of the layer at any time, after which
+ * {@link #refresh()} displays the updated cells.
+ * <p>
+ * Heatmap layers are created using {@link MapView#load(HeatmapLayerDescriptor, android.webkit.ValueCallback)}.
+ *
+ * @since 1.0.0
+ */
+public class HeatmapLayer extends Layer {
+
+    /**
+     * Script format for watching the view of the map.
+     * First string is the layer ID, second is the callback ID to publish the view to.
+     */
+    private static final String SCRIPT_WATCH_VIEW =
+            MapView.JS_MAP_NAME + "." + MapView.JS_HEATMAP_LAYER_MANAGER + ".watchView(\"%s\", \"%s\");";
+    /**
+     * Script format for rendering cells.
+     * First string is the layer ID, followed by the lattice, the cell size, the maximal weight and the packed cells.
+     */
+    private static final String SCRIPT_RENDER =
+            MapView.JS_MAP_NAME + "." + MapView.JS_HEATMAP_LAYER_MANAGER + ".render(\"%s\", %d, %s, %s, [%s]);";
+
+    private static final Gson sJsonConverter = JsonConverter.getConverter();
+
+    private final MapView mMapView;
+    private final Handler mHandler;
+    private final GridAggregator mAggregator;
+    private final String mViewCallbackId;
+
+    // guarded by this, as views are reported on the JavaScript bridge thread and refreshes may come from any thread
+    private double[] mCells = new double[GridAggregator.PACKED_STRIDE * 256];
+    private ViewDescriptor mView;
+
+    /**
+     * Creates a new {@code HeatmapLayer} for a layer that was added to the map, and starts watching the view of the
+     * map. Must be called on the main thread.
+     *
+     * @param mapView    The map the layer was added to.
+     * @param id         The ID of the layer.
+     * @param descriptor The descriptor the layer was created from.
+     */
+    HeatmapLayer(@NonNull MapView mapView, @NonNull String id, @NonNull HeatmapLayerDescriptor descriptor) {
+        super(id);
+
+        mMapView = mapView;
+        mHandler = new Handler(Looper.getMainLooper());
+        mAggregator = descriptor.getAggregator();
+        mViewCallbackId = CallbackSync.getInstance()
+                .register(mapView.getBridgeMetrics().count("heatmapView", this::onViewChanged));
+
+        mMapView.evaluateJavascript(String.format(SCRIPT_WATCH_VIEW, id, mViewCallbackId));
+    }
+
+    /**
+     * Returns the aggregator whose cells are displayed by the layer.
+     *
+     * @return The aggregator of the layer.
+     */
+    @NonNull
+    public GridAggregator getAggregator() {
+        return mAggregator;
+    }
+
+    /**
+     * Displays the cells of the current view of the map again, after points of the aggregator of the layer have
+     * changed. Can be called from any thread, on which the cells are queried.
+     */
+    public synchronized void refresh() {
+        if (mView != null) {
+            render(mView);
+        }
+    }
+
+    /**
+     * Stops watching the view of the map, after the layer is removed from it.
+     */
+    void detach() {
+        CallbackSync.getInstance().unregister(mViewCallbackId);
+    }
+
+    private void onViewChanged(String viewJsonString) {
+        render(sJsonConverter.fromJson(viewJsonString, ViewDescriptor.class));
+    }
+
+    private synchronized void render(ViewDescriptor view) {
+        mView = view;
+
+        double zoom = mAggregator.getZoom(view.height, view.latitude, view.fieldOfView, view.viewportHeight);
+        int count = mAggregator.getCells(view.extent, zoom, mCells);
+        if (GridAggregator.PACKED_STRIDE * count > mCells.length) {
+            mCells = new double[GridAggregator.PACKED_STRIDE * count];
+            // points may have been added in between
+            count = Math.min(mAggregator.getCells(view.extent, zoom, mCells), count);
+        }
+
+        double maxWeight = 0;
+        StringBuilder packed = new StringBuilder(count * 40);
+        for (int i = 0; i < GridAggregator.PACKED_STRIDE * count; i += GridAggregator.PACKED_STRIDE) {
+            if (i > 0) {
+                packed.append(',');
+            }
+            // only the center and weight of the cells are displayed
+            packed.append(mCells[i]).append(',')
+                    .append(mCells[i + 1]).append(',')
+                    .append(mCells[i + 3]);
+            maxWeight = Math.max(maxWeight, mCells[i + 3]);
+        }
+
+        String script = String.format(SCRIPT_RENDER, getId(), mAggregator.getLattice(),
+                mAggregator.getCellSize(zoom), maxWeight, packed);
+        // only the latest cells are rendered when the map resumes
+        mHandler.post(() -> mMapView.evaluateJavascript(script, this));
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.dormesica.mapcontroller;
+
+import com.github.dormesica.mapcontroller.layers.VectorLayer;
+
+/**
+ * Internal class the describes the JSON received from the {@link MapView} for a single batch of a layer that is
+ * loaded in batches. The layer of each batch contains only the entities of that batch.
+ */
+class LayerBatchDescriptor {
+
+    int total;
+    VectorLayer layer;
+}
@@ -0,0 +1,13 @@
+package com.github.dormesica.mapcontroller;
+
+import com.github.dormesica.mapcontroller.layers.Entity;
+
+/**
+ * Internal class the describes the JSON received from the {@link MapView} when a layer is updated. Contains the
+ * entities that were added or replaced and the IDs of the entities that were removed.
+ */
+class LayerUpdateDescriptor {
+
+    Entity[] entities;
+    String[] removed;
+}
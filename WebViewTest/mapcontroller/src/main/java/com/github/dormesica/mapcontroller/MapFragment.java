@@ -1,13 +1,19 @@
 package com.github.dormesica.mapcontroller;
 
 import android.content.Context;
+import android.content.MutableContextWrapper;
 import android.os.Bundle;
+import android.util.AttributeSet;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleObserver;
+import androidx.lifecycle.OnLifecycleEvent;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.FrameLayout;
 import com.github.dormesica.mapcontroller.event.OnMapReadyListener;
 
 /**
@@ -33,6 +39,11 @@ import com.github.dormesica.mapcontroller.event.OnMapReadyListener;
  * the map is ready to be interacted with, or it can register a mListener using the
  * {@link #setOnMapReadyListener(OnMapReadyListener)} method. Providing such a listener is the only way to gain access
  * to the {@link MapView} instance and have it change later on in the application.
+ * <p>
+ * The fragment is retained across configuration changes, and so is its map: its layers, entities and camera survive
+ * when the activity is recreated or when the fragment returns from the back stack, and only the view is attached to
+ * the new activity. The listener is notified every time the view is attached, so listeners of the map should be
+ * registered in {@link OnMapReadyListener#onMapReady(MapView)}, as those of the previous activity are removed.
  *
  * @since 1.0.0
  */
@@ -41,7 +52,9 @@ public class MapFragment extends Fragment {
     private static final String TAG = "MapFragment";
 
     private MapView mMapView;
+    private MapOptions mOptions;
     private OnMapReadyListener mListener;
+    private final LifecycleObserver mLifecycleObserver = new HostLifecycleObserver();
 
     public MapFragment() {
         // Required empty public constructor
@@ -59,7 +72,7 @@ public class MapFragment extends Fragment {
     /**
      * Creates a new {@code MapFragment} with the given options.
      *
-     * @param options options
+     * @param options The options the map is rendered with.
      * @return A new MapFragment instance.
      */
     public static MapFragment newInstance(MapOptions options) {
@@ -70,6 +83,13 @@ public class MapFragment extends Fragment {
         return fragment;
     }
 
+    @Override
+    public void onInflate(@NonNull Context context, @NonNull AttributeSet attrs, Bundle savedInstanceState) {
+        super.onInflate(context, attrs, savedInstanceState);
+
+        mOptions = MapOptions.createFromAttributes(context, attrs);
+    }
+
     @Override
     public void onAttach(Context context) {
         super.onAttach(context);
@@ -84,14 +104,34 @@ public class MapFragment extends Fragment {
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+
+        // the map is expensive to load, so it outlives the activity rather than being rebuilt
+        setRetainInstance(true);
+        // the map renders only while the fragment is resumed
+        getLifecycle().addObserver(mLifecycleObserver);
+
+        if (getArguments() != null && getArguments().containsKey(ARG_OPTIONS)) {
+            mOptions = getArguments().getParcelable(ARG_OPTIONS);
+        }
     }
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container,
                              Bundle savedInstanceState) {
         // Inflate the layout for this fragment
-        View layout = inflater.inflate(R.layout.fragment_map, container, false);
-        mMapView = layout.findViewById(R.id.map_fragment_map_view);
+        ViewGroup layout = (ViewGroup) inflater.inflate(R.layout.fragment_map, container, false);
+        if (mMapView == null) {
+            // the context of the map is replaced whenever it is attached to a new activity
+            mMapView = new MapView(new MutableContextWrapper(requireContext()));
+            if (mOptions != null) {
+                mMapView.setOptions(mOptions);
+            }
+        } else {
+            mMapView.setBaseContext(requireContext());
+        }
+        layout.addView(mMapView, new FrameLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+
         if (mListener != null) {
             mMapView.setOnMapReadyListener(mListener);
         }
@@ -99,6 +139,28 @@ public class MapFragment extends Fragment {
         return layout;
     }
 
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+
+        // the map is kept for the next view, but must not hold on to the activity in between
+        ((ViewGroup) mMapView.getParent()).removeView(mMapView);
+        mMapView.clearListeners();
+        mMapView.setBaseContext(requireContext().getApplicationContext());
+    }
+
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+
+        // the map is reused by the next map view
+        getLifecycle().removeObserver(mLifecycleObserver);
+        if (mMapView != null) {
+            mMapView.recycle();
+            mMapView = null;
+        }
+    }
+
     @Override
     public void onDetach() {
         super.onDetach();
@@ -112,6 +174,28 @@ public class MapFragment extends Fragment {
      */
     public void setOnMapReadyListener(@NonNull OnMapReadyListener listener) {
         mListener = listener;
-        mMapView.setOnMapReadyListener(mListener);
+        if (mMapView != null) {
+            mMapView.setOnMapReadyListener(mListener);
+        }
+    }
+
+    /**
+     * Pauses and resumes the map with the fragment.
+     */
+    private class HostLifecycleObserver implements LifecycleObserver {
+
+        @OnLifecycleEvent(Lifecycle.Event.ON_RESUME)
+        void onResume() {
+            if (mMapView != null) {
+                mMapView.onResume();
+            }
+        }
+
+        @OnLifecycleEvent(Lifecycle.Event.ON_PAUSE)
+        void onPause() {
+            if (mMapView != null) {
+                mMapView.onPause();
+            }
+        }
     }
 }
@@ -1,15 +1,61 @@
 package com.github.dormesica.mapcontroller;
 
+import android.content.Context;
+import android.content.res.TypedArray;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.util.AttributeSet;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.common.base.Preconditions;
 
 /**
- * This class represents options for the initialization of a {@link MapFragment}.
+ * This class represents options for the initialization of a {@link MapView} or a {@link MapFragment}.
+ * <p>
+ * The options trade the quality of the rendered map for its frame time, memory and battery usage, so every device
+ * tier can be given its own profile. They can be set in code:
+ * <pre>
+ *     MapOptions options = new MapOptions()
+ *             .setRequestRenderMode(true)
+ *             .setMaximumScreenSpaceError(4)
+ *             .setResolutionScale(0.75f);
+ *
+ *     MapFragment.newInstance(options);
+ * </pre>
+ * or through the attributes of a {@code MapView} or a {@code MapFragment} in layout XML, e.g. in a resource qualified
+ * by the density or the size of the screen:
+ * <pre>
+ *     &#60;com.github.dormesica.mapcontroller.MapView
+ *          android:layout_width="match_parent"
+ *          android:layout_height="match_parent"
+ *          app:requestRenderMode="true"
+ *          app:maximumScreenSpaceError="4"
+ *          app:resolutionScale="0.75" /&#62;
+ * </pre>
+ * The options are applied by the map as soon as it is ready, before its ready listener is notified, and again whenever
+ * they are replaced with {@link MapView#setOptions(MapOptions)}.
  *
  * @since 1.0.0
  */
 public class MapOptions implements Parcelable {
 
+    /**
+     * The default amount of milliseconds for which a map that renders on demand keeps rendering after a change.
+     */
+    public static final int DEFAULT_RENDER_IDLE_TIMEOUT = 500;
+    /**
+     * The default maximum screen space error of terrain and imagery tiles, in pixels.
+     */
+    public static final float DEFAULT_MAXIMUM_SCREEN_SPACE_ERROR = 2;
+    /**
+     * The default amount of tiles kept in memory after they left the view.
+     */
+    public static final int DEFAULT_TILE_CACHE_SIZE = 100;
+    /**
+     * The default minimal amount of milliseconds between the camera events of a moving camera.
+     */
+    public static final int DEFAULT_CAMERA_MOVE_INTERVAL = 100;
+
     public static final Parcelable.Creator<MapOptions> CREATOR = new Parcelable.Creator<MapOptions>() {
         @Override
         public MapOptions createFromParcel(Parcel source) {
@@ -18,10 +64,21 @@ public class MapOptions implements Parcelable {
 
         @Override
         public MapOptions[] newArray(int size) {
-            return new MapOptions[0];
+            return new MapOptions[size];
         }
     };
 
+    private boolean requestRenderMode = false;
+    private int renderIdleTimeout = DEFAULT_RENDER_IDLE_TIMEOUT;
+    private float maximumScreenSpaceError = DEFAULT_MAXIMUM_SCREEN_SPACE_ERROR;
+    private int targetFrameRate = 0;
+    private float resolutionScale = 1;
+    private int tileCacheSize = DEFAULT_TILE_CACHE_SIZE;
+    private String terrainUrl = null;
+    private boolean isImageryEnabled = true;
+    private int renderStatsInterval = 0;
+    private int cameraMoveInterval = DEFAULT_CAMERA_MOVE_INTERVAL;
+
     /**
      * Creates a new {@code MapOptions} object.
      */
@@ -34,6 +91,311 @@ public class MapOptions implements Parcelable {
      * @param source The source Parcel.
      */
     private MapOptions(Parcel source) {
+        requestRenderMode = source.readInt() != 0;
+        renderIdleTimeout = source.readInt();
+        maximumScreenSpaceError = source.readFloat();
+        targetFrameRate = source.readInt();
+        resolutionScale = source.readFloat();
+        tileCacheSize = source.readInt();
+        terrainUrl = source.readString();
+        isImageryEnabled = source.readInt() != 0;
+        renderStatsInterval = source.readInt();
+        cameraMoveInterval = source.readInt();
+    }
+
+    /**
+     * Creates a new {@code MapOptions} from the attributes of a {@code MapView} or a {@code MapFragment} in layout XML.
+     * Options whose attributes are missing keep their default values.
+     *
+     * @param context The context the layout is inflated in.
+     * @param attrs   The attributes of the view or the fragment, or {@code null}.
+     * @return The options described by the attributes.
+     */
+    @NonNull
+    public static MapOptions createFromAttributes(@NonNull Context context, @Nullable AttributeSet attrs) {
+        MapOptions options = new MapOptions();
+        if (attrs == null) {
+            return options;
+        }
+
+        TypedArray attributes = context.obtainStyledAttributes(attrs, R.styleable.MapView);
+        try {
+            options.requestRenderMode = attributes.getBoolean(R.styleable.MapView_requestRenderMode,
+                    options.requestRenderMode);
+            options.setRenderIdleTimeout(attributes.getInt(R.styleable.MapView_renderIdleTimeout,
+                    options.renderIdleTimeout));
+            options.setMaximumScreenSpaceError(attributes.getFloat(R.styleable.MapView_maximumScreenSpaceError,
+                    options.maximumScreenSpaceError));
+            options.setTargetFrameRate(attributes.getInt(R.styleable.MapView_targetFrameRate,
+                    options.targetFrameRate));
+            options.setResolutionScale(attributes.getFloat(R.styleable.MapView_resolutionScale,
+                    options.resolutionScale));
+            options.setTileCacheSize(attributes.getInt(R.styleable.MapView_tileCacheSize, options.tileCacheSize));
+            options.terrainUrl = attributes.getString(R.styleable.MapView_terrainUrl);
+            options.isImageryEnabled = attributes.getBoolean(R.styleable.MapView_imageryEnabled,
+                    options.isImageryEnabled);
+            options.setRenderStatsInterval(attributes.getInt(R.styleable.MapView_renderStatsInterval,
+                    options.renderStatsInterval));
+            options.setCameraMoveInterval(attributes.getInt(R.styleable.MapView_cameraMoveInterval,
+                    options.cameraMoveInterval));
+        } finally {
+            attributes.recycle();
+        }
+
+        return options;
+    }
+
+    /**
+     * Returns whether the map renders only when its content or camera changes.
+     *
+     * @return {@code true} if the map renders on demand, {@code false} if it renders every frame.
+     */
+    public boolean isRequestRenderMode() {
+        return requestRenderMode;
+    }
+
+    /**
+     * Sets whether the map renders only when its content or camera changes, rather than every frame. Rendering on
+     * demand saves most of the CPU, GPU and battery usage of a map that is not interacted with. Defaults to
+     * {@code false}.
+     * <p>
+     * A map that renders on demand renders when it is touched and when it is changed through its {@link MapView},
+     * and keeps rendering for the {@link #setRenderIdleTimeout(int) idle timeout} after that. Changes made directly in
+     * the web view of the map require a call to {@link MapView#requestRender()}.
+     *
+     * @param requestRenderMode {@code true} to render on demand.
+     * @return This options object.
+     */
+    @NonNull
+    public MapOptions setRequestRenderMode(boolean requestRenderMode) {
+        this.requestRenderMode = requestRenderMode;
+        return this;
+    }
+
+    /**
+     * Returns the amount of time for which a map that renders on demand keeps rendering after a change.
+     *
+     * @return The idle timeout, in milliseconds.
+     */
+    public int getRenderIdleTimeout() {
+        return renderIdleTimeout;
+    }
+
+    /**
+     * Sets the amount of time for which a map that renders on demand keeps rendering after a change, so changes that
+     * are loaded or animated over several frames are displayed entirely. Defaults to
+     * {@value #DEFAULT_RENDER_IDLE_TIMEOUT}.
+     *
+     * @param renderIdleTimeout The idle timeout, in milliseconds.
+     * @return This options object.
+     * @throws IllegalArgumentException when the timeout is negative.
+     */
+    @NonNull
+    public MapOptions setRenderIdleTimeout(int renderIdleTimeout) throws IllegalArgumentException {
+        Preconditions.checkArgument(renderIdleTimeout >= 0, "renderIdleTimeout must not be negative");
+
+        this.renderIdleTimeout = renderIdleTimeout;
+        return this;
+    }
+
+    /**
+     * Returns the maximum screen space error of terrain and imagery tiles.
+     *
+     * @return The maximum screen space error, in pixels.
+     */
+    public float getMaximumScreenSpaceError() {
+        return maximumScreenSpaceError;
+    }
+
+    /**
+     * Sets the maximum screen space error of terrain and imagery tiles, which determines how detailed the tiles of
+     * the view are. Higher values load fewer and coarser tiles. Defaults to
+     * {@value #DEFAULT_MAXIMUM_SCREEN_SPACE_ERROR}.
+     *
+     * @param maximumScreenSpaceError The maximum screen space error, in pixels.
+     * @return This options object.
+     * @throws IllegalArgumentException when the error is not positive.
+     */
+    @NonNull
+    public MapOptions setMaximumScreenSpaceError(float maximumScreenSpaceError) throws IllegalArgumentException {
+        Preconditions.checkArgument(maximumScreenSpaceError > 0, "maximumScreenSpaceError must be positive");
+
+        this.maximumScreenSpaceError = maximumScreenSpaceError;
+        return this;
+    }
+
+    /**
+     * Returns the frame rate the map renders at.
+     *
+     * @return The frame rate in frames per second, or {@code 0} to render at the frame rate of the display.
+     */
+    public int getTargetFrameRate() {
+        return targetFrameRate;
+    }
+
+    /**
+     * Sets the frame rate the map renders at, e.g. 30 to halve the rendering work on a 60Hz display. Defaults to
+     * {@code 0}, the frame rate of the display.
+     *
+     * @param targetFrameRate The frame rate in frames per second, or {@code 0} for the frame rate of the display.
+     * @return This options object.
+     * @throws IllegalArgumentException when the frame rate is negative.
+     */
+    @NonNull
+    public MapOptions setTargetFrameRate(int targetFrameRate) throws IllegalArgumentException {
+        Preconditions.checkArgument(targetFrameRate >= 0, "targetFrameRate must not be negative");
+
+        this.targetFrameRate = targetFrameRate;
+        return this;
+    }
+
+    /**
+     * Returns the scale of the resolution the map is rendered at, relative to the resolution of the view.
+     *
+     * @return The resolution scale.
+     */
+    public float getResolutionScale() {
+        return resolutionScale;
+    }
+
+    /**
+     * Sets the scale of the resolution the map is rendered at, relative to the resolution of the view. Values below 1
+     * render fewer pixels and scale them up, which is often the cheapest way to reduce the frame time on high density
+     * screens. Defaults to {@code 1}.
+     *
+     * @param resolutionScale The resolution scale.
+     * @return This options object.
+     * @throws IllegalArgumentException when the scale is not positive.
+     */
+    @NonNull
+    public MapOptions setResolutionScale(float resolutionScale) throws IllegalArgumentException {
+        Preconditions.checkArgument(resolutionScale > 0, "resolutionScale must be positive");
+
+        this.resolutionScale = resolutionScale;
+        return this;
+    }
+
+    /**
+     * Returns the amount of tiles kept in memory after they left the view.
+     *
+     * @return The size of the tile cache.
+     */
+    public int getTileCacheSize() {
+        return tileCacheSize;
+    }
+
+    /**
+     * Sets the amount of tiles kept in memory after they left the view, so they are not loaded again when they return
+     * to it. Defaults to {@value #DEFAULT_TILE_CACHE_SIZE}.
+     *
+     * @param tileCacheSize The size of the tile cache.
+     * @return This options object.
+     * @throws IllegalArgumentException when the size is negative.
+     */
+    @NonNull
+    public MapOptions setTileCacheSize(int tileCacheSize) throws IllegalArgumentException {
+        Preconditions.checkArgument(tileCacheSize >= 0, "tileCacheSize must not be negative");
+
+        this.tileCacheSize = tileCacheSize;
+        return this;
+    }
+
+    /**
+     * Returns the URL of the terrain the map loads.
+     *
+     * @return The URL of the terrain, or {@code null} if the map does not load terrain.
+     */
+    @Nullable
+    public String getTerrainUrl() {
+        return terrainUrl;
+    }
+
+    /**
+     * Sets the URL of a quantized-mesh terrain server the map loads its terrain from. Defaults to {@code null}, in
+     * which case no terrain is loaded and the globe is a smooth ellipsoid.
+     *
+     * @param terrainUrl The URL of the terrain, or {@code null} to load no terrain.
+     * @return This options object.
+     */
+    @NonNull
+    public MapOptions setTerrainUrl(@Nullable String terrainUrl) {
+        this.terrainUrl = terrainUrl;
+        return this;
+    }
+
+    /**
+     * Returns whether the map loads imagery.
+     *
+     * @return {@code true} if imagery is loaded, otherwise {@code false}.
+     */
+    public boolean isImageryEnabled() {
+        return isImageryEnabled;
+    }
+
+    /**
+     * Sets whether the map loads imagery. Maps that display only layers can disable imagery to save its network,
+     * memory and rendering costs. Defaults to {@code true}.
+     *
+     * @param isImageryEnabled {@code true} to load imagery.
+     * @return This options object.
+     */
+    @NonNull
+    public MapOptions setImageryEnabled(boolean isImageryEnabled) {
+        this.isImageryEnabled = isImageryEnabled;
+        return this;
+    }
+
+    /**
+     * Returns the interval at which the map samples its rendering performance.
+     *
+     * @return The interval in milliseconds, or {@code 0} if the map does not sample its performance.
+     */
+    public int getRenderStatsInterval() {
+        return renderStatsInterval;
+    }
+
+    /**
+     * Sets the interval at which the map samples its rendering performance into a {@link RenderStats}. Defaults to
+     * {@code 0}, in which case the map does not sample its performance.
+     *
+     * @param renderStatsInterval The interval in milliseconds, or {@code 0} to stop sampling.
+     * @return This options object.
+     * @throws IllegalArgumentException when the interval is negative.
+     * @see MapView#getRenderStats()
+     */
+    @NonNull
+    public MapOptions setRenderStatsInterval(int renderStatsInterval) throws IllegalArgumentException {
+        Preconditions.checkArgument(renderStatsInterval >= 0, "renderStatsInterval must not be negative");
+
+        this.renderStatsInterval = renderStatsInterval;
+        return this;
+    }
+
+    /**
+     * Returns the minimal interval between the camera events of a moving camera.
+     *
+     * @return The interval in milliseconds.
+     */
+    public int getCameraMoveInterval() {
+        return cameraMoveInterval;
+    }
+
+    /**
+     * Sets the minimal interval between the {@link com.github.dormesica.mapcontroller.event.CameraChangeEvent#MOVING}
+     * events the map reports while its camera moves. Longer intervals send fewer events across the bridge. Defaults
+     * to {@value #DEFAULT_CAMERA_MOVE_INTERVAL}.
+     *
+     * @param cameraMoveInterval The interval in milliseconds, or {@code 0} to report every frame.
+     * @return This options object.
+     * @throws IllegalArgumentException when the interval is negative.
+     * @see MapView#setOnCameraChangeListener(com.github.dormesica.mapcontroller.event.OnCameraChangeListener)
+     */
+    @NonNull
+    public MapOptions setCameraMoveInterval(int cameraMoveInterval) throws IllegalArgumentException {
+        Preconditions.checkArgument(cameraMoveInterval >= 0, "cameraMoveInterval must not be negative");
+
+        this.cameraMoveInterval = cameraMoveInterval;
+        return this;
     }
 
     @Override
@@ -43,5 +405,15 @@ public class MapOptions implements Parcelable {
 
     @Override
     public void writeToParcel(Parcel dest, int flags) {
+        dest.writeInt(requestRenderMode ? 1 : 0);
+        dest.writeInt(renderIdleTimeout);
+        dest.writeFloat(maximumScreenSpaceError);
+        dest.writeInt(targetFrameRate);
+        dest.writeFloat(resolutionScale);
+        dest.writeInt(tileCacheSize);
+        dest.writeString(terrainUrl);
+        dest.writeInt(isImageryEnabled ? 1 : 0);
+        dest.writeInt(renderStatsInterval);
+        dest.writeInt(cameraMoveInterval);
     }
 }
@@ -1,24 +1,39 @@
 package com.github.dormesica.mapcontroller;
 
-import android.annotation.SuppressLint;
 import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.graphics.PointF;
 import android.os.Handler;
 import android.util.AttributeSet;
 import android.util.Log;
+import android.view.View;
 import android.webkit.*;
 import android.widget.FrameLayout;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import com.github.dormesica.mapcontroller.layers.*;
+import com.github.dormesica.mapcontroller.location.CameraState;
 import com.github.dormesica.mapcontroller.location.Coordinates;
 import com.github.dormesica.mapcontroller.location.Rectangle;
 import com.github.dormesica.mapcontroller.event.*;
 import com.github.dormesica.mapcontroller.util.CallbackSync;
 import com.github.dormesica.mapcontroller.util.JsonConverter;
+import com.google.common.base.Preconditions;
 import com.google.gson.Gson;
+import com.google.gson.JsonObject;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * A view which displays a 3D map.
@@ -35,35 +50,87 @@ import java.util.HashMap;
 public class MapView extends FrameLayout {
 
     /**
-     * The name of the events emitter interface in the JavaScript context.
+     * The name of the map component in the JavaScript context.
      */
-    private static final String JS_INTERFACE_EVENTS_EMITTER = "EventsEmitter";
+    static final String JS_MAP_NAME = "mapComponent";
     /**
-     * The name of the CallbackSync interface in the JavaScript context.
+     * The layer manager name of the JavaScript map component
      */
-    private static final String JS_INTERFACE_CALLBACK_SYNC = "CallbackSync";
+    private static final String JS_VECTOR_LAYER_MANAGER = "vectorLayerManager";
     /**
-     * The name of the map component in the JavaScript context.
+     * The track layer manager name of the JavaScript map component
      */
-    private static final String JS_MAP_NAME = "mapComponent";
+    static final String JS_TRACK_LAYER_MANAGER = "trackLayerManager";
     /**
-     * The layer manager name of the JavaScript map component
+     * The cluster layer manager name of the JavaScript map component
      */
-    private static final String JS_VECTOR_LAYER_MANAGER = "vectorLayerManager";
+    static final String JS_CLUSTER_LAYER_MANAGER = "clusterLayerManager";
+    /**
+     * The heatmap layer manager name of the JavaScript map component
+     */
+    static final String JS_HEATMAP_LAYER_MANAGER = "heatmapLayerManager";
+    /**
+     * Script format for configure operations.
+     * The string is the JSON of the map options.
+     */
+    private static final String SCRIPT_CONFIGURE = JS_MAP_NAME + ".configure(%s);";
+    /**
+     * Script for pausing the render loop of the map.
+     */
+    private static final String SCRIPT_PAUSE = JS_MAP_NAME + ".pause();";
+    /**
+     * Script for resuming the render loop of the map.
+     */
+    private static final String SCRIPT_RESUME = JS_MAP_NAME + ".resume();";
+    /**
+     * Script for requesting the map to render.
+     */
+    private static final String SCRIPT_REQUEST_RENDER = JS_MAP_NAME + ".requestRender();";
+    /**
+     * Script format for enabling or disabling the camera events of the map.
+     */
+    private static final String SCRIPT_SET_CAMERA_EVENTS_ENABLED = JS_MAP_NAME + ".setCameraEventsEnabled(%b);";
     /**
      * Script format for focusOn operations
      */
     private static final String SCRIPT_FOCUS_ON = JS_MAP_NAME + ".focusOn(%s);";
+    /**
+     * The fraction of the width and height of an extent that is added on each of its sides when the camera is fitted
+     * to it, so entities on its edges are not at the edges of the view.
+     */
+    private static final double FOCUS_PADDING = 0.1;
     /**
      * Script format for addLayer operations.
      * First string is the layer manger, second is the layer ID, third is the callback ID to invoke.
      */
     private static final String SCRIPT_ADD_LAYER = JS_MAP_NAME + ".%s.addLayer(%s, \"%s\");";
+    /**
+     * Script format for addLayer operations that deliver the layer's entities in batches.
+     * First string is the layer manger, second is the layer descriptor, third is the callback ID to invoke on
+     * completion, fourth is the batch size and the fifth is the callback ID to invoke with every batch.
+     */
+    private static final String SCRIPT_ADD_LAYER_IN_BATCHES = JS_MAP_NAME + ".%s.addLayer(%s, \"%s\", %s, \"%s\");";
     /**
      * Script format for removeLayer operations.
      * First string is the layer manger, second is the layer ID, third is the callback ID to invoke.
      */
     private static final String SCRIPT_REMOVE_LAYER = JS_MAP_NAME + ".%s.removeLayer(\"%s\", \"%s\");";
+    /**
+     * Script format for updateLayer operations.
+     * First string is the layer manger, second is the layer ID, third is the serialized GeoJSON of the upserted
+     * features, fourth is the array of deleted entity IDs and the fifth is the callback ID to invoke.
+     */
+    private static final String SCRIPT_UPDATE_LAYER = JS_MAP_NAME + ".%s.updateLayer(\"%s\", %s, %s, \"%s\");";
+    /**
+     * Script format for applyChanges operations.
+     * The string is the JSON of the changes.
+     */
+    private static final String SCRIPT_APPLY_CHANGES = JS_MAP_NAME + ".applyChanges(%s);";
+    /**
+     * Script format for getEntities operations.
+     * First string is the layer manger, second is the array of entity IDs, third is the callback ID to invoke.
+     */
+    private static final String SCRIPT_GET_ENTITIES = JS_MAP_NAME + ".%s.getEntities(%s, \"%s\");";
 
     /**
      * Tag for events log from JavaScript.
@@ -76,10 +143,32 @@ public class MapView extends FrameLayout {
     private final static Gson sJsonConverter = JsonConverter.getConverter();
 
     // properties
-    private final WebView mWebView;
+    private final MapWebView mWebView;
     private final Handler mHandler;
-    private boolean mIsInitialized;
+    private volatile boolean mIsInitialized;
+    private boolean mIsRecycled;
+    private MapOptions mOptions;
+    // render requests made within a frame are merged into a single request
+    private final AtomicBoolean mIsRenderRequested = new AtomicBoolean();
+    private final Runnable mRenderRequest = this::sendRenderRequest;
+    // the map is paused while the view is not visible or its host is paused, and queues the scripts sent to it
+    private boolean mIsHostResumed = true;
+    private boolean mIsAttached;
+    private boolean mIsPaused;
+    private final LinkedHashMap<Object, PendingScript> mPendingScripts = new LinkedHashMap<>();
+    private final BridgeMetrics mBridgeMetrics = new BridgeMetrics();
     private HashMap<String, Entity> mEntities;
+    // bounds the memory held by the content of the entities, null while there is no budget
+    private EntityCache mEntityCache;
+    private final ChangeSet mChangeSet;
+    // loaded layers that have secondary indexes, see GeoJsonLayerDescriptor.Builder#addIndex(String)
+    private final ArrayList<VectorLayer> mIndexedLayers;
+    // layers whose updates or view callbacks are bound to the map
+    private final ArrayList<Layer> mAttachedLayers;
+    // callbacks of loads in progress, the map drops loads that complete after it is reset
+    private final Set<String> mPendingLoads = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    // batch callbacks of the layers that are being loaded in batches, by layer ID
+    private final HashMap<String, String> mBatchLoads = new HashMap<>();
 
     // Event listeners
     private OnMapReadyListener mOnMapReadyListener = null;
@@ -87,23 +176,44 @@ public class MapView extends FrameLayout {
     private OnMapLongClickListener mOnMapLongClickListener = null;
     private OnMapDragListener mOnMapDragListener = null;
     private OnMapTouchListener mOnMapTouchListener = null;
+    private OnCameraChangeListener mOnCameraChangeListener = null;
+    private OnRenderStatsListener mOnRenderStatsListener = null;
+
+    private volatile RenderStats mRenderStats;
+    // mirrors the camera of the map, which sends its state whenever it changes
+    private volatile CameraState mCameraState;
+
+    /**
+     * Creates a new <code>CesiumMapView</code> instance.
+     *
+     * @param context An Activity Context to access application assets
+     */
+    public MapView(Context context) {
+        this(context, null);
+    }
 
     /**
      * Creates a new <code>CesiumMapView</code> instance.
      *
      * @param context An Activity Context to access application assets
-     * @param attrs   An AttributeSet passed to our parent
+     * @param attrs   An AttributeSet passed to our parent, from which the {@link MapOptions} of the map are read
      */
     public MapView(Context context, AttributeSet attrs) {
         super(context, attrs);
 
         mHandler = new Handler();
-
-        inflate(context, R.layout.cesium_map_view, this);
-        mWebView = findViewById(R.id.web_view);
-        setUpMap();
+        mOptions = MapOptions.createFromAttributes(context, attrs);
 
         mEntities = new HashMap<>();
+        mAttachedLayers = new ArrayList<>();
+        mIndexedLayers = new ArrayList<>();
+        mChangeSet = new ChangeSet();
+        mChangeSet.setOnChangeListener(changeSet -> mHandler.post(this::flush));
+
+        // a prewarmed map is taken from the pool when available, see MapWebViewPool#prewarm(Context)
+        mWebView = MapWebViewPool.getInstance().acquire(context);
+        addView(mWebView, new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT));
+        mWebView.getEventsEmitter().attach(this);
     }
 
     /**
@@ -116,12 +226,189 @@ public class MapView extends FrameLayout {
     }
 
     /**
-     * Registers a callback to be invoked when the map is ready and can be interacted with.
+     * Releases the map of this view, so it is reused by the next {@code MapView} instead of loading a new map.
+     * <p>
+     * The layers of the map are removed and its camera is reset before it is reused. The view must not be used after
+     * it is recycled. {@link MapFragment} recycles its map view when the fragment is destroyed; activities that use a
+     * {@code MapView} directly should recycle it when they are destroyed.
      *
-     * @param listener The callback that will run.
+     * @see MapWebViewPool
+     */
+    public void recycle() {
+        if (mIsRecycled) {
+            return;
+        }
+        mIsRecycled = true;
+
+        mChangeSet.setOnChangeListener(null);
+        mPendingScripts.clear();
+        for (String callbackId : mPendingLoads) {
+            CallbackSync.getInstance().unregister(callbackId);
+        }
+        mPendingLoads.clear();
+        mBatchLoads.clear();
+        for (Layer layer : new ArrayList<>(mAttachedLayers)) {
+            detach(layer);
+        }
+        mEntities.clear();
+        mIndexedLayers.clear();
+        if (mEntityCache != null) {
+            mEntityCache.clear();
+        }
+
+        removeView(mWebView);
+        MapWebViewPool.getInstance().release(mWebView);
+    }
+
+    /**
+     * Resumes the map after {@link #onPause()}. Activities that use a {@code MapView} directly should call this method
+     * from {@code Activity.onResume()}; {@link MapFragment} does so by itself.
+     */
+    public void onResume() {
+        mIsHostResumed = true;
+        updatePaused();
+    }
+
+    /**
+     * Pauses the map while its host is paused. A paused map stops its render loop and queues the scripts that are sent
+     * to it, which are applied when it resumes. The map is also paused while the view is detached or not visible.
+     * Activities that use a {@code MapView} directly should call this method from {@code Activity.onPause()};
+     * {@link MapFragment} does so by itself.
+     */
+    public void onPause() {
+        mIsHostResumed = false;
+        updatePaused();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+
+        mIsAttached = true;
+        updatePaused();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        mIsAttached = false;
+        updatePaused();
+
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onVisibilityChanged(@NonNull View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+
+        updatePaused();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+
+        updatePaused();
+    }
+
+    /**
+     * Returns the latest stats of the rendering performance of the map.
+     *
+     * @return The latest stats, or {@code null} if the map has not sampled its performance yet.
+     * @see MapOptions#setRenderStatsInterval(int)
+     */
+    @Nullable
+    public RenderStats getRenderStats() {
+        return mRenderStats;
+    }
+
+    /**
+     * Registers a callback to be invoked every time the map has sampled its rendering performance, e.g. to report it
+     * to telemetry. The map samples its performance only when {@link MapOptions#setRenderStatsInterval(int)} is set.
+     *
+     * @param listener The callback that will run, or {@code null} to remove the current one.
+     */
+    public void setOnRenderStatsListener(@Nullable OnRenderStatsListener listener) {
+        mOnRenderStatsListener = listener;
+    }
+
+    /**
+     * Sets a budget for the memory held by the geometry and properties of the entities of the loaded layers.
+     * <p>
+     * By default, the content of every entity is held for as long as its layer is loaded. Once a budget is set, the
+     * content of the least recently used entities is released whenever their estimated size exceeds the budget, and
+     * they become stubs (see {@link Entity#isEvicted()}). Entities are used when they are loaded, fetched and returned
+     * by {@link #getEntity(String)}. Evicted entities are fetched from the map again before they are passed to click
+     * and touch listeners and by {@link EntityCursor}s; other evicted entities can be fetched using
+     * {@link #fetch(Entity, ValueCallback)}. Must be called on the main thread.
+     *
+     * @param budget The estimated memory, in bytes, the content of the entities may hold.
+     * @throws IllegalArgumentException If <code>budget</code> is not positive.
+     * @see EntityCache
+     */
+    public void setEntityMemoryBudget(long budget) throws IllegalArgumentException {
+        if (mEntityCache != null) {
+            mEntityCache.setBudget(budget);
+            return;
+        }
+
+        mEntityCache = new EntityCache(budget);
+        mEntities.values().forEach(mEntityCache::touch);
+    }
+
+    /**
+     * Returns the cache that bounds the memory held by the content of the entities.
+     *
+     * @return The entity cache, or {@code null} if no budget has been set.
+     * @see #setEntityMemoryBudget(long)
+     */
+    @Nullable
+    public EntityCache getEntityCache() {
+        return mEntityCache;
+    }
+
+    /**
+     * Returns the metrics of the bridge between the view and the map: the latency of every operation and event, and
+     * the amount and size of the messages sent in each direction. The metrics are recorded for the lifetime of the view
+     * and can be read from any thread.
+     *
+     * @return The metrics of the bridge.
+     */
+    @NonNull
+    public BridgeMetrics getBridgeMetrics() {
+        return mBridgeMetrics;
+    }
+
+    /**
+     * Returns the options the map is rendered with.
+     *
+     * @return The options of the map.
+     */
+    @NonNull
+    public MapOptions getOptions() {
+        return mOptions;
+    }
+
+    /**
+     * Replaces the options the map is rendered with. The options are applied right away if the map is ready, otherwise
+     * as soon as it is. Must be called on the main thread.
+     *
+     * @param options The new options of the map.
      */
-    public void setOnMapReadyListener(OnMapReadyListener listener) {
+    public void setOptions(@NonNull MapOptions options) {
+        mOptions = options;
+
         if (mIsInitialized) {
+            evaluate(String.format(SCRIPT_CONFIGURE, sJsonConverter.toJson(options)), null, new Object());
+        }
+    }
+
+    /**
+     * Registers a callback to be invoked when the map is ready and can be interacted with.
+     *
+     * @param listener The callback that will run, or {@code null} to remove the current one.
+     */
+    public void setOnMapReadyListener(@Nullable OnMapReadyListener listener) {
+        if (listener != null && mIsInitialized) {
             listener.onMapReady(this);
             return;
         }
@@ -181,6 +468,26 @@ public class MapView extends FrameLayout {
         mOnMapTouchListener = listener;
     }
 
+    /**
+     * Registers a callback to be invoked when the camera of the map starts moving, while it moves and when it stops
+     * moving, whether it is moved by a gesture or by {@link #focusOn(Coordinates)}. Events of a moving camera are
+     * throttled by {@link MapOptions#setCameraMoveInterval(int)}.
+     * <p>
+     * The map reports the movement of its camera only while a listener is registered.
+     *
+     * @param listener The callback that will run, or {@code null} to remove the current one.
+     */
+    public void setOnCameraChangeListener(@Nullable OnCameraChangeListener listener) {
+        boolean wasEnabled = mOnCameraChangeListener != null;
+        mOnCameraChangeListener = listener;
+
+        // a map that is not ready yet enables its camera events when it is
+        boolean isEnabled = listener != null;
+        if (mIsInitialized && isEnabled != wasEnabled) {
+            evaluate(String.format(SCRIPT_SET_CAMERA_EVENTS_ENABLED, isEnabled), null, new Object());
+        }
+    }
+
     /**
      * Focuses the view on the given coordinates.
      * <p>
@@ -189,7 +496,7 @@ public class MapView extends FrameLayout {
      * @param location The coordinates on which to focus.
      */
     public void focusOn(@NonNull Coordinates location) {
-        mWebView.evaluateJavascript(String.format(SCRIPT_FOCUS_ON, sJsonConverter.toJson(location)), null);
+        evaluateJavascript(String.format(SCRIPT_FOCUS_ON, sJsonConverter.toJson(location)));
     }
 
     /**
@@ -198,44 +505,130 @@ public class MapView extends FrameLayout {
      * @param extent The extent on which to focus
      */
     public void focusOn(@NonNull Rectangle extent) {
-        mWebView.evaluateJavascript(String.format(SCRIPT_FOCUS_ON, sJsonConverter.toJson(extent)), null);
+        evaluateJavascript(String.format(SCRIPT_FOCUS_ON, sJsonConverter.toJson(extent)));
     }
 
     /**
      * Focuses the camera on the given entity.
+     * <p>
+     * The camera is fitted to the cached bounds of the entity, with some padding. Stubs, and entities whose bounds
+     * have no width or height (e.g. a line along a meridian), are located by the map.
      *
      * @param entity The entity on which to focus.
      */
     public void focusOn(@NonNull Entity entity) {
-        mWebView.evaluateJavascript(String.format(SCRIPT_FOCUS_ON, escapeString(entity.getId())), null);
+        if (!entity.isStub()) {
+            Rectangle bounds = entity.getBounds();
+            if (entity instanceof Point && bounds != null) {
+                // the bounds of a point are empty, so focus on its location at the default altitude
+                focusOn(((Point) entity).getLocation());
+                return;
+            } else if (bounds != null && hasArea(bounds)) {
+                focusOn(pad(bounds));
+                return;
+            }
+        }
+
+        evaluateJavascript(String.format(SCRIPT_FOCUS_ON, escapeString(entity.getId())));
     }
 
     /**
      * Focuses the camera on the given layer.
+     * <p>
+     * The camera is fitted to the cached extent of vector layers whose entities are loaded, with some padding. Other
+     * layers, layers with stubs whose geometry has not been fetched and layers whose extent has no width or height
+     * (e.g. a single point) are located by the map.
      *
      * @param layer The layer on which to focus.
      */
     public void focusOn(@NonNull Layer layer) {
-        mWebView.evaluateJavascript(String.format(SCRIPT_FOCUS_ON, escapeString(layer.getId())), null);
+        if (layer instanceof VectorLayer) {
+            VectorLayer vectorLayer = (VectorLayer) layer;
+            Rectangle extent = vectorLayer.getExtent();
+            if (extent != null && hasArea(extent) && vectorLayer.isExtentComplete()) {
+                focusOn(pad(extent));
+                return;
+            }
+        }
+
+        evaluateJavascript(String.format(SCRIPT_FOCUS_ON, escapeString(layer.getId())));
+    }
+
+    /**
+     * Returns the latest state of the camera of the map, which the map sends after every frame in which its camera or
+     * viewport changed. The state can be read from any thread.
+     *
+     * @return The state of the camera, or {@code null} if the map has not rendered yet.
+     */
+    @Nullable
+    public CameraState getCameraState() {
+        return mCameraState;
+    }
+
+    /**
+     * Returns the extent of the current view, from the {@link #getCameraState() state of the camera}, without
+     * accessing the map.
+     *
+     * @return The extent of the view, or {@code null} if the map has not rendered yet.
+     */
+    @Nullable
+    public Rectangle getViewExtentNow() {
+        CameraState state = mCameraState;
+        return state != null ? state.getExtent() : null;
+    }
+
+    /**
+     * Projects a geographic location to the pixel of this view it is displayed at, from the
+     * {@link #getCameraState() state of the camera}, without accessing the map. Terrain is not considered.
+     *
+     * @param location The location to project.
+     * @return The pixel of the location relative to the top-left corner of this view, which may be outside of it, or
+     * {@code null} if the location is behind the camera or the horizon, or the map has not rendered yet.
+     */
+    @Nullable
+    public PointF project(@NonNull Coordinates location) {
+        CameraState state = mCameraState;
+        double[] pixel = new double[2];
+        if (state == null || !state.project(location.getLon(), location.getLat(), location.getAlt(), pixel)) {
+            return null;
+        }
+
+        return new PointF((float) pixel[0], (float) pixel[1]);
+    }
+
+    /**
+     * Unprojects a pixel of this view to the location on the ellipsoid displayed at it, from the
+     * {@link #getCameraState() state of the camera}, without accessing the map. Terrain is not considered.
+     *
+     * @param x The x of the pixel relative to the left of this view.
+     * @param y The y of the pixel relative to the top of this view.
+     * @return The location at the pixel, or {@code null} if the pixel displays space or the map has not rendered yet.
+     */
+    @Nullable
+    public Coordinates unproject(float x, float y) {
+        CameraState state = mCameraState;
+        return state != null ? state.unproject(x, y) : null;
     }
 
     /**
      * Asynchronously evaluates the extent of the current view. <code>callback</code> will be invoked
      * with a <code>Rectangle</code> that represents the current extent.
+     * <p>
+     * {@link #getViewExtentNow()} returns the extent without accessing the map.
      *
      * @param callback Called when the evaluation completes.
      */
     public void getViewExtent(@NonNull ValueCallback<Rectangle> callback) {
         String script = String.format("%s.getViewExtent();", JS_MAP_NAME);
 
-        mWebView.evaluateJavascript(script,
-                (String result) -> callback.onReceiveValue(sJsonConverter.fromJson(result, Rectangle.class)));
+        evaluate(script, mBridgeMetrics.time("getViewExtent",
+                result -> callback.onReceiveValue(sJsonConverter.fromJson(result, Rectangle.class))), new Object());
     }
 
     /**
-     * Asynchronously loads the given GeoJSON layer onto the map. <code>callback</code> is invoked with the layers ID
-     * when the operation completes. If the layer failed to be added to the map the value passed to the callback is
-     * <code>null</code>.
+     * Asynchronously loads the given GeoJSON layer onto the map. <code>callback</code> is invoked on the main thread
+     * with the layers ID when the operation completes. If the layer failed to be added to the map the value passed to
+     * the callback is <code>null</code>.
      * <p>
      * The layer ID should be used in future manipulations on the layer.
      *
@@ -243,66 +636,751 @@ public class MapView extends FrameLayout {
      * @param callback        a callback to be invoked with the layer ID when the operation completes.
      */
     public void load(@NonNull GeoJsonLayerDescriptor layerDescriptor, @NonNull ValueCallback<VectorLayer> callback) {
-        String callbackId = CallbackSync.getInstance().register(layerJsonString -> {
+        String callbackId = registerLoad(mBridgeMetrics.time("load", layerJsonString -> {
             VectorLayer layer = sJsonConverter.fromJson(layerJsonString, VectorLayer.class);
-            layer.forEach(entity -> mEntities.put(entity.getId(), entity));
-            callback.onReceiveValue(layer);
-        });
+            // the entities, the change set and the indexes are only accessed on the main thread
+            mHandler.post(() -> {
+                if (mIsRecycled) {
+                    return;
+                }
+
+                layer.forEach(this::addEntity);
+                mChangeSet.track(layer);
+                createIndexes(layer, layerDescriptor);
+                callback.onReceiveValue(layer);
+            });
+        }));
         String script = String.format(SCRIPT_ADD_LAYER, JS_VECTOR_LAYER_MANAGER,
                 sJsonConverter.toJson(layerDescriptor), callbackId);
 
-        mWebView.evaluateJavascript(script, null);
+        evaluateJavascript(script);
     }
 
     /**
-     * Asynchronously removes a layer from the map. <code>callback</code> is invoked when the operation completes
-     * with a boolean value that indicates whether the operation succeeded or not.
+     * Asynchronously loads the given GeoJSON layer onto the map and delivers its entities in batches of (at most)
+     * <code>batchSize</code> entities.
+     * <p>
+     * Every batch is decoded off the main thread and then added to the layer, after which <code>batchListener</code>
+     * is invoked on the main thread. The layer passed to the listener is the same instance that is eventually passed to
+     * <code>callback</code>, so the entities received so far can be used while the rest of the layer is still loading.
+     * <code>callback</code> is invoked on the main thread once all the batches have been delivered. If the layer is
+     * removed while it is loading, the remaining batches are dropped and <code>callback</code> is not invoked.
+     *
+     * @param layerDescriptor The layer to be loaded
+     * @param batchSize       The maximal amount of entities in each batch.
+     * @param batchListener   a callback to be invoked whenever a batch of entities is added to the layer.
+     * @param callback        a callback to be invoked with the complete layer when the operation completes.
+     * @throws IllegalArgumentException If <code>batchSize</code> is not positive.
+     */
+    public void load(@NonNull GeoJsonLayerDescriptor layerDescriptor, int batchSize,
+                     @NonNull OnLayerBatchLoadedListener batchListener, @NonNull ValueCallback<VectorLayer> callback)
+            throws IllegalArgumentException {
+        Preconditions.checkArgument(batchSize > 0, "Batch size must be greater than 0.");
+
+        // the layer is only accessed on the main thread, batches are decoded on the JavaScript bridge thread
+        VectorLayer[] loadedLayer = new VectorLayer[1];
+        int[] loadedCount = new int[1];
+
+        CallbackSync callbackSync = CallbackSync.getInstance();
+        String[] batchCallbackId = new String[1];
+        batchCallbackId[0] = callbackSync.register(mBridgeMetrics.time("loadBatch", batchJsonString -> {
+            LayerBatchDescriptor batch = sJsonConverter.fromJson(batchJsonString, LayerBatchDescriptor.class);
+            List<Entity> entities = new ArrayList<>(batch.layer.size());
+            batch.layer.forEach(entities::add);
+
+            mHandler.post(() -> {
+                if (mIsRecycled) {
+                    return;
+                }
+
+                if (loadedLayer[0] == null) {
+                    loadedLayer[0] = batch.layer;
+                    mBatchLoads.put(batch.layer.getId(), batchCallbackId[0]);
+                    mChangeSet.track(batch.layer);
+                    createIndexes(batch.layer, layerDescriptor);
+                } else if (mBatchLoads.containsKey(loadedLayer[0].getId())) {
+                    loadedLayer[0].addEntities(entities);
+                } else {
+                    // the layer was removed while it was loading
+                    return;
+                }
+                entities.forEach(this::addEntity);
+                loadedCount[0] += entities.size();
+
+                batchListener.onBatchLoaded(this, loadedLayer[0], entities, loadedCount[0], batch.total);
+            });
+        }));
+        mPendingLoads.add(batchCallbackId[0]);
+        String callbackId = registerLoad(mBridgeMetrics.time("loadInBatches", result -> {
+            callbackSync.unregister(batchCallbackId[0]);
+            mPendingLoads.remove(batchCallbackId[0]);
+            mHandler.post(() -> {
+                if (!mIsRecycled && mBatchLoads.remove(loadedLayer[0].getId()) != null) {
+                    callback.onReceiveValue(loadedLayer[0]);
+                }
+            });
+        }));
+        String script = String.format(SCRIPT_ADD_LAYER_IN_BATCHES, JS_VECTOR_LAYER_MANAGER,
+                sJsonConverter.toJson(layerDescriptor), callbackId, batchSize, batchCallbackId[0]);
+
+        evaluateJavascript(script);
+    }
+
+    /**
+     * Asynchronously loads the given track layer onto the map. <code>callback</code> is invoked on the main thread with
+     * the layer once it has been added to the map, after which the positions of the layer's objects can be updated.
+     *
+     * @param layerDescriptor The layer to be loaded.
+     * @param callback        a callback to be invoked with the layer when the operation completes.
+     * @see TrackLayer
+     */
+    public void load(@NonNull TrackLayerDescriptor layerDescriptor, @NonNull ValueCallback<TrackLayer> callback) {
+        String callbackId = registerLoad(mBridgeMetrics.time("loadTrack", layerJsonString -> {
+            String layerId = sJsonConverter.fromJson(layerJsonString, JsonObject.class).get("id").getAsString();
+            mHandler.post(() -> {
+                if (!mIsRecycled) {
+                    callback.onReceiveValue(attach(new TrackLayer(this, layerId, layerDescriptor)));
+                }
+            });
+        }));
+        String script = String.format(SCRIPT_ADD_LAYER, JS_TRACK_LAYER_MANAGER,
+                sJsonConverter.toJson(layerDescriptor), callbackId);
+
+        evaluateJavascript(script);
+    }
+
+    /**
+     * Asynchronously loads the given cluster layer onto the map. <code>callback</code> is invoked on the main thread
+     * with the layer once it has been added to the map, after which the clusters in the view of the map are displayed.
+     *
+     * @param layerDescriptor The layer to be loaded.
+     * @param callback        a callback to be invoked with the layer when the operation completes.
+     * @see ClusterLayer
+     */
+    public void load(@NonNull ClusterLayerDescriptor layerDescriptor, @NonNull ValueCallback<ClusterLayer> callback) {
+        String callbackId = registerLoad(mBridgeMetrics.time("loadCluster", layerJsonString -> {
+            String layerId = sJsonConverter.fromJson(layerJsonString, JsonObject.class).get("id").getAsString();
+            mHandler.post(() -> {
+                if (!mIsRecycled) {
+                    callback.onReceiveValue(attach(new ClusterLayer(this, layerId, layerDescriptor)));
+                }
+            });
+        }));
+        String script = String.format(SCRIPT_ADD_LAYER, JS_CLUSTER_LAYER_MANAGER,
+                sJsonConverter.toJson(layerDescriptor), callbackId);
+
+        evaluateJavascript(script);
+    }
+
+    /**
+     * Asynchronously loads the given heatmap layer onto the map. <code>callback</code> is invoked on the main thread
+     * with the layer once it has been added to the map, after which the cells in the view of the map are displayed.
+     *
+     * @param layerDescriptor The layer to be loaded.
+     * @param callback        a callback to be invoked with the layer when the operation completes.
+     * @see HeatmapLayer
+     */
+    public void load(@NonNull HeatmapLayerDescriptor layerDescriptor, @NonNull ValueCallback<HeatmapLayer> callback) {
+        String callbackId = registerLoad(mBridgeMetrics.time("loadHeatmap", layerJsonString -> {
+            String layerId = sJsonConverter.fromJson(layerJsonString, JsonObject.class).get("id").getAsString();
+            mHandler.post(() -> {
+                if (!mIsRecycled) {
+                    callback.onReceiveValue(attach(new HeatmapLayer(this, layerId, layerDescriptor)));
+                }
+            });
+        }));
+        String script = String.format(SCRIPT_ADD_LAYER, JS_HEATMAP_LAYER_MANAGER,
+                sJsonConverter.toJson(layerDescriptor), callbackId);
+
+        evaluateJavascript(script);
+    }
+
+    /**
+     * Asynchronously removes a layer from the map. <code>callback</code> is invoked on the main thread when the
+     * operation completes with a boolean value that indicates whether the operation succeeded or not.
      *
      * @param layer    The ID of the layer to be removed.
      * @param callback Called when the layer is removed or upon failure.
      */
     public void remove(@NonNull Layer layer, ValueCallback<Boolean> callback) {
+        String layerManager = detach(layer);
+        // the batches of a layer that is still loading are dropped
+        String batchCallbackId = mBatchLoads.remove(layer.getId());
+        if (batchCallbackId != null) {
+            CallbackSync.getInstance().unregister(batchCallbackId);
+            mPendingLoads.remove(batchCallbackId);
+        }
+
         String callbackId = CallbackSync.getInstance()
-                .register(result -> {
+                .register(mBridgeMetrics.time("remove", result -> {
                     boolean isSuccessful = result.equals("true");
-                    if (isSuccessful && layer instanceof VectorLayer) {
-                        ((VectorLayer) layer).forEach(entity -> mEntities.remove(entity.getId()));
+                    mHandler.post(() -> {
+                        if (isSuccessful && layer instanceof VectorLayer) {
+                            ((VectorLayer) layer).forEach(entity -> removeEntity(entity.getId()));
+                            mChangeSet.untrack((VectorLayer) layer);
+                            mIndexedLayers.remove(layer);
+                        }
+                        callback.onReceiveValue(isSuccessful);
+                    });
+                }));
+        String script = String.format(SCRIPT_REMOVE_LAYER, layerManager, layer.getId(), callbackId);
+
+        evaluateJavascript(script);
+    }
+
+    /**
+     * Asynchronously adds, replaces and removes entities of a loaded vector layer, without reloading the layer.
+     * <p>
+     * Features are matched to the entities of the layer by their GeoJSON ID: every feature of <code>upserts</code>
+     * replaces the entity with the same ID, or is added to the layer if there is no such entity, and every entity whose
+     * ID is in <code>deletes</code> is removed. Deletes are applied before upserts. Only the affected entities are
+     * changed on the map, and <code>layer</code> and the entities returned by {@link #getEntity(String)} are patched
+     * in place once the map has been updated, after which <code>callback</code> is invoked on the main thread.
+     * <p>
+     * The features are styled as described by the descriptor the layer was loaded with. Features without an ID are
+     * always added.
+     *
+     * @param layer    The layer to update.
+     * @param upserts  Serialized GeoJSON feature or feature collection of the features to add or replace, may be
+     *                 {@code null}.
+     * @param deletes  The IDs of the entities to remove.
+     * @param callback Called with {@code true} when the layer is updated, or {@code false} upon failure.
+     */
+    public void updateLayer(@NonNull VectorLayer layer, @Nullable String upserts, @NonNull Collection<String> deletes,
+                            @NonNull ValueCallback<Boolean> callback) {
+        String callbackId = CallbackSync.getInstance().register(mBridgeMetrics.time("updateLayer", updateJsonString -> {
+            LayerUpdateDescriptor update = sJsonConverter.fromJson(updateJsonString, LayerUpdateDescriptor.class);
+            mHandler.post(() -> {
+                if (update == null) {
+                    callback.onReceiveValue(false);
+                    return;
+                }
+
+                List<String> removed = Arrays.asList(update.removed);
+                List<Entity> upserted = Arrays.asList(update.entities);
+                layer.removeEntities(removed);
+                layer.upsertEntities(upserted);
+                removed.forEach(this::removeEntity);
+                upserted.forEach(this::addEntity);
+                callback.onReceiveValue(true);
+            });
+        }));
+        String script = String.format(SCRIPT_UPDATE_LAYER, JS_VECTOR_LAYER_MANAGER, layer.getId(),
+                sJsonConverter.toJson(upserts), sJsonConverter.toJson(deletes), callbackId);
+
+        evaluateJavascript(script);
+    }
+
+    /**
+     * Sends the pending changes of the names and descriptions of the loaded layers and entities to the map, in a
+     * single script. Must be called on the main thread.
+     * <p>
+     * Changes are flushed automatically once the current message of the main thread has been handled, so calling this
+     * method is only required for the changes to take effect before a subsequent operation on the map.
+     *
+     * @see VectorLayer#setName(String)
+     * @see Entity#setName(String)
+     */
+    public void flush() {
+        String changes = mChangeSet.drain();
+        if (changes != null) {
+            evaluateJavascript(String.format(SCRIPT_APPLY_CHANGES, changes));
+        }
+    }
+
+    /**
+     * Asynchronously fetches the geometry and properties of the given entity from the map, if it is a stub.
+     * <code>callback</code> is invoked on the main thread with the same entity instance once its content is
+     * available. Entities that are not stubs are passed to the callback without accessing the map.
+     *
+     * @param entity   The entity whose content should be fetched.
+     * @param callback Called when the content of the entity is available.
+     * @see GeoJsonLayerDescriptor.Builder#shouldLoadGeometry(boolean)
+     */
+    public void fetch(@NonNull Entity entity, @NonNull ValueCallback<Entity> callback) {
+        fetch(Collections.singletonList(entity), entities -> callback.onReceiveValue(entity));
+    }
+
+    /**
+     * Asynchronously fetches the geometry and properties of the stubs among the given entities from the map.
+     * <code>callback</code> is invoked on the main thread with the given entities, in the same order, once the
+     * content of all of them is available. Stubs are completed in place, so existing references remain valid.
+     * <p>
+     * When the map view has an entity memory budget, the entities remain in memory at least until <code>callback</code>
+     * returns, even if they exceed the budget, and may be evicted again afterwards.
+     *
+     * @param entities The entities whose content should be fetched.
+     * @param callback Called when the content of the entities is available.
+     * @see GeoJsonLayerDescriptor.Builder#shouldLoadGeometry(boolean)
+     */
+    public void fetch(@NonNull Collection<Entity> entities, @NonNull ValueCallback<List<Entity>> callback) {
+        List<Entity> result = new ArrayList<>(entities);
+        HashMap<String, Entity> stubs = new HashMap<>();
+        result.stream()
+                .filter(Entity::isStub)
+                .forEach(entity -> stubs.put(entity.getId(), entity));
+        if (stubs.isEmpty()) {
+            mHandler.post(() -> callback.onReceiveValue(result));
+            return;
+        }
+
+        String callbackId = CallbackSync.getInstance().register(mBridgeMetrics.time("fetch", entitiesJsonString -> {
+            Entity[] fetched = sJsonConverter.fromJson(entitiesJsonString, Entity[].class);
+            mHandler.post(() -> {
+                for (Entity source : fetched) {
+                    Entity stub = source != null ? stubs.get(source.getId()) : null;
+                    if (stub != null && stub.isStub()) {
+                        stub.hydrate(source);
                     }
-                    callback.onReceiveValue(isSuccessful);
-                });
-        String script = String.format(SCRIPT_REMOVE_LAYER, JS_VECTOR_LAYER_MANAGER, layer.getId(), callbackId);
+                }
+                callback.onReceiveValue(result);
+                // the entities are cached only once the callback returns, so they are not evicted before it is invoked
+                if (mEntityCache != null) {
+                    result.forEach(mEntityCache::touch);
+                }
+            });
+        }));
+        String script = String.format(SCRIPT_GET_ENTITIES, JS_VECTOR_LAYER_MANAGER,
+                sJsonConverter.toJson(stubs.keySet()), callbackId);
 
-        mWebView.evaluateJavascript(script, null);
+        evaluate(script, null, new Object());
+    }
+
+    /**
+     * Opens a cursor that pages through the entities of the given layer, fetching the content of stubs from the map
+     * one page at a time.
+     *
+     * @param layer    The layer to page through.
+     * @param pageSize The maximal amount of entities in each page.
+     * @return A new cursor positioned at the first entity of the layer.
+     * @throws IllegalArgumentException If <code>pageSize</code> is not positive.
+     */
+    public EntityCursor openCursor(@NonNull VectorLayer layer, int pageSize) throws IllegalArgumentException {
+        Preconditions.checkArgument(pageSize > 0, "Page size must be greater than 0.");
+
+        return new EntityCursor(this, layer, pageSize);
     }
 
     /**
      * Returns the entity associated with the given ID.
+     * <p>
+     * When an entity memory budget is set, the returned entity may have been evicted, in which case its content can be
+     * fetched using {@link #fetch(Entity, ValueCallback)}.
      *
      * @param id The ID of the entity.
      * @return The entity with the given ID.
+     * @see #setEntityMemoryBudget(long)
      */
     @Nullable
     public Entity getEntity(String id) {
-        return mEntities.get(id);
+        Entity entity = mEntities.get(id);
+        if (entity != null && mEntityCache != null) {
+            mEntityCache.touch(entity);
+        }
+
+        return entity;
+    }
+
+    /**
+     * Returns the entities with the given name, using the name indexes of the loaded layers. Layers whose names are not
+     * indexed are not searched. Must be called on the main thread.
+     *
+     * @param name The name of the entities.
+     * @return The entities with the given name.
+     * @see GeoJsonLayerDescriptor.Builder#addNameIndex()
+     */
+    @NonNull
+    public List<Entity> findEntitiesByName(@NonNull String name) {
+        List<Entity> result = new ArrayList<>();
+        for (VectorLayer layer : mIndexedLayers) {
+            EntityIndex index = layer.getNameIndex();
+            if (index != null) {
+                result.addAll(index.get(name));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the entities whose property with the given key equals the given value, using the indexes of the loaded
+     * layers. Layers in which the property is not indexed are not searched. Must be called on the main thread.
+     *
+     * @param key   The key of the property.
+     * @param value The value of the property, a {@link String}, a {@link Number} or a {@link Boolean}.
+     * @return The entities whose property equals the value.
+     * @see GeoJsonLayerDescriptor.Builder#addIndex(String)
+     */
+    @NonNull
+    public List<Entity> findEntities(@NonNull String key, @NonNull Object value) {
+        List<Entity> result = new ArrayList<>();
+        for (VectorLayer layer : mIndexedLayers) {
+            EntityIndex index = layer.getIndex(key);
+            if (index != null) {
+                result.addAll(index.get(value));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the entities whose property with the given key is a number in the given range, using the indexes of the
+     * loaded layers. Layers in which the property is not indexed are not searched. Must be called on the main thread.
+     *
+     * @param key  The key of the property.
+     * @param from The lowest value, inclusive.
+     * @param to   The highest value, inclusive.
+     * @return The entities whose property is in the range, ordered by their values within every layer.
+     * @see GeoJsonLayerDescriptor.Builder#addIndex(String)
+     */
+    @NonNull
+    public List<Entity> findEntitiesInRange(@NonNull String key, double from, double to) {
+        List<Entity> result = new ArrayList<>();
+        for (VectorLayer layer : mIndexedLayers) {
+            EntityIndex index = layer.getIndex(key);
+            if (index != null) {
+                result.addAll(index.getRange(from, to));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the entities whose property with the given key is a string in the given range, using the indexes of the
+     * loaded layers. Layers in which the property is not indexed are not searched. Must be called on the main thread.
+     *
+     * @param key  The key of the property.
+     * @param from The lowest value, inclusive.
+     * @param to   The highest value, inclusive.
+     * @return The entities whose property is in the range, ordered by their values within every layer.
+     * @see GeoJsonLayerDescriptor.Builder#addIndex(String)
+     */
+    @NonNull
+    public List<Entity> findEntitiesInRange(@NonNull String key, @NonNull String from, @NonNull String to) {
+        List<Entity> result = new ArrayList<>();
+        for (VectorLayer layer : mIndexedLayers) {
+            EntityIndex index = layer.getIndex(key);
+            if (index != null) {
+                result.addAll(index.getRange(from, to));
+            }
+        }
+
+        return result;
     }
 
     /**
-     * Sets up the configuration of the WebView and initializes the Cesium map.
+     * Requests the map to render, when it renders on demand (see {@link MapOptions#setRequestRenderMode(boolean)}).
+     * <p>
+     * Every operation of the map view and every touch of the map request a render, so this method is needed only for
+     * changes that are made to the map directly. Requests made within the same frame are merged into a single render.
+     * Can be called from any thread.
+     */
+    public void requestRender() {
+        if (mIsRenderRequested.compareAndSet(false, true)) {
+            postOnAnimation(mRenderRequest);
+        }
+    }
+
+    /**
+     * Evaluates the given script, which changes the map, in the context of the map, ignoring its result, and requests
+     * the map to render.
+     *
+     * @param script The script to evaluate.
+     */
+    void evaluateJavascript(@NonNull String script) {
+        evaluateJavascript(script, new Object());
+    }
+
+    /**
+     * Evaluates the given script, which changes the map, in the context of the map like
+     * {@link #evaluateJavascript(String)}. While the map is paused, the script replaces the queued script that has the
+     * same key, e.g. when only the latest render of a layer matters.
+     *
+     * @param script The script to evaluate.
+     * @param key    The key of the script.
+     */
+    void evaluateJavascript(@NonNull String script, @NonNull Object key) {
+        evaluate(script, null, key);
+        requestRender();
+    }
+
+    /**
+     * Returns whether the map is paused, in which case the scripts that are sent to it are queued until it resumes.
+     *
+     * @return {@code true} if the map is paused, otherwise {@code false}.
+     */
+    boolean isPaused() {
+        return mIsPaused;
+    }
+
+    /**
+     * Replaces the context of a map view that was created with a {@link android.content.MutableContextWrapper}, so the
+     * view can be moved to the view hierarchy of another activity, e.g. after a configuration change.
+     *
+     * @param context The new context.
+     */
+    void setBaseContext(@NonNull Context context) {
+        if (getContext() instanceof MutableContextWrapper) {
+            ((MutableContextWrapper) getContext()).setBaseContext(context);
+        }
+        mWebView.setBaseContext(context);
+    }
+
+    /**
+     * Removes all the listeners of the map, which may hold references to the activity that registered them.
      */
-    @SuppressLint("SetJavaScriptEnabled")
-    private void setUpMap() {
-        WebSettings settings = mWebView.getSettings();
+    void clearListeners() {
+        mOnMapReadyListener = null;
+        mOnMapClickListener = null;
+        mOnMapLongClickListener = null;
+        mOnMapDragListener = null;
+        mOnMapTouchListener = null;
+        mOnRenderStatsListener = null;
+        setOnCameraChangeListener(null);
+    }
 
-        settings.setJavaScriptEnabled(true);
-        settings.setAllowFileAccessFromFileURLs(true);
-        settings.setAllowFileAccess(false);
+    /**
+     * Returns whether the given entity is loaded onto the map, without using it.
+     *
+     * @param entity The entity.
+     * @return {@code true} if the entity belongs to a loaded layer, otherwise {@code false}.
+     */
+    boolean containsEntity(@NonNull Entity entity) {
+        return mEntities.get(entity.getId()) == entity;
+    }
 
-        mWebView.setWebViewClient(new WebViewClient());
+    /**
+     * Registers the callback of a load, which is unregistered if the view is recycled before the load completes.
+     *
+     * @param callback The callback of the load.
+     * @return The ID of the callback.
+     */
+    private String registerLoad(ValueCallback<String> callback) {
+        String[] callbackId = new String[1];
+        callbackId[0] = CallbackSync.getInstance().register(result -> {
+            mPendingLoads.remove(callbackId[0]);
+            callback.onReceiveValue(result);
+        });
+        mPendingLoads.add(callbackId[0]);
 
-        mWebView.addJavascriptInterface(new EventsEmitter(), JS_INTERFACE_EVENTS_EMITTER);
-        mWebView.addJavascriptInterface(CallbackSync.getInstance(), JS_INTERFACE_CALLBACK_SYNC);
+        return callbackId[0];
+    }
 
-        mWebView.loadUrl("file:///android_asset/index.html");
+    /**
+     * Binds the given layer to the map, so it is detached when the map is recycled.
+     *
+     * @param layer The layer that was added to the map.
+     * @return The layer.
+     */
+    private <T extends Layer> T attach(T layer) {
+        mAttachedLayers.add(layer);
+        return layer;
+    }
+
+    /**
+     * Stops the updates and view callbacks of the given layer, which is removed from the map.
+     *
+     * @param layer The layer to detach.
+     * @return The name of the JavaScript layer manager of the layer.
+     */
+    private String detach(Layer layer) {
+        mAttachedLayers.remove(layer);
+        if (layer instanceof TrackLayer) {
+            // no more updates are sent to the removed layer
+            ((TrackLayer) layer).detach();
+            return JS_TRACK_LAYER_MANAGER;
+        } else if (layer instanceof ClusterLayer) {
+            // the view of the map is no longer reported to the removed layer
+            ((ClusterLayer) layer).detach();
+            return JS_CLUSTER_LAYER_MANAGER;
+        } else if (layer instanceof HeatmapLayer) {
+            ((HeatmapLayer) layer).detach();
+            return JS_HEATMAP_LAYER_MANAGER;
+        }
+
+        return JS_VECTOR_LAYER_MANAGER;
+    }
+
+    /**
+     * Registers a loaded entity, replacing the entity with the same ID.
+     *
+     * @param entity The loaded entity.
+     */
+    private void addEntity(Entity entity) {
+        Entity replaced = mEntities.put(entity.getId(), entity);
+        if (mEntityCache != null) {
+            if (replaced != null) {
+                mEntityCache.remove(replaced);
+            }
+            mEntityCache.touch(entity);
+        }
+    }
+
+    /**
+     * Unregisters the entity with the given ID, which was removed from the map.
+     *
+     * @param id The ID of the removed entity.
+     */
+    private void removeEntity(String id) {
+        Entity removed = mEntities.remove(id);
+        if (removed != null && mEntityCache != null) {
+            mEntityCache.remove(removed);
+        }
+    }
+
+    /**
+     * Resolves the entities with the given IDs for an event, and fetches the content of the evicted ones from the map
+     * before the event is dispatched.
+     *
+     * @param ids      The IDs of the entities.
+     * @param dispatch Called on the main thread with the entities, in the same order.
+     */
+    private void resolveEntities(String[] ids, Consumer<Entity[]> dispatch) {
+        Entity[] entities = new Entity[ids.length];
+        List<Entity> evicted = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            // the entities are not touched before the event is dispatched, which could evict some of them
+            entities[i] = mEntities.get(ids[i]);
+            if (entities[i] != null && entities[i].isEvicted()) {
+                evicted.add(entities[i]);
+            }
+        }
+
+        if (evicted.isEmpty()) {
+            dispatch.accept(entities);
+            if (mEntityCache != null) {
+                Arrays.stream(entities).filter(Objects::nonNull).forEach(mEntityCache::touch);
+            }
+        } else {
+            fetch(evicted, fetched -> dispatch.accept(entities));
+        }
+    }
+
+    /**
+     * Builds the secondary indexes declared on the descriptor of the given layer, which is searched by the queries of
+     * the map from then on.
+     *
+     * @param layer      The loaded layer.
+     * @param descriptor The descriptor the layer was loaded with.
+     */
+    private void createIndexes(VectorLayer layer, GeoJsonLayerDescriptor descriptor) {
+        if (layer != null && descriptor.hasIndexes()) {
+            layer.createIndexes(descriptor.isNameIndexed(), descriptor.getIndexedProperties());
+            mIndexedLayers.add(layer);
+        }
+    }
+
+    /**
+     * Marks the map as initialized, applies its options and notifies the ready listener.
+     */
+    private void onMapReady() {
+        // the options are applied before the map is visible to the listener, as a pooled map has those of its last view
+        mHandler.post(() -> {
+            if (mIsRecycled) {
+                return;
+            }
+
+            evaluate(String.format(SCRIPT_CONFIGURE, sJsonConverter.toJson(mOptions)), null, new Object());
+            if (mOnCameraChangeListener != null) {
+                evaluate(String.format(SCRIPT_SET_CAMERA_EVENTS_ENABLED, true), null, new Object());
+            }
+            mIsInitialized = true;
+
+            OnMapReadyListener listener = mOnMapReadyListener;
+            if (listener != null) {
+                listener.onMapReady(MapView.this);
+            }
+        });
+    }
+
+    /**
+     * Evaluates the given script in the context of the map, or queues it while the map is paused.
+     *
+     * @param script   The script to evaluate.
+     * @param callback The callback to invoke with the result of the script, or {@code null}.
+     * @param key      The key of the script, which replaces the queued script that has the same key.
+     */
+    private void evaluate(@NonNull String script, @Nullable ValueCallback<String> callback, @NonNull Object key) {
+        if (mIsPaused) {
+            // the replaced script is removed first, so the script is applied after every script queued before it
+            mPendingScripts.remove(key);
+            mPendingScripts.put(key, new PendingScript(script, callback));
+            return;
+        }
+
+        mBridgeMetrics.dispatch(mWebView, script, callback);
+    }
+
+    /**
+     * Pauses or resumes the map when the visibility of the view or the state of its host changed.
+     */
+    private void updatePaused() {
+        // called by the constructor of View before the map view is initialized
+        if (mWebView == null || mIsRecycled) {
+            return;
+        }
+
+        boolean isPaused = !mIsHostResumed || !mIsAttached || !isShown() || getWindowVisibility() != VISIBLE;
+        if (isPaused == mIsPaused) {
+            return;
+        }
+
+        mIsPaused = isPaused;
+        if (isPaused) {
+            mBridgeMetrics.dispatch(mWebView, SCRIPT_PAUSE, null);
+            mWebView.onPause();
+            return;
+        }
+
+        mWebView.onResume();
+        mBridgeMetrics.dispatch(mWebView, SCRIPT_RESUME, null);
+        for (PendingScript pending : mPendingScripts.values()) {
+            mBridgeMetrics.dispatch(mWebView, pending.script, pending.callback);
+        }
+        mPendingScripts.clear();
+        for (Layer layer : mAttachedLayers) {
+            if (layer instanceof TrackLayer) {
+                ((TrackLayer) layer).resume();
+            }
+        }
+        requestRender();
+    }
+
+    /**
+     * Sends the render requests of the current frame to the map.
+     */
+    private void sendRenderRequest() {
+        mIsRenderRequested.set(false);
+        // a paused map renders when it resumes
+        if (mIsInitialized && !mIsRecycled && !mIsPaused) {
+            mBridgeMetrics.dispatch(mWebView, SCRIPT_REQUEST_RENDER, null);
+        }
+    }
+
+    /**
+     * Returns whether the given extent has both a width and a height, so the camera can be fitted to it.
+     *
+     * @param extent The extent.
+     * @return {@code true} if the extent is not a point or a line, otherwise {@code false}.
+     */
+    private static boolean hasArea(Rectangle extent) {
+        return extent.getNorth() > extent.getSouth() && extent.getEast() > extent.getWest();
+    }
+
+    /**
+     * Pads the given extent by {@link #FOCUS_PADDING} of its width and height on each side.
+     *
+     * @param extent The extent to pad.
+     * @return The padded extent, clamped to the valid longitudes and latitudes.
+     */
+    private static Rectangle pad(Rectangle extent) {
+        double padLat = (extent.getNorth() - extent.getSouth()) * FOCUS_PADDING;
+        double padLon = (extent.getEast() - extent.getWest()) * FOCUS_PADDING;
+
+        return new Rectangle(Math.min(extent.getNorth() + padLat, 90), Math.max(extent.getWest() - padLon, -180),
+                Math.max(extent.getSouth() - padLat, -90), Math.min(extent.getEast() + padLon, 180));
     }
 
     /**
@@ -318,18 +1396,42 @@ public class MapView extends FrameLayout {
     }
 
     /**
-     * Inner class used as a bridge between JavaScript and Android.
-     * Contains the logic that should be executed when receiving an event from the JavaScript map.
+     * Class used as a bridge between JavaScript and Android.
+     * Contains the logic that should be executed when receiving an event from the JavaScript map. Events are delivered
+     * to the {@code MapView} the web view of the map is attached to, and dropped while it is pooled.
      */
-    private class EventsEmitter {
+    static class EventsEmitter {
+        private volatile MapView mMapView;
+        private boolean mIsMapReady;
+
+        /**
+         * Delivers the events of the map to the given view, which is notified right away if the map is ready.
+         *
+         * @param mapView The view, or {@code null} while the map is pooled.
+         */
+        synchronized void attach(@Nullable MapView mapView) {
+            mMapView = mapView;
+            if (mapView != null && mIsMapReady) {
+                mapView.onMapReady();
+            }
+        }
+
+        /**
+         * Returns whether the map has finished loading.
+         *
+         * @return {@code true} if the map is ready, otherwise {@code false}.
+         */
+        synchronized boolean isMapReady() {
+            return mIsMapReady;
+        }
+
         @JavascriptInterface
-        public void fireOnMapReady() {
+        public synchronized void fireOnMapReady() {
             Log.d(TAG_MAP_VIEW_EVENT, "MAP_READY");
 
-            mIsInitialized = true;
-
-            if (mOnMapReadyListener != null) {
-                mHandler.post(() -> mOnMapReadyListener.onMapReady(MapView.this));
+            mIsMapReady = true;
+            if (mMapView != null) {
+                mMapView.onMapReady();
             }
         }
 
@@ -337,9 +1439,15 @@ public class MapView extends FrameLayout {
         public void fireOnClick(final String eventDataString) {
             Log.d(TAG_MAP_VIEW_EVENT, "CLICK");
 
-            if (mOnMapClickListener != null) {
-                mHandler.post(() ->
-                    mOnMapClickListener.onClick(MapView.this, createEventFromDescriptor(eventDataString)));
+            MapView mapView = mMapView;
+            if (mapView != null && mapView.mOnMapClickListener != null) {
+                mapView.mHandler.post(mapView.mBridgeMetrics.event("click", eventDataString, () ->
+                        createEventFromDescriptor(mapView, eventDataString, event -> {
+                            OnMapClickListener listener = mapView.mOnMapClickListener;
+                            if (listener != null) {
+                                listener.onClick(mapView, event);
+                            }
+                        })));
             }
         }
 
@@ -347,9 +1455,15 @@ public class MapView extends FrameLayout {
         public void fireOnLongClick(final String eventDataString) {
             Log.d(TAG_MAP_VIEW_EVENT, "LONG_CLICK");
 
-            if (mOnMapLongClickListener != null) {
-                mHandler.post(() -> mOnMapLongClickListener.onLongClick(
-                        MapView.this, createEventFromDescriptor(eventDataString)));
+            MapView mapView = mMapView;
+            if (mapView != null && mapView.mOnMapLongClickListener != null) {
+                mapView.mHandler.post(mapView.mBridgeMetrics.event("longClick", eventDataString, () ->
+                        createEventFromDescriptor(mapView, eventDataString, event -> {
+                            OnMapLongClickListener listener = mapView.mOnMapLongClickListener;
+                            if (listener != null) {
+                                listener.onLongClick(mapView, event);
+                            }
+                        })));
             }
         }
 
@@ -357,9 +1471,11 @@ public class MapView extends FrameLayout {
         public void fireOnDrag(final String eventDataString) {
             Log.d(TAG_MAP_VIEW_EVENT, "DRAG");
 
-            if (mOnMapDragListener != null) {
-                mHandler.post(() -> mOnMapDragListener.onDrag(
-                        MapView.this, sJsonConverter.fromJson(eventDataString, MapDragEvent.class)));
+            MapView mapView = mMapView;
+            if (mapView != null && mapView.mOnMapDragListener != null) {
+                mapView.mHandler.post(mapView.mBridgeMetrics.event("drag", eventDataString, () ->
+                        mapView.mOnMapDragListener.onDrag(
+                                mapView, sJsonConverter.fromJson(eventDataString, MapDragEvent.class))));
             }
         }
 
@@ -367,26 +1483,100 @@ public class MapView extends FrameLayout {
         public void fireOnTouch(final String eventDataString) {
             Log.d(TAG_MAP_VIEW_EVENT, "TOUCH");
 
-            if (mOnMapTouchListener != null) {
-                mHandler.post(() -> {
+            MapView mapView = mMapView;
+            if (mapView != null && mapView.mOnMapTouchListener != null) {
+                mapView.mHandler.post(mapView.mBridgeMetrics.event("touch", eventDataString, () -> {
                     MapTouchDescriptor descriptor = sJsonConverter.fromJson(eventDataString, MapTouchDescriptor.class);
-                    Entity[] entities = Arrays.stream(descriptor.entityIds)
-                            .map(id -> mEntities.get(id))
-                            .toArray(Entity[]::new);
-                    mOnMapTouchListener.onTouch(
-                            MapView.this, new MapTouchEvent(descriptor.type, descriptor.location, entities));
-                });
+                    mapView.resolveEntities(descriptor.entityIds, entities -> {
+                        OnMapTouchListener listener = mapView.mOnMapTouchListener;
+                        if (listener != null) {
+                            listener.onTouch(mapView,
+                                    new MapTouchEvent(descriptor.type, descriptor.location, entities));
+                        }
+                    });
+                }));
             }
         }
 
-        private MapClickEvent createEventFromDescriptor(String descriptor) {
+        @JavascriptInterface
+        public void fireOnCameraChange(final String eventDataString) {
+            MapView mapView = mMapView;
+            if (mapView != null && mapView.mOnCameraChangeListener != null) {
+                mapView.mHandler.post(mapView.mBridgeMetrics.event("cameraChange", eventDataString, () -> {
+                    OnCameraChangeListener listener = mapView.mOnCameraChangeListener;
+                    if (listener != null) {
+                        listener.onCameraChange(mapView, sJsonConverter.fromJson(eventDataString,
+                                CameraChangeEvent.class));
+                    }
+                }));
+            }
+        }
+
+        @JavascriptInterface
+        public void fireOnCameraState(final String packedState) {
+            MapView mapView = mMapView;
+            if (mapView == null) {
+                return;
+            }
+
+            mapView.mBridgeMetrics.receive(packedState);
+            mapView.mCameraState = CameraState.fromPacked(packedState);
+        }
+
+        @JavascriptInterface
+        public void fireOnEntitiesChanged(final String changesString) {
+            MapView mapView = mMapView;
+            if (mapView == null) {
+                return;
+            }
+
+            EntityChangeDescriptor[] changes = sJsonConverter.fromJson(changesString, EntityChangeDescriptor[].class);
+            mapView.mHandler.post(mapView.mBridgeMetrics.event("entitiesChanged", changesString, () -> {
+                for (EntityChangeDescriptor change : changes) {
+                    Entity entity = mapView.mEntities.get(change.id);
+                    if (entity != null) {
+                        entity.updateVisibility(change.isVisible);
+                    }
+                }
+            }));
+        }
+
+        @JavascriptInterface
+        public void fireOnRenderStats(final String packedStats) {
+            MapView mapView = mMapView;
+            if (mapView == null) {
+                return;
+            }
+
+            RenderStats stats = RenderStats.fromPacked(packedStats);
+            mapView.mRenderStats = stats;
+            mapView.mHandler.post(mapView.mBridgeMetrics.event("renderStats", packedStats, () -> {
+                OnRenderStatsListener listener = mapView.mOnRenderStatsListener;
+                if (listener != null) {
+                    listener.onRenderStats(mapView, stats);
+                }
+            }));
+        }
+
+        private static void createEventFromDescriptor(MapView mapView, String descriptor,
+                                                      Consumer<MapClickEvent> dispatch) {
             MapClickDescriptor eventDescriptor =
                     sJsonConverter.fromJson(descriptor, MapClickDescriptor.class);
-            Entity[] entities = Arrays.stream(eventDescriptor.entityIds)
-                    .map(id -> mEntities.get(id))
-                    .toArray(Entity[]::new);
+            mapView.resolveEntities(eventDescriptor.entityIds,
+                    entities -> dispatch.accept(new MapClickEvent(eventDescriptor.location, entities)));
+        }
+    }
+
+    /**
+     * A script that is queued while the map is paused.
+     */
+    private static final class PendingScript {
+        final String script;
+        final ValueCallback<String> callback;
 
-            return new MapClickEvent(eventDescriptor.location, entities);
+        PendingScript(String script, ValueCallback<String> callback) {
+            this.script = script;
+            this.callback = callback;
         }
     }
 }
@@ -0,0 +1,79 @@
+package com.github.dormesica.mapcontroller;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.webkit.WebSettings;
+import android.webkit.WebView;
+import android.webkit.WebViewClient;
+import androidx.annotation.NonNull;
+import com.github.dormesica.mapcontroller.util.CallbackSync;
+
+/**
+ * The {@link WebView} in which the Cesium map of a {@link MapView} runs.
+ * <p>
+ * The map is loaded as soon as the web view is created, and the events of the map are delivered to the
+ * {@link MapView} the web view is currently attached to, so a web view can be created ahead of time and passed between
+ * map views by the {@link MapWebViewPool}. The context of the web view can be replaced for the same reason.
+ */
+@SuppressLint("ViewConstructor")
+class MapWebView extends WebView {
+
+    /**
+     * The name of the events emitter interface in the JavaScript context.
+     */
+    private static final String JS_INTERFACE_EVENTS_EMITTER = "EventsEmitter";
+    /**
+     * The name of the CallbackSync interface in the JavaScript context.
+     */
+    private static final String JS_INTERFACE_CALLBACK_SYNC = "CallbackSync";
+    /**
+     * The page of the map.
+     */
+    private static final String MAP_URL = "file:///android_asset/index.html";
+
+    private final MapView.EventsEmitter mEventsEmitter;
+
+    /**
+     * Creates a new {@code MapWebView} and starts loading the map.
+     *
+     * @param context The context of the web view, which can be replaced later.
+     */
+    @SuppressLint("SetJavaScriptEnabled")
+    MapWebView(@NonNull Context context) {
+        super(new MutableContextWrapper(context));
+
+        WebSettings settings = getSettings();
+        settings.setJavaScriptEnabled(true);
+        settings.setAllowFileAccessFromFileURLs(true);
+        settings.setAllowFileAccess(false);
+
+        setWebViewClient(new WebViewClient());
+
+        mEventsEmitter = new MapView.EventsEmitter();
+        addJavascriptInterface(mEventsEmitter, JS_INTERFACE_EVENTS_EMITTER);
+        addJavascriptInterface(CallbackSync.getInstance(), JS_INTERFACE_CALLBACK_SYNC);
+
+        loadUrl(MAP_URL);
+    }
+
+    /**
+     * Returns the bridge through which the events of the map are delivered to the attached {@link MapView}.
+     *
+     * @return The events emitter of the web view.
+     */
+    @NonNull
+    MapView.EventsEmitter getEventsEmitter() {
+        return mEventsEmitter;
+    }
+
+    /**
+     * Replaces the context of the web view, e.g. with the activity of the {@link MapView} it is attached to, or with
+     * the application context while it is pooled.
+     *
+     * @param context The new context.
+     */
+    void setBaseContext(@NonNull Context context) {
+        ((MutableContextWrapper) getContext()).setBaseContext(context);
+    }
+}
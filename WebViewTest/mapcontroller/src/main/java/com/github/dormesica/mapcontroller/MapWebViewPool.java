@@ -0,0 +1,221 @@
+package com.github.dormesica.mapcontroller;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Looper;
+import android.view.ViewGroup;
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayDeque;
+
+/**
+ * A pool of maps that are loaded ahead of time, so a {@link MapView} is ready to be interacted with as soon as it is
+ * created rather than after the map has booted.
+ * <p>
+ * The application calls {@link #prewarm(Context)}, e.g. when it starts, and the pool loads maps while the main thread
+ * is idle. Every new {@code MapView} takes a map from the pool when one is available, and returns it to the pool when
+ * it is {@link MapView#recycle() recycled}, after its layers are removed and its camera is reset. Pooled maps hold no
+ * reference to an activity, and are destroyed when the system is low on memory.
+ * <p>
+ * All the methods of the pool must be called on the main thread.
+ *
+ * @since 1.0.0
+ */
+public final class MapWebViewPool {
+
+    /**
+     * Script for resetting a map before it is pooled, if it has finished loading.
+     */
+    private static final String SCRIPT_RESET = "if (window." + MapView.JS_MAP_NAME + ") { " + MapView.JS_MAP_NAME +
+            ".reset(); }";
+
+    private static MapWebViewPool sInstance = null;
+
+    /**
+     * Returns the instance of the <code>MapWebViewPool</code> class.
+     *
+     * @return <code>MapWebViewPool</code> instance.
+     */
+    @MainThread
+    public static MapWebViewPool getInstance() {
+        if (sInstance == null) {
+            sInstance = new MapWebViewPool();
+        }
+
+        return sInstance;
+    }
+
+    private final ArrayDeque<MapWebView> mWebViews = new ArrayDeque<>();
+    private int mMaxSize = 1;
+    private Context mApplicationContext;
+    private boolean mIsEnabled;
+    private boolean mIsPrewarming;
+
+    private MapWebViewPool() {
+    }
+
+    /**
+     * Loads maps into the pool until it is full, one map every time the main thread becomes idle. Maps taken from the
+     * pool afterwards are replaced in the same way.
+     *
+     * @param context A context of the application.
+     */
+    @MainThread
+    public void prewarm(@NonNull Context context) {
+        if (mApplicationContext == null) {
+            mApplicationContext = context.getApplicationContext();
+            mApplicationContext.registerComponentCallbacks(new TrimMemoryCallbacks());
+        }
+
+        mIsEnabled = true;
+        schedulePrewarm();
+    }
+
+    /**
+     * Sets the maximal amount of maps held by the pool. The default is 1. Pooled maps above the new size are
+     * destroyed.
+     *
+     * @param maxSize The maximal amount of pooled maps, 0 to disable pooling.
+     * @throws IllegalArgumentException In case the size is negative.
+     */
+    @MainThread
+    public void setMaxSize(int maxSize) throws IllegalArgumentException {
+        Preconditions.checkArgument(maxSize >= 0, "Pool size must not be negative.");
+
+        mMaxSize = maxSize;
+        while (mWebViews.size() > maxSize) {
+            mWebViews.removeLast().destroy();
+        }
+    }
+
+    /**
+     * Returns the maximal amount of maps held by the pool.
+     *
+     * @return The maximal size of the pool.
+     */
+    @MainThread
+    public int getMaxSize() {
+        return mMaxSize;
+    }
+
+    /**
+     * Returns the amount of maps currently held by the pool.
+     *
+     * @return The amount of pooled maps.
+     */
+    @MainThread
+    public int size() {
+        return mWebViews.size();
+    }
+
+    /**
+     * Destroys all the pooled maps. The pool is not filled again until the next call to {@link #prewarm(Context)}.
+     */
+    @MainThread
+    public void clear() {
+        mIsEnabled = false;
+        destroyAll();
+    }
+
+    /**
+     * Takes a map from the pool, preferring one that has finished loading, or creates a new one if the pool is empty.
+     *
+     * @param context The context of the {@link MapView} that displays the map.
+     * @return The web view of the map.
+     */
+    @NonNull
+    MapWebView acquire(@NonNull Context context) {
+        MapWebView webView = mWebViews.peekFirst();
+        for (MapWebView pooled : mWebViews) {
+            if (pooled.getEventsEmitter().isMapReady()) {
+                webView = pooled;
+                break;
+            }
+        }
+
+        if (webView == null) {
+            return new MapWebView(context);
+        }
+
+        mWebViews.remove(webView);
+        webView.setBaseContext(context);
+        webView.onResume();
+        // replace the map that was taken
+        schedulePrewarm();
+
+        return webView;
+    }
+
+    /**
+     * Returns a map to the pool, or destroys it if the pool is full.
+     *
+     * @param webView The web view of the map, which was removed from its {@link MapView}.
+     */
+    void release(@NonNull MapWebView webView) {
+        webView.getEventsEmitter().attach(null);
+        if (webView.getParent() != null) {
+            ((ViewGroup) webView.getParent()).removeView(webView);
+        }
+
+        if (mWebViews.size() >= mMaxSize) {
+            webView.destroy();
+            return;
+        }
+
+        webView.evaluateJavascript(SCRIPT_RESET, null);
+        webView.setBaseContext(webView.getContext().getApplicationContext());
+        webView.onPause();
+        mWebViews.addLast(webView);
+    }
+
+    private void schedulePrewarm() {
+        if (!mIsEnabled || mIsPrewarming || mWebViews.size() >= mMaxSize) {
+            return;
+        }
+
+        mIsPrewarming = true;
+        Looper.myQueue().addIdleHandler(() -> {
+            if (mIsEnabled && mWebViews.size() < mMaxSize) {
+                MapWebView webView = new MapWebView(mApplicationContext);
+                // the map keeps loading while the web view is paused
+                webView.onPause();
+                mWebViews.addLast(webView);
+            }
+
+            // the handler is kept until the pool is full
+            mIsPrewarming = mIsEnabled && mWebViews.size() < mMaxSize;
+            return mIsPrewarming;
+        });
+    }
+
+    private void destroyAll() {
+        while (!mWebViews.isEmpty()) {
+            mWebViews.removeFirst().destroy();
+        }
+    }
+
+    /**
+     * Releases the pooled maps when the application is in the background and the system is low on memory.
+     */
+    private class TrimMemoryCallbacks implements ComponentCallbacks2 {
+        @Override
+        public void onTrimMemory(int level) {
+            // the pool is filled again once a map is taken from it
+            if (level >= TRIM_MEMORY_BACKGROUND) {
+                destroyAll();
+            }
+        }
+
+        @Override
+        public void onConfigurationChanged(@NonNull Configuration newConfig) {
+        }
+
+        @Override
+        public void onLowMemory() {
+            destroyAll();
+        }
+    }
+}
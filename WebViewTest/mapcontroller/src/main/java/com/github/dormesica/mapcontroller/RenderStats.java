@@ -0,0 +1,168 @@
+package com.github.dormesica.mapcontroller;
+
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+
+/**
+ * A snapshot of the rendering performance of a {@link MapView}, sampled by the map over an interval.
+ * <p>
+ * The map samples its stats only when {@link MapOptions#setRenderStatsInterval(int)} is set. The latest snapshot is
+ * available from {@link MapView#getRenderStats()}, and every snapshot is delivered to the
+ * {@link com.github.dormesica.mapcontroller.event.OnRenderStatsListener} of the map. Values the web view does not
+ * report, such as the size of the heap on some versions of it, are {@code -1}.
+ *
+ * @since 1.0.0
+ */
+public final class RenderStats {
+
+    /**
+     * The amount of values in a packed stats message.
+     */
+    private static final int PACKED_LENGTH = 9;
+
+    private final long timestamp;
+    private final double framesPerSecond;
+    private final double frameTimeP50;
+    private final double frameTimeP95;
+    private final int tilesLoading;
+    private final int tilesLoaded;
+    private final int entityCount;
+    private final int primitiveCount;
+    private final long usedHeapSize;
+    private final long totalHeapSize;
+
+    private RenderStats(long timestamp, double[] values) {
+        this.timestamp = timestamp;
+        framesPerSecond = values[0];
+        frameTimeP50 = values[1];
+        frameTimeP95 = values[2];
+        tilesLoading = (int) values[3];
+        tilesLoaded = (int) values[4];
+        entityCount = (int) values[5];
+        primitiveCount = (int) values[6];
+        usedHeapSize = (long) values[7];
+        totalHeapSize = (long) values[8];
+    }
+
+    /**
+     * Creates a {@code RenderStats} from the message the map sends, which packs the values in the order of the getters
+     * of this class, separated by commas.
+     *
+     * @param packed The packed stats.
+     * @return The stats, timed now.
+     * @throws IllegalArgumentException when the message is malformed.
+     */
+    @NonNull
+    static RenderStats fromPacked(@NonNull String packed) throws IllegalArgumentException {
+        String[] parts = packed.split(",");
+        if (parts.length != PACKED_LENGTH) {
+            throw new IllegalArgumentException("Malformed render stats: " + packed);
+        }
+
+        double[] values = new double[PACKED_LENGTH];
+        for (int i = 0; i < PACKED_LENGTH; i++) {
+            values[i] = Double.parseDouble(parts[i]);
+        }
+
+        return new RenderStats(SystemClock.elapsedRealtime(), values);
+    }
+
+    /**
+     * Returns the time the stats were received at.
+     *
+     * @return The time in milliseconds since boot, as returned by {@link SystemClock#elapsedRealtime()}.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the amount of frames rendered per second over the sampled interval. A map that renders on demand renders
+     * no frames while it is idle.
+     *
+     * @return The frame rate.
+     */
+    public double getFramesPerSecond() {
+        return framesPerSecond;
+    }
+
+    /**
+     * Returns the median time it took to render a frame over the sampled interval, on the JavaScript thread.
+     *
+     * @return The median frame time in milliseconds, or {@code 0} if no frames were rendered.
+     */
+    public double getFrameTimeP50() {
+        return frameTimeP50;
+    }
+
+    /**
+     * Returns the 95th percentile of the time it took to render a frame over the sampled interval, on the JavaScript
+     * thread.
+     *
+     * @return The 95th percentile of the frame time in milliseconds, or {@code 0} if no frames were rendered.
+     */
+    public double getFrameTimeP95() {
+        return frameTimeP95;
+    }
+
+    /**
+     * Returns the amount of terrain and imagery tiles that are waiting to be loaded.
+     *
+     * @return The amount of loading tiles.
+     */
+    public int getTilesLoading() {
+        return tilesLoading;
+    }
+
+    /**
+     * Returns the amount of terrain and imagery tiles that are loaded and held in memory.
+     *
+     * @return The amount of loaded tiles, or {@code -1} if unknown.
+     */
+    public int getTilesLoaded() {
+        return tilesLoaded;
+    }
+
+    /**
+     * Returns the amount of entities of the vector layers of the map.
+     *
+     * @return The amount of entities.
+     */
+    public int getEntityCount() {
+        return entityCount;
+    }
+
+    /**
+     * Returns the amount of primitives in the scene, e.g. the collections of track, cluster and heatmap layers.
+     *
+     * @return The amount of primitives.
+     */
+    public int getPrimitiveCount() {
+        return primitiveCount;
+    }
+
+    /**
+     * Returns the size of the JavaScript heap that is in use.
+     *
+     * @return The used heap size in bytes, or {@code -1} if unknown.
+     */
+    public long getUsedHeapSize() {
+        return usedHeapSize;
+    }
+
+    /**
+     * Returns the size of the JavaScript heap, including the unused part.
+     *
+     * @return The total heap size in bytes, or {@code -1} if unknown.
+     */
+    public long getTotalHeapSize() {
+        return totalHeapSize;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RenderStats{fps=%.1f, p50=%.2fms, p95=%.2fms, tiles=%d/%d, entities=%d, " +
+                        "primitives=%d, heap=%d/%d}", framesPerSecond, frameTimeP50, frameTimeP95, tilesLoading,
+                tilesLoaded, entityCount, primitiveCount, usedHeapSize, totalHeapSize);
+    }
+}
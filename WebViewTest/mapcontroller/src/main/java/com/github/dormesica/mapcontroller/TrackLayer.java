@@ -0,0 +1,213 @@
+package com.github.dormesica.mapcontroller;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import androidx.annotation.NonNull;
+import com.github.dormesica.mapcontroller.layers.Layer;
+import com.github.dormesica.mapcontroller.layers.TrackBuffer;
+import com.github.dormesica.mapcontroller.layers.TrackLayerDescriptor;
+import com.github.dormesica.mapcontroller.location.Coordinates;
+import com.github.dormesica.mapcontroller.util.JsonConverter;
+import com.google.gson.Gson;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class represents a layer of moving objects that has been loaded on to a {@link MapView}.
+ * <p>
+ * The positions of the objects can be updated from any thread and at any rate. Updates are written into a
+ * {@link TrackBuffer} and sent to the map once every frame, in a single script that contains only the latest position
+ * of every object that moved. An object is added to the layer by its first update.
+ * <p>
+ * Track layers are created using {@link MapView#load(TrackLayerDescriptor, android.webkit.ValueCallback)}.
+ *
+ * @since 1.0.0
+ */
+public class TrackLayer extends Layer {
+
+    /**
+     * Script format for track layer updates.
+     * First string is the layer ID, second is the added objects, third is the removed objects and the fourth is the
+     * packed positions.
+     */
+    private static final String SCRIPT_UPDATE =
+            MapView.JS_MAP_NAME + "." + MapView.JS_TRACK_LAYER_MANAGER + ".update(\"%s\", [%s], [%s], [%s]);";
+
+    private static final Gson sJsonConverter = JsonConverter.getConverter();
+
+    private final MapView mMapView;
+    private final Handler mHandler;
+    private final Choreographer mChoreographer;
+    private final TrackBuffer mBuffer;
+    private final TrackBuffer.Update mUpdate = new TrackBuffer.Update();
+    // the updates of the frames in which the map was paused, accessed only on the main thread
+    private final TrackBuffer.Update mPausedUpdate = new TrackBuffer.Update();
+
+    private final AtomicBoolean mIsFrameScheduled = new AtomicBoolean();
+    private final Choreographer.FrameCallback mFrameCallback = this::onFrame;
+    private final Runnable mScheduleFrame;
+    private volatile boolean mIsRemoved;
+
+    /**
+     * Creates a new {@code TrackLayer} for a layer that was added to the map. Must be called on the main thread.
+     *
+     * @param mapView    The map the layer was added to.
+     * @param id         The ID of the layer.
+     * @param descriptor The descriptor the layer was created from.
+     */
+    TrackLayer(@NonNull MapView mapView, @NonNull String id, @NonNull TrackLayerDescriptor descriptor) {
+        super(id);
+
+        mMapView = mapView;
+        mHandler = new Handler(Looper.getMainLooper());
+        mChoreographer = Choreographer.getInstance();
+        mBuffer = new TrackBuffer(descriptor.getBufferCapacity());
+        mScheduleFrame = () -> mChoreographer.postFrameCallback(mFrameCallback);
+    }
+
+    /**
+     * Updates the position of an object. The object is added to the layer in case it is not in it.
+     *
+     * @param trackId The ID of the object.
+     * @param lon     The longitude of the object.
+     * @param lat     The latitude of the object.
+     */
+    public void update(@NonNull String trackId, double lon, double lat) {
+        update(trackId, lon, lat, 0);
+    }
+
+    /**
+     * Updates the position of an object. The object is added to the layer in case it is not in it.
+     *
+     * @param trackId The ID of the object.
+     * @param lon     The longitude of the object.
+     * @param lat     The latitude of the object.
+     * @param alt     The altitude of the object.
+     */
+    public void update(@NonNull String trackId, double lon, double lat, double alt) {
+        mBuffer.write(trackId, lon, lat, alt);
+        scheduleFrame();
+    }
+
+    /**
+     * Updates the position of an object. The object is added to the layer in case it is not in it.
+     *
+     * @param trackId  The ID of the object.
+     * @param location The location of the object.
+     */
+    public void update(@NonNull String trackId, @NonNull Coordinates location) {
+        update(trackId, location.getLon(), location.getLat(), location.getAlt());
+    }
+
+    /**
+     * Removes an object from the layer.
+     *
+     * @param trackId The ID of the object.
+     */
+    public void remove(@NonNull String trackId) {
+        mBuffer.remove(trackId);
+        scheduleFrame();
+    }
+
+    /**
+     * Returns the amount of objects in the layer, as of the last frame.
+     * <p>
+     * Must be called on the main thread.
+     *
+     * @return The amount of objects in the layer.
+     */
+    public int getTrackCount() {
+        return mBuffer.getTrackCount();
+    }
+
+    /**
+     * Returns the amount of updates that were dropped because the buffer of the layer was full.
+     *
+     * @return The amount of dropped updates.
+     * @see TrackLayerDescriptor.Builder#setBufferCapacity(int)
+     */
+    public long getDroppedCount() {
+        return mBuffer.getDroppedCount();
+    }
+
+    /**
+     * Sends the updates that were merged while the map was paused, after it resumes.
+     */
+    void resume() {
+        if (mIsRemoved || mPausedUpdate.isEmpty()) {
+            return;
+        }
+
+        mMapView.evaluateJavascript(createUpdateScript(mPausedUpdate));
+        mPausedUpdate.clear();
+    }
+
+    /**
+     * Stops sending updates to the map, after the layer is removed from it.
+     */
+    void detach() {
+        mIsRemoved = true;
+    }
+
+    private void scheduleFrame() {
+        if (mIsRemoved || !mIsFrameScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            mScheduleFrame.run();
+        } else {
+            mHandler.post(mScheduleFrame);
+        }
+    }
+
+    private void onFrame(long frameTimeNanos) {
+        // updates written from now on schedule the next frame
+        mIsFrameScheduled.set(false);
+        if (mIsRemoved || !mBuffer.drain(mUpdate)) {
+            return;
+        }
+
+        // the buffer is still drained every frame so it does not overflow, but a single update is sent on resume
+        if (mMapView.isPaused()) {
+            mPausedUpdate.merge(mUpdate);
+            return;
+        }
+
+        mMapView.evaluateJavascript(createUpdateScript(mUpdate));
+    }
+
+    private String createUpdateScript(TrackBuffer.Update update) {
+        StringBuilder added = new StringBuilder();
+        for (int i = 0; i < update.getAddedCount(); i++) {
+            if (i > 0) {
+                added.append(',');
+            }
+            added.append('[').append(sJsonConverter.toJson(update.getAddedId(i))).append(',')
+                    .append(update.getAddedIndex(i)).append(']');
+        }
+
+        StringBuilder removed = new StringBuilder();
+        for (int i = 0; i < update.getRemovedCount(); i++) {
+            if (i > 0) {
+                removed.append(',');
+            }
+            removed.append(update.getRemovedIndex(i));
+        }
+
+        double[] positions = update.getPositions();
+        StringBuilder packed = new StringBuilder(update.getPositionCount() * 48);
+        for (int i = 0; i < 4 * update.getPositionCount(); i += 4) {
+            if (i > 0) {
+                packed.append(',');
+            }
+            packed.append((int) positions[i]).append(',')
+                    .append(positions[i + 1]).append(',')
+                    .append(positions[i + 2]).append(',')
+                    .append(positions[i + 3]);
+        }
+
+        return String.format(SCRIPT_UPDATE, getId(), added, removed, packed);
+    }
+}
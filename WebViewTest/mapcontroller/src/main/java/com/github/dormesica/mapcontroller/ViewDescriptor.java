@@ -0,0 +1,16 @@
+package com.github.dormesica.mapcontroller;
+
+import com.github.dormesica.mapcontroller.location.Rectangle;
+
+/**
+ * Internal class the describes the JSON received from the {@link MapView} when its view changes, by which layers such
+ * as {@link ClusterLayer} and {@link HeatmapLayer} query what they display.
+ */
+class ViewDescriptor {
+
+    Rectangle extent;
+    double height;
+    double latitude;
+    double fieldOfView;
+    int viewportHeight;
+}
@@ -0,0 +1,56 @@
+package com.github.dormesica.mapcontroller.event;
+
+import com.github.dormesica.mapcontroller.location.Rectangle;
+
+/**
+ * Holds a bundle of data that is passed to a camera change callback function.
+ * <p>
+ * A camera that moves reports {@link #MOVE_START} once, {@link #MOVING} at most once every
+ * {@link com.github.dormesica.mapcontroller.MapOptions#setCameraMoveInterval(int) camera move interval}, and
+ * {@link #MOVE_END} once it has stopped, whether it was moved by a gesture or by
+ * {@link com.github.dormesica.mapcontroller.MapView#focusOn(com.github.dormesica.mapcontroller.location.Coordinates)
+ * focusOn}.
+ *
+ * @since 1.0.0
+ */
+public class CameraChangeEvent {
+
+    /** Constant that indicates the camera has started moving. */
+    public static final int MOVE_START = 0;
+    /** Constant that indicates the camera is moving. */
+    public static final int MOVING = 1;
+    /** Constant that indicates the camera has stopped moving. */
+    public static final int MOVE_END = 2;
+
+    private int type;
+    private Rectangle extent;
+    private double height;
+
+    /**
+     * Returns the type of the event.
+     *
+     * @return {@link #MOVE_START}, {@link #MOVING} or {@link #MOVE_END}.
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Returns the geographic extent of the view at the time of the event. A view that contains space has the extent of
+     * the whole globe.
+     *
+     * @return The extent of the view.
+     */
+    public Rectangle getExtent() {
+        return extent;
+    }
+
+    /**
+     * Returns the height of the camera above the ellipsoid at the time of the event.
+     *
+     * @return The height of the camera in meters.
+     */
+    public double getHeight() {
+        return height;
+    }
+}
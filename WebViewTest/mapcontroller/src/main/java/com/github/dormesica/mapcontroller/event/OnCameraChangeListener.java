@@ -0,0 +1,22 @@
+package com.github.dormesica.mapcontroller.event;
+
+import com.github.dormesica.mapcontroller.MapView;
+
+/**
+ * Interface definition for a callback to be invoked when the camera of the map starts moving, moves or stops moving.
+ * <p>
+ * Data that depends on the view of the map should be refreshed when the camera stops moving
+ * ({@link CameraChangeEvent#MOVE_END}), rather than by polling {@link MapView#getViewExtent}.
+ *
+ * @since 1.0.0
+ */
+public interface OnCameraChangeListener {
+
+    /**
+     * Called on the main thread when the camera of the map has changed.
+     *
+     * @param map         The map whose camera changed.
+     * @param cameraEvent Additional data about the event.
+     */
+    void onCameraChange(MapView map, CameraChangeEvent cameraEvent);
+}
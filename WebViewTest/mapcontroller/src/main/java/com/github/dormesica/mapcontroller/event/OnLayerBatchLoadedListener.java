@@ -0,0 +1,29 @@
+package com.github.dormesica.mapcontroller.event;
+
+import com.github.dormesica.mapcontroller.MapView;
+import com.github.dormesica.mapcontroller.layers.Entity;
+import com.github.dormesica.mapcontroller.layers.VectorLayer;
+
+import java.util.List;
+
+/**
+ * Interface definition for a callback to be invoked when a batch of entities of a layer that is loaded in batches has
+ * been received.
+ *
+ * @since 1.0.0
+ */
+public interface OnLayerBatchLoadedListener {
+
+    /**
+     * Called when a batch of entities has been added to the layer.
+     * <p>
+     * The layer contains all the entities received so far, including the ones in {@code batch}.
+     *
+     * @param map         The map onto which the layer is loaded.
+     * @param layer       The layer that is being loaded.
+     * @param batch       The entities that were received in the current batch.
+     * @param loadedCount The amount of entities received so far.
+     * @param totalCount  The total amount of entities in the layer.
+     */
+    void onBatchLoaded(MapView map, VectorLayer layer, List<Entity> batch, int loadedCount, int totalCount);
+}
@@ -0,0 +1,20 @@
+package com.github.dormesica.mapcontroller.event;
+
+import com.github.dormesica.mapcontroller.MapView;
+import com.github.dormesica.mapcontroller.RenderStats;
+
+/**
+ * Interface definition for a callback to be invoked when the map has sampled its rendering performance.
+ *
+ * @since 1.0.0
+ */
+public interface OnRenderStatsListener {
+
+    /**
+     * Called on the main thread every time the map has sampled its rendering performance.
+     *
+     * @param map   The map that was sampled.
+     * @param stats The stats of the sampled interval.
+     */
+    void onRenderStats(MapView map, RenderStats stats);
+}
@@ -1,6 +0,0 @@
-package com.github.dormesica.mapcontroller.layers;
-
-final class LayerTypes {
-
-    static final String GeoJSON = "GeoJSON";
-}
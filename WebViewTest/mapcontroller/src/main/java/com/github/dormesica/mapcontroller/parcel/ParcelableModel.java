@@ -0,0 +1,105 @@
+package com.github.dormesica.mapcontroller.parcel;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import androidx.annotation.NonNull;
+import com.github.dormesica.mapcontroller.StyleEditor;
+import com.github.dormesica.mapcontroller.util.JsonConverter;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * A {@link Parcelable} container for one of the library's model objects.
+ * <p>
+ * The model classes (layers, entities, locations, colors, etc.) are plain Java objects that can be used without the
+ * Android framework, so they cannot be written to a {@link Parcel} directly. A {@code ParcelableModel} writes the
+ * wrapped object to the parcel as JSON along with its class name, and recreates it when read from the parcel.
+ * <p>
+ * Instances are created using {@link Parcels#wrap(Object)}.
+ *
+ * @param <T> The type of the wrapped object.
+ * @since 1.0.0
+ */
+public final class ParcelableModel<T> implements Parcelable {
+
+    public static final Parcelable.Creator<ParcelableModel<?>> CREATOR = new Parcelable.Creator<ParcelableModel<?>>() {
+        @Override
+        public ParcelableModel<?> createFromParcel(Parcel source) {
+            return new ParcelableModel<>(source);
+        }
+
+        @Override
+        public ParcelableModel<?>[] newArray(int size) {
+            return new ParcelableModel<?>[size];
+        }
+    };
+
+    /**
+     * Converter for {@link StyleEditor} objects.
+     * <p>
+     * {@link JsonConverter} only writes the changes that were set on an editor, which is not enough to recreate it,
+     * so editors are written field by field, including the values that mark a field as unset.
+     */
+    private static final Gson sEditorConverter = new GsonBuilder().serializeSpecialFloatingPointValues().create();
+
+    private final T mValue;
+
+    /**
+     * Creates a new {@code ParcelableModel} that wraps the given object.
+     *
+     * @param value The wrapped object.
+     */
+    ParcelableModel(@NonNull T value) {
+        mValue = value;
+    }
+
+    /**
+     * Creates a new {@code ParcelableModel} from a {@link Parcel}.
+     *
+     * @param source The source Parcel.
+     */
+    @SuppressWarnings("unchecked")
+    private ParcelableModel(Parcel source) {
+        String className = source.readString();
+        String json = source.readString();
+
+        try {
+            Class<?> type = Class.forName(className, true, ParcelableModel.class.getClassLoader());
+            mValue = (T) converterFor(type).fromJson(json, type);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Unknown parcelled class " + className, e);
+        }
+    }
+
+    /**
+     * Returns the wrapped object.
+     *
+     * @return The wrapped object.
+     */
+    @NonNull
+    public T get() {
+        return mValue;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        Class<?> type = mValue.getClass();
+        dest.writeString(type.getName());
+        dest.writeString(converterFor(type).toJson(mValue, type));
+    }
+
+    /**
+     * Returns the converter used to write and read objects of the given type.
+     *
+     * @param type The type of the object.
+     * @return The converter for the type.
+     */
+    private static Gson converterFor(Class<?> type) {
+        return StyleEditor.class.isAssignableFrom(type) ? sEditorConverter : JsonConverter.getConverter();
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.dormesica.mapcontroller.parcel;
+
+import android.os.Parcelable;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.github.dormesica.mapcontroller.StyleEditor;
+import com.github.dormesica.mapcontroller.graphics.Color;
+import com.github.dormesica.mapcontroller.layers.Entity;
+import com.github.dormesica.mapcontroller.layers.Properties;
+import com.github.dormesica.mapcontroller.layers.VectorLayer;
+import com.github.dormesica.mapcontroller.location.Coordinates;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Utility methods for passing the library's model objects between Android components, e.g. in an
+ * {@link android.content.Intent} or in the arguments of a {@link androidx.fragment.app.Fragment}.
+ * <p>
+ * The following types are supported: {@link VectorLayer}, {@link Entity}, {@link Properties}, {@link Coordinates},
+ * {@link Rectangle}, {@link Color} and {@link StyleEditor}, including their subclasses.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ * intent.putExtra(EXTRA_LAYER, Parcels.wrap(layer));
+ * ...
+ * VectorLayer layer = Parcels.unwrap(intent.getParcelableExtra(EXTRA_LAYER));
+ * }</pre>
+ *
+ * @since 1.0.0
+ */
+public final class Parcels {
+
+    private static final Class<?>[] SUPPORTED_TYPES = {
+            VectorLayer.class,
+            Entity.class,
+            Properties.class,
+            Coordinates.class,
+            Rectangle.class,
+            Color.class,
+            StyleEditor.class
+    };
+
+    private Parcels() {
+    }
+
+    /**
+     * Wraps the given object in a {@link Parcelable} container.
+     *
+     * @param value The object to wrap.
+     * @param <T>   The type of the object.
+     * @return A {@link Parcelable} that contains the object.
+     * @throws IllegalArgumentException In case the type of the object is not supported.
+     */
+    @NonNull
+    public static <T> ParcelableModel<T> wrap(@NonNull T value) throws IllegalArgumentException {
+        Preconditions.checkArgument(isSupported(value.getClass()), "%s cannot be parcelled", value.getClass());
+
+        return new ParcelableModel<>(value);
+    }
+
+    /**
+     * Wraps every object in the given collection in a {@link Parcelable} container.
+     * <p>
+     * The returned list can be passed to {@link android.content.Intent#putParcelableArrayListExtra(String, ArrayList)}.
+     *
+     * @param values The objects to wrap.
+     * @return A list that contains the wrapped objects in the iteration order of {@code values}.
+     * @throws IllegalArgumentException In case the type of one of the objects is not supported.
+     */
+    @NonNull
+    public static ArrayList<Parcelable> wrapAll(@NonNull Collection<?> values) throws IllegalArgumentException {
+        ArrayList<Parcelable> wrapped = new ArrayList<>(values.size());
+        for (Object value : values) {
+            wrapped.add(wrap(value));
+        }
+
+        return wrapped;
+    }
+
+    /**
+     * Returns the object contained in a {@link Parcelable} that was created by {@link #wrap(Object)}.
+     *
+     * @param parcelable The container of the object.
+     * @param <T>        The type of the object.
+     * @return The contained object, or {@code null} if {@code parcelable} is {@code null}.
+     * @throws IllegalArgumentException In case {@code parcelable} was not created by {@link #wrap(Object)}.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static <T> T unwrap(@Nullable Parcelable parcelable) throws IllegalArgumentException {
+        if (parcelable == null) {
+            return null;
+        }
+
+        Preconditions.checkArgument(parcelable instanceof ParcelableModel, "%s was not created by Parcels.wrap",
+                parcelable);
+
+        return (T) ((ParcelableModel<?>) parcelable).get();
+    }
+
+    /**
+     * Returns the objects contained in a list of {@link Parcelable} that was created by {@link #wrapAll(Collection)}.
+     *
+     * @param parcelables The containers of the objects.
+     * @param <T>         The type of the objects.
+     * @return A list of the contained objects, or {@code null} if {@code parcelables} is {@code null}.
+     * @throws IllegalArgumentException In case one of the items was not created by {@link #wrap(Object)}.
+     */
+    @Nullable
+    public static <T> List<T> unwrapAll(@Nullable List<? extends Parcelable> parcelables)
+            throws IllegalArgumentException {
+        if (parcelables == null) {
+            return null;
+        }
+
+        List<T> values = new ArrayList<>(parcelables.size());
+        for (Parcelable parcelable : parcelables) {
+            values.add(unwrap(parcelable));
+        }
+
+        return values;
+    }
+
+    /**
+     * Checks whether objects of the given type can be wrapped.
+     *
+     * @param type The type to check.
+     * @return {@code true} if the type is supported, otherwise {@code false}.
+     */
+    private static boolean isSupported(Class<?> type) {
+        for (Class<?> supported : SUPPORTED_TYPES) {
+            if (supported.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -5,9 +5,9 @@ import android.webkit.ValueCallback;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A JavaScript interface that syncs JavaScript callbacks with Android framework callbacks.
@@ -21,6 +21,12 @@ import java.util.UUID;
  * callbacks in those cases that evaluate asynchronous code. The callback should be registered with the
  * <code>CallbackSync</code> and is assigned an ID. This ID should then be used by the JavaScript code to invoked the
  * Specific callback with the required <code>String</code> value.
+ * <p>
+ * Callbacks are removed once they are invoked. Operations that report partial results (such as layers that are loaded
+ * in batches) can use {@link #publish(String, String)} to pass data to a callback without removing it, and should
+ * remove the callback explicitly using {@link #unregister(String)} once the operation completes.
+ * <p>
+ * JavaScript invocations are received on a background thread, therefore callbacks are not invoked on the main thread.
  *
  * @since 1.0.0
  */
@@ -44,7 +50,7 @@ public class CallbackSync {
     private Map<String, ValueCallback<String>> mMap;
 
     private CallbackSync() {
-        mMap = new HashMap<>();
+        mMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -60,6 +66,15 @@ public class CallbackSync {
         return id;
     }
 
+    /**
+     * Removes the callback with the given ID without invoking it.
+     *
+     * @param id The ID of the callback that should be removed.
+     */
+    public void unregister(@NonNull String id) {
+        mMap.remove(id);
+    }
+
     /**
      * Invokes the callback with the given ID on the the provided data.
      * @param id The ID of the callback that should be invoked.
@@ -74,4 +89,21 @@ public class CallbackSync {
 
         callback.onReceiveValue(data);
     }
+
+    /**
+     * Invokes the callback with the given ID on the provided data while keeping it registered, so it can be invoked
+     * again.
+     *
+     * @param id   The ID of the callback that should be invoked.
+     * @param data The data on which to invoked the callback.
+     */
+    @JavascriptInterface
+    public void publish(String id, @Nullable String data) {
+        ValueCallback<String> callback = mMap.get(id);
+        if (callback == null) {
+            return;
+        }
+
+        callback.onReceiveValue(data);
+    }
 }
@@ -1,7 +1,5 @@
 package com.github.dormesica.mapcontroller;
 
-import android.os.Parcel;
-import android.os.Parcelable;
 import androidx.annotation.NonNull;
 
 /**
@@ -12,7 +10,7 @@ import androidx.annotation.NonNull;
  *
  * @since 1.0.0
  */
-public abstract class StyleEditor implements Parcelable {
+public abstract class StyleEditor {
 
     private String id;
 
@@ -25,22 +23,4 @@ public abstract class StyleEditor implements Parcelable {
         this.id = id;
     }
 
-    /**
-     * Creates a new {@code StyleEditor} from a {@link Parcel}.
-     *
-     * @param source The source Parcel.
-     */
-    protected StyleEditor(Parcel source) {
-        id = source.readString();
-    }
-
-    @Override
-    public int describeContents() {
-        return 0;
-    }
-
-    @Override
-    public void writeToParcel(Parcel dest, int flags) {
-        dest.writeString(id);
-    }
 }
@@ -11,7 +11,7 @@ public interface Styleable {
      * Returns a {@link StyleEditor} for this {@code styleable} object.
      * <p>
      * The {@link StyleEditor} instance is used to specify the modifications that should be make on the
-     * {@code Styleable} and passed to a {@link MapView} so that the changes can take place.
+     * {@code Styleable} and passed to a {@code MapView} so that the changes can take place.
      *
      * @return A style editor object for the styleable.
      */
@@ -0,0 +1,91 @@
+package com.github.dormesica.mapcontroller.cluster;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.github.dormesica.mapcontroller.layers.Point;
+
+/**
+ * A cluster of points returned by a {@link ClusterIndex}, or a single point that is not clustered at the queried
+ * zoom level.
+ *
+ * @since 1.0.0
+ */
+public final class Cluster {
+
+    private final int id;
+    private final double lon;
+    private final double lat;
+    private final int count;
+    private final Point point;
+
+    Cluster(int id, double lon, double lat, int count, @Nullable Point point) {
+        this.id = id;
+        this.lon = lon;
+        this.lat = lat;
+        this.count = count;
+        this.point = point;
+    }
+
+    /**
+     * Returns the ID of the cluster in its index, which can be used to expand it.
+     *
+     * @return The ID of the cluster.
+     * @see ClusterIndex#getChildren(int)
+     * @see ClusterIndex#getLeaves(int, int, int)
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the longitude of the cluster, i.e. the centroid of its points.
+     *
+     * @return The longitude of the cluster.
+     */
+    public double getLon() {
+        return lon;
+    }
+
+    /**
+     * Returns the latitude of the cluster, i.e. the centroid of its points.
+     *
+     * @return The latitude of the cluster.
+     */
+    public double getLat() {
+        return lat;
+    }
+
+    /**
+     * Returns the amount of points in the cluster.
+     *
+     * @return The amount of points in the cluster, 1 for a single point.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns whether the cluster is a single point.
+     *
+     * @return {@code true} if the cluster is a single point, otherwise {@code false}.
+     */
+    public boolean isLeaf() {
+        return point != null;
+    }
+
+    /**
+     * Returns the point of a cluster that is a single point.
+     *
+     * @return The point, or {@code null} if the cluster contains several points.
+     */
+    @Nullable
+    public Point getPoint() {
+        return point;
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return String.format("Cluster(%d, %f, %f, %d)", id, lon, lat, count);
+    }
+}
@@ -0,0 +1,608 @@
+package com.github.dormesica.mapcontroller.cluster;
+
+import androidx.annotation.NonNull;
+import com.github.dormesica.mapcontroller.layers.Entity;
+import com.github.dormesica.mapcontroller.layers.Point;
+import com.github.dormesica.mapcontroller.location.Coordinates;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * A hierarchical index of the clusters of a large set of points, for every zoom level of the map.
+ * <p>
+ * The points are projected to Web Mercator and clustered greedily, from the highest zoom level to the lowest: at every
+ * level, the points and clusters of the level above that are within a fixed amount of screen pixels of each other are
+ * merged into a cluster at their weighted centroid. Every level is stored in a static {@link KdTree}, so the clusters
+ * in the current view are found without scanning the points, and a cluster can be expanded to its children at the
+ * level above or to its leaves, i.e. the original points.
+ * <p>
+ * The index is immutable once built, and can be queried from any thread.
+ *
+ * @since 1.0.0
+ */
+public final class ClusterIndex {
+
+    private static final int X = 0;
+    private static final int Y = 1;
+    private static final int ZOOM = 2;
+    private static final int ID = 3;
+    private static final int PARENT = 4;
+    private static final int COUNT = 5;
+    private static final int STRIDE = 6;
+
+    /**
+     * The amount of values of every cluster in the arrays written by
+     * {@link #getClusters(Rectangle, double, double[])}.
+     */
+    public static final int PACKED_STRIDE = 4;
+
+    /**
+     * Cluster IDs encode the zoom level of the cluster in their lowest 5 bits.
+     */
+    private static final int ZOOM_BITS = 5;
+    private static final int MAX_ZOOM = (1 << ZOOM_BITS) - 2;
+
+    // writes the clusters of packed queries, one per thread since indexes can be queried from any thread
+    private static final ThreadLocal<PackedWriter> sPackedWriter = ThreadLocal.withInitial(PackedWriter::new);
+
+    private final Point[] mPoints;
+    private final double mRadius;
+    private final double mExtent;
+    private final int mMinZoom;
+    private final int mMaxZoom;
+
+    // the levels of the index, the level of zoom z is at z - mMinZoom, and the points themselves are the last level
+    private final double[][] mLevels;
+    private final int[] mLevelCounts;
+    private final KdTree[] mTrees;
+
+    private ClusterIndex(Builder builder, Point[] points) {
+        mPoints = points;
+        mRadius = builder.radius;
+        mExtent = builder.extent;
+        mMinZoom = builder.minZoom;
+        mMaxZoom = builder.maxZoom;
+
+        int levels = mMaxZoom - mMinZoom + 2;
+        mLevels = new double[levels][];
+        mLevelCounts = new int[levels];
+        mTrees = new KdTree[levels];
+
+        double[] data = new double[STRIDE * points.length];
+        for (int i = 0; i < points.length; i++) {
+            Coordinates location = points[i].getLocation();
+            int k = STRIDE * i;
+            data[k + X] = WebMercator.lonToX(location.getLon());
+            data[k + Y] = WebMercator.latToY(location.getLat());
+            data[k + ZOOM] = Double.POSITIVE_INFINITY;
+            data[k + ID] = i;
+            data[k + PARENT] = -1;
+            data[k + COUNT] = 1;
+        }
+        setLevel(mMaxZoom + 1, data, points.length, builder.nodeSize);
+
+        for (int z = mMaxZoom; z >= mMinZoom; z--) {
+            PackedArray next = cluster(z + 1, z, builder.minPoints);
+            setLevel(z, next.values, next.size / STRIDE, builder.nodeSize);
+        }
+    }
+
+    /**
+     * Returns the amount of points in the index.
+     *
+     * @return The amount of points.
+     */
+    public int getPointCount() {
+        return mPoints.length;
+    }
+
+    /**
+     * Returns the lowest zoom level at which points are clustered.
+     *
+     * @return The minimal zoom level.
+     */
+    public int getMinZoom() {
+        return mMinZoom;
+    }
+
+    /**
+     * Returns the highest zoom level at which points are clustered. Above it all the points are leaves.
+     *
+     * @return The maximal zoom level.
+     */
+    public int getMaxZoom() {
+        return mMaxZoom;
+    }
+
+    /**
+     * Returns the zoom level of a view of the map, by the scale of the view at its center.
+     *
+     * @param cameraHeight   The height of the camera above the ground, in meters.
+     * @param latitude       The latitude of the center of the view.
+     * @param fieldOfView    The vertical field of view of the camera, in radians.
+     * @param viewportHeight The height of the view, in the pixels by which the radius of the index is measured.
+     * @return The fractional zoom level of the view.
+     */
+    public double getZoom(double cameraHeight, double latitude, double fieldOfView, int viewportHeight) {
+        return WebMercator.zoom(cameraHeight, latitude, fieldOfView, viewportHeight, mExtent);
+    }
+
+    /**
+     * Returns the clusters inside the given extent at the given zoom level.
+     *
+     * @param extent The extent of the view, may cross the antimeridian (i.e. its west is greater than its east).
+     * @param zoom   The zoom level, which is rounded down.
+     * @return The clusters in the extent, in no particular order.
+     */
+    @NonNull
+    public List<Cluster> getClusters(@NonNull Rectangle extent, double zoom) {
+        int level = getLevel(zoom);
+        double[] data = mLevels[level];
+        List<Cluster> clusters = new ArrayList<>();
+        forEachInExtent(extent, level, i -> clusters.add(createCluster(data, STRIDE * i)));
+
+        return clusters;
+    }
+
+    /**
+     * Writes the clusters inside the given extent at the given zoom level into a packed array.
+     * <p>
+     * Every cluster is written as {@code [id, lon, lat, count]}, see {@link #PACKED_STRIDE}. This method does not
+     * allocate, except on the first query of every thread and when the KD-tree is deeper than in previous queries.
+     *
+     * @param extent The extent of the view, may cross the antimeridian (i.e. its west is greater than its east).
+     * @param zoom   The zoom level, which is rounded down.
+     * @param out    The array to which the clusters are written.
+     * @return The amount of clusters in the extent, which may be greater than {@code out.length / PACKED_STRIDE}, in
+     * which case only the first clusters are written.
+     */
+    public int getClusters(@NonNull Rectangle extent, double zoom, @NonNull double[] out) {
+        int level = getLevel(zoom);
+        return sPackedWriter.get().write(extent, mTrees[level], mLevels[level], out);
+    }
+
+    /**
+     * Returns the point with the given ID, i.e. the ID of a cluster that is a single point.
+     *
+     * @param id The ID of the point.
+     * @return The point.
+     * @throws IndexOutOfBoundsException In case the ID is not the ID of a point.
+     */
+    @NonNull
+    public Point getPoint(int id) throws IndexOutOfBoundsException {
+        return mPoints[id];
+    }
+
+    /**
+     * Returns the clusters and points that a cluster was merged from, at the zoom level above the cluster.
+     *
+     * @param clusterId The ID of the cluster.
+     * @return The children of the cluster.
+     * @throws IllegalArgumentException In case there is no cluster with the given ID.
+     */
+    @NonNull
+    public List<Cluster> getChildren(int clusterId) throws IllegalArgumentException {
+        List<Cluster> children = new ArrayList<>();
+        forEachChild(clusterId, (data, k) -> children.add(createCluster(data, k)));
+        Preconditions.checkArgument(!children.isEmpty(), "No cluster with ID %s.", clusterId);
+
+        return children;
+    }
+
+    /**
+     * Returns the points of a cluster.
+     *
+     * @param clusterId The ID of the cluster.
+     * @param limit     The maximal amount of points to return.
+     * @param offset    The amount of points to skip, for paging through the points of large clusters.
+     * @return The points of the cluster.
+     * @throws IllegalArgumentException In case there is no cluster with the given ID.
+     */
+    @NonNull
+    public List<Point> getLeaves(int clusterId, int limit, int offset) throws IllegalArgumentException {
+        Preconditions.checkArgument(limit >= 0 && offset >= 0, "Limit and offset must not be negative.");
+
+        List<Point> leaves = new ArrayList<>(Math.min(limit, 256));
+        appendLeaves(leaves, clusterId, limit, offset, 0);
+        return leaves;
+    }
+
+    /**
+     * Returns the zoom level at which a cluster splits into several children, e.g. to zoom into a clicked cluster.
+     *
+     * @param clusterId The ID of the cluster.
+     * @return The zoom level at which the cluster expands.
+     * @throws IllegalArgumentException In case there is no cluster with the given ID.
+     */
+    public int getExpansionZoom(int clusterId) throws IllegalArgumentException {
+        int expansionZoom = getOriginZoom(clusterId) - 1;
+        while (expansionZoom <= mMaxZoom) {
+            List<Cluster> children = getChildren(clusterId);
+            expansionZoom++;
+            if (children.size() != 1 || children.get(0).isLeaf()) {
+                break;
+            }
+            clusterId = children.get(0).getId();
+        }
+
+        return expansionZoom;
+    }
+
+    private int appendLeaves(List<Point> leaves, int clusterId, int limit, int offset, int skipped) {
+        for (Cluster child : getChildren(clusterId)) {
+            if (leaves.size() == limit) {
+                break;
+            }
+
+            if (child.isLeaf()) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    leaves.add(child.getPoint());
+                }
+            } else if (skipped + child.getCount() <= offset) {
+                // the whole cluster is skipped
+                skipped += child.getCount();
+            } else {
+                skipped = appendLeaves(leaves, child.getId(), limit, offset, skipped);
+            }
+        }
+
+        return skipped;
+    }
+
+    private void forEachChild(int clusterId, ChildConsumer action) {
+        int originId = getOriginId(clusterId);
+        int originZoom = getOriginZoom(clusterId);
+        if (clusterId < mPoints.length || originZoom <= mMinZoom || originZoom > mMaxZoom + 1) {
+            return;
+        }
+
+        int level = originZoom - mMinZoom;
+        double[] data = mLevels[level];
+        if (originId >= mLevelCounts[level]) {
+            return;
+        }
+
+        double r = mRadius / (mExtent * Math.pow(2, originZoom - 1));
+        int origin = STRIDE * originId;
+        mTrees[level].within(data[origin + X], data[origin + Y], r, i -> {
+            int k = STRIDE * i;
+            if (data[k + PARENT] == clusterId) {
+                action.accept(data, k);
+            }
+        });
+    }
+
+    private Cluster createCluster(double[] data, int k) {
+        int id = (int) data[k + ID];
+        int count = (int) data[k + COUNT];
+        if (count > 1) {
+            return new Cluster(id, WebMercator.xToLon(data[k + X]), WebMercator.yToLat(data[k + Y]), count, null);
+        }
+
+        Point point = mPoints[id];
+        Coordinates location = point.getLocation();
+        return new Cluster(id, location.getLon(), location.getLat(), 1, point);
+    }
+
+    private void forEachInExtent(Rectangle extent, int level, IntConsumer action) {
+        KdTree tree = mTrees[level];
+        WebMercator.forEachRange(extent.getWest(), extent.getNorth(), extent.getEast(), extent.getSouth(),
+                (minX, minY, maxX, maxY) -> tree.range(minX, minY, maxX, maxY, action));
+    }
+
+    private PackedArray cluster(int sourceZoom, int zoom, int minPoints) {
+        int level = sourceZoom - mMinZoom;
+        double[] data = mLevels[level];
+        int count = mLevelCounts[level];
+        KdTree tree = mTrees[level];
+        double r = mRadius / (mExtent * Math.pow(2, zoom));
+
+        PackedArray next = new PackedArray(STRIDE * count);
+        PackedArray neighbors = new PackedArray(16);
+        IntConsumer addNeighbor = neighbors::add;
+        for (int i = 0; i < count; i++) {
+            int k = STRIDE * i;
+            // already visited as a neighbor of another point at this zoom level
+            if (data[k + ZOOM] <= zoom) {
+                continue;
+            }
+            data[k + ZOOM] = zoom;
+
+            double x = data[k + X];
+            double y = data[k + Y];
+            neighbors.size = 0;
+            tree.within(x, y, r, addNeighbor);
+
+            double originCount = data[k + COUNT];
+            double total = originCount;
+            for (int n = 0; n < neighbors.size; n++) {
+                int j = STRIDE * (int) neighbors.values[n];
+                if (data[j + ZOOM] > zoom) {
+                    total += data[j + COUNT];
+                }
+            }
+
+            if (total > originCount && total >= minPoints) {
+                double wx = x * originCount;
+                double wy = y * originCount;
+                int id = (i << ZOOM_BITS) + (zoom + 1) + mPoints.length;
+
+                for (int n = 0; n < neighbors.size; n++) {
+                    int j = STRIDE * (int) neighbors.values[n];
+                    if (data[j + ZOOM] <= zoom) {
+                        continue;
+                    }
+                    data[j + ZOOM] = zoom;
+
+                    double neighborCount = data[j + COUNT];
+                    wx += data[j + X] * neighborCount;
+                    wy += data[j + Y] * neighborCount;
+                    data[j + PARENT] = id;
+                }
+
+                data[k + PARENT] = id;
+                next.add(wx / total, wy / total, Double.POSITIVE_INFINITY, id, -1, total);
+            } else {
+                next.addAll(data, k, STRIDE);
+                if (total > 1) {
+                    // too few to form a cluster, so the neighbors are kept as they are
+                    for (int n = 0; n < neighbors.size; n++) {
+                        int j = STRIDE * (int) neighbors.values[n];
+                        if (data[j + ZOOM] <= zoom) {
+                            continue;
+                        }
+                        data[j + ZOOM] = zoom;
+                        next.addAll(data, j, STRIDE);
+                    }
+                }
+            }
+        }
+
+        return next;
+    }
+
+    private void setLevel(int zoom, double[] data, int count, int nodeSize) {
+        int level = zoom - mMinZoom;
+        mLevels[level] = data;
+        mLevelCounts[level] = count;
+        mTrees[level] = new KdTree(data, STRIDE, count, nodeSize);
+    }
+
+    private int getLevel(double zoom) {
+        return (int) Math.max(mMinZoom, Math.min(Math.floor(zoom), mMaxZoom + 1)) - mMinZoom;
+    }
+
+    private int getOriginId(int clusterId) {
+        return (clusterId - mPoints.length) >> ZOOM_BITS;
+    }
+
+    private int getOriginZoom(int clusterId) {
+        return (clusterId - mPoints.length) % (1 << ZOOM_BITS);
+    }
+
+    private interface ChildConsumer {
+        void accept(double[] data, int offset);
+    }
+
+    /**
+     * Writes the clusters in an extent into a packed array. Every thread has its own writer, which is reused by the
+     * queries of all the indexes together with the stack of the traversal of the KD-tree.
+     */
+    private static final class PackedWriter implements WebMercator.RangeConsumer, IntConsumer {
+        private int[] stack = new int[64];
+        private KdTree tree;
+        private double[] data;
+        private double[] out;
+        private int count;
+
+        int write(Rectangle extent, KdTree tree, double[] data, double[] out) {
+            this.tree = tree;
+            this.data = data;
+            this.out = out;
+            count = 0;
+            WebMercator.forEachRange(extent.getWest(), extent.getNorth(), extent.getEast(), extent.getSouth(), this);
+            // the writer outlives the query, and should not keep the index or the array of the caller
+            this.tree = null;
+            this.data = null;
+            this.out = null;
+
+            return count;
+        }
+
+        @Override
+        public void accept(double minX, double minY, double maxX, double maxY) {
+            stack = tree.range(minX, minY, maxX, maxY, this, stack);
+        }
+
+        @Override
+        public void accept(int i) {
+            int offset = PACKED_STRIDE * count++;
+            if (offset + PACKED_STRIDE <= out.length) {
+                int k = STRIDE * i;
+                out[offset] = data[k + ID];
+                out[offset + 1] = WebMercator.xToLon(data[k + X]);
+                out[offset + 2] = WebMercator.yToLat(data[k + Y]);
+                out[offset + 3] = data[k + COUNT];
+            }
+        }
+    }
+
+    /**
+     * A growable array of doubles.
+     */
+    private static final class PackedArray {
+        double[] values;
+        int size;
+
+        PackedArray(int capacity) {
+            values = new double[Math.max(capacity, STRIDE)];
+        }
+
+        void add(int value) {
+            ensureCapacity(1);
+            values[size++] = value;
+        }
+
+        void add(double x, double y, double zoom, double id, double parent, double count) {
+            ensureCapacity(STRIDE);
+            values[size] = x;
+            values[size + 1] = y;
+            values[size + 2] = zoom;
+            values[size + 3] = id;
+            values[size + 4] = parent;
+            values[size + 5] = count;
+            size += STRIDE;
+        }
+
+        void addAll(double[] source, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(source, offset, values, size, length);
+            size += length;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > values.length) {
+                values = Arrays.copyOf(values, Math.max(2 * values.length, size + extra));
+            }
+        }
+    }
+
+    /**
+     * A builder of {@link ClusterIndex} objects.
+     *
+     * @since 1.0.0
+     */
+    public static final class Builder {
+
+        private double radius;
+        private double extent;
+        private int minZoom;
+        private int maxZoom;
+        private int minPoints;
+        private int nodeSize;
+
+        private Builder() {
+            radius = 40;
+            extent = 512;
+            minZoom = 0;
+            maxZoom = 16;
+            minPoints = 2;
+            nodeSize = 64;
+        }
+
+        /**
+         * Creates a new {@code ClusterIndex.Builder} with the default options.
+         *
+         * @return A new builder.
+         */
+        public static Builder create() {
+            return new Builder();
+        }
+
+        /**
+         * Sets the radius within which points are clustered, in pixels. The default is 40.
+         *
+         * @param radius The cluster radius.
+         * @return The {@code ClusterIndex.Builder} for method chaining.
+         * @throws IllegalArgumentException In case the radius is not positive.
+         */
+        public Builder setRadius(double radius) throws IllegalArgumentException {
+            Preconditions.checkArgument(radius > 0, "Radius must be greater than 0.");
+
+            this.radius = radius;
+            return this;
+        }
+
+        /**
+         * Sets the size of a tile of the map at zoom level 0, in pixels, by which the radius is scaled. The default is
+         * 512.
+         *
+         * @param extent The tile size.
+         * @return The {@code ClusterIndex.Builder} for method chaining.
+         * @throws IllegalArgumentException In case the extent is not positive.
+         */
+        public Builder setExtent(double extent) throws IllegalArgumentException {
+            Preconditions.checkArgument(extent > 0, "Extent must be greater than 0.");
+
+            this.extent = extent;
+            return this;
+        }
+
+        /**
+         * Sets the range of zoom levels at which points are clustered. The default is 0 to 16.
+         *
+         * @param minZoom The minimal zoom level.
+         * @param maxZoom The maximal zoom level, above which all the points are leaves.
+         * @return The {@code ClusterIndex.Builder} for method chaining.
+         * @throws IllegalArgumentException In case the range is invalid or the maximal zoom is greater than 30.
+         */
+        public Builder setZoomRange(int minZoom, int maxZoom) throws IllegalArgumentException {
+            Preconditions.checkArgument(minZoom >= 0 && minZoom <= maxZoom && maxZoom <= MAX_ZOOM,
+                    "Zoom range must be within 0 and %s.", MAX_ZOOM);
+
+            this.minZoom = minZoom;
+            this.maxZoom = maxZoom;
+            return this;
+        }
+
+        /**
+         * Sets the minimal amount of points that form a cluster. The default is 2.
+         *
+         * @param minPoints The minimal cluster size.
+         * @return The {@code ClusterIndex.Builder} for method chaining.
+         * @throws IllegalArgumentException In case the amount is less than 2.
+         */
+        public Builder setMinPoints(int minPoints) throws IllegalArgumentException {
+            Preconditions.checkArgument(minPoints >= 2, "Clusters must contain at least 2 points.");
+
+            this.minPoints = minPoints;
+            return this;
+        }
+
+        /**
+         * Sets the maximal amount of points in a leaf of the KD-trees of the index. The default is 64.
+         *
+         * @param nodeSize The node size.
+         * @return The {@code ClusterIndex.Builder} for method chaining.
+         * @throws IllegalArgumentException In case the node size is not positive.
+         */
+        public Builder setNodeSize(int nodeSize) throws IllegalArgumentException {
+            Preconditions.checkArgument(nodeSize > 0, "Node size must be greater than 0.");
+
+            this.nodeSize = nodeSize;
+            return this;
+        }
+
+        /**
+         * Builds an index of the points among the given entities. Other entities are ignored.
+         *
+         * @param entities The entities to index, e.g. a vector layer.
+         * @return The index.
+         * @throws IllegalArgumentException In case one of the points is a stub, or there are too many points.
+         */
+        public ClusterIndex build(@NonNull Iterable<? extends Entity> entities) throws IllegalArgumentException {
+            List<Point> points = new ArrayList<>();
+            for (Entity entity : entities) {
+                if (!(entity instanceof Point)) {
+                    continue;
+                }
+
+                Preconditions.checkArgument(!entity.isStub(), "The geometry of point %s has not been fetched.",
+                        entity.getId());
+                points.add((Point) entity);
+            }
+            // cluster IDs must fit in an int
+            Preconditions.checkArgument(points.size() < (Integer.MAX_VALUE >> (ZOOM_BITS + 1)),
+                    "Too many points to cluster.");
+
+            return new ClusterIndex(this, points.toArray(new Point[0]));
+        }
+    }
+}
@@ -0,0 +1,676 @@
+package com.github.dormesica.mapcontroller.cluster;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.github.dormesica.mapcontroller.layers.Entity;
+import com.github.dormesica.mapcontroller.layers.Point;
+import com.github.dormesica.mapcontroller.layers.Properties;
+import com.github.dormesica.mapcontroller.location.Coordinates;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Aggregates a large set of points into the cells of a square or hexagonal lattice, for density views such as
+ * heatmaps and hex-bins.
+ * <p>
+ * The lattice is anchored to the Web Mercator projection of the world, and its cells have a fixed size in pixels at
+ * every zoom level. The cells of a zoom level are aggregated the first time they are queried, in parallel on a
+ * {@link ForkJoinPool}; querying the cells of any extent at that level afterwards only reads the aggregated cells.
+ * Points can be added, moved and removed at any time, which updates the cells of the aggregated levels in place.
+ * <p>
+ * Every cell holds the amount of points inside it and the sum of their weights. The weight of a point is the value of
+ * a numeric property of the point (see {@link Builder#setWeightKey(String)}), or 1 when no weight property is set.
+ * <p>
+ * The aggregator is thread-safe.
+ *
+ * @since 1.0.0
+ */
+public final class GridAggregator {
+
+    /**
+     * A lattice of square cells.
+     */
+    public static final int SQUARE = 0;
+    /**
+     * A lattice of pointy-top hexagonal cells.
+     */
+    public static final int HEXAGON = 1;
+
+    /**
+     * The amount of values of every cell in the arrays written by {@link #getCells(Rectangle, double, double[])}.
+     */
+    public static final int PACKED_STRIDE = 4;
+
+    private static final int X = 0;
+    private static final int Y = 1;
+    private static final int WEIGHT = 2;
+    private static final int STRIDE = 3;
+
+    private static final int MAX_ZOOM = 24;
+    private static final double SQRT3 = Math.sqrt(3);
+
+    /**
+     * Rows and columns are offset by this amount in cell keys, so the keys of a row are ordered by their column.
+     */
+    private static final long KEY_OFFSET = 1L << 30;
+    private static final long COLUMN_MASK = 0xFFFFFFFFL;
+
+    /**
+     * Levels with less points than this are aggregated on the calling thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 4096;
+    private static final int PARTITIONS_PER_THREAD = 4;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int mLattice;
+    private final double mCellSize;
+    private final double mExtent;
+    private final int mMinZoom;
+    private final int mMaxZoom;
+    private final String mWeightKey;
+    private final ForkJoinPool mPool;
+
+    // the points, packed as [x, y, weight] in projected coordinates
+    private final HashMap<String, Integer> mIndices = new HashMap<>();
+    private String[] mIds;
+    private double[] mPoints;
+    private int mCount;
+
+    // the aggregated levels, the level of zoom z is at z - mMinZoom, or null if it is not aggregated
+    private final Level[] mLevels;
+
+    // the state of the current getCells query, which is guarded by the lock of the aggregator, so the cells of the
+    // ranges of the extent are written without allocating
+    private Level mQueryLevel;
+    private double mQueryCellSize;
+    private double[] mQueryOut;
+    private int mQueryCount;
+    private final WebMercator.RangeConsumer mCellWriter = (minX, minY, maxX, maxY) -> mQueryCount =
+            writeCells(mQueryLevel, mQueryCellSize, minX, minY, maxX, maxY, mQueryOut, mQueryCount);
+
+    private GridAggregator(Builder builder) {
+        mLattice = builder.lattice;
+        mCellSize = builder.cellSize;
+        mExtent = builder.extent;
+        mMinZoom = builder.minZoom;
+        mMaxZoom = builder.maxZoom;
+        mWeightKey = builder.weightKey;
+        mPool = builder.pool;
+
+        mIds = new String[INITIAL_CAPACITY];
+        mPoints = new double[STRIDE * INITIAL_CAPACITY];
+        mLevels = new Level[mMaxZoom - mMinZoom + 1];
+    }
+
+    /**
+     * Returns the lattice of the cells, either {@link #SQUARE} or {@link #HEXAGON}.
+     *
+     * @return The lattice of the aggregator.
+     */
+    public int getLattice() {
+        return mLattice;
+    }
+
+    /**
+     * Returns the lowest zoom level at which points are aggregated. Views of lower zoom levels use its cells.
+     *
+     * @return The minimal zoom level.
+     */
+    public int getMinZoom() {
+        return mMinZoom;
+    }
+
+    /**
+     * Returns the highest zoom level at which points are aggregated. Views of higher zoom levels use its cells.
+     *
+     * @return The maximal zoom level.
+     */
+    public int getMaxZoom() {
+        return mMaxZoom;
+    }
+
+    /**
+     * Returns the amount of points in the aggregator.
+     *
+     * @return The amount of points.
+     */
+    public synchronized int getPointCount() {
+        return mCount;
+    }
+
+    /**
+     * Returns the zoom level of a view of the map, by the scale of the view at its center.
+     *
+     * @param cameraHeight   The height of the camera above the ground, in meters.
+     * @param latitude       The latitude of the center of the view.
+     * @param fieldOfView    The vertical field of view of the camera, in radians.
+     * @param viewportHeight The height of the view, in the pixels by which the cell size is measured.
+     * @return The fractional zoom level of the view.
+     */
+    public double getZoom(double cameraHeight, double latitude, double fieldOfView, int viewportHeight) {
+        return WebMercator.zoom(cameraHeight, latitude, fieldOfView, viewportHeight, mExtent);
+    }
+
+    /**
+     * Returns the width of the cells at the given zoom level, as a fraction of the width of the world in the Web
+     * Mercator projection.
+     *
+     * @param zoom The zoom level, which is rounded down.
+     * @return The width of the cells.
+     */
+    public double getCellSize(double zoom) {
+        return getCellSize(getLevel(zoom));
+    }
+
+    /**
+     * Writes the cells inside the given extent at the given zoom level into a packed array. Empty cells are skipped.
+     * <p>
+     * Every cell is written as {@code [lon, lat, count, weight]} of its center, see {@link #PACKED_STRIDE}. The cells
+     * of the zoom level are aggregated if this is the first time they are queried, otherwise this method does not
+     * allocate.
+     *
+     * @param extent The extent of the view, may cross the antimeridian (i.e. its west is greater than its east).
+     * @param zoom   The zoom level, which is rounded down.
+     * @param out    The array to which the cells are written.
+     * @return The amount of cells in the extent, which may be greater than {@code out.length / PACKED_STRIDE}, in
+     * which case only the first cells are written.
+     */
+    public synchronized int getCells(@NonNull Rectangle extent, double zoom, @NonNull double[] out) {
+        int zoomLevel = getLevel(zoom);
+        Level level = mLevels[zoomLevel - mMinZoom];
+        if (level == null) {
+            level = aggregate(zoomLevel);
+            mLevels[zoomLevel - mMinZoom] = level;
+        }
+
+        mQueryLevel = level;
+        mQueryCellSize = getCellSize(zoomLevel);
+        mQueryOut = out;
+        mQueryCount = 0;
+        WebMercator.forEachRange(extent.getWest(), extent.getNorth(), extent.getEast(), extent.getSouth(), mCellWriter);
+        // the array belongs to the caller, and the level may be replaced
+        mQueryLevel = null;
+        mQueryOut = null;
+
+        return mQueryCount;
+    }
+
+    /**
+     * Adds a point to the aggregator, or moves a point that is already in it.
+     *
+     * @param entity The point, other entities are ignored.
+     * @throws IllegalArgumentException In case the point is a stub, or its weight property is not a number.
+     */
+    public synchronized void update(@NonNull Entity entity) throws IllegalArgumentException {
+        if (!(entity instanceof Point)) {
+            return;
+        }
+
+        Preconditions.checkArgument(!entity.isStub(), "The geometry of point %s has not been fetched.",
+                entity.getId());
+        Point point = (Point) entity;
+        Coordinates location = point.getLocation();
+        double x = WebMercator.lonToX(location.getLon());
+        double y = WebMercator.latToY(location.getLat());
+        double weight = weightOf(point);
+
+        Integer index = mIndices.get(point.getId());
+        if (index == null) {
+            append(point.getId(), x, y, weight);
+        } else {
+            int k = STRIDE * index;
+            updateLevels(mPoints[k + X], mPoints[k + Y], -1, -mPoints[k + WEIGHT]);
+            mPoints[k + X] = x;
+            mPoints[k + Y] = y;
+            mPoints[k + WEIGHT] = weight;
+        }
+        updateLevels(x, y, 1, weight);
+    }
+
+    /**
+     * Removes a point from the aggregator.
+     *
+     * @param id The ID of the point.
+     * @return {@code true} if the point was removed, {@code false} if it is not in the aggregator.
+     */
+    public synchronized boolean remove(@NonNull String id) {
+        Integer index = mIndices.remove(id);
+        if (index == null) {
+            return false;
+        }
+
+        int k = STRIDE * index;
+        updateLevels(mPoints[k + X], mPoints[k + Y], -1, -mPoints[k + WEIGHT]);
+
+        // move the last point into the place of the removed one
+        mCount--;
+        if (index != mCount) {
+            mIds[index] = mIds[mCount];
+            System.arraycopy(mPoints, STRIDE * mCount, mPoints, k, STRIDE);
+            mIndices.put(mIds[index], index);
+        }
+        mIds[mCount] = null;
+
+        return true;
+    }
+
+    private int getLevel(double zoom) {
+        return (int) Math.max(mMinZoom, Math.min(Math.floor(zoom), mMaxZoom));
+    }
+
+    private double getCellSize(int zoomLevel) {
+        return mCellSize / (mExtent * Math.pow(2, zoomLevel));
+    }
+
+    private double weightOf(Point point) {
+        Properties properties = point.getProperties();
+        if (mWeightKey == null) {
+            return 1;
+        }
+        if (properties == null) {
+            return 0;
+        }
+
+        try {
+            return properties.getDouble(mWeightKey);
+        } catch (ClassCastException e) {
+            throw new IllegalArgumentException(
+                    String.format("The weight of point %s is not a number.", point.getId()), e);
+        }
+    }
+
+    private void append(String id, double x, double y, double weight) {
+        if (mCount == mIds.length) {
+            mIds = Arrays.copyOf(mIds, 2 * mCount);
+            mPoints = Arrays.copyOf(mPoints, 2 * STRIDE * mCount);
+        }
+
+        int k = STRIDE * mCount;
+        mIds[mCount] = id;
+        mPoints[k + X] = x;
+        mPoints[k + Y] = y;
+        mPoints[k + WEIGHT] = weight;
+        mIndices.put(id, mCount++);
+    }
+
+    /**
+     * Adds a point to the cell that contains it at every aggregated level, or removes it if {@code count} is
+     * negative. A level that does not have the cell yet is discarded, and aggregated again when it is next queried.
+     */
+    private void updateLevels(double x, double y, int count, double weight) {
+        for (int i = 0; i < mLevels.length; i++) {
+            Level level = mLevels[i];
+            if (level == null) {
+                continue;
+            }
+
+            int cell = Arrays.binarySearch(level.keys, cellOf(x, y, getCellSize(mMinZoom + i)));
+            if (cell < 0) {
+                mLevels[i] = null;
+            } else {
+                level.counts[cell] += count;
+                level.weights[cell] += weight;
+            }
+        }
+    }
+
+    private Level aggregate(int zoomLevel) {
+        double size = getCellSize(zoomLevel);
+        int partitionSize = Math.max(PARALLEL_THRESHOLD,
+                mCount / (mPool.getParallelism() * PARTITIONS_PER_THREAD) + 1);
+        AggregateTask task = new AggregateTask(size, partitionSize, 0, mCount);
+        CellMap cells = mCount <= partitionSize ? task.compute() : mPool.invoke(task);
+
+        return cells.toLevel();
+    }
+
+    private int writeCells(Level level, double size, double minX, double minY, double maxX, double maxY,
+                           double[] out, int count) {
+        boolean hexagons = mLattice == HEXAGON;
+        double rowHeight = hexagons ? size * SQRT3 / 2 : size;
+        long minRow = (long) Math.floor(minY / rowHeight) - (hexagons ? 1 : 0);
+        long maxRow = (long) Math.floor(maxY / rowHeight) + (hexagons ? 1 : 0);
+
+        for (long row = minRow; row <= maxRow; row++) {
+            // hexagon columns are shifted by half a cell on every row
+            double shift = hexagons ? row / 2.0 : 0;
+            long minColumn = (long) Math.floor(minX / size - shift) - (hexagons ? 1 : 0);
+            long maxColumn = (long) Math.floor(maxX / size - shift) + (hexagons ? 1 : 0);
+
+            long maxKey = key(row, maxColumn);
+            int i = Arrays.binarySearch(level.keys, key(row, minColumn));
+            for (i = i < 0 ? -i - 1 : i; i < level.keys.length && level.keys[i] <= maxKey; i++) {
+                if (level.counts[i] <= 0) {
+                    continue;
+                }
+
+                int offset = PACKED_STRIDE * count++;
+                if (offset + PACKED_STRIDE <= out.length) {
+                    long column = (level.keys[i] & COLUMN_MASK) - KEY_OFFSET;
+                    out[offset] = WebMercator.xToLon((hexagons ? column + shift : column + 0.5) * size);
+                    out[offset + 1] = WebMercator.yToLat((hexagons ? row : row + 0.5) * rowHeight);
+                    out[offset + 2] = level.counts[i];
+                    out[offset + 3] = level.weights[i];
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the key of the cell of the given size that contains the given projected point.
+     */
+    private long cellOf(double x, double y, double size) {
+        if (mLattice == SQUARE) {
+            return key((long) Math.floor(y / size), (long) Math.floor(x / size));
+        }
+
+        // axial coordinates of the hexagon, rounded through cube coordinates
+        double r = y / (size * SQRT3 / 2);
+        double q = x / size - r / 2;
+        double s = -q - r;
+        long roundedQ = Math.round(q);
+        long roundedR = Math.round(r);
+        long roundedS = Math.round(s);
+        double deltaQ = Math.abs(roundedQ - q);
+        double deltaR = Math.abs(roundedR - r);
+        double deltaS = Math.abs(roundedS - s);
+        if (deltaQ > deltaR && deltaQ > deltaS) {
+            roundedQ = -roundedR - roundedS;
+        } else if (deltaR > deltaS) {
+            roundedR = -roundedQ - roundedS;
+        }
+
+        return key(roundedR, roundedQ);
+    }
+
+    private static long key(long row, long column) {
+        return ((row + KEY_OFFSET) << 32) | ((column + KEY_OFFSET) & COLUMN_MASK);
+    }
+
+    /**
+     * The aggregated cells of a zoom level, ordered by their keys.
+     */
+    private static final class Level {
+        final long[] keys;
+        final int[] counts;
+        final double[] weights;
+
+        Level(long[] keys, int[] counts, double[] weights) {
+            this.keys = keys;
+            this.counts = counts;
+            this.weights = weights;
+        }
+    }
+
+    /**
+     * An open addressing hash map from cell keys to their count and weight. Keys are never 0, which marks empty
+     * slots.
+     */
+    private static final class CellMap {
+        long[] keys = new long[INITIAL_CAPACITY];
+        int[] counts = new int[INITIAL_CAPACITY];
+        double[] weights = new double[INITIAL_CAPACITY];
+        int size;
+
+        void add(long key, int count, double weight) {
+            int slot = slotOf(key, keys);
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                if (++size > keys.length / 2) {
+                    grow();
+                    slot = slotOf(key, keys);
+                }
+            }
+            counts[slot] += count;
+            weights[slot] += weight;
+        }
+
+        void addAll(CellMap other) {
+            for (int i = 0; i < other.keys.length; i++) {
+                if (other.keys[i] != 0) {
+                    add(other.keys[i], other.counts[i], other.weights[i]);
+                }
+            }
+        }
+
+        Level toLevel() {
+            long[] sortedKeys = new long[size];
+            int n = 0;
+            for (long key : keys) {
+                if (key != 0) {
+                    sortedKeys[n++] = key;
+                }
+            }
+            Arrays.sort(sortedKeys);
+
+            int[] sortedCounts = new int[size];
+            double[] sortedWeights = new double[size];
+            for (int i = 0; i < size; i++) {
+                int slot = slotOf(sortedKeys[i], keys);
+                sortedCounts[i] = counts[slot];
+                sortedWeights[i] = weights[slot];
+            }
+
+            return new Level(sortedKeys, sortedCounts, sortedWeights);
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            double[] oldWeights = weights;
+            keys = new long[2 * oldKeys.length];
+            counts = new int[keys.length];
+            weights = new double[keys.length];
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = slotOf(oldKeys[i], keys);
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                    weights[slot] = oldWeights[i];
+                }
+            }
+        }
+
+        private static int slotOf(long key, long[] keys) {
+            int mask = keys.length - 1;
+            int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+
+            return slot;
+        }
+    }
+
+    /**
+     * Aggregates a range of the points, splitting the range between tasks.
+     */
+    private class AggregateTask extends RecursiveTask<CellMap> {
+        private static final long serialVersionUID = 1L;
+
+        private final double mSize;
+        private final int mPartitionSize;
+        private final int mFrom;
+        private final int mTo;
+
+        AggregateTask(double size, int partitionSize, int from, int to) {
+            mSize = size;
+            mPartitionSize = partitionSize;
+            mFrom = from;
+            mTo = to;
+        }
+
+        @Override
+        protected CellMap compute() {
+            if (mTo - mFrom > mPartitionSize) {
+                int middle = (mFrom + mTo) >>> 1;
+                AggregateTask right = new AggregateTask(mSize, mPartitionSize, middle, mTo);
+                right.fork();
+                CellMap cells = new AggregateTask(mSize, mPartitionSize, mFrom, middle).compute();
+                CellMap rightCells = right.join();
+
+                // merge the smaller map into the larger one
+                if (cells.size < rightCells.size) {
+                    rightCells.addAll(cells);
+                    return rightCells;
+                }
+                cells.addAll(rightCells);
+                return cells;
+            }
+
+            CellMap cells = new CellMap();
+            for (int i = mFrom; i < mTo; i++) {
+                int k = STRIDE * i;
+                cells.add(cellOf(mPoints[k + X], mPoints[k + Y], mSize), 1, mPoints[k + WEIGHT]);
+            }
+
+            return cells;
+        }
+    }
+
+    /**
+     * Builder class for creating {@link GridAggregator} instances.
+     *
+     * @since 1.0.0
+     */
+    public static class Builder {
+
+        private int lattice;
+        private double cellSize;
+        private double extent;
+        private int minZoom;
+        private int maxZoom;
+        private String weightKey;
+        private ForkJoinPool pool;
+
+        private Builder() {
+            lattice = SQUARE;
+            cellSize = 32;
+            extent = 512;
+            minZoom = 0;
+            maxZoom = 18;
+            pool = ForkJoinPool.commonPool();
+        }
+
+        /**
+         * Creates a new {@code GridAggregator.Builder} with the default options.
+         *
+         * @return A new builder.
+         */
+        public static Builder create() {
+            return new Builder();
+        }
+
+        /**
+         * Sets the lattice of the cells, either {@link #SQUARE} or {@link #HEXAGON}. The default is {@link #SQUARE}.
+         *
+         * @param lattice The lattice.
+         * @return The {@code GridAggregator.Builder} for method chaining.
+         * @throws IllegalArgumentException In case the lattice is unknown.
+         */
+        public Builder setLattice(int lattice) throws IllegalArgumentException {
+            Preconditions.checkArgument(lattice == SQUARE || lattice == HEXAGON, "Unknown lattice %s.", lattice);
+
+            this.lattice = lattice;
+            return this;
+        }
+
+        /**
+         * Sets the width of the cells, in pixels. The default is 32.
+         *
+         * @param cellSize The cell size.
+         * @return The {@code GridAggregator.Builder} for method chaining.
+         * @throws IllegalArgumentException In case the size is not positive.
+         */
+        public Builder setCellSize(double cellSize) throws IllegalArgumentException {
+            Preconditions.checkArgument(cellSize > 0, "Cell size must be greater than 0.");
+
+            this.cellSize = cellSize;
+            return this;
+        }
+
+        /**
+         * Sets the size of a tile of the map at zoom level 0, in pixels, by which the cell size is scaled. The default
+         * is 512.
+         *
+         * @param extent The tile size.
+         * @return The {@code GridAggregator.Builder} for method chaining.
+         * @throws IllegalArgumentException In case the extent is not positive.
+         */
+        public Builder setExtent(double extent) throws IllegalArgumentException {
+            Preconditions.checkArgument(extent > 0, "Extent must be greater than 0.");
+
+            this.extent = extent;
+            return this;
+        }
+
+        /**
+         * Sets the range of zoom levels at which points are aggregated. The default is 0 to 18.
+         *
+         * @param minZoom The minimal zoom level.
+         * @param maxZoom The maximal zoom level.
+         * @return The {@code GridAggregator.Builder} for method chaining.
+         * @throws IllegalArgumentException In case the range is invalid or the maximal zoom is greater than 24.
+         */
+        public Builder setZoomRange(int minZoom, int maxZoom) throws IllegalArgumentException {
+            Preconditions.checkArgument(minZoom >= 0 && minZoom <= maxZoom && maxZoom <= MAX_ZOOM,
+                    "Zoom range must be within 0 and %s.", MAX_ZOOM);
+
+            this.minZoom = minZoom;
+            this.maxZoom = maxZoom;
+            return this;
+        }
+
+        /**
+         * Sets the key of the numeric property by which points are weighted. Points without the property weigh 0. By
+         * default, every point weighs 1.
+         *
+         * @param weightKey The key of the weight property, or {@code null} to count the points.
+         * @return The {@code GridAggregator.Builder} for method chaining.
+         */
+        public Builder setWeightKey(@Nullable String weightKey) {
+            this.weightKey = weightKey;
+            return this;
+        }
+
+        /**
+         * Sets the pool on which zoom levels are aggregated. The default is the common fork-join pool.
+         *
+         * @param pool The pool.
+         * @return The {@code GridAggregator.Builder} for method chaining.
+         */
+        public Builder setPool(@NonNull ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * Builds an aggregator of the points among the given entities. Other entities are ignored.
+         *
+         * @param entities The entities to aggregate, e.g. a vector layer.
+         * @return The aggregator.
+         * @throws IllegalArgumentException In case one of the points is a stub or its weight is not a number, or the
+         *                                  cells are too small for the zoom range.
+         */
+        public GridAggregator build(@NonNull Iterable<? extends Entity> entities) throws IllegalArgumentException {
+            // the rows and columns of the cells must fit in their keys
+            Preconditions.checkArgument(extent * Math.pow(2, maxZoom) / cellSize < KEY_OFFSET / 2,
+                    "Cells are too small for zoom level %s.", maxZoom);
+
+            GridAggregator aggregator = new GridAggregator(this);
+            for (Entity entity : entities) {
+                aggregator.update(entity);
+            }
+
+            return aggregator;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.github.dormesica.mapcontroller.cluster;
+
+import java.util.function.IntConsumer;
+
+/**
+ * A static KD-tree of 2D points, stored in flat arrays.
+ * <p>
+ * The points are sorted in place into a balanced tree: the median of every range is its node, and the ranges on its
+ * sides are split by the other axis. Ranges of at most {@code nodeSize} points are left unsorted and scanned linearly
+ * by queries. The tree refers to the points by their index in the array they were built from.
+ */
+final class KdTree {
+
+    private final int nodeSize;
+    private final int[] ids;
+    private final double[] coords;
+
+    /**
+     * Creates a tree of the points in the given packed array.
+     *
+     * @param data     The points, the coordinates of the i-th point are {@code data[stride * i]} and
+     *                 {@code data[stride * i + 1]}.
+     * @param stride   The amount of values of every point in {@code data}.
+     * @param count    The amount of points.
+     * @param nodeSize The maximal amount of points in a leaf of the tree.
+     */
+    KdTree(double[] data, int stride, int count, int nodeSize) {
+        this.nodeSize = nodeSize;
+        ids = new int[count];
+        coords = new double[2 * count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i;
+            coords[2 * i] = data[stride * i];
+            coords[2 * i + 1] = data[stride * i + 1];
+        }
+
+        sort(0, count - 1, 0);
+    }
+
+    /**
+     * Reports the indices of the points inside the given box, including its edges.
+     *
+     * @param minX   The minimal x of the box.
+     * @param minY   The minimal y of the box.
+     * @param maxX   The maximal x of the box.
+     * @param maxY   The maximal y of the box.
+     * @param action Invoked with the index of every point in the box, in no particular order.
+     */
+    void range(double minX, double minY, double maxX, double maxY, IntConsumer action) {
+        range(minX, minY, maxX, maxY, action, new int[64]);
+    }
+
+    /**
+     * Reports the indices of the points inside the given box, including its edges, using the given array as the stack
+     * of the traversal, so queries can reuse it.
+     *
+     * @param minX   The minimal x of the box.
+     * @param minY   The minimal y of the box.
+     * @param maxX   The maximal x of the box.
+     * @param maxY   The maximal y of the box.
+     * @param action Invoked with the index of every point in the box, in no particular order.
+     * @param stack  The stack of the traversal, whose length is a multiple of 3.
+     * @return The stack, or a larger array that replaced it if the tree is deeper than it allows.
+     */
+    int[] range(double minX, double minY, double maxX, double maxY, IntConsumer action, int[] stack) {
+        int top = push(stack, 0, 0, ids.length - 1, 0);
+
+        while (top > 0) {
+            int axis = stack[--top];
+            int right = stack[--top];
+            int left = stack[--top];
+
+            if (right - left <= nodeSize) {
+                for (int i = left; i <= right; i++) {
+                    double x = coords[2 * i];
+                    double y = coords[2 * i + 1];
+                    if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                        action.accept(ids[i]);
+                    }
+                }
+                continue;
+            }
+
+            int m = (left + right) >> 1;
+            double x = coords[2 * m];
+            double y = coords[2 * m + 1];
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                action.accept(ids[m]);
+            }
+
+            if (axis == 0 ? minX <= x : minY <= y) {
+                stack = ensureCapacity(stack, top);
+                top = push(stack, top, left, m - 1, 1 - axis);
+            }
+            if (axis == 0 ? maxX >= x : maxY >= y) {
+                stack = ensureCapacity(stack, top);
+                top = push(stack, top, m + 1, right, 1 - axis);
+            }
+        }
+
+        return stack;
+    }
+
+    /**
+     * Reports the indices of the points within the given distance from a point, including the points at exactly that
+     * distance.
+     *
+     * @param qx     The x of the point.
+     * @param qy     The y of the point.
+     * @param r      The distance.
+     * @param action Invoked with the index of every point within the distance, in no particular order.
+     */
+    void within(double qx, double qy, double r, IntConsumer action) {
+        double r2 = r * r;
+        int[] stack = new int[64];
+        int top = push(stack, 0, 0, ids.length - 1, 0);
+
+        while (top > 0) {
+            int axis = stack[--top];
+            int right = stack[--top];
+            int left = stack[--top];
+
+            if (right - left <= nodeSize) {
+                for (int i = left; i <= right; i++) {
+                    if (squaredDistance(coords[2 * i], coords[2 * i + 1], qx, qy) <= r2) {
+                        action.accept(ids[i]);
+                    }
+                }
+                continue;
+            }
+
+            int m = (left + right) >> 1;
+            double x = coords[2 * m];
+            double y = coords[2 * m + 1];
+            if (squaredDistance(x, y, qx, qy) <= r2) {
+                action.accept(ids[m]);
+            }
+
+            if (axis == 0 ? qx - r <= x : qy - r <= y) {
+                stack = ensureCapacity(stack, top);
+                top = push(stack, top, left, m - 1, 1 - axis);
+            }
+            if (axis == 0 ? qx + r >= x : qy + r >= y) {
+                stack = ensureCapacity(stack, top);
+                top = push(stack, top, m + 1, right, 1 - axis);
+            }
+        }
+    }
+
+    private void sort(int left, int right, int axis) {
+        if (right - left <= nodeSize) {
+            return;
+        }
+
+        int m = (left + right) >> 1;
+        select(m, left, right, axis);
+
+        sort(left, m - 1, 1 - axis);
+        sort(m + 1, right, 1 - axis);
+    }
+
+    /**
+     * Rearranges the range so that the k-th point is in its sorted position on the given axis, with smaller points
+     * before it and greater points after it (Floyd-Rivest selection).
+     */
+    private void select(int k, int left, int right, int axis) {
+        while (right > left) {
+            if (right - left > 600) {
+                int n = right - left + 1;
+                int m = k - left + 1;
+                double z = Math.log(n);
+                double s = 0.5 * Math.exp(2 * z / 3);
+                double sd = 0.5 * Math.sqrt(z * s * (n - s) / n) * (m - n / 2.0 < 0 ? -1 : 1);
+                int newLeft = (int) Math.max(left, Math.floor(k - m * s / n + sd));
+                int newRight = (int) Math.min(right, Math.floor(k + (n - m) * s / n + sd));
+                select(k, newLeft, newRight, axis);
+            }
+
+            double t = coords[2 * k + axis];
+            int i = left;
+            int j = right;
+
+            swap(left, k);
+            if (coords[2 * right + axis] > t) {
+                swap(left, right);
+            }
+
+            while (i < j) {
+                swap(i, j);
+                i++;
+                j--;
+                while (coords[2 * i + axis] < t) {
+                    i++;
+                }
+                while (coords[2 * j + axis] > t) {
+                    j--;
+                }
+            }
+
+            if (coords[2 * left + axis] == t) {
+                swap(left, j);
+            } else {
+                j++;
+                swap(j, right);
+            }
+
+            if (j <= k) {
+                left = j + 1;
+            }
+            if (k <= j) {
+                right = j - 1;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+
+        double x = coords[2 * i];
+        double y = coords[2 * i + 1];
+        coords[2 * i] = coords[2 * j];
+        coords[2 * i + 1] = coords[2 * j + 1];
+        coords[2 * j] = x;
+        coords[2 * j + 1] = y;
+    }
+
+    private static double squaredDistance(double ax, double ay, double bx, double by) {
+        double dx = ax - bx;
+        double dy = ay - by;
+        return dx * dx + dy * dy;
+    }
+
+    private static int push(int[] stack, int top, int left, int right, int axis) {
+        stack[top] = left;
+        stack[top + 1] = right;
+        stack[top + 2] = axis;
+        return top + 3;
+    }
+
+    private static int[] ensureCapacity(int[] stack, int top) {
+        if (top + 3 <= stack.length) {
+            return stack;
+        }
+
+        int[] grown = new int[2 * stack.length];
+        System.arraycopy(stack, 0, grown, 0, top);
+        return grown;
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.dormesica.mapcontroller.cluster;
+
+import com.github.dormesica.mapcontroller.location.Geodesy;
+
+/**
+ * Conversions between geographic coordinates and the Web Mercator projection, normalized so the world is the square
+ * between (0, 0) at its north-west corner and (1, 1) at its south-east corner.
+ */
+final class WebMercator {
+
+    private static final double EARTH_CIRCUMFERENCE = 2 * Math.PI * Geodesy.WGS84_SEMI_MAJOR_AXIS;
+
+    private WebMercator() {
+    }
+
+    /**
+     * Returns the zoom level of a view of the map, by the scale of the view at its center.
+     *
+     * @param cameraHeight   The height of the camera above the ground, in meters.
+     * @param latitude       The latitude of the center of the view.
+     * @param fieldOfView    The vertical field of view of the camera, in radians.
+     * @param viewportHeight The height of the view, in pixels.
+     * @param extent         The width of the world at zoom level 0, in pixels.
+     * @return The fractional zoom level of the view.
+     */
+    static double zoom(double cameraHeight, double latitude, double fieldOfView, int viewportHeight, double extent) {
+        double metersPerPixel = 2 * cameraHeight * Math.tan(fieldOfView / 2) / viewportHeight;
+        double metersPerWorld = EARTH_CIRCUMFERENCE * Math.cos(Math.toRadians(latitude));
+
+        return Math.log(metersPerWorld / (metersPerPixel * extent)) / Math.log(2);
+    }
+
+    static double lonToX(double lon) {
+        return lon / 360 + 0.5;
+    }
+
+    static double latToY(double lat) {
+        double sin = Math.sin(Math.toRadians(lat));
+        double y = 0.5 - 0.25 * Math.log((1 + sin) / (1 - sin)) / Math.PI;
+        return y < 0 ? 0 : y > 1 ? 1 : y;
+    }
+
+    static double xToLon(double x) {
+        return (x - 0.5) * 360;
+    }
+
+    static double yToLat(double y) {
+        double y2 = (180 - y * 360) * Math.PI / 180;
+        return 360 * Math.atan(Math.exp(y2)) / Math.PI - 90;
+    }
+
+    /**
+     * Calls the given action with the projected bounds of the given extent, twice if it crosses the antimeridian.
+     */
+    static void forEachRange(double west, double north, double east, double south, RangeConsumer action) {
+        double normalizedWest = Geodesy.normalizeLongitude(west);
+        double normalizedEast = east == 180 ? 180 : Geodesy.normalizeLongitude(east);
+        double minY = latToY(Math.max(-90, Math.min(90, north)));
+        double maxY = latToY(Math.max(-90, Math.min(90, south)));
+        if (east - west >= 360) {
+            normalizedWest = -180;
+            normalizedEast = 180;
+        }
+
+        if (normalizedWest > normalizedEast) {
+            // the extent crosses the antimeridian
+            action.accept(lonToX(normalizedWest), minY, 1, maxY);
+            action.accept(0, minY, lonToX(normalizedEast), maxY);
+        } else {
+            action.accept(lonToX(normalizedWest), minY, lonToX(normalizedEast), maxY);
+        }
+    }
+
+    /**
+     * A consumer of a range of projected coordinates.
+     */
+    interface RangeConsumer {
+        void accept(double minX, double minY, double maxX, double maxY);
+    }
+}
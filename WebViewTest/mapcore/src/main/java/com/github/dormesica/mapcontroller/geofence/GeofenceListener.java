@@ -0,0 +1,35 @@
+package com.github.dormesica.mapcontroller.geofence;
+
+import com.github.dormesica.mapcontroller.layers.Polygon;
+
+/**
+ * Interface definition for a callback to be invoked when a tracked object enters or exits a zone of a
+ * {@link GeofenceService}.
+ * <p>
+ * When a fix moves an object out of some zones and into others, the exits are reported before the enters. Callbacks
+ * of batches are invoked on the threads of the service's pool, so implementations must be thread-safe.
+ *
+ * @since 1.0.0
+ */
+public interface GeofenceListener {
+
+    /**
+     * Called when a tracked object enters a zone.
+     *
+     * @param trackId The ID of the tracked object.
+     * @param zone    The zone that was entered.
+     * @param lon     The longitude of the fix that is inside the zone.
+     * @param lat     The latitude of the fix that is inside the zone.
+     */
+    void onEnter(String trackId, Polygon zone, double lon, double lat);
+
+    /**
+     * Called when a tracked object exits a zone.
+     *
+     * @param trackId The ID of the tracked object.
+     * @param zone    The zone that was exited.
+     * @param lon     The longitude of the fix that is outside the zone.
+     * @param lat     The latitude of the fix that is outside the zone.
+     */
+    void onExit(String trackId, Polygon zone, double lon, double lat);
+}
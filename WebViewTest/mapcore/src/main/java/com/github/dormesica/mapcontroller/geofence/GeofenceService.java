@@ -0,0 +1,350 @@
+package com.github.dormesica.mapcontroller.geofence;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.github.dormesica.mapcontroller.layers.Entity;
+import com.github.dormesica.mapcontroller.layers.Polygon;
+import com.github.dormesica.mapcontroller.layers.PreparedPolygon;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tracks which zones a set of moving objects are inside of, for high rates of position fixes.
+ * <p>
+ * The zones are the polygons of a {@link com.github.dormesica.mapcontroller.layers.VectorLayer} (or any other
+ * collection of entities, of which the non-polygons are ignored). They are indexed by a uniform grid over their bounds
+ * and {@link PreparedPolygon prepared}, so a fix is tested only against the zones whose bounds overlap its grid cell.
+ * <p>
+ * Every fix is attributed to a tracked object by an ID. When a fix of an object is inside a zone that its previous fix
+ * was not inside, or the other way around, the {@link GeofenceListener} of the service is notified. The first fix of
+ * an object reports an enter to every zone it is inside.
+ * <p>
+ * Once the state of an object exists, processing a single fix with {@link #update(String, double, double)} does not
+ * allocate, unless the object is inside more zones at once than it has ever been before. Batches of fixes are
+ * processed in parallel by {@link #updateAll(String[], double[], int)} on a {@link ForkJoinPool}, while the fixes of
+ * every single object are still processed in order.
+ * <p>
+ * The service is thread-safe. Fixes of a single object that are reported concurrently from different threads are
+ * processed one at a time, in an undefined order.
+ *
+ * @since 1.0.0
+ */
+public class GeofenceService {
+
+    private static final int INITIAL_TRACK_CAPACITY = 4;
+
+    /**
+     * Batches smaller than this are processed on the calling thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 512;
+    private static final int PARTITIONS_PER_THREAD = 4;
+
+    private final List<Polygon> mZones;
+    private final PreparedPolygon[] mPreparedZones;
+    private final ZoneGrid mGrid;
+    private final ForkJoinPool mPool;
+    private final ConcurrentHashMap<String, TrackState> mTracks = new ConcurrentHashMap<>();
+    private volatile GeofenceListener mListener;
+
+    /**
+     * Creates a new {@code GeofenceService} of the polygons among the given entities, which processes batches on the
+     * common fork-join pool.
+     *
+     * @param zones The entities of which the polygons are the zones, e.g. a vector layer.
+     * @throws IllegalArgumentException In case one of the polygons is a stub.
+     */
+    public GeofenceService(@NonNull Iterable<? extends Entity> zones) throws IllegalArgumentException {
+        this(zones, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new {@code GeofenceService} of the polygons among the given entities.
+     *
+     * @param zones The entities of which the polygons are the zones, e.g. a vector layer.
+     * @param pool  The pool on which batches of fixes are processed.
+     * @throws IllegalArgumentException In case one of the polygons is a stub.
+     */
+    public GeofenceService(@NonNull Iterable<? extends Entity> zones, @NonNull ForkJoinPool pool)
+            throws IllegalArgumentException {
+        List<Polygon> polygons = new ArrayList<>();
+        List<Rectangle> bounds = new ArrayList<>();
+        for (Entity entity : zones) {
+            if (!(entity instanceof Polygon)) {
+                continue;
+            }
+
+            Preconditions.checkArgument(!entity.isStub(), "The geometry of zone %s has not been fetched.",
+                    entity.getId());
+            if (entity.getBounds() != null) {
+                polygons.add((Polygon) entity);
+                bounds.add(entity.getBounds());
+            }
+        }
+
+        mZones = Collections.unmodifiableList(polygons);
+        mPreparedZones = new PreparedPolygon[polygons.size()];
+        for (int i = 0; i < mPreparedZones.length; i++) {
+            mPreparedZones[i] = polygons.get(i).prepare();
+        }
+        mGrid = new ZoneGrid(bounds);
+        mPool = pool;
+    }
+
+    /**
+     * Sets the listener that is notified when tracked objects enter or exit zones.
+     *
+     * @param listener The listener, or {@code null} to stop notifying.
+     */
+    public void setGeofenceListener(@Nullable GeofenceListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * Returns the zones of the service.
+     *
+     * @return An unmodifiable list of the zones.
+     */
+    @NonNull
+    public List<Polygon> getZones() {
+        return mZones;
+    }
+
+    /**
+     * Finds the zones that contain the given location, without affecting any tracked object.
+     * <p>
+     * This method does not allocate.
+     *
+     * @param lon The longitude of the location.
+     * @param lat The latitude of the location.
+     * @param out Array to which the indices (in {@link #getZones()}) of the zones are written in ascending order.
+     * @return The amount of zones that contain the location, which may be greater than the length of {@code out}, in
+     * which case only the first zones are written.
+     */
+    public int findZones(double lon, double lat, @NonNull int[] out) {
+        int cell = mGrid.cellOf(lon, lat);
+        if (cell < 0) {
+            return 0;
+        }
+
+        int count = 0;
+        for (int i = mGrid.cellStart(cell), end = mGrid.cellEnd(cell); i < end; i++) {
+            int zone = mGrid.zoneAt(i);
+            if (mPreparedZones[zone].contains(lon, lat)) {
+                if (count < out.length) {
+                    out[count] = zone;
+                }
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Processes a single fix of a tracked object and notifies the listener of the zones it entered or exited.
+     *
+     * @param trackId The ID of the tracked object.
+     * @param lon     The longitude of the fix.
+     * @param lat     The latitude of the fix.
+     * @return The amount of zones the object is inside of after the fix.
+     */
+    public int update(@NonNull String trackId, double lon, double lat) {
+        TrackState state = mTracks.get(trackId);
+        if (state == null) {
+            TrackState created = new TrackState();
+            state = mTracks.putIfAbsent(trackId, created);
+            if (state == null) {
+                state = created;
+            }
+        }
+
+        synchronized (state) {
+            return process(trackId, state, lon, lat);
+        }
+    }
+
+    /**
+     * Processes a batch of fixes, possibly of many tracked objects.
+     * <p>
+     * The fixes are split between the threads of the pool by their object, and the fixes of every object are processed
+     * in the order of the batch. The listener is called on the threads of the pool. This method returns after all the
+     * fixes are processed.
+     *
+     * @param trackIds  The IDs of the tracked objects of the fixes.
+     * @param positions The positions of the fixes, packed as {@code [lon0, lat0, lon1, lat1, ...]}.
+     * @param count     The amount of fixes in the batch.
+     * @throws IllegalArgumentException In case the arrays are shorter than {@code count} fixes.
+     */
+    public void updateAll(@NonNull String[] trackIds, @NonNull double[] positions, int count)
+            throws IllegalArgumentException {
+        Preconditions.checkArgument(count >= 0 && count <= trackIds.length && 2 * count <= positions.length,
+                "The batch holds less than %s fixes.", count);
+
+        int partitions = Math.min(count / PARALLEL_THRESHOLD + 1, mPool.getParallelism() * PARTITIONS_PER_THREAD);
+        if (partitions <= 1) {
+            for (int i = 0; i < count; i++) {
+                update(trackIds[i], positions[2 * i], positions[2 * i + 1]);
+            }
+            return;
+        }
+
+        // group the fixes by partition, keeping their order within every partition
+        int[] partitionStarts = new int[partitions + 1];
+        int[] partitionOf = new int[count];
+        for (int i = 0; i < count; i++) {
+            int hash = trackIds[i].hashCode();
+            partitionOf[i] = ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % partitions;
+            partitionStarts[partitionOf[i] + 1]++;
+        }
+        for (int i = 0; i < partitions; i++) {
+            partitionStarts[i + 1] += partitionStarts[i];
+        }
+
+        int[] order = new int[count];
+        int[] filled = new int[partitions];
+        for (int i = 0; i < count; i++) {
+            order[partitionStarts[partitionOf[i]] + filled[partitionOf[i]]++] = i;
+        }
+
+        mPool.invoke(new BatchTask(trackIds, positions, partitionStarts, order, 0, partitions));
+    }
+
+    /**
+     * Returns the zones the given object is currently inside of.
+     *
+     * @param trackId The ID of the tracked object.
+     * @return The zones that contain the last fix of the object, which are none if the object is not tracked.
+     */
+    @NonNull
+    public List<Polygon> getZonesOf(@NonNull String trackId) {
+        TrackState state = mTracks.get(trackId);
+        if (state == null) {
+            return Collections.emptyList();
+        }
+
+        List<Polygon> zones = new ArrayList<>();
+        synchronized (state) {
+            for (int i = 0; i < state.count; i++) {
+                zones.add(mZones.get(state.zones[i]));
+            }
+        }
+
+        return zones;
+    }
+
+    /**
+     * Stops tracking the given object. No exits are reported for the zones it was inside of.
+     *
+     * @param trackId The ID of the tracked object.
+     */
+    public void forget(@NonNull String trackId) {
+        mTracks.remove(trackId);
+    }
+
+    /**
+     * Returns the amount of tracked objects.
+     *
+     * @return The amount of objects that have fixes.
+     */
+    public int getTrackCount() {
+        return mTracks.size();
+    }
+
+    /**
+     * Finds the zones of a fix and reports the difference from the zones of the previous fix.
+     * <p>
+     * Both zone lists are in ascending order, so the difference is found by merging them.
+     */
+    private int process(String trackId, TrackState state, double lon, double lat) {
+        int count = findZones(lon, lat, state.next);
+        if (count > state.next.length) {
+            state.next = new int[Math.max(count, 2 * state.next.length)];
+            findZones(lon, lat, state.next);
+        }
+
+        GeofenceListener listener = mListener;
+        if (listener != null) {
+            for (int i = 0, j = 0; i < state.count; i++) {
+                while (j < count && state.next[j] < state.zones[i]) {
+                    j++;
+                }
+                if (j == count || state.next[j] != state.zones[i]) {
+                    listener.onExit(trackId, mZones.get(state.zones[i]), lon, lat);
+                }
+            }
+            for (int i = 0, j = 0; j < count; j++) {
+                while (i < state.count && state.zones[i] < state.next[j]) {
+                    i++;
+                }
+                if (i == state.count || state.zones[i] != state.next[j]) {
+                    listener.onEnter(trackId, mZones.get(state.next[j]), lon, lat);
+                }
+            }
+        }
+
+        int[] previous = state.zones;
+        state.zones = state.next;
+        state.next = previous;
+        state.count = count;
+
+        return count;
+    }
+
+    /**
+     * The zones a tracked object is inside of.
+     */
+    private static class TrackState {
+        int[] zones = new int[INITIAL_TRACK_CAPACITY];
+        int count;
+
+        /**
+         * Buffer for the zones of the next fix, swapped with {@code zones} after every fix.
+         */
+        int[] next = new int[INITIAL_TRACK_CAPACITY];
+    }
+
+    /**
+     * Processes the fixes of a range of partitions, splitting the range between tasks.
+     */
+    private class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final String[] mTrackIds;
+        private final double[] mPositions;
+        private final int[] mPartitionStarts;
+        private final int[] mOrder;
+        private final int mFrom;
+        private final int mTo;
+
+        BatchTask(String[] trackIds, double[] positions, int[] partitionStarts, int[] order, int from, int to) {
+            mTrackIds = trackIds;
+            mPositions = positions;
+            mPartitionStarts = partitionStarts;
+            mOrder = order;
+            mFrom = from;
+            mTo = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (mTo - mFrom > 1) {
+                int middle = (mFrom + mTo) >>> 1;
+                invokeAll(new BatchTask(mTrackIds, mPositions, mPartitionStarts, mOrder, mFrom, middle),
+                        new BatchTask(mTrackIds, mPositions, mPartitionStarts, mOrder, middle, mTo));
+                return;
+            }
+
+            for (int i = mPartitionStarts[mFrom], end = mPartitionStarts[mTo]; i < end; i++) {
+                int fix = mOrder[i];
+                update(mTrackIds[fix], mPositions[2 * fix], mPositions[2 * fix + 1]);
+            }
+        }
+    }
+}
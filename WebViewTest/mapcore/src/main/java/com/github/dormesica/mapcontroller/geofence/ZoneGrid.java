@@ -0,0 +1,136 @@
+package com.github.dormesica.mapcontroller.geofence;
+
+import com.github.dormesica.mapcontroller.location.Rectangle;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * A uniform grid over the bounds of a set of zones, in which every cell holds the indices of the zones whose bounds
+ * overlap it.
+ * <p>
+ * The cells are stored in compressed rows: the zones of the i-th cell are {@code cellZones[cellStarts[i]]} to
+ * {@code cellZones[cellStarts[i+1] - 1]}, in ascending order. Queries do not allocate.
+ */
+class ZoneGrid {
+
+    private static final int MAX_CELLS = 1 << 20;
+    private static final int CELLS_PER_ZONE = 4;
+
+    private final double west;
+    private final double south;
+    private final double east;
+    private final double north;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final int columns;
+    private final int rows;
+
+    private final int[] cellStarts;
+    private final int[] cellZones;
+
+    /**
+     * Creates a grid of the given zone bounds.
+     *
+     * @param bounds The bounds of the zones, the index of a zone is its index in the list.
+     */
+    ZoneGrid(List<Rectangle> bounds) {
+        Rectangle extent = null;
+        for (Rectangle zone : bounds) {
+            extent = zone.union(extent);
+        }
+
+        if (extent == null) {
+            // an empty grid, which contains no location
+            west = south = 0;
+            east = north = -1;
+            cellWidth = cellHeight = 1;
+            columns = rows = 1;
+            cellStarts = new int[2];
+            cellZones = new int[0];
+            return;
+        }
+
+        west = extent.getWest();
+        south = extent.getSouth();
+        east = extent.getEast();
+        north = extent.getNorth();
+        double width = Math.max(east - west, 1e-9);
+        double height = Math.max(north - south, 1e-9);
+
+        // square-ish cells, about CELLS_PER_ZONE cells for every zone
+        int cellCount = Math.max(1, Math.min(MAX_CELLS, CELLS_PER_ZONE * bounds.size()));
+        double cellSize = Math.sqrt(width * height / cellCount);
+        columns = Math.max(1, Math.min(cellCount, (int) Math.ceil(width / cellSize)));
+        rows = Math.max(1, Math.min(cellCount / columns, (int) Math.ceil(height / cellSize)));
+        cellWidth = width / columns;
+        cellHeight = height / rows;
+
+        // count the zones of every cell, then fill them in
+        cellStarts = new int[columns * rows + 1];
+        for (Rectangle zone : bounds) {
+            forEachCell(zone, cell -> cellStarts[cell + 1]++);
+        }
+        for (int cell = 0; cell < columns * rows; cell++) {
+            cellStarts[cell + 1] += cellStarts[cell];
+        }
+
+        cellZones = new int[cellStarts[columns * rows]];
+        int[] filled = new int[columns * rows];
+        for (int i = 0; i < bounds.size(); i++) {
+            int zone = i;
+            forEachCell(bounds.get(i), cell -> cellZones[cellStarts[cell] + filled[cell]++] = zone);
+        }
+    }
+
+    /**
+     * Returns the cell that contains the given location.
+     *
+     * @return The index of the cell, or {@code -1} if the location is outside of the grid.
+     */
+    int cellOf(double lon, double lat) {
+        if (lon < west || lon > east || lat < south || lat > north) {
+            return -1;
+        }
+
+        // locations on the east and north edges belong to the last cell
+        int column = clamp((int) ((lon - west) / cellWidth), columns);
+        int row = clamp((int) ((lat - south) / cellHeight), rows);
+        return row * columns + column;
+    }
+
+    /**
+     * Returns the index in {@link #zoneAt(int)} of the first zone of the given cell.
+     */
+    int cellStart(int cell) {
+        return cellStarts[cell];
+    }
+
+    /**
+     * Returns the index in {@link #zoneAt(int)} after the last zone of the given cell.
+     */
+    int cellEnd(int cell) {
+        return cellStarts[cell + 1];
+    }
+
+    int zoneAt(int i) {
+        return cellZones[i];
+    }
+
+    private void forEachCell(Rectangle zone, IntConsumer consumer) {
+        int firstColumn = clamp((int) Math.floor((zone.getWest() - west) / cellWidth), columns);
+        int lastColumn = clamp((int) Math.floor((zone.getEast() - west) / cellWidth), columns);
+        int firstRow = clamp((int) Math.floor((zone.getSouth() - south) / cellHeight), rows);
+        int lastRow = clamp((int) Math.floor((zone.getNorth() - south) / cellHeight), rows);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                consumer.accept(row * columns + column);
+            }
+        }
+    }
+
+    private static int clamp(int index, int size) {
+        return Math.max(0, Math.min(index, size - 1));
+    }
+}
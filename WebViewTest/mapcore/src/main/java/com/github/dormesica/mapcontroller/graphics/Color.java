@@ -1,7 +1,5 @@
 package com.github.dormesica.mapcontroller.graphics;
 
-import android.os.Parcel;
-import android.os.Parcelable;
 import androidx.annotation.NonNull;
 import com.google.common.base.Preconditions;
 
@@ -15,19 +13,7 @@ import com.google.common.base.Preconditions;
  *
  * @since 1.0.0
  */
-public class Color implements Parcelable {
-
-    public static final Parcelable.Creator<Color> CREATOR = new Parcelable.Creator<Color>() {
-        @Override
-        public Color createFromParcel(Parcel source) {
-            return new Color(source);
-        }
-
-        @Override
-        public Color[] newArray(int size) {
-            return new Color[0];
-        }
-    };
+public class Color {
 
     /**
      * Constant value for transparent color.
@@ -146,18 +132,6 @@ public class Color implements Parcelable {
         mAlpha = alpha;
     }
 
-    /**
-     * Creates a new {@code Color} from a {@link Parcel}.
-     *
-     * @param source The source Parcel.
-     */
-    private Color(Parcel source) {
-        mRed = source.readInt();
-        mGreen = source.readInt();
-        mBlue = source.readInt();
-        mAlpha = source.readDouble();
-    }
-
     /**
      * Get the value of the red channel of the color.
      *
@@ -247,19 +221,6 @@ public class Color implements Parcelable {
         return "#" + getChannelHexValue(mRed) + getChannelHexValue(mGreen) + getChannelHexValue(mBlue);
     }
 
-    @Override
-    public int describeContents() {
-        return 0;
-    }
-
-    @Override
-    public void writeToParcel(Parcel dest, int flags) {
-        dest.writeInt(mRed);
-        dest.writeInt(mGreen);
-        dest.writeInt(mBlue);
-        dest.writeDouble(mAlpha);
-    }
-
     /**
      * Converts a single channel value to hexadecimal.
      *
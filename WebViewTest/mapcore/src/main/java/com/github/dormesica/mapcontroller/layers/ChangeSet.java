@@ -0,0 +1,161 @@
+package com.github.dormesica.mapcontroller.layers;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+
+/**
+ * Collects the changes made to the metadata of tracked {@link VectorLayer}s and {@link Entity}s, so they can be sent
+ * to the map in a single batch.
+ * <p>
+ * A layer and its entities are tracked once the layer is passed to {@link #track(VectorLayer)}. From then on, setting
+ * the name or description of the layer or of one of its entities marks the changed field as dirty and adds the object
+ * to the change set, once. {@link #drain()} serializes only the dirty fields of the changed objects and clears them,
+ * so the cost of a flush depends on the amount of changes rather than on the size of the layers.
+ * <p>
+ * Change sets are not thread safe and are meant to be used on the main thread.
+ *
+ * @since 1.0.0
+ */
+public final class ChangeSet {
+
+    static final int FIELD_NAME = 1;
+    static final int FIELD_DESCRIPTION = 1 << 1;
+
+    private final ArrayList<VectorLayer> layers = new ArrayList<>();
+    private final ArrayList<Entity> entities = new ArrayList<>();
+    private OnChangeListener listener;
+
+    /**
+     * Sets a listener that is invoked whenever an empty change set receives its first change.
+     *
+     * @param listener The listener, or {@code null} to remove it.
+     */
+    public void setOnChangeListener(@Nullable OnChangeListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Starts tracking the changes of the given layer and of its entities, including entities that are added to it
+     * later on.
+     *
+     * @param layer The layer to track.
+     */
+    public void track(@NonNull VectorLayer layer) {
+        layer.setChangeSet(this);
+    }
+
+    /**
+     * Stops tracking the changes of the given layer and of its entities. Pending changes of the layer are discarded.
+     *
+     * @param layer The layer to stop tracking.
+     */
+    public void untrack(@NonNull VectorLayer layer) {
+        layer.setChangeSet(null);
+    }
+
+    /**
+     * Returns whether there are changes that were not drained yet.
+     *
+     * @return {@code true} if there are no pending changes, otherwise {@code false}.
+     */
+    public boolean isEmpty() {
+        return layers.isEmpty() && entities.isEmpty();
+    }
+
+    /**
+     * Serializes the pending changes and clears them.
+     * <p>
+     * The changes are serialized as {@code {"layers": [...], "entities": [...]}}, where every element contains the ID
+     * of the changed object and only its dirty fields.
+     *
+     * @return The JSON of the changes, or {@code null} if there are no changes.
+     */
+    @Nullable
+    public String drain() {
+        if (isEmpty()) {
+            return null;
+        }
+
+        StringWriter json = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(json)) {
+            writer.setSerializeNulls(true);
+            writer.beginObject();
+
+            writer.name("layers").beginArray();
+            for (VectorLayer layer : layers) {
+                if (layer.changeSet == this) {
+                    writeChange(writer, layer.getId(), layer.dirtyFields, layer.getName(), layer.getDescription());
+                }
+                layer.dirtyFields = 0;
+            }
+            writer.endArray();
+
+            writer.name("entities").beginArray();
+            for (Entity entity : entities) {
+                if (entity.changeSet == this) {
+                    writeChange(writer, entity.getId(), entity.dirtyFields, entity.getName(), entity.getDescription());
+                }
+                entity.dirtyFields = 0;
+            }
+            writer.endArray();
+
+            writer.endObject();
+        } catch (IOException e) {
+            // a StringWriter does not throw
+            throw new AssertionError(e);
+        }
+
+        layers.clear();
+        entities.clear();
+        return json.toString();
+    }
+
+    void add(VectorLayer layer) {
+        notifyIfEmpty();
+        layers.add(layer);
+    }
+
+    void add(Entity entity) {
+        notifyIfEmpty();
+        entities.add(entity);
+    }
+
+    private void notifyIfEmpty() {
+        if (isEmpty() && listener != null) {
+            listener.onChange(this);
+        }
+    }
+
+    private static void writeChange(JsonWriter writer, String id, int dirtyFields, String name, String description)
+            throws IOException {
+        writer.beginObject();
+        writer.name("id").value(id);
+        if ((dirtyFields & FIELD_NAME) != 0) {
+            writer.name("name").value(name);
+        }
+        if ((dirtyFields & FIELD_DESCRIPTION) != 0) {
+            writer.name("description").value(description);
+        }
+        writer.endObject();
+    }
+
+    /**
+     * Interface definition for a callback to be invoked when a change set stops being empty.
+     *
+     * @since 1.0.0
+     */
+    public interface OnChangeListener {
+
+        /**
+         * Called when the first change is added to an empty change set, e.g. to schedule a flush.
+         *
+         * @param changeSet The change set.
+         */
+        void onChange(@NonNull ChangeSet changeSet);
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.dormesica.mapcontroller.layers;
+
+import androidx.annotation.NonNull;
+import com.github.dormesica.mapcontroller.cluster.ClusterIndex;
+import com.github.dormesica.mapcontroller.graphics.Color;
+import com.google.common.base.Preconditions;
+
+import java.net.URL;
+
+/**
+ * Layer descriptor for cluster layers, i.e. layers that display a large amount of points as clusters.
+ * <p>
+ * The points are not sent to the map. Whenever the view of the map changes, the clusters in the view are queried from
+ * a {@link ClusterIndex} and only they are sent to the map, where clusters are displayed as circles labeled with the
+ * amount of their points and single points are displayed as markers.
+ *
+ * @since 1.0.0
+ */
+public class ClusterLayerDescriptor {
+
+    private String type;
+    private String color;
+    private double opacity;
+    private String pointIcon;
+    private transient ClusterIndex index;
+
+    /**
+     * Creates a new <code>ClusterLayerDescriptor</code> from the builder.
+     *
+     * @param builder The builder from which to build the cluster layer.
+     */
+    private ClusterLayerDescriptor(Builder builder) {
+        type = LayerTypes.Cluster;
+        color = builder.color;
+        opacity = builder.opacity;
+        pointIcon = builder.pointIcon;
+        index = builder.index;
+    }
+
+    /**
+     * Returns the index whose clusters are displayed by the layer.
+     *
+     * @return The cluster index of the layer.
+     */
+    @NonNull
+    public ClusterIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * <code>ClusterLayerDescriptor.Builder</code> is a helper for creating {@link ClusterLayerDescriptor} layers to be
+     * loaded onto {@code MapView}.
+     *
+     * @since 1.0.0
+     */
+    public static final class Builder {
+
+        private final ClusterIndex index;
+        private String color;
+        private double opacity;
+        private String pointIcon;
+
+        /**
+         * Creates a new <code>ClusterLayerDescriptor.Builder</code> instance.
+         */
+        private Builder(ClusterIndex index) {
+            this.index = index;
+            color = "#1E88E5";
+            opacity = 0.8;
+            pointIcon = Point.DEFAULT_POINT_ICON;
+        }
+
+        /**
+         * Creates a new <code>ClusterLayerDescriptor.Builder</code> of a layer that displays the clusters of the given
+         * index.
+         *
+         * @param index The index of the points of the layer.
+         * @return A new <code>ClusterLayerDescriptor.Builder</code> instance.
+         */
+        public static Builder from(@NonNull ClusterIndex index) {
+            Preconditions.checkNotNull(index);
+
+            return new Builder(index);
+        }
+
+        /**
+         * Set the color of the clusters.
+         *
+         * @param color The color of the clusters.
+         * @return The <code>ClusterLayerDescriptor.Builder</code> for method chaining.
+         */
+        public Builder setColor(Color color) {
+            this.color = color.getColorString();
+            this.opacity = color.alpha();
+            return this;
+        }
+
+        /**
+         * Set the marker of single points to the given SVG data URI.
+         *
+         * @param svg The SVG uri as a string.
+         * @return The <code>ClusterLayerDescriptor.Builder</code> for method chaining.
+         */
+        public Builder setPointIcon(String svg) {
+            pointIcon = svg;
+            return this;
+        }
+
+        /**
+         * Set the marker of single points to the image located at the given URL.
+         *
+         * @param url The URL from which to retrieve the marker image.
+         * @return The <code>ClusterLayerDescriptor.Builder</code> for method chaining.
+         */
+        public Builder setPointIcon(URL url) {
+            pointIcon = url.toString();
+            return this;
+        }
+
+        /**
+         * Creates the {@link ClusterLayerDescriptor} object.
+         *
+         * @return The newly created {@link ClusterLayerDescriptor}.
+         */
+        public ClusterLayerDescriptor build() {
+            return new ClusterLayerDescriptor(this);
+        }
+    }
+}
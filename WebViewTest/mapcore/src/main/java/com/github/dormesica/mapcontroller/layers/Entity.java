@@ -0,0 +1,369 @@
+package com.github.dormesica.mapcontroller.layers;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import com.github.dormesica.mapcontroller.StyleEditor;
+import com.github.dormesica.mapcontroller.Styleable;
+import com.github.dormesica.mapcontroller.graphics.Color;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.github.dormesica.mapcontroller.util.PostDeserializable;
+import com.google.common.base.Preconditions;
+
+/**
+ * This class represents a basic entity in a vector layer.
+ * <p>
+ * An entity can be a {@link Point}, a {@link Line} or a {@link Polygon}.
+ * <p>
+ * Entities of layers that were loaded without their geometry (see
+ * {@link GeoJsonLayerDescriptor.Builder#shouldLoadGeometry(boolean)}) are stubs that contain only the entity's ID,
+ * name and visibility. Accessing the geometry of a stub throws an {@link IllegalStateException} until its content is
+ * fetched from the map. Entities that are evicted from the memory of a {@code MapView} (see {@link EntityCache}) become
+ * stubs again until they are fetched.
+ * <p>
+ * Metrics of the geometry, such as its bounds and length, are calculated once when the entity is decoded and cached,
+ * so querying them does not scan the geometry.
+ *
+ * @since 1.0.0
+ */
+public abstract class Entity implements Styleable, PostDeserializable {
+
+    private String id;
+    private String name;
+    private String description;
+    private boolean isVisible;
+    private boolean isStub;
+    private Properties properties;
+
+    private transient Rectangle bounds;
+    private transient int vertexCount;
+    private transient boolean hasMetrics;
+    private transient boolean isEvicted;
+    transient ChangeSet changeSet;
+    // the layer the entity belongs to, whose extent and indexes follow the changes of the entity
+    transient VectorLayer layer;
+    transient int dirtyFields;
+
+    /**
+     * Creates a new {@code Entity} object with default values.
+     */
+    protected Entity() {
+    }
+
+    /**
+     * Get the ID of the entity.
+     *
+     * @return The entity's ID.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Get the name of the entity.
+     *
+     * @return The entity's name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the name of the entity.
+     * <p>
+     * The change is sent to the map with the next flush of the {@code MapView} the entity was loaded on to.
+     *
+     * @param name The new name for the entity.
+     */
+    public void setName(String name) {
+        this.name = name;
+        markDirty(ChangeSet.FIELD_NAME);
+        if (layer != null) {
+            layer.onNameChanged(this);
+        }
+    }
+
+    /**
+     * Returns the description of the entity.
+     *
+     * @return The description of the entity.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Sets a description for the entity.
+     * <p>
+     * The change is sent to the map with the next flush of the {@code MapView} the entity was loaded on to.
+     *
+     * @param description The description for the entity.
+     */
+    public void setDescription(String description) {
+        this.description = description;
+        markDirty(ChangeSet.FIELD_DESCRIPTION);
+    }
+
+    /**
+     * Get the isVisible of the marker.
+     *
+     * @return This entity's isVisible.
+     */
+    public boolean isVisible() {
+        return isVisible;
+    }
+
+    /**
+     * Sets the visibility of the entity after it was changed on the map.
+     * <p>
+     * Used by {@code MapView} to keep the entity consistent with the map and should not be called otherwise, since it
+     * does not affect the entity displayed on the map.
+     *
+     * @param isVisible The visibility of the entity on the map.
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public void updateVisibility(boolean isVisible) {
+        this.isVisible = isVisible;
+    }
+
+    /**
+     * Returns whether the entity is a stub, i.e. its geometry and properties have not been fetched from the map.
+     *
+     * @return {@code true} if the entity is a stub, otherwise {@code false}.
+     */
+    public boolean isStub() {
+        return isStub;
+    }
+
+    /**
+     * Returns whether the geometry and properties of the entity were evicted from memory, in which case it is a stub
+     * until its content is fetched from the map again.
+     *
+     * @return {@code true} if the entity was evicted, otherwise {@code false}.
+     * @see EntityCache
+     */
+    public boolean isEvicted() {
+        return isEvicted;
+    }
+
+    /**
+     * Return a {@link Properties} object with the metadata associated with the entity.
+     * <p>
+     * Stubs have no properties.
+     *
+     * @return The properties of the entity.
+     */
+    public Properties getProperties() {
+        return this.properties;
+    }
+
+    /**
+     * Returns the bounding rectangle of the entity's geometry.
+     * <p>
+     * The bounds are the minimum and maximum longitudes and latitudes of the geometry, so the bounds of an entity
+     * that crosses the antimeridian span the whole globe.
+     *
+     * @return The bounds of the entity, or {@code null} if its geometry is empty.
+     * @throws IllegalStateException If the entity is a stub.
+     */
+    @Nullable
+    public Rectangle getBounds() throws IllegalStateException {
+        checkGeometryLoaded();
+        ensureMetrics();
+        return bounds;
+    }
+
+    /**
+     * Returns the amount of coordinates in the entity's geometry.
+     *
+     * @return The vertex count of the entity.
+     * @throws IllegalStateException If the entity is a stub.
+     */
+    public int getVertexCount() throws IllegalStateException {
+        checkGeometryLoaded();
+        ensureMetrics();
+        return vertexCount;
+    }
+
+    /**
+     * Calculates the cached metrics of the entity once it is decoded.
+     */
+    @Override
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public void onDeserialized() {
+        if (!isStub) {
+            hasMetrics = false;
+            ensureMetrics();
+        }
+    }
+
+    /**
+     * Copies the geometry and properties of the given entity into this stub, after which it is no longer a stub.
+     * <p>
+     * Used by {@code MapView} when the content of a stub is fetched from the map,
+     * so any reference to the stub remains valid.
+     *
+     * @param source A complete entity of the same type and ID as this entity.
+     * @throws IllegalArgumentException If {@code source} is not of the same type and ID.
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public void hydrate(@NonNull Entity source) throws IllegalArgumentException {
+        Preconditions.checkArgument(getClass() == source.getClass() && id.equals(source.id),
+                "Cannot hydrate an entity from a different entity.");
+
+        if (!source.isStub) {
+            source.ensureMetrics();
+        }
+
+        boolean hadKnownBounds = hasKnownBounds();
+        copyGeometry(source);
+        properties = source.properties;
+        bounds = source.bounds;
+        vertexCount = source.vertexCount;
+        hasMetrics = source.hasMetrics;
+        isStub = false;
+        isEvicted = false;
+        if (layer != null) {
+            layer.onHydrated(this, hadKnownBounds);
+        }
+    }
+
+    /**
+     * Releases the geometry and properties of the entity, after which it is a stub that can be hydrated again. The
+     * cached metrics of the geometry are kept, so the entity remains part of the extent of its layer, and the entity
+     * remains in the indexes of its layer by its last properties.
+     */
+    void evict() {
+        if (isStub) {
+            return;
+        }
+
+        ensureMetrics();
+        clearGeometry();
+        properties = null;
+        isStub = true;
+        isEvicted = true;
+    }
+
+    /**
+     * Returns whether the bounds of the entity are known, i.e. its geometry is loaded or it was evicted.
+     */
+    boolean hasKnownBounds() {
+        return !isStub || isEvicted;
+    }
+
+    /**
+     * Returns the bounds of the entity, including those of an evicted entity.
+     */
+    @Nullable
+    Rectangle getKnownBounds() {
+        if (!isStub) {
+            ensureMetrics();
+        }
+        return bounds;
+    }
+
+    private void markDirty(int field) {
+        if (changeSet == null) {
+            return;
+        }
+
+        if (dirtyFields == 0) {
+            changeSet.add(this);
+        }
+        dirtyFields |= field;
+    }
+
+    /**
+     * Copies the geometry of the given entity, and the metrics cached by the subclass, into this entity.
+     *
+     * @param source An entity of the same type as this entity.
+     */
+    protected abstract void copyGeometry(@NonNull Entity source);
+
+    /**
+     * Releases the geometry of the entity when it is evicted. The metrics cached by the subclass may be kept, since
+     * they are replaced when the geometry is copied again.
+     */
+    protected abstract void clearGeometry();
+
+    /**
+     * Calculates the metrics of the entity's geometry.
+     * <p>
+     * Implementations cache the metrics of their own type and report the common metrics by calling
+     * {@link #setMetrics(Rectangle, int)}. Called only for entities whose geometry is loaded.
+     */
+    protected abstract void computeMetrics();
+
+    /**
+     * Sets the cached metrics that are common to all entities.
+     *
+     * @param bounds      The bounds of the geometry, {@code null} if it is empty.
+     * @param vertexCount The amount of coordinates in the geometry.
+     */
+    protected final void setMetrics(@Nullable Rectangle bounds, int vertexCount) {
+        this.bounds = bounds;
+        this.vertexCount = vertexCount;
+    }
+
+    /**
+     * Calculates the cached metrics in case they were not calculated yet, e.g. when the entity was not created by
+     * {@link com.github.dormesica.mapcontroller.util.JsonConverter}.
+     */
+    protected final void ensureMetrics() {
+        if (!hasMetrics) {
+            computeMetrics();
+            hasMetrics = true;
+        }
+    }
+
+    /**
+     * Validates the geometry of the entity can be accessed.
+     *
+     * @throws IllegalStateException In case the entity is a stub.
+     */
+    protected void checkGeometryLoaded() throws IllegalStateException {
+        Preconditions.checkState(!isStub, "The geometry of entity %s has not been fetched.", id);
+    }
+
+    /**
+     * An abstract class that represents the changes that can be made onto any {@link Entity} on the map.
+     *
+     * @since 1.0.0
+     */
+    public static abstract class Editor extends StyleEditor {
+        private Boolean isVisible = null;
+        private String color = null;
+        private double opacity = Double.NaN;
+
+        /**
+         * Creates a new {@code Entity.Editor} object.
+         */
+        protected Editor(String id) {
+            super(id);
+        }
+
+        /**
+         * Sets whether the entity should be visible after the update.
+         *
+         * @param visible The visibility of the entity.
+         * @return The {@code Entity.Editor} for method chaining.
+         */
+        public Editor setVisibility(boolean visible) {
+            isVisible = visible;
+            return this;
+        }
+
+        /**
+         * Sets the main color of the entity and its opacity.
+         *
+         * @param color The main color of the entity.
+         * @return The {@code Entity.Editor} for method chaining.
+         */
+        public Editor setColor(Color color) {
+            this.color = color.getColorString();
+            this.opacity = color.alpha();
+            return this;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.github.dormesica.mapcontroller.layers;
+
+import androidx.annotation.NonNull;
+import com.google.common.base.Preconditions;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounds the memory held by the geometry and properties of loaded entities.
+ * <p>
+ * The cache records the entities whose content is in memory, in the order they were last used, along with an estimate
+ * of their size. Whenever the total size exceeds the budget, the least recently used entities are evicted: their
+ * geometry and properties are released and they become stubs (see {@link Entity#isEvicted()}), whose content can be
+ * fetched from the map again. Evicted entities keep their ID, name, visibility and bounds, remain in their layers and
+ * their indexes, and references to them remain valid.
+ * <p>
+ * Sizes are estimated from the amount of coordinates and the property values of every entity, rather than measured.
+ * Entity caches are not thread safe and are meant to be used on the main thread.
+ *
+ * @since 1.0.0
+ */
+public final class EntityCache {
+
+    /**
+     * The estimated size of an entity without its geometry and properties, in bytes.
+     */
+    static final long ENTITY_SIZE = 96;
+    /**
+     * The estimated size of a coordinate of a geometry and its reference, in bytes.
+     */
+    static final long COORDINATE_SIZE = 48;
+    /**
+     * The estimated size of a JSON value without its content, in bytes.
+     */
+    static final long VALUE_SIZE = 32;
+    /**
+     * The estimated size of a member of a JSON object without its key and value, in bytes.
+     */
+    static final long MEMBER_SIZE = 48;
+
+    // access ordered, entities are compared by identity since they do not override equals
+    private final LinkedHashMap<Entity, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long budget;
+    private long size;
+    private long evictionCount;
+
+    /**
+     * Creates a new {@code EntityCache}.
+     *
+     * @param budget The estimated memory, in bytes, the content of the cached entities may hold.
+     * @throws IllegalArgumentException If <code>budget</code> is not positive.
+     */
+    public EntityCache(long budget) throws IllegalArgumentException {
+        setBudget(budget);
+    }
+
+    /**
+     * Returns the budget of the cache.
+     *
+     * @return The estimated memory, in bytes, the content of the cached entities may hold.
+     */
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Sets the budget of the cache, evicting the least recently used entities if the cache exceeds it.
+     *
+     * @param budget The estimated memory, in bytes, the content of the cached entities may hold.
+     * @throws IllegalArgumentException If <code>budget</code> is not positive.
+     */
+    public void setBudget(long budget) throws IllegalArgumentException {
+        Preconditions.checkArgument(budget > 0, "Budget must be greater than 0.");
+
+        this.budget = budget;
+        trim();
+    }
+
+    /**
+     * Returns the estimated size of the cached entities.
+     *
+     * @return The estimated memory, in bytes, held by the content of the cached entities.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the amount of cached entities.
+     *
+     * @return The amount of entities whose content is in memory.
+     */
+    public int getCount() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the amount of evictions since the cache was created.
+     *
+     * @return The amount of entities that were evicted.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Records a use of the given entity, which makes it the most recently used entity, and evicts the least recently
+     * used entities if the cache exceeds its budget. Stubs are not cached, and the size of an entity is estimated
+     * once, when it is first cached.
+     * <p>
+     * A single entity that exceeds the budget is evicted immediately.
+     *
+     * @param entity The used entity.
+     */
+    public void touch(@NonNull Entity entity) {
+        if (entity.isStub()) {
+            return;
+        }
+
+        if (entries.get(entity) == null) {
+            long entitySize = estimateSize(entity);
+            entries.put(entity, entitySize);
+            size += entitySize;
+            trim();
+        }
+    }
+
+    /**
+     * Stops caching the given entity, e.g. since it was removed from its layer. The entity is not evicted.
+     *
+     * @param entity The entity to remove.
+     */
+    public void remove(@NonNull Entity entity) {
+        Long entitySize = entries.remove(entity);
+        if (entitySize != null) {
+            size -= entitySize;
+        }
+    }
+
+    /**
+     * Stops caching all the entities, without evicting them.
+     */
+    public void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * Estimates the memory held by the geometry and properties of the given entity.
+     *
+     * @param entity The entity, which must not be a stub.
+     * @return The estimated size of the entity, in bytes.
+     * @throws IllegalStateException If the entity is a stub.
+     */
+    public static long estimateSize(@NonNull Entity entity) throws IllegalStateException {
+        long estimate = ENTITY_SIZE + entity.getVertexCount() * COORDINATE_SIZE;
+        Properties properties = entity.getProperties();
+        if (properties != null) {
+            for (Map.Entry<String, JsonElement> property : properties) {
+                estimate += MEMBER_SIZE + 2L * property.getKey().length() + estimateSize(property.getValue());
+            }
+        }
+
+        return estimate;
+    }
+
+    private static long estimateSize(JsonElement value) {
+        if (value == null || value.isJsonNull()) {
+            return 0;
+        }
+
+        long estimate = VALUE_SIZE;
+        if (value.isJsonPrimitive()) {
+            JsonPrimitive primitive = value.getAsJsonPrimitive();
+            if (primitive.isString()) {
+                estimate += 2L * primitive.getAsString().length();
+            }
+        } else if (value.isJsonArray()) {
+            for (JsonElement element : value.getAsJsonArray()) {
+                estimate += 8 + estimateSize(element);
+            }
+        } else {
+            for (Map.Entry<String, JsonElement> member : value.getAsJsonObject().entrySet()) {
+                estimate += MEMBER_SIZE + 2L * member.getKey().length() + estimateSize(member.getValue());
+            }
+        }
+
+        return estimate;
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<Entity, Long>> iterator = entries.entrySet().iterator();
+        while (size > budget && iterator.hasNext()) {
+            Map.Entry<Entity, Long> eldest = iterator.next();
+            iterator.remove();
+            size -= eldest.getValue();
+            eldest.getKey().evict();
+            evictionCount++;
+        }
+    }
+}
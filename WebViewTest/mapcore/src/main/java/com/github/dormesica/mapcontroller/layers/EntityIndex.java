@@ -0,0 +1,185 @@
+package com.github.dormesica.mapcontroller.layers;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * A secondary index of the entities of a {@link VectorLayer} by their name or by the value of one of their properties.
+ * <p>
+ * Indexes are declared on the descriptor of a layer (see
+ * {@link GeoJsonLayerDescriptor.Builder#addNameIndex()} and {@link GeoJsonLayerDescriptor.Builder#addIndex(String)}),
+ * built when the layer is loaded and kept up to date as entities are added, replaced, removed and renamed. Lookups by
+ * equality take constant time; lookups of a range of numbers or strings take logarithmic time in the amount of
+ * distinct values, plus the amount of results.
+ * <p>
+ * Numbers are compared by their {@code double} values, strings lexicographically and booleans by equality. Entities
+ * without a value for the key, or whose value is {@code null}, an array or an object, are not indexed. Indexes are not
+ * thread safe and are meant to be used on the main thread.
+ *
+ * @since 1.0.0
+ */
+public final class EntityIndex {
+
+    private final String key;
+    private final HashMap<Object, ArrayList<Entity>> buckets = new HashMap<>();
+    private final TreeMap<Double, ArrayList<Entity>> numbers = new TreeMap<>();
+    private final TreeMap<String, ArrayList<Entity>> strings = new TreeMap<>();
+    // the value every entity is indexed by, so it can be removed after its value has changed
+    private final IdentityHashMap<Entity, Object> values = new IdentityHashMap<>();
+
+    /**
+     * Creates a new {@code EntityIndex}.
+     *
+     * @param key The property key to index by, or {@code null} to index by the names of the entities.
+     */
+    EntityIndex(@Nullable String key) {
+        this.key = key;
+    }
+
+    /**
+     * Returns the property key the entities are indexed by.
+     *
+     * @return The property key, or {@code null} if the entities are indexed by their names.
+     */
+    @Nullable
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the amount of indexed entities.
+     *
+     * @return The amount of entities that have a value for the key.
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Returns the entities whose value equals the given value.
+     *
+     * @param value The value, a {@link String}, a {@link Number} or a {@link Boolean}.
+     * @return An unmodifiable view of the entities, in the order they were indexed.
+     */
+    @NonNull
+    public List<Entity> get(@NonNull Object value) {
+        ArrayList<Entity> bucket = buckets.get(normalize(value));
+        return bucket != null ? Collections.unmodifiableList(bucket) : Collections.emptyList();
+    }
+
+    /**
+     * Returns the entities whose value is a number in the given range.
+     *
+     * @param from The lowest value, inclusive.
+     * @param to   The highest value, inclusive.
+     * @return The entities, ordered by their values.
+     */
+    @NonNull
+    public List<Entity> getRange(double from, double to) {
+        return from <= to ? flatten(numbers.subMap(from, true, to, true).values()) : Collections.emptyList();
+    }
+
+    /**
+     * Returns the entities whose value is a string in the given range.
+     *
+     * @param from The lowest value, inclusive.
+     * @param to   The highest value, inclusive.
+     * @return The entities, ordered by their values.
+     */
+    @NonNull
+    public List<Entity> getRange(@NonNull String from, @NonNull String to) {
+        return from.compareTo(to) <= 0 ? flatten(strings.subMap(from, true, to, true).values())
+                : Collections.emptyList();
+    }
+
+    /**
+     * Indexes the given entity by its current value.
+     *
+     * @param entity The entity to index.
+     */
+    void add(@NonNull Entity entity) {
+        Object value = valueOf(entity);
+        if (value == null) {
+            return;
+        }
+
+        ArrayList<Entity> bucket = buckets.get(value);
+        if (bucket == null) {
+            bucket = new ArrayList<>(1);
+            buckets.put(value, bucket);
+            if (value instanceof Double) {
+                numbers.put((Double) value, bucket);
+            } else if (value instanceof String) {
+                strings.put((String) value, bucket);
+            }
+        }
+        bucket.add(entity);
+        values.put(entity, value);
+    }
+
+    /**
+     * Removes the given entity from the index, by the value it was indexed by.
+     *
+     * @param entity The entity to remove.
+     */
+    void remove(@NonNull Entity entity) {
+        Object value = values.remove(entity);
+        if (value == null) {
+            return;
+        }
+
+        ArrayList<Entity> bucket = buckets.get(value);
+        for (int i = bucket.size() - 1; i >= 0; i--) {
+            if (bucket.get(i) == entity) {
+                bucket.remove(i);
+                break;
+            }
+        }
+        if (bucket.isEmpty()) {
+            buckets.remove(value);
+            numbers.remove(value);
+            strings.remove(value);
+        }
+    }
+
+    @Nullable
+    private Object valueOf(Entity entity) {
+        if (key == null) {
+            return entity.getName();
+        }
+
+        Properties properties = entity.getProperties();
+        JsonElement element = properties != null ? properties.get(key) : null;
+        if (element == null || !element.isJsonPrimitive()) {
+            return null;
+        }
+
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+        if (primitive.isNumber()) {
+            return primitive.getAsDouble();
+        }
+        return primitive.isBoolean() ? (Object) primitive.getAsBoolean() : primitive.getAsString();
+    }
+
+    private static Object normalize(Object value) {
+        return value instanceof Number ? (Object) ((Number) value).doubleValue() : value;
+    }
+
+    private static List<Entity> flatten(Collection<ArrayList<Entity>> buckets) {
+        List<Entity> result = new ArrayList<>();
+        for (ArrayList<Entity> bucket : buckets) {
+            result.addAll(bucket);
+        }
+        return result;
+    }
+}
@@ -1,12 +1,14 @@
 package com.github.dormesica.mapcontroller.layers;
 
 import com.github.dormesica.mapcontroller.graphics.Color;
-import com.github.dormesica.mapcontroller.MapView;
 import com.github.dormesica.mapcontroller.util.JsonConverter;
 import com.google.common.base.Preconditions;
 import com.google.gson.Gson;
 
 import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * Layer descriptor for GeoJSON layers.
@@ -24,6 +26,10 @@ public class GeoJsonLayerDescriptor {
     private double outlineOpacity;
     private String pointIcon;
     private boolean zoom;
+    private boolean loadGeometry;
+    // indexes are built by the map view, and are not sent to the map
+    private transient boolean isNameIndexed;
+    private transient Set<String> indexedProperties;
 
     /**
      * Creates a new <code>GeoJSON</code> from the builder.
@@ -55,11 +61,43 @@ public class GeoJsonLayerDescriptor {
         outlineOpacity = builder.outlineOpacity;
         pointIcon = builder.pointIcon;
         zoom = builder.zoom;
+        loadGeometry = builder.loadGeometry;
+        isNameIndexed = builder.isNameIndexed;
+        indexedProperties = Collections.unmodifiableSet(new LinkedHashSet<>(builder.indexedProperties));
+    }
+
+    /**
+     * Returns whether the entities of the layer are indexed by their names.
+     *
+     * @return {@code true} if the layer has a name index.
+     * @see Builder#addNameIndex()
+     */
+    public boolean isNameIndexed() {
+        return isNameIndexed;
+    }
+
+    /**
+     * Returns the keys of the properties the entities of the layer are indexed by.
+     *
+     * @return The keys of the indexed properties.
+     * @see Builder#addIndex(String)
+     */
+    public Set<String> getIndexedProperties() {
+        return indexedProperties;
+    }
+
+    /**
+     * Returns whether the layer has any secondary index.
+     *
+     * @return {@code true} if the entities of the layer are indexed by their names or by any property.
+     */
+    public boolean hasIndexes() {
+        return isNameIndexed || !indexedProperties.isEmpty();
     }
 
     /**
      * <code>GeoJsonLayerDescriptor.Builder</code> is a helper for creating {@link GeoJsonLayerDescriptor} layers to be loaded onto
-     * {@link MapView}.
+     * {@code MapView}.
      *
      * @since 1.0.0
      */
@@ -75,6 +113,9 @@ public class GeoJsonLayerDescriptor {
         private double outlineOpacity;
         private String pointIcon;
         private boolean zoom;
+        private boolean loadGeometry;
+        private boolean isNameIndexed;
+        private final Set<String> indexedProperties = new LinkedHashSet<>();
 
         /**
          * Creates a new <code>GeoJsonLayerDescriptor.Builder</code> instance.
@@ -88,6 +129,7 @@ public class GeoJsonLayerDescriptor {
             outlineOpacity = 0.65;
             pointIcon = Point.DEFAULT_POINT_ICON;
             zoom = false;
+            loadGeometry = true;
         }
 
         /**
@@ -211,6 +253,54 @@ public class GeoJsonLayerDescriptor {
             return this;
         }
 
+        /**
+         * Set if the geometry and properties of the layer's entities should be passed back when the layer is loaded.
+         * <p>
+         * When set to {@code false} the loaded layer contains stubs with only the ID, name and visibility of every
+         * entity (see {@link Entity#isStub()}). The content of the stubs can be fetched when needed, either per entity
+         * or in pages (see {@code MapView.fetch} and
+         * {@code MapView.openCursor}).
+         * <p>
+         * By default, the geometry is loaded.
+         *
+         * @param shouldLoadGeometry Should the geometry of the entities be loaded with the layer.
+         * @return The <code>GeoJsonLayerDescriptor.Builder</code> for method chaining.
+         */
+        public Builder shouldLoadGeometry(boolean shouldLoadGeometry) {
+            this.loadGeometry = shouldLoadGeometry;
+            return this;
+        }
+
+        /**
+         * Index the entities of the loaded layer by their names, so they can be looked up by name without scanning the
+         * layer (see {@link VectorLayer#getNameIndex()}).
+         * <p>
+         * By default, the names are not indexed.
+         *
+         * @return The <code>GeoJsonLayerDescriptor.Builder</code> for method chaining.
+         */
+        public Builder addNameIndex() {
+            isNameIndexed = true;
+            return this;
+        }
+
+        /**
+         * Index the entities of the loaded layer by the value of the given property, so they can be looked up by a
+         * value or a range of values without scanning the layer (see {@link VectorLayer#getIndex(String)}).
+         * <p>
+         * Stubs are indexed once their properties are fetched. By default, no property is indexed.
+         *
+         * @param key The key of the property.
+         * @return The <code>GeoJsonLayerDescriptor.Builder</code> for method chaining.
+         * @throws IllegalArgumentException If <code>key</code> is empty.
+         */
+        public Builder addIndex(String key) throws IllegalArgumentException {
+            Preconditions.checkArgument(key != null && !key.isEmpty(), "Property key must not be empty.");
+
+            indexedProperties.add(key);
+            return this;
+        }
+
         /**
          * Creates the {@link GeoJsonLayerDescriptor} object.
          *
@@ -0,0 +1,112 @@
+package com.github.dormesica.mapcontroller.layers;
+
+import androidx.annotation.NonNull;
+import com.github.dormesica.mapcontroller.cluster.GridAggregator;
+import com.github.dormesica.mapcontroller.graphics.Color;
+import com.google.common.base.Preconditions;
+
+/**
+ * Layer descriptor for heatmap layers, i.e. layers that display the density of a large amount of points.
+ * <p>
+ * The points are not sent to the map. Whenever the view of the map changes, the cells of the lattice of a
+ * {@link GridAggregator} in the view are queried and only they are sent to the map, where every cell is colored
+ * between the low and high colors of the layer by its weight relative to the heaviest cell in the view.
+ *
+ * @since 1.0.0
+ */
+public class HeatmapLayerDescriptor {
+
+    private String type;
+    private String lowColor;
+    private double lowOpacity;
+    private String highColor;
+    private double highOpacity;
+    private transient GridAggregator aggregator;
+
+    /**
+     * Creates a new <code>HeatmapLayerDescriptor</code> from the builder.
+     *
+     * @param builder The builder from which to build the heatmap layer.
+     */
+    private HeatmapLayerDescriptor(Builder builder) {
+        type = LayerTypes.Heatmap;
+        lowColor = builder.lowColor;
+        lowOpacity = builder.lowOpacity;
+        highColor = builder.highColor;
+        highOpacity = builder.highOpacity;
+        aggregator = builder.aggregator;
+    }
+
+    /**
+     * Returns the aggregator whose cells are displayed by the layer.
+     *
+     * @return The aggregator of the layer.
+     */
+    @NonNull
+    public GridAggregator getAggregator() {
+        return aggregator;
+    }
+
+    /**
+     * <code>HeatmapLayerDescriptor.Builder</code> is a helper for creating {@link HeatmapLayerDescriptor} layers to be
+     * loaded onto {@code MapView}.
+     *
+     * @since 1.0.0
+     */
+    public static final class Builder {
+
+        private final GridAggregator aggregator;
+        private String lowColor;
+        private double lowOpacity;
+        private String highColor;
+        private double highOpacity;
+
+        /**
+         * Creates a new <code>HeatmapLayerDescriptor.Builder</code> instance.
+         */
+        private Builder(GridAggregator aggregator) {
+            this.aggregator = aggregator;
+            lowColor = "#FFEB3B";
+            lowOpacity = 0.3;
+            highColor = "#D32F2F";
+            highOpacity = 0.8;
+        }
+
+        /**
+         * Creates a new <code>HeatmapLayerDescriptor.Builder</code> of a layer that displays the cells of the given
+         * aggregator.
+         *
+         * @param aggregator The aggregator of the points of the layer.
+         * @return A new <code>HeatmapLayerDescriptor.Builder</code> instance.
+         */
+        public static Builder from(@NonNull GridAggregator aggregator) {
+            Preconditions.checkNotNull(aggregator);
+
+            return new Builder(aggregator);
+        }
+
+        /**
+         * Set the colors of the lightest and heaviest cells. Cells in between are colored by interpolating the two.
+         *
+         * @param low  The color of the lightest cells.
+         * @param high The color of the heaviest cells.
+         * @return The <code>HeatmapLayerDescriptor.Builder</code> for method chaining.
+         */
+        public Builder setColors(Color low, Color high) {
+            lowColor = low.getColorString();
+            lowOpacity = low.alpha();
+            highColor = high.getColorString();
+            highOpacity = high.alpha();
+            return this;
+        }
+
+        /**
+         * Creates the {@link HeatmapLayerDescriptor} object.
+         *
+         * @return The newly created {@link HeatmapLayerDescriptor}.
+         */
+        public HeatmapLayerDescriptor build() {
+            return new HeatmapLayerDescriptor(this);
+        }
+    }
+}
@@ -1,11 +1,7 @@
 package com.github.dormesica.mapcontroller.layers;
 
-import android.os.Parcel;
-import android.os.Parcelable;
-import com.github.dormesica.mapcontroller.MapView;
-
 /**
- * This class represents a layer that was loaded on to a {@link MapView}.
+ * This class represents a layer that was loaded on to a {@code MapView}.
  * <p>
  * Each layer is associated with a unique UUID.
  * <p>
@@ -14,7 +10,7 @@ import com.github.dormesica.mapcontroller.MapView;
  *
  * @since 1.0.0
  */
-public abstract class Layer implements Parcelable {
+public abstract class Layer {
 
     private String id;
 
@@ -26,12 +22,12 @@ public abstract class Layer implements Parcelable {
     }
 
     /**
-     * Creates a new {@code Layer} object from a {@link Parcel}.
+     * Creates a new {@code Layer} object for a layer that was added to the map with the given ID.
      *
-     * @param source The source Parcel.
+     * @param id The ID of the layer.
      */
-    protected Layer(Parcel source) {
-        id = source.readString();
+    protected Layer(String id) {
+        this.id = id;
     }
 
     /**
@@ -43,13 +39,4 @@ public abstract class Layer implements Parcelable {
         return this.id;
     }
 
-    @Override
-    public int describeContents() {
-        return 0;
-    }
-
-    @Override
-    public void writeToParcel(Parcel dest, int flags) {
-        dest.writeString(id);
-    }
 }
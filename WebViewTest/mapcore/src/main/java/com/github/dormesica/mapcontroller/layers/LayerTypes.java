@@ -0,0 +1,9 @@
+package com.github.dormesica.mapcontroller.layers;
+
+final class LayerTypes {
+
+    static final String GeoJSON = "GeoJSON";
+    static final String Track = "Track";
+    static final String Cluster = "Cluster";
+    static final String Heatmap = "Heatmap";
+}
@@ -0,0 +1,118 @@
+package com.github.dormesica.mapcontroller.layers;
+
+import androidx.annotation.NonNull;
+import com.github.dormesica.mapcontroller.location.Coordinates;
+import com.github.dormesica.mapcontroller.location.Geodesy;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.google.common.base.Preconditions;
+
+import java.util.List;
+
+/**
+ * This class represents a line on the map.
+ * <p>
+ * A line is represented by the path it follows. Between every 2 following sets of coordinates on the path
+ * a straight line is drawn.
+ *
+ * @since 1.0.0
+ */
+public class Line extends Entity {
+
+    private List<Coordinates> path;
+
+    private transient double length;
+
+    /**
+     * Returns the i-th point along the line's path.
+     *
+     * @param i The required point index.
+     * @return The i-th point along the line's path.
+     * @throws IllegalStateException If the line is a stub.
+     */
+    public Coordinates getPointAt(int i) throws IllegalStateException {
+        checkGeometryLoaded();
+        return path.get(i);
+    }
+
+    /**
+     * Returns the length of the line in meters.
+     *
+     * @return The length of the line.
+     * @throws IllegalStateException If the line is a stub.
+     */
+    public double length() throws IllegalStateException {
+        checkGeometryLoaded();
+        ensureMetrics();
+        return length;
+    }
+
+    /**
+     * Return the number of points along the path.
+     *
+     * @return The number of point along the path.
+     * @throws IllegalStateException If the line is a stub.
+     */
+    public int size() throws IllegalStateException {
+        checkGeometryLoaded();
+        return path.size();
+    }
+
+    @Override
+    protected void copyGeometry(@NonNull Entity source) {
+        path = ((Line) source).path;
+        length = ((Line) source).length;
+    }
+
+    @Override
+    protected void clearGeometry() {
+        path = null;
+    }
+
+    @Override
+    protected void computeMetrics() {
+        if (path == null) {
+            length = 0;
+            setMetrics(null, 0);
+            return;
+        }
+
+        double[] packed = Geodesy.pack(path);
+        length = Geodesy.pathLength(packed, 0, path.size());
+        setMetrics(Rectangle.bounding(packed, 0, path.size()), path.size());
+    }
+
+    @Override
+    public Editor edit() {
+        return new Editor(getId());
+    }
+
+    /**
+     * A class that represents the changes that can be made onto a {@link Line} on the map.
+     *
+     * @since 1.0.0
+     */
+    public static class Editor extends Entity.Editor {
+
+        private int width = Integer.MIN_VALUE;
+
+        /**
+         * Creates a new {@code Line.Editor} object.
+         */
+        protected Editor(String id) {
+            super(id);
+        }
+
+        /**
+         * Sets the width of the line.
+         *
+         * @param width The width of the line.
+         * @return The {@code Point.Entity} for method Chaining.
+         */
+        public Editor setWidth(int width) {
+            Preconditions.checkArgument(width > 0, "Line Width must be greater than 0.");
+
+            this.width = width;
+            return this;
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package com.github.dormesica.mapcontroller.layers;
 
-import android.os.Parcel;
-import android.os.Parcelable;
+import androidx.annotation.NonNull;
 import com.github.dormesica.mapcontroller.location.Coordinates;
+import com.github.dormesica.mapcontroller.location.Rectangle;
 
 import java.net.URL;
 
@@ -15,18 +15,6 @@ import java.net.URL;
  */
 public class Point extends Entity {
 
-    public static final Parcelable.Creator<Point> CREATOR = new Parcelable.Creator<Point>() {
-        @Override
-        public Point createFromParcel(Parcel source) {
-            return new Point(source);
-        }
-
-        @Override
-        public Point[] newArray(int size) {
-            return new Point[0];
-        }
-    };
-
     /**
      * The default icon for point.
      * <p>
@@ -41,16 +29,6 @@ public class Point extends Entity {
 
     private Coordinates location;
 
-    /**
-     * Creates a new {@code Point} from a {@link Parcel}.
-     *
-     * @param source The source Parcel.
-     */
-    private Point(Parcel source) {
-        super(source);
-        location = source.readParcelable(Coordinates.class.getClassLoader());
-    }
-
     @Override
     public Editor edit() {
         return new Editor(getId());
@@ -60,15 +38,33 @@ public class Point extends Entity {
      * Get the Coordinates of the point.
      *
      * @return The coordinates of the point.
+     * @throws IllegalStateException If the point is a stub.
      */
-    public Coordinates getLocation() {
+    public Coordinates getLocation() throws IllegalStateException {
+        checkGeometryLoaded();
         return location;
     }
 
     @Override
-    public void writeToParcel(Parcel dest, int flags) {
-        super.writeToParcel(dest, flags);
-        dest.writeParcelable(location, flags);
+    protected void copyGeometry(@NonNull Entity source) {
+        location = ((Point) source).location;
+    }
+
+    @Override
+    protected void clearGeometry() {
+        location = null;
+    }
+
+    @Override
+    protected void computeMetrics() {
+        if (location == null) {
+            setMetrics(null, 0);
+            return;
+        }
+
+        double lon = location.getLon();
+        double lat = location.getLat();
+        setMetrics(new Rectangle(lat, lon, lat, lon), 1);
     }
 
     /**
@@ -77,17 +73,6 @@ public class Point extends Entity {
      * @since 1.0.0
      */
     public static class Editor extends Entity.Editor {
-        public static final Parcelable.Creator<Editor> CREATOR = new Parcelable.Creator<Editor>() {
-            @Override
-            public Editor createFromParcel(Parcel source) {
-                return new Editor(source);
-            }
-
-            @Override
-            public Editor[] newArray(int size) {
-                return new Editor[0];
-            }
-        };
 
         private String marker;
 
@@ -98,17 +83,6 @@ public class Point extends Entity {
             super(id);
         }
 
-        /**
-         * Creates a new {@code Point.Editor} object from a {@link Parcel}.
-         *
-         * @param source The source Parcel.
-         */
-        protected Editor(Parcel source) {
-            super(source);
-
-            marker = source.readString();
-        }
-
         /**
          * Sets the display marker of the {@link Point} to the image located at the given URL.
          *
@@ -132,12 +106,5 @@ public class Point extends Entity {
             marker = svg;
             return this;
         }
-
-        @Override
-        public void writeToParcel(Parcel dest, int flags) {
-            super.writeToParcel(dest, flags);
-
-            dest.writeString(marker);
-        }
     }
 }
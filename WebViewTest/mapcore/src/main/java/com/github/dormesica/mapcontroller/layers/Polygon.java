@@ -0,0 +1,328 @@
+package com.github.dormesica.mapcontroller.layers;
+
+import androidx.annotation.NonNull;
+import com.github.dormesica.mapcontroller.graphics.Color;
+import com.github.dormesica.mapcontroller.location.Coordinates;
+import com.github.dormesica.mapcontroller.location.Geodesy;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.google.common.base.Preconditions;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class represents a polygon on the map.
+ * <p>
+ * A polygon is represented by the set of coordinates on its perimeter (its exterior ring) and optionally by the
+ * perimeters of holes within it. The last set of coordinates of a ring may equal the first, either way the ring is
+ * considered closed.
+ * <p>
+ * Geometric computations are performed on a sphere with the mean radius of the earth (see {@link Geodesy}). Polygons
+ * that are tested for containment repeatedly should be {@link #prepare() prepared}.
+ *
+ * @since 1.0.0
+ */
+public class Polygon extends Entity {
+
+    private List<Coordinates> perimeter;
+    private List<List<Coordinates>> holes;
+
+    private transient double perimeterLength;
+    private transient double area;
+    private transient boolean isClockwise;
+
+    /**
+     * Returns the coordinates on the perimeter of the polygon.
+     *
+     * @return An unmodifiable list of the coordinates on the perimeter.
+     * @throws IllegalStateException If the polygon is a stub.
+     */
+    public List<Coordinates> getPerimeterPoints() throws IllegalStateException {
+        checkGeometryLoaded();
+        return Collections.unmodifiableList(perimeter);
+    }
+
+    /**
+     * Returns the perimeters of the holes in the polygon.
+     *
+     * @return An unmodifiable list of the perimeters of the holes, which is empty if the polygon has no holes.
+     * @throws IllegalStateException If the polygon is a stub.
+     */
+    public List<List<Coordinates>> getHoles() throws IllegalStateException {
+        checkGeometryLoaded();
+        if (holes == null) {
+            return Collections.emptyList();
+        }
+
+        return Collections.unmodifiableList(holes);
+    }
+
+    /**
+     * Returns the perimeter of the polygon in meters. I.e. the total length of the line the surrounds the polygon.
+     *
+     * @return The perimeter of the polygon.
+     * @throws IllegalStateException If the polygon is a stub.
+     */
+    public double perimeter() throws IllegalStateException {
+        checkGeometryLoaded();
+        ensureMetrics();
+        return perimeterLength;
+    }
+
+    /**
+     * Returns the area of the polygon in squared meters.
+     * <p>
+     * The area of the holes is excluded.
+     *
+     * @return The area of the polygon.
+     * @throws IllegalStateException If the polygon is a stub.
+     */
+    public double area() throws IllegalStateException {
+        checkGeometryLoaded();
+        ensureMetrics();
+        return area;
+    }
+
+    /**
+     * Returns whether the perimeter of the polygon is ordered clockwise.
+     * <p>
+     * GeoJSON defines exterior rings as counterclockwise, however both orders are supported.
+     *
+     * @return {@code true} if the perimeter is clockwise, otherwise {@code false}.
+     * @throws IllegalStateException If the polygon is a stub.
+     */
+    public boolean isClockwise() throws IllegalStateException {
+        checkGeometryLoaded();
+        ensureMetrics();
+        return isClockwise;
+    }
+
+    /**
+     * Calculates the centroid (center of mass) of the polygon, excluding its holes.
+     * <p>
+     * The centroid is calculated in a local equirectangular projection around the polygon, which is accurate for
+     * polygons up to a few hundred kilometers across. The centroid of a concave polygon may lie outside of it.
+     *
+     * @return The centroid of the polygon.
+     * @throws IllegalStateException If the polygon is a stub.
+     * @throws IllegalArgumentException If the polygon has no coordinates.
+     */
+    public Coordinates centroid() throws IllegalStateException, IllegalArgumentException {
+        checkGeometryLoaded();
+        Preconditions.checkArgument(!perimeter.isEmpty(), "The polygon %s has no coordinates", getId());
+
+        Coordinates reference = perimeter.get(0);
+        double scale = Math.cos(Math.toRadians(reference.getLat()));
+        double[] moments = new double[3];
+
+        addRingMoments(perimeter, reference, scale, true, moments);
+        for (List<Coordinates> hole : getHoles()) {
+            addRingMoments(hole, reference, scale, false, moments);
+        }
+
+        if (moments[0] == 0) {
+            // a degenerate polygon, fall back to the average of its coordinates
+            double x = 0;
+            double y = 0;
+            for (Coordinates position : perimeter) {
+                x += Geodesy.normalizeLongitude(position.getLon() - reference.getLon());
+                y += position.getLat();
+            }
+            return new Coordinates(Geodesy.normalizeLongitude(reference.getLon() + x / perimeter.size()),
+                    y / perimeter.size());
+        }
+
+        double x = moments[1] / moments[0];
+        double y = moments[2] / moments[0];
+        return new Coordinates(Geodesy.normalizeLongitude(reference.getLon() + x / scale), y);
+    }
+
+    /**
+     * Creates a prepared form of the polygon for fast repeated containment tests.
+     *
+     * @return The prepared polygon.
+     * @throws IllegalStateException If the polygon is a stub.
+     * @see PreparedPolygon
+     */
+    public PreparedPolygon prepare() throws IllegalStateException {
+        checkGeometryLoaded();
+        return new PreparedPolygon(this);
+    }
+
+    @Override
+    protected void copyGeometry(@NonNull Entity source) {
+        perimeter = ((Polygon) source).perimeter;
+        holes = ((Polygon) source).holes;
+        perimeterLength = ((Polygon) source).perimeterLength;
+        area = ((Polygon) source).area;
+        isClockwise = ((Polygon) source).isClockwise;
+    }
+
+    @Override
+    protected void clearGeometry() {
+        perimeter = null;
+        holes = null;
+    }
+
+    @Override
+    protected void computeMetrics() {
+        if (perimeter == null || perimeter.isEmpty()) {
+            perimeterLength = 0;
+            area = 0;
+            isClockwise = false;
+            setMetrics(null, 0);
+            return;
+        }
+
+        int count = perimeter.size();
+        double[] packed = Geodesy.pack(perimeter);
+        double signedArea = Geodesy.ringArea(packed, 0, count);
+        Coordinates last = perimeter.get(count - 1);
+
+        // the closing segment is 0 when the ring is explicitly closed
+        perimeterLength = Geodesy.pathLength(packed, 0, count)
+                + Geodesy.haversine(last.getLon(), last.getLat(), packed[0], packed[1]);
+        isClockwise = signedArea < 0;
+
+        double holesArea = 0;
+        int vertexCount = count;
+        for (List<Coordinates> hole : getHoles()) {
+            holesArea += Math.abs(ringArea(hole));
+            vertexCount += hole.size();
+        }
+        area = Math.max(Math.abs(signedArea) - holesArea, 0);
+
+        // holes are inside the perimeter, so they do not affect the bounds
+        setMetrics(Rectangle.bounding(packed, 0, count), vertexCount);
+    }
+
+    /**
+     * Calculates the signed area of a ring (positive if counterclockwise).
+     */
+    private static double ringArea(List<Coordinates> ring) {
+        return Geodesy.ringArea(Geodesy.pack(ring), 0, ring.size());
+    }
+
+    /**
+     * Adds the area and first moments of a ring, projected around {@code reference}, to {@code moments}.
+     * <p>
+     * The area of exterior rings is added and the area of holes is subtracted, regardless of their orientation.
+     *
+     * @param moments Array of the area and the moments along the x and y axes.
+     */
+    private static void addRingMoments(List<Coordinates> ring, Coordinates reference, double scale,
+                                       boolean isExterior, double[] moments) {
+        double area = 0;
+        double xMoment = 0;
+        double yMoment = 0;
+
+        for (int i = 0; i < ring.size(); i++) {
+            Coordinates from = ring.get(i);
+            Coordinates to = ring.get((i + 1) % ring.size());
+            double x1 = Geodesy.normalizeLongitude(from.getLon() - reference.getLon()) * scale;
+            double y1 = from.getLat();
+            double x2 = Geodesy.normalizeLongitude(to.getLon() - reference.getLon()) * scale;
+            double y2 = to.getLat();
+            double cross = x1 * y2 - x2 * y1;
+
+            area += cross / 2;
+            xMoment += (x1 + x2) * cross / 6;
+            yMoment += (y1 + y2) * cross / 6;
+        }
+
+        double sign = (area < 0 ? -1 : 1) * (isExterior ? 1 : -1);
+        moments[0] += sign * area;
+        moments[1] += sign * xMoment;
+        moments[2] += sign * yMoment;
+    }
+
+    @Override
+    public Editor edit() {
+        return new Editor(getId());
+    }
+
+    /**
+     * A class that represents the changes that can be made onto a {@link Polygon} on the map.
+     *
+     * @since 1.0.0
+     */
+    public static class Editor extends Entity.Editor {
+
+        private Boolean hasFill = null;
+        private Boolean hasOutline = null;
+        private String outlineColor = null;
+        private double outlineOpacity = Double.NaN;
+        private double height = Double.NaN;
+        private int width = Integer.MIN_VALUE;
+
+        /**
+         * Creates a new {@code Polygon.Editor} object.
+         */
+        protected Editor(String id) {
+            super(id);
+        }
+
+        /**
+         * Sets whether the polygon should contain fill color.
+         *
+         * @param hasFill Whether or not to contain fill color.
+         * @return The {@code Polygon.Entity} for method Chaining.
+         */
+        public Editor hasFill(boolean hasFill) {
+            this.hasFill = hasFill;
+            return this;
+        }
+
+        /**
+         * Sets whether or not the polygons outline should be visible.
+         *
+         * @param hasOutline Whether or not outline is visible.
+         * @return The {@code Polygon.Entity} for method Chaining.
+         */
+        public Editor hasOutline(boolean hasOutline) {
+            this.hasOutline = hasOutline;
+            return this;
+        }
+
+        /**
+         * Sets the color for the outline and it's opacity.
+         *
+         * @param color The color of the outline.
+         * @return The {@code Polygon.Entity} for method Chaining.
+         */
+        public Editor setOutlineColor(Color color) {
+            outlineColor = color.getColorString();
+            outlineOpacity = color.alpha();
+            return this;
+        }
+
+        /**
+         * Sets the height of the polygon in meters.
+         * <p>
+         * I.e. polygons with {@code height > 0} are 3D shapes where the top face is {@code height} meters above the
+         * bottom face.
+         *
+         * @param height The height of the polygon.
+         * @return The {@code Polygon.Entity} for method Chaining.
+         */
+        public Editor setHeight(double height) {
+            Preconditions.checkArgument(height >= 0, "Polygon height must be at least 0.");
+
+            this.height = height;
+            return this;
+        }
+
+        /**
+         * Sets the width of the outline of the polygon.
+         *
+         * @param width The width of the polygon's outline.
+         * @return The {@code Polygon.Entity} for method Chaining.
+         */
+        public Editor setWidth(int width) {
+            Preconditions.checkArgument(width > 0, "Line Width must be greater than 0.");
+
+            this.width = width;
+            return this;
+        }
+    }
+}
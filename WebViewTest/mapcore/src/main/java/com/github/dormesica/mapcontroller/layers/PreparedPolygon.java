@@ -0,0 +1,226 @@
+package com.github.dormesica.mapcontroller.layers;
+
+import androidx.annotation.NonNull;
+import com.github.dormesica.mapcontroller.location.Coordinates;
+import com.github.dormesica.mapcontroller.location.Geodesy;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+
+import java.util.List;
+
+/**
+ * A form of a {@link Polygon} that is optimized for repeated point-in-polygon tests.
+ * <p>
+ * When the polygon is prepared its edges (of the perimeter and of the holes) are copied into flat arrays and indexed
+ * by latitude: the latitude range of the polygon is split into bands of equal height and every band holds the edges
+ * that cross it. A containment test first checks the bounding box of the polygon and then casts a ray only against the
+ * edges of the band that contains the tested point, so a test on a polygon with {@code n} evenly spread edges
+ * examines about {@code sqrt(n)} edges instead of {@code n}.
+ * <p>
+ * Edges are straight lines in longitude/latitude space, the same as GeoJSON. Polygons that cross the antimeridian are
+ * supported as long as they span less than 180 degrees of longitude. Points on the boundary of the polygon may be
+ * considered either inside or outside.
+ * <p>
+ * Prepared polygons are immutable and can be shared between threads. Changes to the source polygon after it was
+ * prepared are not reflected.
+ *
+ * @since 1.0.0
+ */
+public final class PreparedPolygon {
+
+    private static final int MAX_BANDS = 1 << 14;
+
+    private final Polygon polygon;
+    private final boolean isClockwise;
+
+    /**
+     * Longitude around which the longitudes of the polygon are unwrapped.
+     */
+    private final double referenceLon;
+    private final double west;
+    private final double east;
+    private final double south;
+    private final double north;
+
+    /**
+     * The edges of all the rings, stored as {@code [lon1, lat1, lon2, lat2]} at index {@code 4*i}.
+     */
+    private final double[] edges;
+
+    private final double bandHeight;
+    /**
+     * The edges of the i-th band are {@code bandEdges[bandStarts[i]]} to {@code bandEdges[bandStarts[i+1] - 1]}.
+     */
+    private final int[] bandStarts;
+    private final int[] bandEdges;
+
+    /**
+     * Creates a prepared form of the given polygon.
+     *
+     * @param polygon A polygon whose geometry is loaded.
+     */
+    PreparedPolygon(@NonNull Polygon polygon) {
+        this.polygon = polygon;
+        this.isClockwise = polygon.isClockwise();
+
+        List<Coordinates> perimeter = polygon.getPerimeterPoints();
+        List<List<Coordinates>> holes = polygon.getHoles();
+        referenceLon = perimeter.isEmpty() ? 0 : perimeter.get(0).getLon();
+
+        int edgeCount = perimeter.size();
+        for (List<Coordinates> hole : holes) {
+            edgeCount += hole.size();
+        }
+
+        edges = new double[4 * edgeCount];
+        int next = addRing(perimeter, 0);
+        for (List<Coordinates> hole : holes) {
+            next = addRing(hole, next);
+        }
+
+        double minLon = Double.POSITIVE_INFINITY;
+        double maxLon = Double.NEGATIVE_INFINITY;
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < edges.length; i += 2) {
+            minLon = Math.min(minLon, edges[i]);
+            maxLon = Math.max(maxLon, edges[i]);
+            minLat = Math.min(minLat, edges[i + 1]);
+            maxLat = Math.max(maxLat, edges[i + 1]);
+        }
+        west = minLon;
+        east = maxLon;
+        south = minLat;
+        north = maxLat;
+
+        int bandCount = Math.max(1, Math.min(MAX_BANDS, (int) Math.sqrt(edgeCount)));
+        bandHeight = north > south ? (north - south) / bandCount : 1;
+        bandStarts = new int[bandCount + 1];
+
+        // count the edges of every band, then fill them in
+        for (int i = 0; i < edges.length; i += 4) {
+            if (edges[i + 1] == edges[i + 3]) {
+                // horizontal edges are never crossed by the ray
+                continue;
+            }
+            for (int band = bandOf(Math.min(edges[i + 1], edges[i + 3])),
+                 last = bandOf(Math.max(edges[i + 1], edges[i + 3])); band <= last; band++) {
+                bandStarts[band + 1]++;
+            }
+        }
+        for (int band = 0; band < bandCount; band++) {
+            bandStarts[band + 1] += bandStarts[band];
+        }
+
+        bandEdges = new int[bandStarts[bandCount]];
+        int[] filled = new int[bandCount];
+        for (int i = 0; i < edges.length; i += 4) {
+            if (edges[i + 1] == edges[i + 3]) {
+                continue;
+            }
+            for (int band = bandOf(Math.min(edges[i + 1], edges[i + 3])),
+                 last = bandOf(Math.max(edges[i + 1], edges[i + 3])); band <= last; band++) {
+                bandEdges[bandStarts[band] + filled[band]++] = i;
+            }
+        }
+    }
+
+    /**
+     * Returns the polygon that was prepared.
+     *
+     * @return The source polygon.
+     */
+    public Polygon getPolygon() {
+        return polygon;
+    }
+
+    /**
+     * Returns whether the perimeter of the polygon is ordered clockwise.
+     *
+     * @return {@code true} if the perimeter is clockwise, otherwise {@code false}.
+     */
+    public boolean isClockwise() {
+        return isClockwise;
+    }
+
+    /**
+     * Returns the bounding box of the polygon.
+     * <p>
+     * If the polygon crosses the antimeridian the west longitude of the bounding box is greater than its east
+     * longitude.
+     *
+     * @return The bounding box.
+     */
+    public Rectangle getBounds() {
+        return new Rectangle(north, Geodesy.normalizeLongitude(west), south, Geodesy.normalizeLongitude(east));
+    }
+
+    /**
+     * Tests whether the given location is inside the polygon, and not inside one of its holes.
+     *
+     * @param location The location to test.
+     * @return {@code true} if the location is inside the polygon, otherwise {@code false}.
+     */
+    public boolean contains(@NonNull Coordinates location) {
+        return contains(location.getLon(), location.getLat());
+    }
+
+    /**
+     * Tests whether the given location is inside the polygon, and not inside one of its holes.
+     * <p>
+     * This method does not allocate.
+     *
+     * @param lon The longitude of the location.
+     * @param lat The latitude of the location.
+     * @return {@code true} if the location is inside the polygon, otherwise {@code false}.
+     */
+    public boolean contains(double lon, double lat) {
+        double x = unwrap(lon);
+        if (lat < south || lat > north || x < west || x > east) {
+            return false;
+        }
+
+        // crossing number of a ray cast from the location to the east
+        boolean isInside = false;
+        int band = bandOf(lat);
+        for (int i = bandStarts[band], end = bandStarts[band + 1]; i < end; i++) {
+            int edge = bandEdges[i];
+            double x1 = edges[edge];
+            double y1 = edges[edge + 1];
+            double x2 = edges[edge + 2];
+            double y2 = edges[edge + 3];
+
+            if ((y1 > lat) != (y2 > lat) && x < (x2 - x1) * (lat - y1) / (y2 - y1) + x1) {
+                isInside = !isInside;
+            }
+        }
+
+        return isInside;
+    }
+
+    /**
+     * Copies the edges of a ring into the edges array.
+     *
+     * @return The index of the next edge in the array.
+     */
+    private int addRing(List<Coordinates> ring, int index) {
+        for (int i = 0; i < ring.size(); i++) {
+            Coordinates from = ring.get(i);
+            Coordinates to = ring.get((i + 1) % ring.size());
+            edges[index++] = unwrap(from.getLon());
+            edges[index++] = from.getLat();
+            edges[index++] = unwrap(to.getLon());
+            edges[index++] = to.getLat();
+        }
+
+        return index;
+    }
+
+    private double unwrap(double lon) {
+        return referenceLon + Geodesy.normalizeLongitude(lon - referenceLon);
+    }
+
+    private int bandOf(double lat) {
+        int band = (int) ((lat - south) / bandHeight);
+        return Math.max(0, Math.min(band, bandStarts.length - 2));
+    }
+}
@@ -1,11 +1,8 @@
 package com.github.dormesica.mapcontroller.layers;
 
-import android.os.Parcel;
-import android.os.Parcelable;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import com.github.dormesica.mapcontroller.util.JsonConverter;
-import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonSyntaxException;
 
@@ -22,19 +19,7 @@ import java.util.function.Consumer;
  *
  * @since 1.0.0
  */
-public class Properties implements Iterable<Map.Entry<String, JsonElement>>, Parcelable {
-
-    public static final Parcelable.Creator<Properties> CREATOR = new Parcelable.Creator<Properties>() {
-        @Override
-        public Properties createFromParcel(Parcel source) {
-            return new Properties(source);
-        }
-
-        @Override
-        public Properties[] newArray(int size) {
-            return new Properties[0];
-        }
-    };
+public class Properties implements Iterable<Map.Entry<String, JsonElement>> {
 
     private Map<String, JsonElement> properties;
 
@@ -48,26 +33,6 @@ public class Properties implements Iterable<Map.Entry<String, JsonElement>>, Par
         this.properties = Collections.unmodifiableMap(properties);
     }
 
-    /**
-     * Creates a new {@code Properties} object from a {@link Parcel}.
-     * @param source The source Parcel.
-     */
-    private Properties(Parcel source) {
-        Gson converter = JsonConverter.getConverter();
-
-        properties = new HashMap<>();
-        int size = source.readInt();
-        for (int i = 0; i < size; i++) {
-            String key = source.readString();
-            if (key == null) {
-                break; // TODO or throw?
-            }
-            String value = source.readString();
-
-            properties.put(key, converter.fromJson(value, JsonElement.class));
-        }
-    }
-
     /**
      * Returns the amount of values stored in the properties object.
      *
@@ -146,6 +111,17 @@ public class Properties implements Iterable<Map.Entry<String, JsonElement>>, Par
         return value.getAsJsonPrimitive().getAsString();
     }
 
+    /**
+     * Returns the raw value associated with the given key.
+     *
+     * @param key key for which to retrieve the value.
+     * @return The value associated with key, or {@code null} in case no mapping exists for {@code key}.
+     */
+    @Nullable
+    JsonElement get(@NonNull String key) {
+        return properties.get(key);
+    }
+
     /**
      * Attempts to convert the stored value to the given class type and returns the result. If no value is associated
      * with {@code key} returns {@code null}.
@@ -190,21 +166,6 @@ public class Properties implements Iterable<Map.Entry<String, JsonElement>>, Par
         return properties.values();
     }
 
-    @Override
-    public int describeContents() {
-        return 0;
-    }
-
-    @Override
-    public void writeToParcel(Parcel dest, int flags) {
-        dest.writeInt(properties.size());
-
-        properties.forEach((key, value) -> {
-            dest.writeString(key);
-            dest.writeString(value.toString());
-        });
-    }
-
     @Override
     public boolean equals(@Nullable Object obj) {
         if (this == obj) {
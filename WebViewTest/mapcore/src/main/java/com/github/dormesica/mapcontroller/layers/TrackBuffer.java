@@ -0,0 +1,471 @@
+package com.github.dormesica.mapcontroller.layers;
+
+import androidx.annotation.NonNull;
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A buffer of position fixes of moving objects, which coalesces the fixes of every object into a single update.
+ * <p>
+ * Fixes are written into a ring buffer of a fixed capacity by any amount of threads. Periodically (e.g. once every
+ * frame) a single consumer thread {@link #drain(Update) drains} the buffer: for every object only its latest fix is
+ * kept, so the size of an update depends on the amount of objects that moved and not on the rate of their fixes. When
+ * the buffer is full, the oldest fix is overwritten and counted as {@link #getDroppedCount() dropped}.
+ * <p>
+ * Every object is assigned a small index when its first fix is drained, which is stable until the object is removed,
+ * after which the index may be reused. Updates refer to the objects by their index, so the receiver can store them in
+ * arrays rather than look them up by ID.
+ * <p>
+ * Writing a fix does not allocate. Draining allocates only for objects that are seen for the first time, and to grow
+ * the arrays of the update.
+ *
+ * @since 1.0.0
+ */
+public final class TrackBuffer {
+
+    private static final int STRIDE = 3;
+
+    private final int capacity;
+
+    // the ring, guarded by the buffer; fixes are written at (head + size) % capacity
+    private String[] ids;
+    private double[] positions;
+    private int head;
+    private int size;
+    private long droppedCount;
+
+    // the fixes taken by the last drain, swapped with the ring, accessed only by the consumer
+    private String[] drainedIds;
+    private double[] drainedPositions;
+
+    private final HashMap<String, Track> tracks = new HashMap<>();
+    private final Track removedMarker = new Track(-1);
+    private final ArrayList<String> removedIds = new ArrayList<>();
+    private int[] freeIndices = new int[16];
+    private int freeCount;
+    private int nextIndex;
+    private long drainCount;
+
+    /**
+     * Creates a new {@code TrackBuffer}.
+     *
+     * @param capacity The amount of fixes the buffer holds between drains.
+     * @throws IllegalArgumentException In case the capacity is not positive.
+     */
+    public TrackBuffer(int capacity) throws IllegalArgumentException {
+        Preconditions.checkArgument(capacity > 0, "Capacity must be greater than 0.");
+
+        this.capacity = capacity;
+        ids = new String[capacity];
+        positions = new double[STRIDE * capacity];
+        drainedIds = new String[capacity];
+        drainedPositions = new double[STRIDE * capacity];
+    }
+
+    /**
+     * Writes a fix of an object into the buffer.
+     *
+     * @param trackId The ID of the object.
+     * @param lon     The longitude of the object.
+     * @param lat     The latitude of the object.
+     * @param alt     The altitude of the object.
+     */
+    public void write(@NonNull String trackId, double lon, double lat, double alt) {
+        Preconditions.checkNotNull(trackId);
+        synchronized (this) {
+            int slot;
+            if (size == capacity) {
+                slot = head;
+                head = (head + 1) % capacity;
+                droppedCount++;
+            } else {
+                slot = (head + size) % capacity;
+                size++;
+            }
+
+            ids[slot] = trackId;
+            positions[STRIDE * slot] = lon;
+            positions[STRIDE * slot + 1] = lat;
+            positions[STRIDE * slot + 2] = alt;
+        }
+    }
+
+    /**
+     * Writes the removal of an object into the buffer. Fixes of the object that were written before the removal are
+     * discarded, and a later fix adds the object again.
+     *
+     * @param trackId The ID of the object.
+     */
+    public void remove(@NonNull String trackId) {
+        // a removal is a fix without a position
+        write(trackId, Double.NaN, Double.NaN, Double.NaN);
+    }
+
+    /**
+     * Returns whether there are fixes that were not drained yet.
+     *
+     * @return {@code true} if the buffer is empty, otherwise {@code false}.
+     */
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the amount of fixes that were overwritten before they were drained.
+     *
+     * @return The amount of dropped fixes.
+     */
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Returns the amount of objects that are currently tracked, as of the last drain.
+     *
+     * @return The amount of tracked objects.
+     */
+    public int getTrackCount() {
+        return tracks.size();
+    }
+
+    /**
+     * Takes all the fixes in the buffer and coalesces them into the given update.
+     * <p>
+     * Must be called by a single thread at a time.
+     *
+     * @param update The update to fill, its previous content is cleared.
+     * @return {@code true} if the update contains any change, otherwise {@code false}.
+     */
+    public boolean drain(@NonNull Update update) {
+        int first;
+        int count;
+        synchronized (this) {
+            String[] drainedIds = ids;
+            double[] drainedPositions = positions;
+            ids = this.drainedIds;
+            positions = this.drainedPositions;
+            this.drainedIds = drainedIds;
+            this.drainedPositions = drainedPositions;
+
+            first = head;
+            count = size;
+            head = 0;
+            size = 0;
+        }
+
+        update.clear();
+        update.isIndexed = false;
+        long drain = ++drainCount;
+
+        // newest fixes first, so every object is updated only by its latest fix
+        for (int i = count - 1; i >= 0; i--) {
+            int slot = (first + i) % capacity;
+            String trackId = drainedIds[slot];
+            drainedIds[slot] = null;
+
+            Track track = tracks.get(trackId);
+            if (track != null && track.lastDrain == drain) {
+                continue;
+            }
+
+            double lon = drainedPositions[STRIDE * slot];
+            if (Double.isNaN(lon)) {
+                if (track != null) {
+                    tracks.remove(trackId);
+                    releaseIndex(track.index);
+                    update.addRemoved(track.index);
+                }
+                // earlier fixes are superseded by the removal, the marker is dropped at the end of the drain
+                removedMarker.lastDrain = drain;
+                tracks.put(trackId, removedMarker);
+                removedIds.add(trackId);
+                continue;
+            }
+
+            if (track == null) {
+                track = new Track(acquireIndex());
+                tracks.put(trackId, track);
+                update.addAdded(trackId, track.index);
+            }
+            track.lastDrain = drain;
+            update.addPosition(track.index, lon, drainedPositions[STRIDE * slot + 1],
+                    drainedPositions[STRIDE * slot + 2]);
+        }
+
+        for (int i = 0; i < removedIds.size(); i++) {
+            tracks.remove(removedIds.get(i));
+        }
+        removedIds.clear();
+
+        return !update.isEmpty();
+    }
+
+    private int acquireIndex() {
+        return freeCount > 0 ? freeIndices[--freeCount] : nextIndex++;
+    }
+
+    private void releaseIndex(int index) {
+        if (freeCount == freeIndices.length) {
+            freeIndices = Arrays.copyOf(freeIndices, 2 * freeCount);
+        }
+        freeIndices[freeCount++] = index;
+    }
+
+    /**
+     * The state of a tracked object.
+     */
+    private static final class Track {
+        /**
+         * The index of the object, or {@code -1} for the marker of objects that were removed during the current drain.
+         */
+        final int index;
+        long lastDrain;
+
+        Track(int index) {
+            this.index = index;
+        }
+    }
+
+    /**
+     * The changes to the tracked objects since the previous drain of a {@link TrackBuffer}.
+     * <p>
+     * An update is meant to be reused between drains, so its arrays are only allocated when they grow. The removed
+     * objects should be applied first, then the added objects and finally the positions.
+     * <p>
+     * Updates that cannot be applied yet, e.g. while the map is paused, can be {@link #merge(Update) merged} into a
+     * single update instead of being held back one by one.
+     *
+     * @since 1.0.0
+     */
+    public static final class Update {
+
+        private String[] addedIds = new String[16];
+        private int[] addedIndices = new int[16];
+        private int addedCount;
+        private int[] removedIndices = new int[16];
+        private int removedCount;
+        private double[] positions = new double[4 * 16];
+        private int positionCount;
+
+        // the slot + 1 of every object index in the added objects and in the positions, or 0, used only by merges
+        private int[] addedSlots = new int[0];
+        private int[] positionSlots = new int[0];
+        // whether the slots match the content, which they stop to when the update is drained into
+        private boolean isIndexed = true;
+
+        /**
+         * Returns the amount of objects that were added.
+         *
+         * @return The amount of added objects.
+         */
+        public int getAddedCount() {
+            return addedCount;
+        }
+
+        /**
+         * Returns the ID of the i-th added object.
+         *
+         * @param i The index in the added objects.
+         * @return The ID of the object.
+         */
+        public String getAddedId(int i) {
+            return addedIds[i];
+        }
+
+        /**
+         * Returns the index assigned to the i-th added object.
+         *
+         * @param i The index in the added objects.
+         * @return The index of the object.
+         */
+        public int getAddedIndex(int i) {
+            return addedIndices[i];
+        }
+
+        /**
+         * Returns the amount of objects that were removed.
+         *
+         * @return The amount of removed objects.
+         */
+        public int getRemovedCount() {
+            return removedCount;
+        }
+
+        /**
+         * Returns the index of the i-th removed object.
+         *
+         * @param i The index in the removed objects.
+         * @return The index of the object.
+         */
+        public int getRemovedIndex(int i) {
+            return removedIndices[i];
+        }
+
+        /**
+         * Returns the amount of objects whose position changed.
+         *
+         * @return The amount of positions in the update.
+         */
+        public int getPositionCount() {
+            return positionCount;
+        }
+
+        /**
+         * Returns the positions of the objects that moved, packed as {@code [index, lon, lat, alt]} for every object.
+         * Only the first {@code 4 * getPositionCount()} elements are valid.
+         *
+         * @return The packed positions, not a copy.
+         */
+        public double[] getPositions() {
+            return positions;
+        }
+
+        /**
+         * Returns whether the update contains no changes.
+         *
+         * @return {@code true} if nothing changed, otherwise {@code false}.
+         */
+        public boolean isEmpty() {
+            return addedCount == 0 && removedCount == 0 && positionCount == 0;
+        }
+
+        /**
+         * Appends the changes of a later update to this update, so applying this update has the same result as
+         * applying both of them in order. Only the latest position of every object is kept, and objects that were
+         * both added and removed in between are left out.
+         * <p>
+         * The time of a merge depends on the size of the later update only.
+         *
+         * @param later The update that follows this update.
+         */
+        public void merge(@NonNull Update later) {
+            if (!isIndexed) {
+                indexSlots();
+                isIndexed = true;
+            }
+
+            for (int i = 0; i < later.removedCount; i++) {
+                int index = later.removedIndices[i];
+                // an object that was added since the first update was never applied, so it has nothing to remove
+                if (!removeAdded(index)) {
+                    addRemoved(index);
+                }
+                removePosition(index);
+            }
+            for (int i = 0; i < later.addedCount; i++) {
+                int index = later.addedIndices[i];
+                addAdded(later.addedIds[i], index);
+                slots(index);
+                addedSlots[index] = addedCount;
+            }
+            for (int i = 0; i < later.positionCount; i++) {
+                int offset = 4 * i;
+                int index = (int) later.positions[offset];
+                slots(index);
+                if (positionSlots[index] == 0) {
+                    addPosition(index, 0, 0, 0);
+                    positionSlots[index] = positionCount;
+                }
+                System.arraycopy(later.positions, offset + 1, positions, 4 * (positionSlots[index] - 1) + 1, 3);
+            }
+        }
+
+        /**
+         * Removes all the changes of the update.
+         */
+        public void clear() {
+            Arrays.fill(addedSlots, 0);
+            Arrays.fill(positionSlots, 0);
+            isIndexed = true;
+
+            Arrays.fill(addedIds, 0, addedCount, null);
+            addedCount = 0;
+            removedCount = 0;
+            positionCount = 0;
+        }
+
+        /**
+         * Builds the slots of the objects of an update that was drained rather than merged.
+         */
+        private void indexSlots() {
+            for (int i = 0; i < addedCount; i++) {
+                slots(addedIndices[i]);
+                addedSlots[addedIndices[i]] = i + 1;
+            }
+            for (int i = 0; i < positionCount; i++) {
+                int index = (int) positions[4 * i];
+                slots(index);
+                positionSlots[index] = i + 1;
+            }
+        }
+
+        /**
+         * Grows the slots to hold the given object index.
+         */
+        private void slots(int index) {
+            if (index >= addedSlots.length) {
+                int length = Math.max(2 * addedSlots.length, Math.max(index + 1, 16));
+                addedSlots = Arrays.copyOf(addedSlots, length);
+                positionSlots = Arrays.copyOf(positionSlots, length);
+            }
+        }
+
+        private boolean removeAdded(int index) {
+            if (index >= addedSlots.length || addedSlots[index] == 0) {
+                return false;
+            }
+
+            // the last added object takes the place of the removed one
+            int slot = addedSlots[index] - 1;
+            int last = --addedCount;
+            addedIds[slot] = addedIds[last];
+            addedIndices[slot] = addedIndices[last];
+            addedIds[last] = null;
+            addedSlots[addedIndices[slot]] = slot + 1;
+            addedSlots[index] = 0;
+            return true;
+        }
+
+        private void removePosition(int index) {
+            if (index >= positionSlots.length || positionSlots[index] == 0) {
+                return;
+            }
+
+            int offset = 4 * (positionSlots[index] - 1);
+            int last = 4 * --positionCount;
+            System.arraycopy(positions, last, positions, offset, 4);
+            positionSlots[(int) positions[offset]] = offset / 4 + 1;
+            positionSlots[index] = 0;
+        }
+
+        void addAdded(String trackId, int index) {
+            if (addedCount == addedIds.length) {
+                addedIds = Arrays.copyOf(addedIds, 2 * addedCount);
+                addedIndices = Arrays.copyOf(addedIndices, 2 * addedCount);
+            }
+            addedIds[addedCount] = trackId;
+            addedIndices[addedCount++] = index;
+        }
+
+        void addRemoved(int index) {
+            if (removedCount == removedIndices.length) {
+                removedIndices = Arrays.copyOf(removedIndices, 2 * removedCount);
+            }
+            removedIndices[removedCount++] = index;
+        }
+
+        void addPosition(int index, double lon, double lat, double alt) {
+            if (4 * positionCount == positions.length) {
+                positions = Arrays.copyOf(positions, 2 * positions.length);
+            }
+            int offset = 4 * positionCount++;
+            positions[offset] = index;
+            positions[offset + 1] = lon;
+            positions[offset + 2] = lat;
+            positions[offset + 3] = alt;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.github.dormesica.mapcontroller.layers;
+
+import com.github.dormesica.mapcontroller.graphics.Color;
+import com.google.common.base.Preconditions;
+
+import java.net.URL;
+
+/**
+ * Layer descriptor for track layers, i.e. layers of moving objects whose positions are updated at a high rate.
+ * <p>
+ * Every object of a track layer is displayed as a marker. Positions are buffered on the Android side and sent to the
+ * map once every frame (see {@link TrackBuffer}). The map can optionally interpolate the markers between fixes, so
+ * objects that are updated once a second still move smoothly.
+ *
+ * @since 1.0.0
+ */
+public class TrackLayerDescriptor {
+
+    /**
+     * The default amount of fixes that are buffered between frames.
+     */
+    public static final int DEFAULT_BUFFER_CAPACITY = 1 << 14;
+
+    private String type;
+    private String icon;
+    private String color;
+    private double opacity;
+    private long interpolationDuration;
+    private transient int bufferCapacity;
+
+    /**
+     * Creates a new <code>TrackLayerDescriptor</code> from the builder.
+     *
+     * @param builder The builder from which to build the track layer.
+     * @throws IllegalArgumentException If an argument has an invalid value.
+     */
+    private TrackLayerDescriptor(Builder builder) throws IllegalArgumentException {
+        Preconditions.checkArgument(builder.interpolationDuration >= 0,
+                "Interpolation duration must not be negative.");
+        Preconditions.checkArgument(builder.bufferCapacity > 0, "Buffer capacity must be greater than 0.");
+
+        type = LayerTypes.Track;
+        icon = builder.icon;
+        color = builder.color;
+        opacity = builder.opacity;
+        interpolationDuration = builder.interpolationDuration;
+        bufferCapacity = builder.bufferCapacity;
+    }
+
+    /**
+     * Returns the amount of fixes that are buffered between frames.
+     *
+     * @return The capacity of the buffer of the layer.
+     */
+    public int getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    /**
+     * <code>TrackLayerDescriptor.Builder</code> is a helper for creating {@link TrackLayerDescriptor} layers to be
+     * loaded onto {@code MapView}.
+     *
+     * @since 1.0.0
+     */
+    public static final class Builder {
+
+        private String icon;
+        private String color;
+        private double opacity;
+        private long interpolationDuration;
+        private int bufferCapacity;
+
+        /**
+         * Creates a new <code>TrackLayerDescriptor.Builder</code> instance.
+         */
+        private Builder() {
+            icon = Point.DEFAULT_POINT_ICON;
+            color = "#FFFFFF";
+            opacity = 1;
+            interpolationDuration = 0;
+            bufferCapacity = DEFAULT_BUFFER_CAPACITY;
+        }
+
+        /**
+         * Creates a new <code>TrackLayerDescriptor.Builder</code> with the default values.
+         *
+         * @return A new <code>TrackLayerDescriptor.Builder</code> instance.
+         */
+        public static Builder create() {
+            return new Builder();
+        }
+
+        /**
+         * Set the marker of the objects of the layer to the given SVG data URI.
+         *
+         * @param svg The SVG uri as a string.
+         * @return The <code>TrackLayerDescriptor.Builder</code> for method chaining.
+         */
+        public Builder setIcon(String svg) {
+            icon = svg;
+            return this;
+        }
+
+        /**
+         * Set the marker of the objects of the layer to the image located at the given URL.
+         *
+         * @param url The URL from which to retrieve the marker image.
+         * @return The <code>TrackLayerDescriptor.Builder</code> for method chaining.
+         */
+        public Builder setIcon(URL url) {
+            icon = url.toString();
+            return this;
+        }
+
+        /**
+         * Set the color by which the markers are tinted.
+         * <p>
+         * By default, the markers are not tinted.
+         *
+         * @param color The color of the markers.
+         * @return The <code>TrackLayerDescriptor.Builder</code> for method chaining.
+         */
+        public Builder setColor(Color color) {
+            this.color = color.getColorString();
+            this.opacity = color.alpha();
+            return this;
+        }
+
+        /**
+         * Set the duration over which a marker moves from its previous position to a new position.
+         * <p>
+         * The duration should roughly match the interval between the fixes of an object. By default, markers are not
+         * interpolated and jump to their new position.
+         *
+         * @param durationMillis The duration of the interpolation in milliseconds, or 0 to disable interpolation.
+         * @return The <code>TrackLayerDescriptor.Builder</code> for method chaining.
+         */
+        public Builder setInterpolation(long durationMillis) {
+            interpolationDuration = durationMillis;
+            return this;
+        }
+
+        /**
+         * Set the amount of fixes that are buffered between frames. When more fixes are written during a single
+         * frame, the oldest fixes are dropped.
+         * <p>
+         * By default, {@link #DEFAULT_BUFFER_CAPACITY} fixes are buffered.
+         *
+         * @param capacity The capacity of the buffer.
+         * @return The <code>TrackLayerDescriptor.Builder</code> for method chaining.
+         */
+        public Builder setBufferCapacity(int capacity) {
+            bufferCapacity = capacity;
+            return this;
+        }
+
+        /**
+         * Creates the {@link TrackLayerDescriptor} object.
+         *
+         * @return The newly created {@link TrackLayerDescriptor}.
+         * @throws IllegalArgumentException In case the interpolation duration is negative or the buffer capacity is not
+         *                                  positive.
+         */
+        public TrackLayerDescriptor build() throws IllegalArgumentException {
+            return new TrackLayerDescriptor(this);
+        }
+    }
+}
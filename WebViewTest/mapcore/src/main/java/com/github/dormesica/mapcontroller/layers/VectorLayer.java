@@ -0,0 +1,468 @@
+package com.github.dormesica.mapcontroller.layers;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.github.dormesica.mapcontroller.util.PostDeserializable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * This class represents a vector layer that has been loaded on to a
+ * {@code MapView}.
+ * <p>
+ * Vector layers are essentially a collection of geographically pinned entities. An entity can be attached with an
+ * attribute table which provides metadata on it. These attribute tables are key-value pairs stored for a specific
+ * entity.
+ * <p>
+ * The layer keeps the extent of its entities up to date as entities are added, so fitting the view to the layer or
+ * culling it does not scan the geometry of the entities.
+ * <p>
+ * Entities are located by their ID using an index that is built the first time the layer is updated, so updating a
+ * few entities of a large layer does not scan the layer.
+ * <p>
+ * Secondary indexes of the entities by their names or properties are built when the layer is loaded, if they are
+ * declared on its descriptor (see {@link GeoJsonLayerDescriptor.Builder#addIndex(String)}), and are kept up to date as
+ * entities are added, removed, renamed and fetched.
+ *
+ * @since 1.0.0
+ */
+public class VectorLayer extends Layer implements Iterable<Entity>, PostDeserializable { // TODO implement List<Entity>?
+
+    private String name;
+    private String description;
+    private List<Entity> entities;
+    private boolean isVisible;
+
+    private transient Rectangle extent;
+    private transient int stubCount;
+    private transient boolean hasExtent;
+    private transient HashMap<String, Integer> indices;
+    private transient EntityIndex nameIndex;
+    private transient LinkedHashMap<String, EntityIndex> propertyIndexes;
+    transient ChangeSet changeSet;
+    transient int dirtyFields;
+
+    /**
+     * Get the <code>i</code>-th entity of the layer.
+     *
+     * @param i Entity index.
+     * @return The <code>i</code>-th entity.
+     * @throws IndexOutOfBoundsException In case the index if greater than or equal to <code>VectorLayer.size()</code>.
+     */
+    public Entity get(int i) throws IndexOutOfBoundsException {
+        if (i >= entities.size()) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        return entities.get(i);
+    }
+
+    /**
+     * Returns the layer's name.
+     * @return The layer's name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the name of the layer.
+     * <p>
+     * The change is sent to the map with the next flush of the {@code MapView} the layer was loaded on to.
+     * @param name The name for the layer.
+     */
+    public void setName(String name) {
+        this.name = name;
+        markDirty(ChangeSet.FIELD_NAME);
+    }
+
+    /**
+     * Returns the layer's description.
+     * @return The layer's description.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Sets the description of the layer.
+     * <p>
+     * The change is sent to the map with the next flush of the {@code MapView} the layer was loaded on to.
+     * @param description The description for the layer.
+     */
+    public void setDescription(String description) {
+        this.description = description;
+        markDirty(ChangeSet.FIELD_DESCRIPTION);
+    }
+
+    /**
+     * Returns {@code true} if the layer is visible, otherwise returns {@code false}.
+     * @return The layer's visibility.
+     */
+    public boolean isVisible() {
+        return isVisible;
+    }
+
+    /**
+     * Returns the amount of entities in the layer.
+     *
+     * @return The amount of entities in the layer.
+     */
+    public int size() {
+        return entities.size();
+    }
+
+    /**
+     * Returns the extent of the layer, i.e. the union of the bounds of its entities.
+     * <p>
+     * Stubs are not part of the extent until their geometry is fetched, except for evicted entities, whose bounds are
+     * kept.
+     *
+     * @return The extent of the layer, or {@code null} if no entity has a loaded geometry.
+     * @see Entity#getBounds()
+     */
+    @Nullable
+    public Rectangle getExtent() {
+        // stubs are added to the extent as they are fetched, see onHydrated(Entity, boolean)
+        if (!hasExtent) {
+            updateExtent();
+        }
+
+        return extent;
+    }
+
+    /**
+     * Returns whether the extent of the layer covers all of its entities, i.e. whether none of them is a stub whose
+     * geometry has not been fetched yet.
+     *
+     * @return {@code true} if the bounds of every entity are part of the extent, otherwise {@code false}.
+     * @see #getExtent()
+     */
+    public boolean isExtentComplete() {
+        getExtent();
+        return stubCount == 0;
+    }
+
+    /**
+     * Returns the index of the entities of the layer by their names.
+     *
+     * @return The name index, or {@code null} if the names of the entities are not indexed.
+     * @see GeoJsonLayerDescriptor.Builder#addNameIndex()
+     */
+    @Nullable
+    public EntityIndex getNameIndex() {
+        return nameIndex;
+    }
+
+    /**
+     * Returns the index of the entities of the layer by the value of the given property.
+     *
+     * @param key The key of the property.
+     * @return The index of the property, or {@code null} if the property is not indexed.
+     * @see GeoJsonLayerDescriptor.Builder#addIndex(String)
+     */
+    @Nullable
+    public EntityIndex getIndex(@NonNull String key) {
+        return propertyIndexes != null ? propertyIndexes.get(key) : null;
+    }
+
+    /**
+     * Returns the keys of the indexed properties of the layer.
+     *
+     * @return The keys of the properties that have an index.
+     */
+    @NonNull
+    public Collection<String> getIndexedProperties() {
+        return propertyIndexes != null ? Collections.unmodifiableSet(propertyIndexes.keySet())
+                : Collections.emptySet();
+    }
+
+    /**
+     * Builds indexes of the entities of the layer by their names and by the values of the given properties.
+     * <p>
+     * Used by {@code MapView} when a layer is loaded and should not be called otherwise.
+     *
+     * @param byName Should the entities be indexed by their names.
+     * @param keys   The keys of the properties to index the entities by.
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public void createIndexes(boolean byName, @NonNull Collection<String> keys) {
+        if (byName && nameIndex == null) {
+            nameIndex = new EntityIndex(null);
+        }
+        for (String key : keys) {
+            if (propertyIndexes == null) {
+                propertyIndexes = new LinkedHashMap<>();
+            }
+            propertyIndexes.putIfAbsent(key, new EntityIndex(key));
+        }
+
+        for (Entity entity : entities) {
+            unindex(entity);
+            index(entity);
+        }
+    }
+
+    /**
+     * Calculates the extent of the layer once it is decoded.
+     */
+    @Override
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public void onDeserialized() {
+        for (Entity entity : entities) {
+            entity.layer = this;
+        }
+        updateExtent();
+    }
+
+    /**
+     * Appends the given entities to the end of the layer.
+     * <p>
+     * Used by {@code MapView} when a layer is loaded in batches and should not be called otherwise, since it does not
+     * affect the layer displayed on the map.
+     *
+     * @param batch The entities to add to the layer.
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public void addEntities(@NonNull Collection<? extends Entity> batch) {
+        for (Entity entity : batch) {
+            append(entity);
+        }
+    }
+
+    /**
+     * Adds the given entities to the layer, replacing the entities that have the same IDs. Replaced entities keep
+     * their position in the layer and new entities are appended to its end.
+     * <p>
+     * Used by {@code MapView} when a layer is updated and should not be called otherwise, since it does not affect
+     * the layer displayed on the map.
+     *
+     * @param upserts The entities to add to the layer.
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public void upsertEntities(@NonNull Collection<? extends Entity> upserts) {
+        HashMap<String, Integer> indices = getIndices();
+        for (Entity entity : upserts) {
+            Integer index = indices.get(entity.getId());
+            if (index == null) {
+                append(entity);
+                continue;
+            }
+
+            Entity replaced = entities.set(index, entity);
+            replaced.changeSet = null;
+            replaced.layer = null;
+            entity.changeSet = changeSet;
+            entity.layer = this;
+            unindex(replaced);
+            index(entity);
+            removeFromExtent(replaced);
+            if (hasExtent) {
+                addToExtent(entity);
+            }
+        }
+    }
+
+    /**
+     * Removes the entities with the given IDs from the layer. IDs of entities that are not in the layer are ignored.
+     * <p>
+     * The last entity of the layer is moved to the position of every removed entity, so the order of the remaining
+     * entities may change.
+     * <p>
+     * Used by {@code MapView} when a layer is updated and should not be called otherwise, since it does not affect
+     * the layer displayed on the map.
+     *
+     * @param ids The IDs of the entities to remove.
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public void removeEntities(@NonNull Collection<String> ids) {
+        HashMap<String, Integer> indices = getIndices();
+        for (String id : ids) {
+            Integer index = indices.remove(id);
+            if (index == null) {
+                continue;
+            }
+
+            Entity last = entities.remove(entities.size() - 1);
+            Entity removed = last;
+            if (index < entities.size()) {
+                removed = entities.set(index, last);
+                indices.put(last.getId(), index);
+            }
+            removed.changeSet = null;
+            removed.layer = null;
+            unindex(removed);
+            removeFromExtent(removed);
+        }
+    }
+
+    /**
+     * Sets the change set that tracks the layer and its entities.
+     *
+     * @param changeSet The change set, or {@code null} to stop tracking the layer.
+     */
+    void setChangeSet(@Nullable ChangeSet changeSet) {
+        this.changeSet = changeSet;
+        dirtyFields = 0;
+        for (Entity entity : entities) {
+            entity.changeSet = changeSet;
+        }
+    }
+
+    private void markDirty(int field) {
+        if (changeSet == null) {
+            return;
+        }
+
+        if (dirtyFields == 0) {
+            changeSet.add(this);
+        }
+        dirtyFields |= field;
+    }
+
+    private HashMap<String, Integer> getIndices() {
+        if (indices == null) {
+            indices = new HashMap<>(2 * entities.size());
+            for (int i = 0; i < entities.size(); i++) {
+                indices.put(entities.get(i).getId(), i);
+            }
+        }
+
+        return indices;
+    }
+
+    private void append(Entity entity) {
+        if (indices != null) {
+            indices.put(entity.getId(), entities.size());
+        }
+        entities.add(entity);
+        entity.changeSet = changeSet;
+        entity.layer = this;
+        index(entity);
+        if (hasExtent) {
+            addToExtent(entity);
+        }
+    }
+
+    /**
+     * Updates the entry of the given entity in the name index after its name has changed.
+     */
+    void onNameChanged(Entity entity) {
+        if (nameIndex != null) {
+            nameIndex.remove(entity);
+            nameIndex.add(entity);
+        }
+    }
+
+    /**
+     * Updates the entries of the given entity in the property indexes after its properties have changed.
+     */
+    void onPropertiesChanged(Entity entity) {
+        if (propertyIndexes != null) {
+            for (EntityIndex index : propertyIndexes.values()) {
+                index.remove(entity);
+                index.add(entity);
+            }
+        }
+    }
+
+    /**
+     * Updates the extent and the property indexes after the given entity was hydrated.
+     */
+    void onHydrated(Entity entity, boolean hadKnownBounds) {
+        onPropertiesChanged(entity);
+        // evicted entities keep their bounds, the bounds of other stubs are added once their geometry is fetched
+        if (hasExtent && !hadKnownBounds) {
+            stubCount--;
+            addToExtent(entity);
+        }
+    }
+
+    private void index(Entity entity) {
+        if (nameIndex != null) {
+            nameIndex.add(entity);
+        }
+        if (propertyIndexes != null) {
+            for (EntityIndex index : propertyIndexes.values()) {
+                index.add(entity);
+            }
+        }
+    }
+
+    private void unindex(Entity entity) {
+        if (nameIndex != null) {
+            nameIndex.remove(entity);
+        }
+        if (propertyIndexes != null) {
+            for (EntityIndex index : propertyIndexes.values()) {
+                index.remove(entity);
+            }
+        }
+    }
+
+    private void removeFromExtent(Entity entity) {
+        if (!hasExtent) {
+            return;
+        }
+
+        if (!entity.hasKnownBounds()) {
+            stubCount--;
+            return;
+        }
+
+        // the extent only shrinks if the entity was on its edge, in which case it is recomputed when next requested
+        Rectangle bounds = entity.getKnownBounds();
+        if (bounds != null && (extent == null
+                || bounds.getNorth() >= extent.getNorth() || bounds.getSouth() <= extent.getSouth()
+                || bounds.getWest() <= extent.getWest() || bounds.getEast() >= extent.getEast())) {
+            hasExtent = false;
+        }
+    }
+
+    private void updateExtent() {
+        extent = null;
+        stubCount = 0;
+        for (Entity entity : entities) {
+            addToExtent(entity);
+        }
+        hasExtent = true;
+    }
+
+    private void addToExtent(Entity entity) {
+        if (!entity.hasKnownBounds()) {
+            stubCount++;
+            return;
+        }
+
+        Rectangle bounds = entity.getKnownBounds();
+        if (bounds != null) {
+            extent = bounds.union(extent);
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<? super Entity> action) {
+        entities.forEach(action);
+    }
+
+    @Override
+    public Spliterator<Entity> spliterator() {
+        return entities.spliterator();
+    }
+
+    @NonNull
+    @Override
+    public Iterator<Entity> iterator() {
+        return entities.iterator();
+    }
+
+}
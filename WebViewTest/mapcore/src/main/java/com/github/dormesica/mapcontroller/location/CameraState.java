@@ -0,0 +1,217 @@
+package com.github.dormesica.mapcontroller.location;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * An immutable snapshot of the camera of a map: its position and orientation, its perspective frustum and the size of
+ * the viewport, which the map sends whenever any of them changes.
+ * <p>
+ * The state projects geographic positions to pixels of the view and pixels back to positions on the ellipsoid without
+ * accessing the map, so it can be used for native overlays and for picking within a tolerance of a touch. Pixels are
+ * those of the Android view, with {@code (0, 0)} at its top-left corner. Terrain is not considered: pixels are
+ * unprojected onto the WGS84 ellipsoid, and positions are occluded only by it.
+ * <p>
+ * The camera is positioned in earth-centered, earth-fixed cartesian coordinates (see
+ * {@link Geodesy#toCartesian(double, double, double, double[])}).
+ *
+ * @since 1.0.0
+ */
+public final class CameraState {
+
+    /**
+     * The amount of values in a packed camera state.
+     */
+    private static final int PACKED_LENGTH = 21;
+
+    private static final double SEMI_MINOR_AXIS = Geodesy.WGS84_SEMI_MAJOR_AXIS * (1 - Geodesy.WGS84_FLATTENING);
+    private static final double ECCENTRICITY_SQUARED = Geodesy.WGS84_FLATTENING * (2 - Geodesy.WGS84_FLATTENING);
+    /**
+     * The relative distance before a position at which the ellipsoid is considered to occlude it, so positions on the
+     * surface are not occluded by the surface itself.
+     */
+    private static final double OCCLUSION_TOLERANCE = 1e-6;
+
+    // position, direction, up and right vectors, in this order
+    private final double[] camera = new double[12];
+    private final double tanHalfFovY;
+    private final double tanHalfFovX;
+    private final double width;
+    private final double height;
+    private final double pixelRatio;
+    private final Rectangle extent;
+
+    private CameraState(double[] values) {
+        System.arraycopy(values, 0, camera, 0, camera.length);
+        tanHalfFovY = Math.tan(values[12] / 2);
+        tanHalfFovX = tanHalfFovY * values[13];
+        width = values[14];
+        height = values[15];
+        pixelRatio = values[16];
+        extent = new Rectangle(values[20], values[17], values[18], values[19]);
+    }
+
+    /**
+     * Creates a {@code CameraState} from the message the map sends, which packs the following values, separated by
+     * commas: the position, the direction, the up and the right vectors of the camera, the vertical field of view in
+     * radians, the aspect ratio of the frustum, the width and the height of the viewport in CSS pixels, the ratio of
+     * device pixels to CSS pixels, and the west, south, east and north of the extent of the view in degrees.
+     *
+     * @param packed The packed camera state.
+     * @return The camera state.
+     * @throws IllegalArgumentException when the message is malformed.
+     */
+    @NonNull
+    public static CameraState fromPacked(@NonNull String packed) throws IllegalArgumentException {
+        String[] parts = packed.split(",");
+        if (parts.length != PACKED_LENGTH) {
+            throw new IllegalArgumentException("Malformed camera state: " + packed);
+        }
+
+        double[] values = new double[PACKED_LENGTH];
+        for (int i = 0; i < PACKED_LENGTH; i++) {
+            values[i] = Double.parseDouble(parts[i]);
+        }
+
+        return new CameraState(values);
+    }
+
+    /**
+     * Returns the extent of the view, as computed by the map. A view that contains space has the extent of the whole
+     * globe.
+     *
+     * @return The extent of the view.
+     */
+    @NonNull
+    public Rectangle getExtent() {
+        return extent;
+    }
+
+    /**
+     * Returns the width of the viewport.
+     *
+     * @return The width in pixels of the view.
+     */
+    public double getViewportWidth() {
+        return width * pixelRatio;
+    }
+
+    /**
+     * Returns the height of the viewport.
+     *
+     * @return The height in pixels of the view.
+     */
+    public double getViewportHeight() {
+        return height * pixelRatio;
+    }
+
+    /**
+     * Returns the vertical field of view of the camera.
+     *
+     * @return The field of view in degrees.
+     */
+    public double getFieldOfView() {
+        return Math.toDegrees(2 * Math.atan(tanHalfFovY));
+    }
+
+    /**
+     * Projects a geographic position to the pixel of the view it is displayed at.
+     *
+     * @param lon The longitude of the position.
+     * @param lat The latitude of the position.
+     * @param alt The height of the position above the ellipsoid, in meters.
+     * @param out The array into which the {@code x} and {@code y} of the pixel are written. Pixels outside the view
+     *            are written as well.
+     * @return {@code true} if the position is in front of the camera and is not hidden behind the horizon, otherwise
+     * {@code false}, in which case {@code out} is not changed.
+     */
+    public boolean project(double lon, double lat, double alt, @NonNull double[] out) {
+        double[] position = new double[3];
+        Geodesy.toCartesian(lon, lat, alt, position);
+        double vx = position[0] - camera[0];
+        double vy = position[1] - camera[1];
+        double vz = position[2] - camera[2];
+
+        double z = vx * camera[3] + vy * camera[4] + vz * camera[5];
+        if (z <= 0) {
+            return false;
+        }
+
+        double distance = Math.sqrt(vx * vx + vy * vy + vz * vz);
+        double occlusion = intersectEllipsoid(vx / distance, vy / distance, vz / distance);
+        if (occlusion < distance * (1 - OCCLUSION_TOLERANCE)) {
+            return false;
+        }
+
+        double x = vx * camera[9] + vy * camera[10] + vz * camera[11];
+        double y = vx * camera[6] + vy * camera[7] + vz * camera[8];
+        out[0] = (x / (z * tanHalfFovX) + 1) / 2 * width * pixelRatio;
+        out[1] = (1 - y / (z * tanHalfFovY)) / 2 * height * pixelRatio;
+
+        return true;
+    }
+
+    /**
+     * Unprojects a pixel of the view to the geographic position on the ellipsoid that is displayed at it.
+     *
+     * @param x The x of the pixel, from the left of the view.
+     * @param y The y of the pixel, from the top of the view.
+     * @return The position at the pixel, or {@code null} if the pixel displays space.
+     */
+    @Nullable
+    public Coordinates unproject(double x, double y) {
+        double ndcX = 2 * x / (width * pixelRatio) - 1;
+        double ndcY = 1 - 2 * y / (height * pixelRatio);
+        double rx = ndcX * tanHalfFovX;
+        double uy = ndcY * tanHalfFovY;
+
+        double dx = camera[3] + camera[9] * rx + camera[6] * uy;
+        double dy = camera[4] + camera[10] * rx + camera[7] * uy;
+        double dz = camera[5] + camera[11] * rx + camera[8] * uy;
+        double t = intersectEllipsoid(dx, dy, dz);
+        if (Double.isInfinite(t)) {
+            return null;
+        }
+
+        double px = camera[0] + t * dx;
+        double py = camera[1] + t * dy;
+        double pz = camera[2] + t * dz;
+        // exact for positions on the ellipsoid
+        double lat = Math.atan2(pz, (1 - ECCENTRICITY_SQUARED) * Math.sqrt(px * px + py * py));
+
+        return new Coordinates(Math.toDegrees(Math.atan2(py, px)), Math.toDegrees(lat));
+    }
+
+    /**
+     * Returns the distance along the given ray from the camera to the nearest intersection with the ellipsoid, in
+     * multiples of the ray, or infinity if the ray does not intersect the ellipsoid in front of the camera.
+     */
+    private double intersectEllipsoid(double dx, double dy, double dz) {
+        // the ellipsoid is scaled to the unit sphere
+        double a = Geodesy.WGS84_SEMI_MAJOR_AXIS;
+        double ox = camera[0] / a;
+        double oy = camera[1] / a;
+        double oz = camera[2] / SEMI_MINOR_AXIS;
+        double sx = dx / a;
+        double sy = dy / a;
+        double sz = dz / SEMI_MINOR_AXIS;
+
+        double qa = sx * sx + sy * sy + sz * sz;
+        double qb = 2 * (ox * sx + oy * sy + oz * sz);
+        double qc = ox * ox + oy * oy + oz * oz - 1;
+        double discriminant = qb * qb - 4 * qa * qc;
+        if (discriminant < 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        double t = (-qb - Math.sqrt(discriminant)) / (2 * qa);
+        return t >= 0 ? t : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CameraState{position=(%.1f, %.1f, %.1f), direction=(%.4f, %.4f, %.4f), " +
+                        "viewport=%.0fx%.0f, extent=%s}", camera[0], camera[1], camera[2], camera[3], camera[4],
+                camera[5], getViewportWidth(), getViewportHeight(), extent);
+    }
+}
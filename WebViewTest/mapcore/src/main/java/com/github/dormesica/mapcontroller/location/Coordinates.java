@@ -99,13 +99,28 @@ public class Coordinates {
 
     /**
      * Calculates the distance to the given point in meters.
+     * <p>
+     * The distance is calculated on a sphere (see {@link Geodesy#haversine(double, double, double, double)}), which
+     * is fast and accurate to about 0.5%. Use {@link #geodesicDistance(Coordinates)} when accuracy matters.
      *
      * @param to The point to which the distance is calculated
      * @return The distance to to
      */
     public double distance(Coordinates to) {
-        // TODO implement
-        return 0;
+        return Geodesy.haversine(lon, lat, to.lon, to.lat);
+    }
+
+    /**
+     * Calculates the distance to the given point in meters on the WGS84 ellipsoid.
+     * <p>
+     * The distance is accurate to less than a millimeter (see {@link Geodesy#vincenty(double, double, double, double)})
+     * but takes longer to calculate than {@link #distance(Coordinates)}.
+     *
+     * @param to The point to which the distance is calculated
+     * @return The distance to to
+     */
+    public double geodesicDistance(Coordinates to) {
+        return Geodesy.vincenty(lon, lat, to.lon, to.lat);
     }
 
     /**
@@ -115,11 +130,10 @@ public class Coordinates {
      * the current location to the north pole where the meridians meet).
      *
      * @param to The location to which the azimuth is calculated.
-     * @return The azimuth to to
+     * @return The azimuth to to, in the range {@code [0, 360)}.
      */
     public double azimuth(Coordinates to) {
-        // TODO implement
-        return 0;
+        return Geodesy.azimuth(lon, lat, to.lon, to.lat);
     }
 
     @Override
@@ -129,7 +143,7 @@ public class Coordinates {
         }
 
         if (obj == null) {
-            return true;
+            return false;
         }
 
         if (getClass() != obj.getClass()) {
@@ -140,9 +154,16 @@ public class Coordinates {
         return lon == other.lon && lat == other.lat && alt == other.alt;
     }
 
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(lon);
+        result = 31 * result + Double.hashCode(lat);
+        return 31 * result + Double.hashCode(alt);
+    }
+
     @NonNull
     @Override
     public String toString() {
-        return String.format("Coordinates(%s, %s, %s)", lon, lat, lat);
+        return String.format("Coordinates(%s, %s, %s)", lon, lat, alt);
     }
 }
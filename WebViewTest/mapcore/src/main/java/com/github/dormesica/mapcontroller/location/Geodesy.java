@@ -0,0 +1,433 @@
+package com.github.dormesica.mapcontroller.location;
+
+import androidx.annotation.NonNull;
+import com.google.common.base.Preconditions;
+
+import java.util.List;
+
+/**
+ * Geodesic computations on the earth's surface.
+ * <p>
+ * Two models are supported:
+ * <ul>
+ * <li>A sphere with the mean radius of the earth (haversine formula). Computations are fast and accurate to about
+ * 0.5%, which is enough for display purposes such as the length of a route.</li>
+ * <li>The WGS84 ellipsoid (Vincenty's inverse formula). Computations are accurate to less than a millimeter but are
+ * several times slower.</li>
+ * </ul>
+ * <p>
+ * Besides single pair computations, the class offers batch methods that operate on packed coordinate arrays, where
+ * the i-th position is stored as {@code [lon, lat]} at indices {@code 2*i} and {@code 2*i+1} (see
+ * {@link #pack(List)}). The batch methods do not allocate and write their results into arrays provided by the
+ * caller, so they can be used on large amounts of geometries without creating garbage.
+ * <p>
+ * All angles are in degrees and all distances are in meters.
+ *
+ * @since 1.0.0
+ */
+public final class Geodesy {
+
+    /**
+     * The mean radius of the earth in meters.
+     */
+    public static final double EARTH_MEAN_RADIUS = 6371008.8;
+
+    /**
+     * The semi-major axis of the WGS84 ellipsoid in meters.
+     */
+    public static final double WGS84_SEMI_MAJOR_AXIS = 6378137.0;
+
+    /**
+     * The flattening of the WGS84 ellipsoid.
+     */
+    public static final double WGS84_FLATTENING = 1 / 298.257223563;
+
+    private static final double WGS84_SEMI_MINOR_AXIS = WGS84_SEMI_MAJOR_AXIS * (1 - WGS84_FLATTENING);
+    private static final double WGS84_ECCENTRICITY_SQUARED = WGS84_FLATTENING * (2 - WGS84_FLATTENING);
+
+    private static final int VINCENTY_MAX_ITERATIONS = 200;
+    private static final double VINCENTY_TOLERANCE = 1e-12;
+
+    private Geodesy() {
+    }
+
+    /**
+     * Calculates the great-circle distance between 2 positions using the haversine formula.
+     *
+     * @param lon1 The longitude of the first position.
+     * @param lat1 The latitude of the first position.
+     * @param lon2 The longitude of the second position.
+     * @param lat2 The latitude of the second position.
+     * @return The distance between the positions.
+     */
+    public static double haversine(double lon1, double lat1, double lon2, double lat2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+
+        return haversine(phi1, Math.cos(phi1), phi2, Math.cos(phi2), Math.toRadians(lon2 - lon1));
+    }
+
+    /**
+     * Calculates the initial bearing of the great-circle path from the first position to the second.
+     *
+     * @param lon1 The longitude of the first position.
+     * @param lat1 The latitude of the first position.
+     * @param lon2 The longitude of the second position.
+     * @param lat2 The latitude of the second position.
+     * @return The azimuth in the range {@code [0, 360)}, measured clockwise from the north.
+     */
+    public static double azimuth(double lon1, double lat1, double lon2, double lat2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+
+        return azimuth(Math.sin(phi1), Math.cos(phi1), Math.sin(phi2), Math.cos(phi2), Math.toRadians(lon2 - lon1));
+    }
+
+    /**
+     * Calculates the distance between 2 positions on the WGS84 ellipsoid using Vincenty's inverse formula.
+     * <p>
+     * The formula does not converge for some nearly antipodal positions. In that case the haversine distance is
+     * returned.
+     *
+     * @param lon1 The longitude of the first position.
+     * @param lat1 The latitude of the first position.
+     * @param lon2 The longitude of the second position.
+     * @param lat2 The latitude of the second position.
+     * @return The distance between the positions.
+     */
+    public static double vincenty(double lon1, double lat1, double lon2, double lat2) {
+        double f = WGS84_FLATTENING;
+        double b = WGS84_SEMI_MINOR_AXIS;
+        double a2 = WGS84_SEMI_MAJOR_AXIS * WGS84_SEMI_MAJOR_AXIS;
+        double b2 = b * b;
+
+        double l = Math.toRadians(lon2 - lon1);
+        double u1 = Math.atan((1 - f) * Math.tan(Math.toRadians(lat1)));
+        double u2 = Math.atan((1 - f) * Math.tan(Math.toRadians(lat2)));
+        double sinU1 = Math.sin(u1);
+        double cosU1 = Math.cos(u1);
+        double sinU2 = Math.sin(u2);
+        double cosU2 = Math.cos(u2);
+
+        double lambda = l;
+        double sinSigma;
+        double cosSigma;
+        double sigma;
+        double cos2Alpha;
+        double cos2SigmaM;
+
+        for (int i = 0; ; i++) {
+            if (i == VINCENTY_MAX_ITERATIONS) {
+                return haversine(lon1, lat1, lon2, lat2);
+            }
+
+            double sinLambda = Math.sin(lambda);
+            double cosLambda = Math.cos(lambda);
+            double t = cosU1 * sinU2 - sinU1 * cosU2 * cosLambda;
+            sinSigma = Math.sqrt(cosU2 * sinLambda * cosU2 * sinLambda + t * t);
+            if (sinSigma == 0) {
+                return 0;
+            }
+
+            cosSigma = sinU1 * sinU2 + cosU1 * cosU2 * cosLambda;
+            sigma = Math.atan2(sinSigma, cosSigma);
+            double sinAlpha = cosU1 * cosU2 * sinLambda / sinSigma;
+            cos2Alpha = 1 - sinAlpha * sinAlpha;
+            // on the equator cos2Alpha is 0 and the term is not used
+            cos2SigmaM = cos2Alpha != 0 ? cosSigma - 2 * sinU1 * sinU2 / cos2Alpha : 0;
+
+            double c = f / 16 * cos2Alpha * (4 + f * (4 - 3 * cos2Alpha));
+            double previous = lambda;
+            lambda = l + (1 - c) * f * sinAlpha
+                    * (sigma + c * sinSigma * (cos2SigmaM + c * cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)));
+
+            if (Math.abs(lambda - previous) < VINCENTY_TOLERANCE) {
+                break;
+            }
+        }
+
+        double u2Squared = cos2Alpha * (a2 - b2) / b2;
+        double aCoefficient = 1 + u2Squared / 16384
+                * (4096 + u2Squared * (-768 + u2Squared * (320 - 175 * u2Squared)));
+        double bCoefficient = u2Squared / 1024 * (256 + u2Squared * (-128 + u2Squared * (74 - 47 * u2Squared)));
+        double deltaSigma = bCoefficient * sinSigma * (cos2SigmaM + bCoefficient / 4
+                * (cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM) - bCoefficient / 6 * cos2SigmaM
+                * (-3 + 4 * sinSigma * sinSigma) * (-3 + 4 * cos2SigmaM * cos2SigmaM)));
+
+        return b * aCoefficient * (sigma - deltaSigma);
+    }
+
+    /**
+     * Packs the given coordinates into an array of {@code [lon, lat]} pairs for use with the batch methods.
+     *
+     * @param coordinates The coordinates to pack.
+     * @return A new array of length {@code 2 * coordinates.size()}.
+     */
+    @NonNull
+    public static double[] pack(@NonNull List<Coordinates> coordinates) {
+        double[] packed = new double[coordinates.size() * 2];
+        for (int i = 0; i < coordinates.size(); i++) {
+            Coordinates position = coordinates.get(i);
+            packed[2 * i] = position.getLon();
+            packed[2 * i + 1] = position.getLat();
+        }
+
+        return packed;
+    }
+
+    /**
+     * Calculates the length of a path using the haversine formula.
+     *
+     * @param path   Packed coordinates array.
+     * @param offset The index of the first position of the path in the array (in positions, not in array elements).
+     * @param count  The amount of positions in the path.
+     * @return The length of the path.
+     * @throws IllegalArgumentException In case the path exceeds the bounds of the array.
+     */
+    public static double pathLength(@NonNull double[] path, int offset, int count) throws IllegalArgumentException {
+        checkRange(path, offset, count);
+        if (count < 2) {
+            return 0;
+        }
+
+        int i = 2 * offset;
+        double length = 0;
+        double lon = path[i];
+        double phi = Math.toRadians(path[i + 1]);
+        double cosPhi = Math.cos(phi);
+
+        for (int end = 2 * (offset + count); (i += 2) < end; ) {
+            double nextLon = path[i];
+            double nextPhi = Math.toRadians(path[i + 1]);
+            double nextCosPhi = Math.cos(nextPhi);
+
+            length += haversine(phi, cosPhi, nextPhi, nextCosPhi, Math.toRadians(nextLon - lon));
+
+            lon = nextLon;
+            phi = nextPhi;
+            cosPhi = nextCosPhi;
+        }
+
+        return length;
+    }
+
+    /**
+     * Calculates the distance along a path from its first position to every one of its positions using the haversine
+     * formula.
+     * <p>
+     * The first value written is always 0 and the last value is the length of the path.
+     *
+     * @param path      Packed coordinates array.
+     * @param offset    The index of the first position of the path in the array (in positions).
+     * @param count     The amount of positions in the path.
+     * @param out       The array into which {@code count} values are written.
+     * @param outOffset The index in {@code out} of the first value.
+     * @throws IllegalArgumentException In case the path or the result exceed the bounds of their arrays.
+     */
+    public static void cumulativeLengths(@NonNull double[] path, int offset, int count, @NonNull double[] out,
+                                         int outOffset) throws IllegalArgumentException {
+        checkRange(path, offset, count);
+        Preconditions.checkArgument(outOffset >= 0 && outOffset + count <= out.length,
+                "The output array is too small");
+        if (count == 0) {
+            return;
+        }
+
+        int i = 2 * offset;
+        double length = 0;
+        double lon = path[i];
+        double phi = Math.toRadians(path[i + 1]);
+        double cosPhi = Math.cos(phi);
+        out[outOffset] = 0;
+
+        for (int j = outOffset + 1, end = outOffset + count; j < end; j++) {
+            i += 2;
+            double nextLon = path[i];
+            double nextPhi = Math.toRadians(path[i + 1]);
+            double nextCosPhi = Math.cos(nextPhi);
+
+            length += haversine(phi, cosPhi, nextPhi, nextCosPhi, Math.toRadians(nextLon - lon));
+            out[j] = length;
+
+            lon = nextLon;
+            phi = nextPhi;
+            cosPhi = nextCosPhi;
+        }
+    }
+
+    /**
+     * Calculates the initial azimuth of every segment of a path.
+     *
+     * @param path      Packed coordinates array.
+     * @param offset    The index of the first position of the path in the array (in positions).
+     * @param count     The amount of positions in the path.
+     * @param out       The array into which {@code count - 1} values are written.
+     * @param outOffset The index in {@code out} of the first value.
+     * @throws IllegalArgumentException In case the path or the result exceed the bounds of their arrays.
+     */
+    public static void segmentAzimuths(@NonNull double[] path, int offset, int count, @NonNull double[] out,
+                                       int outOffset) throws IllegalArgumentException {
+        checkRange(path, offset, count);
+        Preconditions.checkArgument(outOffset >= 0 && outOffset + Math.max(count - 1, 0) <= out.length,
+                "The output array is too small");
+        if (count < 2) {
+            return;
+        }
+
+        int i = 2 * offset;
+        double lon = path[i];
+        double phi = Math.toRadians(path[i + 1]);
+        double sinPhi = Math.sin(phi);
+        double cosPhi = Math.cos(phi);
+
+        for (int j = outOffset, end = outOffset + count - 1; j < end; j++) {
+            i += 2;
+            double nextLon = path[i];
+            double nextPhi = Math.toRadians(path[i + 1]);
+            double nextSinPhi = Math.sin(nextPhi);
+            double nextCosPhi = Math.cos(nextPhi);
+
+            out[j] = azimuth(sinPhi, cosPhi, nextSinPhi, nextCosPhi, Math.toRadians(nextLon - lon));
+
+            lon = nextLon;
+            sinPhi = nextSinPhi;
+            cosPhi = nextCosPhi;
+        }
+    }
+
+    /**
+     * Calculates the haversine distance between every position in {@code from} and every position in {@code to}.
+     * <p>
+     * The distance between the i-th position of {@code from} and the j-th position of {@code to} is written to
+     * {@code out[i * toCount + j]}.
+     *
+     * @param from      Packed coordinates array of the origins.
+     * @param fromCount The amount of origins.
+     * @param to        Packed coordinates array of the destinations.
+     * @param toCount   The amount of destinations.
+     * @param out       The array into which {@code fromCount * toCount} values are written.
+     * @throws IllegalArgumentException In case the positions or the result exceed the bounds of their arrays.
+     */
+    public static void distanceMatrix(@NonNull double[] from, int fromCount, @NonNull double[] to, int toCount,
+                                      @NonNull double[] out) throws IllegalArgumentException {
+        checkRange(from, 0, fromCount);
+        checkRange(to, 0, toCount);
+        Preconditions.checkArgument((long) fromCount * toCount <= out.length, "The output array is too small");
+
+        int k = 0;
+        for (int i = 0; i < fromCount; i++) {
+            double lon = from[2 * i];
+            double phi = Math.toRadians(from[2 * i + 1]);
+            double cosPhi = Math.cos(phi);
+
+            for (int j = 0; j < toCount; j++) {
+                double otherPhi = Math.toRadians(to[2 * j + 1]);
+                out[k++] = haversine(phi, cosPhi, otherPhi, Math.cos(otherPhi), Math.toRadians(to[2 * j] - lon));
+            }
+        }
+    }
+
+    /**
+     * Calculates the signed area of a ring on a sphere with the mean radius of the earth.
+     * <p>
+     * The ring is implicitly closed, i.e. it may or may not repeat its first position as its last position. The area
+     * is positive if the ring is counterclockwise (as defined for exterior rings by GeoJSON) and negative if it is
+     * clockwise. Rings that cross the antimeridian are supported.
+     *
+     * @param ring   Packed coordinates array.
+     * @param offset The index of the first position of the ring in the array (in positions).
+     * @param count  The amount of positions in the ring.
+     * @return The signed area of the ring in squared meters.
+     * @throws IllegalArgumentException In case the ring exceeds the bounds of the array.
+     */
+    public static double ringArea(@NonNull double[] ring, int offset, int count) throws IllegalArgumentException {
+        checkRange(ring, offset, count);
+        if (count < 3) {
+            return 0;
+        }
+
+        // Chamberlain & Duquette, "Some Algorithms for Polygons on a Sphere"
+        int start = 2 * offset;
+        int end = 2 * (offset + count);
+        double total = 0;
+        double lon = ring[end - 2];
+        double sinPhi = Math.sin(Math.toRadians(ring[end - 1]));
+
+        for (int i = start; i < end; i += 2) {
+            double nextLon = ring[i];
+            double nextSinPhi = Math.sin(Math.toRadians(ring[i + 1]));
+
+            total += Math.toRadians(normalizeLongitude(nextLon - lon)) * (2 + sinPhi + nextSinPhi);
+
+            lon = nextLon;
+            sinPhi = nextSinPhi;
+        }
+
+        return -total * EARTH_MEAN_RADIUS * EARTH_MEAN_RADIUS / 2;
+    }
+
+    /**
+     * Converts a position on the WGS84 ellipsoid to earth-centered, earth-fixed cartesian coordinates, the coordinates
+     * the camera of the map is positioned in.
+     *
+     * @param lon The longitude of the position.
+     * @param lat The latitude of the position.
+     * @param alt The height of the position above the ellipsoid.
+     * @param out The array into which the {@code x}, {@code y} and {@code z} coordinates are written, in meters.
+     */
+    public static void toCartesian(double lon, double lat, double alt, @NonNull double[] out) {
+        double phi = Math.toRadians(lat);
+        double lambda = Math.toRadians(lon);
+        double sinPhi = Math.sin(phi);
+        double cosPhi = Math.cos(phi);
+        // the radius of curvature in the prime vertical
+        double n = WGS84_SEMI_MAJOR_AXIS / Math.sqrt(1 - WGS84_ECCENTRICITY_SQUARED * sinPhi * sinPhi);
+
+        out[0] = (n + alt) * cosPhi * Math.cos(lambda);
+        out[1] = (n + alt) * cosPhi * Math.sin(lambda);
+        out[2] = (n * (1 - WGS84_ECCENTRICITY_SQUARED) + alt) * sinPhi;
+    }
+
+    /**
+     * Normalizes a longitude (or a longitude difference) to the range {@code [-180, 180)}.
+     *
+     * @param lon The longitude to normalize.
+     * @return The normalized longitude.
+     */
+    public static double normalizeLongitude(double lon) {
+        if (lon >= -180 && lon < 180) {
+            return lon;
+        }
+
+        double normalized = (lon + 180) % 360;
+        return (normalized < 0 ? normalized + 360 : normalized) - 180;
+    }
+
+    /**
+     * Haversine distance from latitudes in radians and their cosines, and the longitude difference in radians.
+     */
+    private static double haversine(double phi1, double cosPhi1, double phi2, double cosPhi2, double deltaLambda) {
+        double sinHalfDeltaPhi = Math.sin((phi2 - phi1) / 2);
+        double sinHalfDeltaLambda = Math.sin(deltaLambda / 2);
+        double h = sinHalfDeltaPhi * sinHalfDeltaPhi + cosPhi1 * cosPhi2 * sinHalfDeltaLambda * sinHalfDeltaLambda;
+
+        return 2 * EARTH_MEAN_RADIUS * Math.asin(Math.sqrt(Math.min(1, h)));
+    }
+
+    /**
+     * Initial bearing from the sines and cosines of the latitudes, and the longitude difference in radians.
+     */
+    private static double azimuth(double sinPhi1, double cosPhi1, double sinPhi2, double cosPhi2,
+                                  double deltaLambda) {
+        double y = Math.sin(deltaLambda) * cosPhi2;
+        double x = cosPhi1 * sinPhi2 - sinPhi1 * cosPhi2 * Math.cos(deltaLambda);
+        double degrees = Math.toDegrees(Math.atan2(y, x));
+
+        return degrees < 0 ? degrees + 360 : degrees;
+    }
+
+    private static void checkRange(double[] path, int offset, int count) throws IllegalArgumentException {
+        Preconditions.checkArgument(offset >= 0 && count >= 0 && 2L * (offset + count) <= path.length,
+                "Positions %s to %s exceed the bounds of the array", offset, offset + count);
+    }
+}
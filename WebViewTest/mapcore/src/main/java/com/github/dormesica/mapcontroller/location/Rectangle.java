@@ -0,0 +1,206 @@
+package com.github.dormesica.mapcontroller.location;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Representation of a geographic rectangle.
+ * <p>
+ * The rectangle is represented by it's north-west and south-east corners (corresponding to top-left and bottom-right
+ * corners respectively).
+ * <p>
+ * The north and south are latitude values. The east and west are longitude values.
+ *
+ * @since 1.0.0
+ */
+public class Rectangle {
+
+    private Coordinates northWest;
+    private Coordinates southEast;
+
+    /**
+     * Creates a new <code>Rectangle</code> instance.
+     *
+     * @param northWest The north-west (top-left) corner.
+     * @param southEast The south-east (bottom-right) corner.
+     */
+    public Rectangle(Coordinates northWest, Coordinates southEast) {
+        this.northWest = northWest;
+        this.southEast = southEast;
+    }
+
+    /**
+     * Creates a new <code>Rectangle</code> instance.
+     *
+     * @param north The north latitude of the rectangle.
+     * @param west  The west longitude of the rectangle.
+     * @param south The south latitude of the rectangle.
+     * @param east  The east longitude of the rectangle.
+     */
+    public Rectangle(double north, double west, double south, double east) {
+        this.northWest = new Coordinates(west, north);
+        this.southEast = new Coordinates(east, south);
+    }
+
+    /**
+     * Calculates the bounding rectangle of the positions in a packed coordinates array (see {@link Geodesy}).
+     * <p>
+     * The rectangle is the minimum and maximum of the longitudes and latitudes of the positions, so positions on both
+     * sides of the antimeridian result in a rectangle that spans the whole globe.
+     *
+     * @param positions Packed coordinates array.
+     * @param offset    The index of the first position in the array (in positions).
+     * @param count     The amount of positions.
+     * @return The bounding rectangle, or {@code null} if {@code count} is 0.
+     */
+    @Nullable
+    public static Rectangle bounding(@NonNull double[] positions, int offset, int count) {
+        if (count == 0) {
+            return null;
+        }
+
+        double north = Double.NEGATIVE_INFINITY;
+        double south = Double.POSITIVE_INFINITY;
+        double east = Double.NEGATIVE_INFINITY;
+        double west = Double.POSITIVE_INFINITY;
+        for (int i = 2 * offset, end = 2 * (offset + count); i < end; i += 2) {
+            west = Math.min(west, positions[i]);
+            east = Math.max(east, positions[i]);
+            south = Math.min(south, positions[i + 1]);
+            north = Math.max(north, positions[i + 1]);
+        }
+
+        return new Rectangle(north, west, south, east);
+    }
+
+    /**
+     * Returns the north-west (top-left) corner of the rectangle.
+     *
+     * @return The north-west (top-left) corner of the rectangle.
+     */
+    public Coordinates getNorthWest() {
+        return northWest;
+    }
+
+    /**
+     * Returns the south-east (bottom-right) corner of the rectangle.
+     *
+     * @return The south-east (bottom-right) corner of the rectangle.
+     */
+    public Coordinates getSouthEast() {
+        return southEast;
+    }
+
+    /**
+     * Returns the north latitude value of the rectangle.
+     *
+     * @return The north value.
+     */
+    public double getNorth() {
+        return northWest.getLat();
+    }
+
+    /**
+     * Returns the south latitude value of the rectangle.
+     *
+     * @return The south value.
+     */
+    public double getSouth() {
+        return southEast.getLat();
+    }
+
+    /**
+     * Return the east longitude value of the rectangle.
+     *
+     * @return The east value.
+     */
+    public double getEast() {
+        return southEast.getLon();
+    }
+
+    /**
+     * Returns the west longitude value of the rectangle.
+     *
+     * @return The west value.
+     */
+    public double getWest() {
+        return northWest.getLon();
+    }
+
+    /**
+     * Returns the smallest rectangle that contains both this rectangle and the given rectangle.
+     *
+     * @param other The rectangle to unite with, may be {@code null}.
+     * @return The union of the rectangles, or this rectangle if {@code other} is {@code null}.
+     */
+    @NonNull
+    public Rectangle union(@Nullable Rectangle other) {
+        if (other == null) {
+            return this;
+        }
+
+        return new Rectangle(Math.max(getNorth(), other.getNorth()), Math.min(getWest(), other.getWest()),
+                Math.min(getSouth(), other.getSouth()), Math.max(getEast(), other.getEast()));
+    }
+
+    /**
+     * Returns whether the given location is inside the rectangle or on its edges.
+     *
+     * @param lon The longitude of the location.
+     * @param lat The latitude of the location.
+     * @return {@code true} if the rectangle contains the location, otherwise {@code false}.
+     */
+    public boolean contains(double lon, double lat) {
+        return lat <= getNorth() && lat >= getSouth() && lon >= getWest() && lon <= getEast();
+    }
+
+    /**
+     * Returns whether the given location is inside the rectangle or on its edges.
+     *
+     * @param location The location.
+     * @return {@code true} if the rectangle contains the location, otherwise {@code false}.
+     */
+    public boolean contains(@NonNull Coordinates location) {
+        return contains(location.getLon(), location.getLat());
+    }
+
+    /**
+     * Returns whether this rectangle and the given rectangle overlap or touch.
+     *
+     * @param other The other rectangle.
+     * @return {@code true} if the rectangles intersect, otherwise {@code false}.
+     */
+    public boolean intersects(@NonNull Rectangle other) {
+        return getWest() <= other.getEast() && other.getWest() <= getEast()
+                && getSouth() <= other.getNorth() && other.getSouth() <= getNorth();
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null) {
+            return false;
+        }
+
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+
+        Rectangle other = (Rectangle) obj;
+        return northWest.equals(other.northWest) && southEast.equals(other.southEast);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * northWest.hashCode() + southEast.hashCode();
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return String.format("Rectangle(%s, %s)", northWest, southEast);
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.dormesica.mapcontroller.prefetch;
+
+/**
+ * Interface definition for a callback to be invoked when a {@link PrefetchPlanner} starts or cancels the prefetch of a
+ * region.
+ * <p>
+ * Callbacks are invoked on the thread that reported the motion of the camera to the planner, while the planner is
+ * locked, so implementations should only start or stop loading and return.
+ *
+ * @since 1.0.0
+ */
+public interface PrefetchListener {
+
+    /**
+     * Called when the data of a region should be loaded, since the view is predicted to reach it.
+     *
+     * @param region The region to load.
+     */
+    void onPrefetch(PrefetchRegion region);
+
+    /**
+     * Called when a prefetched region is no longer predicted to be reached by the view, so its loading should be
+     * cancelled and its data released.
+     *
+     * @param region The region to cancel.
+     */
+    void onCancel(PrefetchRegion region);
+}
@@ -0,0 +1,368 @@
+package com.github.dormesica.mapcontroller.prefetch;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.github.dormesica.mapcontroller.location.Coordinates;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plans the prefetch of the data of regions that the view of a map is about to reach, so data that is loaded by the
+ * extent of the view is displayed without popping in during fast pans.
+ * <p>
+ * The planner estimates the velocity of the view, and the rate at which it zooms, from successive extents of the view
+ * (e.g. {@link #onViewChanged(Rectangle, long) camera events}) and from the locations of drag gestures
+ * ({@link #onDrag(Coordinates, Coordinates, long)}). Both estimates are smoothed exponentially. After every update,
+ * the extent of the view is extrapolated along its motion up to the horizon of the planner, and the regions that the
+ * extrapolated extents reach are prefetched in the order in which they are reached, as long as the total size of the
+ * prefetched regions is within the budget of the planner. Prefetched regions that are no longer on the extrapolated
+ * path are cancelled, and regions that enter the view are no longer considered prefetched, as the view loads them.
+ * <p>
+ * Regions are tested linearly on every update, which suits the hundreds of parts a layer bundle is split into.
+ * Longitudes are not wrapped around the antimeridian. The planner is thread-safe.
+ *
+ * @since 1.0.0
+ */
+public class PrefetchPlanner {
+
+    /**
+     * Samples that are older than this are not used to estimate the velocity of the view.
+     */
+    private static final long STALE_SAMPLE_MILLIS = 500;
+    /**
+     * The maximal factor by which an extrapolated extent is scaled, so fast zooms do not prefetch the whole globe.
+     */
+    private static final double MAX_SCALE = 4;
+
+    private final List<PrefetchRegion> mRegions;
+    private final long mBudget;
+    private final long mHorizon;
+    private final int mSteps;
+    private final double mSmoothing;
+    private volatile PrefetchListener mListener;
+
+    // the motion of the view, in degrees per millisecond and in the natural logarithm of the scale per millisecond
+    private Rectangle mExtent;
+    private long mViewTime;
+    private long mDragTime;
+    private double mVelocityLon;
+    private double mVelocityLat;
+    private double mZoomRate;
+    private final LinkedHashSet<PrefetchRegion> mPrefetched = new LinkedHashSet<>();
+
+    private PrefetchPlanner(List<PrefetchRegion> regions, Builder builder) {
+        mRegions = regions;
+        mBudget = builder.budget;
+        mHorizon = builder.horizon;
+        mSteps = builder.steps;
+        mSmoothing = builder.smoothing;
+    }
+
+    /**
+     * Sets the listener that is notified when the prefetch of a region starts or is cancelled.
+     *
+     * @param listener The listener, or {@code null} to remove the current one.
+     */
+    public void setPrefetchListener(@Nullable PrefetchListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * Reports the extent of the view while it moves, e.g. from the camera events of the map.
+     *
+     * @param extent    The extent of the view.
+     * @param timestamp The time of the extent, in milliseconds of a monotonic clock.
+     */
+    public synchronized void onViewChanged(@NonNull Rectangle extent, long timestamp) {
+        long elapsed = timestamp - mViewTime;
+        if (mExtent != null && elapsed > 0 && elapsed <= STALE_SAMPLE_MILLIS) {
+            double velocityLon = (centerLon(extent) - centerLon(mExtent)) / elapsed;
+            double velocityLat = (centerLat(extent) - centerLat(mExtent)) / elapsed;
+            double zoomRate = Math.log(width(extent) / width(mExtent)) / elapsed;
+            if (!Double.isFinite(zoomRate)) {
+                zoomRate = 0;
+            }
+            smooth(velocityLon, velocityLat, zoomRate);
+        } else if (elapsed > STALE_SAMPLE_MILLIS) {
+            // the view starts moving again after it was idle
+            mVelocityLon = 0;
+            mVelocityLat = 0;
+            mZoomRate = 0;
+        }
+
+        mExtent = extent;
+        mViewTime = timestamp;
+        plan();
+    }
+
+    /**
+     * Reports a step of a drag gesture, e.g. from the drag events of the map. The view moves by the opposite of the
+     * movement of the dragged location.
+     *
+     * @param start     The location under the finger at the start of the step.
+     * @param end       The location under the finger at the end of the step.
+     * @param timestamp The time of the end of the step, in milliseconds of a monotonic clock.
+     */
+    public synchronized void onDrag(@NonNull Coordinates start, @NonNull Coordinates end, long timestamp) {
+        long elapsed = timestamp - mDragTime;
+        mDragTime = timestamp;
+        if (elapsed <= 0 || elapsed > STALE_SAMPLE_MILLIS) {
+            return;
+        }
+
+        smooth((start.getLon() - end.getLon()) / elapsed, (start.getLat() - end.getLat()) / elapsed, mZoomRate);
+        plan();
+    }
+
+    /**
+     * Reports that the view has stopped moving, e.g. when the camera of the map stopped. Every prefetched region
+     * outside the view is cancelled.
+     *
+     * @param extent The extent of the view.
+     */
+    public synchronized void onViewStopped(@NonNull Rectangle extent) {
+        mExtent = extent;
+        mVelocityLon = 0;
+        mVelocityLat = 0;
+        mZoomRate = 0;
+        plan();
+    }
+
+    /**
+     * Extrapolates the extent of the view along its estimated motion.
+     *
+     * @param millis The time from the latest extent of the view, in milliseconds.
+     * @return The extrapolated extent, or {@code null} if no extent of the view was reported.
+     */
+    @Nullable
+    public synchronized Rectangle predict(long millis) {
+        return mExtent != null ? extrapolate(millis) : null;
+    }
+
+    /**
+     * Returns the regions that are prefetched and are not in the view yet.
+     *
+     * @return An unmodifiable copy of the prefetched regions, in the order they were prefetched.
+     */
+    @NonNull
+    public synchronized Set<PrefetchRegion> getPrefetched() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(mPrefetched));
+    }
+
+    /**
+     * Returns the total size of the regions that are prefetched and are not in the view yet, which is within the
+     * budget of the planner.
+     *
+     * @return The size in bytes.
+     */
+    public synchronized long getPrefetchedSize() {
+        long size = 0;
+        for (PrefetchRegion region : mPrefetched) {
+            size += region.getSize();
+        }
+        return size;
+    }
+
+    /**
+     * Cancels every prefetched region and forgets the motion of the view, e.g. when the map is replaced.
+     */
+    public synchronized void reset() {
+        PrefetchListener listener = mListener;
+        for (PrefetchRegion region : mPrefetched) {
+            if (listener != null) {
+                listener.onCancel(region);
+            }
+        }
+        mPrefetched.clear();
+        mExtent = null;
+        mViewTime = 0;
+        mDragTime = 0;
+        mVelocityLon = 0;
+        mVelocityLat = 0;
+        mZoomRate = 0;
+    }
+
+    private void smooth(double velocityLon, double velocityLat, double zoomRate) {
+        mVelocityLon += mSmoothing * (velocityLon - mVelocityLon);
+        mVelocityLat += mSmoothing * (velocityLat - mVelocityLat);
+        mZoomRate += mSmoothing * (zoomRate - mZoomRate);
+    }
+
+    /**
+     * Prefetches the regions on the extrapolated path of the view and cancels the prefetched regions that are not.
+     */
+    private void plan() {
+        if (mExtent == null) {
+            return;
+        }
+
+        // regions are ordered by the step at which the extrapolated view reaches them
+        LinkedHashSet<PrefetchRegion> path = new LinkedHashSet<>();
+        if (mVelocityLon != 0 || mVelocityLat != 0 || mZoomRate != 0) {
+            for (int step = 1; step <= mSteps; step++) {
+                Rectangle extent = extrapolate(mHorizon * step / mSteps);
+                for (PrefetchRegion region : mRegions) {
+                    if (region.getBounds().intersects(extent) && !region.getBounds().intersects(mExtent)) {
+                        path.add(region);
+                    }
+                }
+            }
+        }
+
+        PrefetchListener listener = mListener;
+        long size = 0;
+        for (PrefetchRegion region : new ArrayList<>(mPrefetched)) {
+            if (region.getBounds().intersects(mExtent)) {
+                mPrefetched.remove(region);
+            } else if (!path.contains(region)) {
+                mPrefetched.remove(region);
+                if (listener != null) {
+                    listener.onCancel(region);
+                }
+            } else {
+                size += region.getSize();
+            }
+        }
+
+        for (PrefetchRegion region : path) {
+            if (mPrefetched.contains(region) || size + region.getSize() > mBudget) {
+                continue;
+            }
+
+            mPrefetched.add(region);
+            size += region.getSize();
+            if (listener != null) {
+                listener.onPrefetch(region);
+            }
+        }
+    }
+
+    private Rectangle extrapolate(long millis) {
+        double scale = Math.min(Math.max(Math.exp(mZoomRate * millis), 1 / MAX_SCALE), MAX_SCALE);
+        double lon = centerLon(mExtent) + mVelocityLon * millis;
+        double lat = centerLat(mExtent) + mVelocityLat * millis;
+        double halfWidth = width(mExtent) * scale / 2;
+        double halfHeight = (mExtent.getNorth() - mExtent.getSouth()) * scale / 2;
+
+        return new Rectangle(Math.min(lat + halfHeight, 90), lon - halfWidth, Math.max(lat - halfHeight, -90),
+                lon + halfWidth);
+    }
+
+    private static double centerLon(Rectangle extent) {
+        return (extent.getWest() + extent.getEast()) / 2;
+    }
+
+    private static double centerLat(Rectangle extent) {
+        return (extent.getNorth() + extent.getSouth()) / 2;
+    }
+
+    private static double width(Rectangle extent) {
+        return extent.getEast() - extent.getWest();
+    }
+
+    /**
+     * A builder of {@link PrefetchPlanner} objects.
+     *
+     * @since 1.0.0
+     */
+    public static final class Builder {
+
+        private long budget;
+        private long horizon;
+        private int steps;
+        private double smoothing;
+
+        private Builder() {
+            budget = 16 * 1024 * 1024;
+            horizon = 1000;
+            steps = 4;
+            smoothing = 0.5;
+        }
+
+        /**
+         * Creates a new {@code PrefetchPlanner.Builder} with the default options.
+         *
+         * @return A new builder.
+         */
+        public static Builder create() {
+            return new Builder();
+        }
+
+        /**
+         * Sets the maximal total size of the regions that are prefetched at once. The default is 16MB.
+         *
+         * @param budget The budget in bytes.
+         * @return The {@code PrefetchPlanner.Builder} for method chaining.
+         * @throws IllegalArgumentException In case the budget is negative.
+         */
+        public Builder setBudget(long budget) throws IllegalArgumentException {
+            Preconditions.checkArgument(budget >= 0, "Budget must not be negative.");
+
+            this.budget = budget;
+            return this;
+        }
+
+        /**
+         * Sets how far ahead the view is extrapolated. The default is 1000 milliseconds.
+         *
+         * @param horizon The horizon in milliseconds.
+         * @return The {@code PrefetchPlanner.Builder} for method chaining.
+         * @throws IllegalArgumentException In case the horizon is not positive.
+         */
+        public Builder setHorizon(long horizon) throws IllegalArgumentException {
+            Preconditions.checkArgument(horizon > 0, "Horizon must be greater than 0.");
+
+            this.horizon = horizon;
+            return this;
+        }
+
+        /**
+         * Sets the amount of extrapolated extents, evenly spaced up to the horizon, that are tested against the
+         * regions. The default is 4.
+         *
+         * @param steps The amount of steps.
+         * @return The {@code PrefetchPlanner.Builder} for method chaining.
+         * @throws IllegalArgumentException In case the amount is not positive.
+         */
+        public Builder setSteps(int steps) throws IllegalArgumentException {
+            Preconditions.checkArgument(steps > 0, "Steps must be greater than 0.");
+
+            this.steps = steps;
+            return this;
+        }
+
+        /**
+         * Sets the weight of every new sample in the estimated motion of the view. Lower values are steadier and
+         * react slower to changes of direction. The default is 0.5.
+         *
+         * @param smoothing The weight, greater than 0 and at most 1.
+         * @return The {@code PrefetchPlanner.Builder} for method chaining.
+         * @throws IllegalArgumentException In case the weight is out of range.
+         */
+        public Builder setSmoothing(double smoothing) throws IllegalArgumentException {
+            Preconditions.checkArgument(smoothing > 0 && smoothing <= 1, "Smoothing must be within (0, 1].");
+
+            this.smoothing = smoothing;
+            return this;
+        }
+
+        /**
+         * Builds a planner of the given regions.
+         *
+         * @param regions The regions that can be prefetched.
+         * @return The planner.
+         */
+        public PrefetchPlanner build(@NonNull Iterable<PrefetchRegion> regions) {
+            List<PrefetchRegion> list = new ArrayList<>();
+            regions.forEach(list::add);
+
+            return new PrefetchPlanner(Collections.unmodifiableList(list), this);
+        }
+    }
+}
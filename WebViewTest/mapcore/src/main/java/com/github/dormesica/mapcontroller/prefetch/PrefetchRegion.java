@@ -0,0 +1,69 @@
+package com.github.dormesica.mapcontroller.prefetch;
+
+import androidx.annotation.NonNull;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.google.common.base.Preconditions;
+
+/**
+ * A unit of data that a {@link PrefetchPlanner} can prefetch, e.g. a part of a layer bundle as listed in its
+ * {@code manifest.json}, or a batch of entities that is loaded by the extent of the view.
+ *
+ * @since 1.0.0
+ */
+public final class PrefetchRegion {
+
+    private final String id;
+    private final Rectangle bounds;
+    private final long size;
+
+    /**
+     * Creates a new {@code PrefetchRegion}.
+     *
+     * @param id     The ID of the region, by which the application loads its data.
+     * @param bounds The bounds of the data of the region.
+     * @param size   The estimated amount of memory the data takes once loaded, in bytes.
+     * @throws IllegalArgumentException In case the size is negative.
+     */
+    public PrefetchRegion(@NonNull String id, @NonNull Rectangle bounds, long size) throws IllegalArgumentException {
+        Preconditions.checkArgument(size >= 0, "Size must not be negative.");
+
+        this.id = id;
+        this.bounds = bounds;
+        this.size = size;
+    }
+
+    /**
+     * Returns the ID of the region.
+     *
+     * @return The ID.
+     */
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the bounds of the data of the region.
+     *
+     * @return The bounds.
+     */
+    @NonNull
+    public Rectangle getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Returns the estimated amount of memory the data of the region takes once loaded.
+     *
+     * @return The size in bytes.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return String.format("PrefetchRegion(%s, %s, %d bytes)", id, bounds, size);
+    }
+}
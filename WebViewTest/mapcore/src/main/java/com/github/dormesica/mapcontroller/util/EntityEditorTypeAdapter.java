@@ -1,6 +1,5 @@
 package com.github.dormesica.mapcontroller.util;
 
-import android.util.Log;
 import com.github.dormesica.mapcontroller.layers.Entity;
 import com.google.gson.*;
 
@@ -8,6 +7,7 @@ import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
+import java.util.logging.Logger;
 
 /**
  * Type Adapter for converting instances of {@link Entity.Editor} from and to JSON strings.
@@ -29,7 +29,7 @@ import java.lang.reflect.Type;
  */
 public class EntityEditorTypeAdapter implements JsonSerializer<Entity.Editor> {
 
-    private static final String TAG = "EntityEditorTypeAdapter"; // TODO better tag
+    private static final Logger sLogger = Logger.getLogger(EntityEditorTypeAdapter.class.getName());
 
     @Override
     public JsonElement serialize(Entity.Editor src, Type typeOfSrc, JsonSerializationContext context) {
@@ -64,7 +64,7 @@ public class EntityEditorTypeAdapter implements JsonSerializer<Entity.Editor> {
                     }
                     json.add(name, context.serialize(value));
                 } catch (IllegalAccessException e) {
-                    Log.w(TAG, String.format("Cannot access field %s. Skipping...", name));
+                    sLogger.warning(String.format("Cannot access field %s. Skipping...", name));
                 }
             }
 
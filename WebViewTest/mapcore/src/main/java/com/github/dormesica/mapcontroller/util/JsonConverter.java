@@ -15,6 +15,8 @@ import com.google.gson.*;
  * </ul>
  * <p>
  * This class also supports converting a JSON to a {@link Properties} instance and vice-versa.
+ * <p>
+ * Classes that implement {@link PostDeserializable} are notified after they are deserialized.
  *
  * @since 1.0.0
  */
@@ -30,6 +32,8 @@ public class JsonConverter {
 
         sConverter = new GsonBuilder()
                 .registerTypeAdapterFactory(entityAdapterFactory)
+                // must follow the entity factory, so it also wraps the adapters the entity factory delegates to
+                .registerTypeAdapterFactory(new PostDeserializationTypeAdapterFactory())
                 .registerTypeAdapter(Properties.class, new PropertiesTypeAdapter())
                 .registerTypeHierarchyAdapter(Entity.Editor.class, new EntityEditorTypeAdapter())
                 .create();
@@ -0,0 +1,153 @@
+package com.github.dormesica.mapcontroller.util;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies that can be recorded from any amount of threads without locking.
+ * <p>
+ * Like an HDR histogram, the buckets are log-linear: every power of two is split into {@value #SUB_BUCKET_COUNT}
+ * buckets of equal width, so every recorded value is known to within about 3% at any magnitude, and values below
+ * {@code 2 * SUB_BUCKET_COUNT} nanoseconds exactly. Values above about 68 seconds are recorded as 68 seconds. The
+ * histogram has a fixed size of 8KB, and recording a value does not allocate.
+ * <p>
+ * Reads are not synchronized with writes, so values that are recorded while the histogram is read may be missing from
+ * some of the results of the read.
+ *
+ * @since 1.0.0
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /**
+     * The largest recorded value, 2^36 - 1 nanoseconds.
+     */
+    private static final long MAX_VALUE = (1L << 36) - 1;
+    private static final int BUCKET_COUNT = bucketOf(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos The latency in nanoseconds. Negative values are recorded as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+
+        long currentMax;
+        do {
+            currentMax = max.get();
+        } while (value > currentMax && !max.compareAndSet(currentMax, value));
+    }
+
+    /**
+     * Returns the amount of recorded latencies.
+     *
+     * @return The amount of latencies.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the largest recorded latency.
+     *
+     * @return The largest latency in nanoseconds, or 0 if none was recorded.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of the recorded latencies.
+     *
+     * @return The mean latency in nanoseconds, or 0 if none was recorded.
+     */
+    public double getMean() {
+        long count = this.count.get();
+        return count > 0 ? (double) sum.get() / count : 0;
+    }
+
+    /**
+     * Returns the latency below or at which the given percentage of the recorded latencies are. The latency is the
+     * highest value of its bucket, so it is never lower than the actual latency.
+     *
+     * @param percentile The percentage, between 0 and 100.
+     * @return The latency in nanoseconds, or 0 if none was recorded.
+     * @throws IllegalArgumentException when the percentage is out of range.
+     */
+    public long getValueAtPercentile(double percentile) throws IllegalArgumentException {
+        Preconditions.checkArgument(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max.get());
+            }
+        }
+
+        return max.get();
+    }
+
+    /**
+     * Removes all the recorded latencies.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LatencyHistogram{count=%d, p50=%dus, p95=%dus, p99=%dus, max=%dus}", getCount(),
+                getValueAtPercentile(50) / 1000, getValueAtPercentile(95) / 1000, getValueAtPercentile(99) / 1000,
+                getMax() / 1000);
+    }
+
+    private static int bucketOf(long value) {
+        if (value < 2 * SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        // the top SUB_BUCKET_BITS + 1 bits of the value select the bucket within its power of two
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKET_COUNT + (int) (value >>> shift);
+    }
+
+    private static long highestValueOf(int bucket) {
+        if (bucket < 2 * SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+
+        int shift = bucket / SUB_BUCKET_COUNT - 1;
+        long mantissa = bucket % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.dormesica.mapcontroller.util;
+
+/**
+ * Interface for classes that should be notified after they are created by {@link JsonConverter}.
+ * <p>
+ * Gson creates objects without calling their constructors, so classes that derive state from their deserialized
+ * fields (e.g. cached values) can implement this interface to initialize it.
+ *
+ * @since 1.0.0
+ */
+public interface PostDeserializable {
+
+    /**
+     * Called after all the fields of the object were deserialized.
+     */
+    void onDeserialized();
+}
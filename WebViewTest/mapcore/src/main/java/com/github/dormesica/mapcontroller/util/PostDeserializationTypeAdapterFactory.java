@@ -0,0 +1,43 @@
+package com.github.dormesica.mapcontroller.util;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Type adapter factory that calls {@link PostDeserializable#onDeserialized()} on objects after they are deserialized.
+ *
+ * @since 1.0.0
+ */
+public class PostDeserializationTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (!PostDeserializable.class.isAssignableFrom(type.getRawType())) {
+            return null;
+        }
+
+        TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+        return new TypeAdapter<T>() {
+            @Override
+            public void write(JsonWriter out, T value) throws IOException {
+                delegate.write(out, value);
+            }
+
+            @Override
+            public T read(JsonReader in) throws IOException {
+                T value = delegate.read(in);
+                if (value != null) {
+                    ((PostDeserializable) value).onDeserialized();
+                }
+
+                return value;
+            }
+        };
+    }
+}
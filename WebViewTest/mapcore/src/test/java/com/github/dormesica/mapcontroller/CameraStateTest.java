@@ -0,0 +1,116 @@
+package com.github.dormesica.mapcontroller;
+
+import com.github.dormesica.mapcontroller.location.CameraState;
+import com.github.dormesica.mapcontroller.location.Coordinates;
+import com.github.dormesica.mapcontroller.location.Geodesy;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.StringJoiner;
+
+public class CameraStateTest {
+
+    private static final double WIDTH = 400;
+    private static final double HEIGHT = 800;
+    private static final double PIXEL_RATIO = 2.5;
+
+    @Test
+    public void projectsTheTargetToTheCenter() {
+        CameraState state = lookDown(35, 32, 10_000);
+
+        double[] pixel = new double[2];
+        Assert.assertTrue(state.project(35, 32, 0, pixel));
+        Assert.assertEquals(WIDTH * PIXEL_RATIO / 2, pixel[0], 1e-6);
+        Assert.assertEquals(HEIGHT * PIXEL_RATIO / 2, pixel[1], 1e-6);
+
+        // the right of a camera that looks down with the north up is the east
+        Assert.assertTrue(state.project(35.01, 32, 0, pixel));
+        Assert.assertTrue(pixel[0] > WIDTH * PIXEL_RATIO / 2);
+        Assert.assertTrue(state.project(35, 32.01, 0, pixel));
+        Assert.assertTrue(pixel[1] < HEIGHT * PIXEL_RATIO / 2);
+
+        Coordinates center = state.unproject(WIDTH * PIXEL_RATIO / 2, HEIGHT * PIXEL_RATIO / 2);
+        Assert.assertNotNull(center);
+        Assert.assertEquals(35, center.getLon(), 1e-9);
+        Assert.assertEquals(32, center.getLat(), 1e-9);
+    }
+
+    @Test
+    public void roundTrip() {
+        CameraState state = lookDown(-120, -45, 50_000);
+        Random random = new Random(7);
+
+        double[] pixel = new double[2];
+        for (int i = 0; i < 1000; i++) {
+            double x = random.nextDouble() * WIDTH * PIXEL_RATIO;
+            double y = random.nextDouble() * HEIGHT * PIXEL_RATIO;
+            Coordinates location = state.unproject(x, y);
+            Assert.assertNotNull(location);
+
+            Assert.assertTrue(state.project(location.getLon(), location.getLat(), 0, pixel));
+            Assert.assertEquals(x, pixel[0], 1e-3);
+            Assert.assertEquals(y, pixel[1], 1e-3);
+        }
+    }
+
+    @Test
+    public void hiddenPositions() {
+        CameraState state = lookDown(35, 32, 10_000);
+        double[] pixel = {-1, -1};
+
+        // above the camera, and on the other side of the globe
+        Assert.assertFalse(state.project(35, 32, 20_000, pixel));
+        Assert.assertFalse(state.project(-145, -32, 0, pixel));
+        Assert.assertArrayEquals(new double[]{-1, -1}, pixel, 0);
+
+        // the whole globe is in the view of a distant camera, so its corners display space
+        CameraState distant = lookDown(0, 0, 50_000_000);
+        Assert.assertNull(distant.unproject(0, 0));
+        Assert.assertNotNull(distant.unproject(WIDTH * PIXEL_RATIO / 2, HEIGHT * PIXEL_RATIO / 2));
+    }
+
+    @Test
+    public void state() {
+        CameraState state = lookDown(35, 32, 10_000);
+
+        Assert.assertEquals(WIDTH * PIXEL_RATIO, state.getViewportWidth(), 0);
+        Assert.assertEquals(HEIGHT * PIXEL_RATIO, state.getViewportHeight(), 0);
+        Assert.assertEquals(60, state.getFieldOfView(), 1e-9);
+        Assert.assertEquals(32.1, state.getExtent().getNorth(), 0);
+        Assert.assertEquals(34.9, state.getExtent().getWest(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void malformed() {
+        CameraState.fromPacked("1,2,3");
+    }
+
+    /**
+     * Creates the state of a camera that looks straight down at the given position from the given height, with the
+     * north up.
+     */
+    private static CameraState lookDown(double lon, double lat, double height) {
+        double phi = Math.toRadians(lat);
+        double lambda = Math.toRadians(lon);
+        double[] position = new double[3];
+        Geodesy.toCartesian(lon, lat, height, position);
+        double[] direction = {-Math.cos(phi) * Math.cos(lambda), -Math.cos(phi) * Math.sin(lambda), -Math.sin(phi)};
+        double[] up = {-Math.sin(phi) * Math.cos(lambda), -Math.sin(phi) * Math.sin(lambda), Math.cos(phi)};
+        double[] right = {-Math.sin(lambda), Math.cos(lambda), 0};
+
+        StringJoiner packed = new StringJoiner(",");
+        for (double[] vector : new double[][]{position, direction, up, right}) {
+            for (double value : vector) {
+                packed.add(Double.toString(value));
+            }
+        }
+        double fovY = Math.toRadians(60);
+        double[] rest = {fovY, WIDTH / HEIGHT, WIDTH, HEIGHT, PIXEL_RATIO, lon - 0.1, lat - 0.1, lon + 0.1, lat + 0.1};
+        for (double value : rest) {
+            packed.add(Double.toString(value));
+        }
+
+        return CameraState.fromPacked(packed.toString());
+    }
+}
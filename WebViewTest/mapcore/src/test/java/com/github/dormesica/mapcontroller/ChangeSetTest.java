@@ -0,0 +1,92 @@
+package com.github.dormesica.mapcontroller;
+
+import com.github.dormesica.mapcontroller.layers.ChangeSet;
+import com.github.dormesica.mapcontroller.layers.Entity;
+import com.github.dormesica.mapcontroller.layers.VectorLayer;
+import com.github.dormesica.mapcontroller.util.JsonConverter;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class ChangeSetTest {
+
+    private static final String LAYER_STRING = "{\"entities\":[{\"type\":\"point\",\"id\":\"a\",\"isVisible\":true,\"location\":{\"lon\":34.8,\"lat\":31.9,\"alt\":0}},{\"type\":\"point\",\"id\":\"b\",\"isVisible\":true,\"location\":{\"lon\":35.2,\"lat\":32.1,\"alt\":0}}],\"id\":\"layer\"}";
+
+    private static Gson sGson = JsonConverter.getConverter();
+
+    @Test
+    public void untrackedChanges() {
+        VectorLayer layer = sGson.fromJson(LAYER_STRING, VectorLayer.class);
+        ChangeSet changeSet = new ChangeSet();
+
+        layer.setName("layer");
+        layer.get(0).setName("a");
+        Assert.assertTrue(changeSet.isEmpty());
+        Assert.assertNull(changeSet.drain());
+    }
+
+    @Test
+    public void dirtyFields() {
+        VectorLayer layer = sGson.fromJson(LAYER_STRING, VectorLayer.class);
+        ChangeSet changeSet = new ChangeSet();
+        int[] notifications = new int[1];
+        changeSet.setOnChangeListener(set -> notifications[0]++);
+        changeSet.track(layer);
+
+        layer.setName("name");
+        layer.setName("other name");
+        layer.get(1).setDescription("description");
+        layer.get(1).setName(null);
+        Assert.assertEquals(1, notifications[0]);
+
+        JsonObject changes = sGson.fromJson(changeSet.drain(), JsonObject.class);
+        JsonArray layers = changes.getAsJsonArray("layers");
+        Assert.assertEquals(1, layers.size());
+        Assert.assertEquals("layer", layers.get(0).getAsJsonObject().get("id").getAsString());
+        Assert.assertEquals("other name", layers.get(0).getAsJsonObject().get("name").getAsString());
+        Assert.assertFalse(layers.get(0).getAsJsonObject().has("description"));
+
+        JsonArray entities = changes.getAsJsonArray("entities");
+        Assert.assertEquals(1, entities.size());
+        JsonObject entity = entities.get(0).getAsJsonObject();
+        Assert.assertEquals("b", entity.get("id").getAsString());
+        Assert.assertEquals("description", entity.get("description").getAsString());
+        Assert.assertTrue(entity.get("name").isJsonNull());
+
+        Assert.assertTrue(changeSet.isEmpty());
+        Assert.assertNull(changeSet.drain());
+
+        // the change set is notified again once it has been drained
+        layer.get(0).setName("a");
+        Assert.assertEquals(2, notifications[0]);
+    }
+
+    @Test
+    public void updatedLayer() {
+        VectorLayer layer = sGson.fromJson(LAYER_STRING, VectorLayer.class);
+        Entity added = sGson.fromJson(
+                "{\"type\":\"point\",\"id\":\"c\",\"isVisible\":true,\"location\":{\"lon\":34,\"lat\":31,\"alt\":0}}",
+                Entity.class);
+        ChangeSet changeSet = new ChangeSet();
+        changeSet.track(layer);
+
+        Entity removed = layer.get(0);
+        removed.setName("removed");
+        layer.removeEntities(Collections.singletonList("a"));
+        layer.upsertEntities(Arrays.asList(added));
+        added.setName("c");
+
+        JsonArray entities = sGson.fromJson(changeSet.drain(), JsonObject.class).getAsJsonArray("entities");
+        Assert.assertEquals(1, entities.size());
+        Assert.assertEquals("c", entities.get(0).getAsJsonObject().get("id").getAsString());
+
+        changeSet.untrack(layer);
+        added.setName("untracked");
+        Assert.assertTrue(changeSet.isEmpty());
+    }
+}
@@ -0,0 +1,137 @@
+package com.github.dormesica.mapcontroller;
+
+import com.github.dormesica.mapcontroller.cluster.Cluster;
+import com.github.dormesica.mapcontroller.cluster.ClusterIndex;
+import com.github.dormesica.mapcontroller.layers.Entity;
+import com.github.dormesica.mapcontroller.layers.Point;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.github.dormesica.mapcontroller.util.JsonConverter;
+import com.google.gson.Gson;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class ClusterIndexTest {
+
+    private static final Gson sGson = JsonConverter.getConverter();
+    private static final Rectangle WORLD = new Rectangle(90, -180, -90, 180);
+
+    @Test
+    public void everyPointAtEveryZoom() {
+        List<Entity> points = randomPoints(2000, 1);
+        ClusterIndex index = ClusterIndex.Builder.create().build(points);
+
+        Assert.assertEquals(2000, index.getPointCount());
+        for (int zoom = index.getMinZoom(); zoom <= index.getMaxZoom() + 1; zoom++) {
+            int total = 0;
+            for (Cluster cluster : index.getClusters(WORLD, zoom)) {
+                total += cluster.getCount();
+            }
+            Assert.assertEquals(2000, total);
+        }
+
+        // points are clustered at low zoom levels but never above the maximal zoom
+        Assert.assertTrue(index.getClusters(WORLD, 0).size() < 100);
+        for (Cluster cluster : index.getClusters(WORLD, index.getMaxZoom() + 1)) {
+            Assert.assertTrue(cluster.isLeaf());
+        }
+    }
+
+    @Test
+    public void expandCluster() {
+        List<Entity> points = randomPoints(500, 2);
+        ClusterIndex index = ClusterIndex.Builder.create().build(points);
+
+        for (Cluster cluster : index.getClusters(WORLD, 3)) {
+            if (cluster.isLeaf()) {
+                Assert.assertSame(cluster.getPoint(), index.getPoint(cluster.getId()));
+                continue;
+            }
+
+            int childCount = 0;
+            for (Cluster child : index.getChildren(cluster.getId())) {
+                childCount += child.getCount();
+            }
+            Assert.assertEquals(cluster.getCount(), childCount);
+
+            Set<Point> leaves = new HashSet<>(index.getLeaves(cluster.getId(), Integer.MAX_VALUE, 0));
+            Assert.assertEquals(cluster.getCount(), leaves.size());
+
+            // paging through the leaves returns all of them
+            Set<Point> paged = new HashSet<>();
+            for (int offset = 0; offset < cluster.getCount(); offset += 7) {
+                paged.addAll(index.getLeaves(cluster.getId(), 7, offset));
+            }
+            Assert.assertEquals(leaves, paged);
+
+            int expansionZoom = index.getExpansionZoom(cluster.getId());
+            Assert.assertTrue(expansionZoom > 3);
+        }
+    }
+
+    @Test
+    public void packedClusters() {
+        ClusterIndex index = ClusterIndex.Builder.create().build(randomPoints(300, 3));
+        List<Cluster> clusters = index.getClusters(WORLD, 2);
+        double[] packed = new double[ClusterIndex.PACKED_STRIDE * clusters.size()];
+
+        Assert.assertEquals(clusters.size(), index.getClusters(WORLD, 2, packed));
+        int total = 0;
+        for (int i = 0; i < clusters.size(); i++) {
+            total += (int) packed[ClusterIndex.PACKED_STRIDE * i + 3];
+        }
+        Assert.assertEquals(300, total);
+
+        // a too small array is filled, and the actual amount is still returned
+        Assert.assertEquals(clusters.size(), index.getClusters(WORLD, 2, new double[ClusterIndex.PACKED_STRIDE]));
+    }
+
+    @Test
+    public void antimeridian() {
+        List<Entity> points = new ArrayList<>();
+        points.add(point("east", 179.5, 0));
+        points.add(point("west", -179.5, 0));
+        points.add(point("far", 0, 0));
+        ClusterIndex index = ClusterIndex.Builder.create().build(points);
+
+        // the extent crosses the antimeridian, so its west is greater than its east
+        List<Cluster> clusters = index.getClusters(new Rectangle(1, 179, -1, -179), 20);
+        Assert.assertEquals(2, clusters.size());
+        for (Cluster cluster : clusters) {
+            Assert.assertNotEquals("far", cluster.getPoint().getId());
+        }
+    }
+
+    @Test
+    public void zoomOfCamera() {
+        ClusterIndex index = ClusterIndex.Builder.create().build(new ArrayList<Entity>());
+
+        double zoom = index.getZoom(1000, 0, Math.PI / 3, 1000);
+        // halving the height is zooming in by one level
+        Assert.assertEquals(zoom + 1, index.getZoom(500, 0, Math.PI / 3, 1000), 1e-9);
+        // the scale of Web Mercator grows away from the equator
+        Assert.assertTrue(index.getZoom(1000, 60, Math.PI / 3, 1000) < zoom);
+        Assert.assertTrue(index.getClusters(WORLD, zoom).isEmpty());
+    }
+
+    private static List<Entity> randomPoints(int count, long seed) {
+        Random random = new Random(seed);
+        List<Entity> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(point("point" + i, 34 + 2 * random.nextDouble(), 31 + 2 * random.nextDouble()));
+        }
+
+        return points;
+    }
+
+    private static Entity point(String id, double lon, double lat) {
+        return sGson.fromJson(String.format(
+                "{\"type\":\"point\",\"id\":\"%s\",\"isVisible\":true,\"location\":{\"lon\":%s,\"lat\":%s,\"alt\":0}}",
+                id, lon, lat), Entity.class);
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.dormesica.mapcontroller;
+
+import com.github.dormesica.mapcontroller.layers.Entity;
+import com.github.dormesica.mapcontroller.layers.EntityCache;
+import com.github.dormesica.mapcontroller.layers.Point;
+import com.github.dormesica.mapcontroller.layers.Polygon;
+import com.github.dormesica.mapcontroller.layers.VectorLayer;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.github.dormesica.mapcontroller.util.JsonConverter;
+import com.google.gson.Gson;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class EntityCacheTest {
+
+    private static final String LAYER_STRING = "{\"entities\":[" +
+            point("a", 34.8, 31.9) + "," + point("b", 35.2, 32.1) + "," + point("c", 35.0, 32.5) +
+            "],\"id\":\"layer\"}";
+
+    private static Gson sGson = JsonConverter.getConverter();
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        VectorLayer layer = sGson.fromJson(LAYER_STRING, VectorLayer.class);
+        long size = EntityCache.estimateSize(layer.get(0));
+        EntityCache cache = new EntityCache(2 * size);
+
+        cache.touch(layer.get(0));
+        cache.touch(layer.get(1));
+        cache.touch(layer.get(0));
+        cache.touch(layer.get(2));
+
+        Assert.assertFalse(layer.get(0).isStub());
+        Assert.assertTrue(layer.get(1).isStub());
+        Assert.assertTrue(layer.get(1).isEvicted());
+        Assert.assertFalse(layer.get(2).isStub());
+        Assert.assertEquals(2, cache.getCount());
+        Assert.assertEquals(2 * size, cache.getSize());
+        Assert.assertEquals(1, cache.getEvictionCount());
+
+        // evicted entities are not cached until they are hydrated
+        cache.touch(layer.get(1));
+        Assert.assertEquals(2, cache.getCount());
+
+        cache.setBudget(size);
+        Assert.assertTrue(layer.get(0).isEvicted());
+        Assert.assertFalse(layer.get(2).isEvicted());
+        Assert.assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    public void evictedEntities() {
+        VectorLayer layer = sGson.fromJson(LAYER_STRING, VectorLayer.class);
+        Rectangle extent = layer.getExtent();
+        layer.createIndexes(false, Collections.singletonList("kind"));
+        Point point = (Point) layer.get(1);
+        point.setName("b");
+        EntityCache cache = new EntityCache(1);
+
+        cache.touch(point);
+        Assert.assertTrue(point.isStub());
+        Assert.assertNull(point.getProperties());
+        Assert.assertEquals("b", point.getName());
+        Assert.assertEquals(0, cache.getCount());
+        Assert.assertEquals(0, cache.getSize());
+
+        // evicted entities keep their bounds and their entries in the indexes of the layer
+        Assert.assertEquals(extent, layer.getExtent());
+        Assert.assertEquals(3, layer.getIndex("kind").get("point").size());
+
+        point.hydrate(sGson.fromJson(point("b", 35.2, 32.1), Entity.class));
+        Assert.assertFalse(point.isStub());
+        Assert.assertFalse(point.isEvicted());
+        Assert.assertEquals(35.2, point.getLocation().getLon(), 0);
+        Assert.assertEquals(3, layer.getIndex("kind").get("point").size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void evictedGeometry() {
+        Polygon polygon = sGson.fromJson("{\"type\":\"polygon\",\"id\":\"p\",\"isVisible\":true,\"perimeter\":[" +
+                "{\"lon\":0,\"lat\":0,\"alt\":0},{\"lon\":1,\"lat\":0,\"alt\":0},{\"lon\":1,\"lat\":1,\"alt\":0}]}",
+                Polygon.class);
+        new EntityCache(1).touch(polygon);
+
+        Assert.assertTrue(polygon.isEvicted());
+        polygon.getPerimeterPoints();
+    }
+
+    @Test
+    public void removedEntities() {
+        VectorLayer layer = sGson.fromJson(LAYER_STRING, VectorLayer.class);
+        long size = EntityCache.estimateSize(layer.get(0));
+        EntityCache cache = new EntityCache(2 * size);
+        cache.touch(layer.get(0));
+        cache.touch(layer.get(1));
+
+        cache.remove(layer.get(0));
+        cache.touch(layer.get(2));
+        Assert.assertEquals(2 * size, cache.getSize());
+        Assert.assertEquals(0, cache.getEvictionCount());
+        Assert.assertTrue(Arrays.stream(new int[]{0, 1, 2}).noneMatch(i -> layer.get(i).isStub()));
+
+        cache.clear();
+        Assert.assertEquals(0, cache.getCount());
+        Assert.assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void estimatedSizes() {
+        Entity bare = sGson.fromJson("{\"type\":\"point\",\"id\":\"a\",\"isVisible\":true," +
+                "\"location\":{\"lon\":0,\"lat\":0,\"alt\":0}}", Entity.class);
+        Entity rich = sGson.fromJson("{\"type\":\"point\",\"id\":\"a\",\"isVisible\":true," +
+                "\"location\":{\"lon\":0,\"lat\":0,\"alt\":0},\"properties\":{\"name\":\"a long name\"," +
+                "\"tags\":[1,2,3],\"nested\":{\"value\":1}}}", Entity.class);
+
+        Assert.assertTrue(EntityCache.estimateSize(bare) > 0);
+        Assert.assertTrue(EntityCache.estimateSize(rich) > EntityCache.estimateSize(bare));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidBudget() {
+        new EntityCache(0);
+    }
+
+    private static String point(String id, double lon, double lat) {
+        return "{\"type\":\"point\",\"id\":\"" + id + "\",\"isVisible\":true,\"location\":{\"lon\":" + lon +
+                ",\"lat\":" + lat + ",\"alt\":0},\"properties\":{\"kind\":\"point\"}}";
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.dormesica.mapcontroller;
+
+import com.github.dormesica.mapcontroller.layers.Entity;
+import com.github.dormesica.mapcontroller.layers.EntityIndex;
+import com.github.dormesica.mapcontroller.layers.VectorLayer;
+import com.github.dormesica.mapcontroller.util.JsonConverter;
+import com.google.gson.Gson;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class EntityIndexTest {
+
+    private static final String LAYER_STRING = "{\"entities\":[" +
+            point("a", "alpha", "{\"rank\":3,\"kind\":\"road\",\"open\":true}") + "," +
+            point("b", "beta", "{\"rank\":1.5,\"kind\":\"rail\",\"open\":false}") + "," +
+            point("c", "alpha", "{\"rank\":7,\"kind\":\"road\",\"tags\":[1,2]}") + "," +
+            point("d", null, "{\"rank\":null,\"kind\":\"path\"}") + "," +
+            "{\"type\":\"point\",\"id\":\"e\",\"name\":\"stub\",\"isVisible\":true,\"isStub\":true}" +
+            "],\"id\":\"layer\"}";
+
+    private static Gson sGson = JsonConverter.getConverter();
+
+    @Test
+    public void lookups() {
+        VectorLayer layer = load();
+        EntityIndex names = layer.getNameIndex();
+        EntityIndex ranks = layer.getIndex("rank");
+        EntityIndex kinds = layer.getIndex("kind");
+
+        Assert.assertEquals(Arrays.asList("a", "c"), ids(names.get("alpha")));
+        Assert.assertEquals(Collections.singletonList("e"), ids(names.get("stub")));
+        Assert.assertTrue(names.get("gamma").isEmpty());
+        Assert.assertEquals(4, names.size());
+
+        // numbers of any type are compared by their values, null values and stubs are not indexed
+        Assert.assertEquals(Collections.singletonList("a"), ids(ranks.get(3)));
+        Assert.assertEquals(Collections.singletonList("b"), ids(ranks.get(1.5f)));
+        Assert.assertEquals(3, ranks.size());
+        Assert.assertEquals(Arrays.asList("b", "a"), ids(ranks.getRange(1, 5)));
+        Assert.assertEquals(Arrays.asList("a", "c"), ids(ranks.getRange(3, 7)));
+        Assert.assertTrue(ranks.getRange(5, 1).isEmpty());
+
+        Assert.assertEquals(Arrays.asList("d", "b", "a", "c"), ids(kinds.getRange("a", "z")));
+        Assert.assertEquals(Arrays.asList("b", "a", "c"), ids(kinds.getRange("rail", "road")));
+        Assert.assertTrue(kinds.getRange(0, 10).isEmpty());
+
+        Assert.assertNull(layer.getIndex("open"));
+        Assert.assertEquals(Arrays.asList("rank", "kind"), layer.getIndexedProperties().stream()
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void booleans() {
+        VectorLayer layer = load();
+        layer.createIndexes(false, Collections.singletonList("open"));
+
+        Assert.assertEquals(Collections.singletonList("a"), ids(layer.getIndex("open").get(true)));
+        Assert.assertEquals(Collections.singletonList("b"), ids(layer.getIndex("open").get(false)));
+        Assert.assertTrue(layer.getIndex("open").getRange(0, 1).isEmpty());
+    }
+
+    @Test
+    public void renames() {
+        VectorLayer layer = load();
+        EntityIndex names = layer.getNameIndex();
+
+        layer.get(0).setName("gamma");
+        Assert.assertEquals(Collections.singletonList("c"), ids(names.get("alpha")));
+        Assert.assertEquals(Collections.singletonList("a"), ids(names.get("gamma")));
+
+        layer.get(3).setName("alpha");
+        Assert.assertEquals(Arrays.asList("c", "d"), ids(names.get("alpha")));
+        Assert.assertEquals(5, names.size());
+
+        layer.get(2).setName(null);
+        Assert.assertEquals(Collections.singletonList("d"), ids(names.get("alpha")));
+        Assert.assertEquals(4, names.size());
+    }
+
+    @Test
+    public void updates() {
+        VectorLayer layer = load();
+        EntityIndex ranks = layer.getIndex("rank");
+        Entity removed = layer.get(0);
+
+        layer.removeEntities(Collections.singletonList("a"));
+        layer.upsertEntities(Arrays.asList(
+                sGson.fromJson(point("b", "beta", "{\"rank\":4}"), Entity.class),
+                sGson.fromJson(point("f", "phi", "{\"rank\":2}"), Entity.class)));
+
+        Assert.assertEquals(Arrays.asList("f", "b", "c"), ids(ranks.getRange(0, 10)));
+        Assert.assertTrue(layer.getIndex("kind").get("rail").isEmpty());
+        Assert.assertEquals(Collections.singletonList("phi"), names(layer.getNameIndex().get("phi")));
+
+        // entities that left the layer are no longer indexed by it
+        removed.setName("beta");
+        Assert.assertEquals(Collections.singletonList("b"), ids(layer.getNameIndex().get("beta")));
+    }
+
+    @Test
+    public void hydratedStubs() {
+        VectorLayer layer = load();
+        Entity stub = layer.get(4);
+
+        stub.hydrate(sGson.fromJson(point("e", "stub", "{\"rank\":5,\"kind\":\"road\"}"), Entity.class));
+        Assert.assertEquals(Arrays.asList("a", "e", "c"), ids(layer.getIndex("rank").getRange(3, 7)));
+        Assert.assertEquals(Arrays.asList("a", "c", "e"), ids(layer.getIndex("kind").get("road")));
+    }
+
+    private static VectorLayer load() {
+        VectorLayer layer = sGson.fromJson(LAYER_STRING, VectorLayer.class);
+        layer.createIndexes(true, Arrays.asList("rank", "kind"));
+        return layer;
+    }
+
+    private static String point(String id, String name, String properties) {
+        return "{\"type\":\"point\",\"id\":\"" + id + "\"," + (name != null ? "\"name\":\"" + name + "\"," : "") +
+                "\"isVisible\":true,\"location\":{\"lon\":34.8,\"lat\":31.9,\"alt\":0},\"properties\":" +
+                properties + "}";
+    }
+
+    private static List<String> ids(List<Entity> entities) {
+        return entities.stream().map(Entity::getId).collect(Collectors.toList());
+    }
+
+    private static List<String> names(List<Entity> entities) {
+        return entities.stream().map(Entity::getName).collect(Collectors.toList());
+    }
+}
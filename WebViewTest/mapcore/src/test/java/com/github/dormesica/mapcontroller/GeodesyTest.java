@@ -0,0 +1,81 @@
+package com.github.dormesica.mapcontroller;
+
+import com.github.dormesica.mapcontroller.location.Coordinates;
+import com.github.dormesica.mapcontroller.location.Geodesy;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class GeodesyTest {
+
+    // Flinders Peak and Buninyong, the reference points of Vincenty's paper
+    private static final Coordinates FLINDERS_PEAK = new Coordinates(144.42486788888889, -37.95103341666667);
+    private static final Coordinates BUNINYONG = new Coordinates(143.92649552777777, -37.65282113888889);
+
+    private static final Coordinates LONDON = new Coordinates(-0.1278, 51.5074);
+    private static final Coordinates PARIS = new Coordinates(2.3522, 48.8566);
+
+    @Test
+    public void distance() {
+        Assert.assertEquals(343_556, LONDON.distance(PARIS), 100);
+        Assert.assertEquals(0, LONDON.distance(LONDON), 0);
+        Assert.assertEquals(Math.PI * Geodesy.EARTH_MEAN_RADIUS,
+                new Coordinates(0, 0).distance(new Coordinates(180, 0)), 1e-6);
+    }
+
+    @Test
+    public void geodesicDistance() {
+        Assert.assertEquals(54_972.271, FLINDERS_PEAK.geodesicDistance(BUNINYONG), 0.001);
+        Assert.assertEquals(FLINDERS_PEAK.distance(BUNINYONG), FLINDERS_PEAK.geodesicDistance(BUNINYONG), 300);
+        Assert.assertEquals(0, LONDON.geodesicDistance(LONDON), 0);
+
+        // nearly antipodal positions fall back to the spherical distance
+        double antipodal = Geodesy.vincenty(0, 0, 179.5, 0.5);
+        Assert.assertTrue(antipodal > 19_900_000 && antipodal < 20_100_000);
+    }
+
+    @Test
+    public void azimuth() {
+        Assert.assertEquals(0, new Coordinates(0, 0).azimuth(new Coordinates(0, 10)), 1e-9);
+        Assert.assertEquals(90, new Coordinates(0, 0).azimuth(new Coordinates(10, 0)), 1e-9);
+        Assert.assertEquals(180, new Coordinates(0, 10).azimuth(new Coordinates(0, 0)), 1e-9);
+        Assert.assertEquals(270, new Coordinates(10, 0).azimuth(new Coordinates(0, 0)), 1e-9);
+        Assert.assertEquals(306.87, FLINDERS_PEAK.azimuth(BUNINYONG), 0.2);
+    }
+
+    @Test
+    public void pathKernels() {
+        Coordinates[] path = {LONDON, PARIS, FLINDERS_PEAK, BUNINYONG};
+        double[] packed = Geodesy.pack(Arrays.asList(path));
+        double[] padded = new double[packed.length + 2];
+        System.arraycopy(packed, 0, padded, 2, packed.length);
+
+        double expected = 0;
+        double[] lengths = new double[5];
+        double[] azimuths = new double[4];
+        Geodesy.cumulativeLengths(padded, 1, path.length, lengths, 1);
+        Geodesy.segmentAzimuths(padded, 1, path.length, azimuths, 1);
+
+        Assert.assertEquals(0, lengths[1], 0);
+        for (int i = 1; i < path.length; i++) {
+            expected += path[i - 1].distance(path[i]);
+            Assert.assertEquals(expected, lengths[i + 1], 1e-6);
+            Assert.assertEquals(path[i - 1].azimuth(path[i]), azimuths[i], 1e-9);
+        }
+        Assert.assertEquals(expected, Geodesy.pathLength(padded, 1, path.length), 1e-6);
+        Assert.assertEquals(0, Geodesy.pathLength(packed, 0, 1), 0);
+
+        double[] matrix = new double[path.length * 2];
+        Geodesy.distanceMatrix(packed, path.length, Geodesy.pack(Arrays.asList(LONDON, PARIS)), 2, matrix);
+        for (int i = 0; i < path.length; i++) {
+            Assert.assertEquals(path[i].distance(LONDON), matrix[2 * i], 1e-6);
+            Assert.assertEquals(path[i].distance(PARIS), matrix[2 * i + 1], 1e-6);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void pathOutOfBounds() {
+        Geodesy.pathLength(new double[6], 1, 3);
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.dormesica.mapcontroller;
+
+import com.github.dormesica.mapcontroller.geofence.GeofenceListener;
+import com.github.dormesica.mapcontroller.geofence.GeofenceService;
+import com.github.dormesica.mapcontroller.layers.Polygon;
+import com.github.dormesica.mapcontroller.layers.VectorLayer;
+import com.github.dormesica.mapcontroller.util.JsonConverter;
+import com.google.gson.Gson;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+public class GeofenceServiceTest {
+
+    private static final Gson sGson = JsonConverter.getConverter();
+
+    @Test
+    public void enterAndExit() {
+        // "west" and "east" overlap between longitudes 1 and 2, "far" is away from both
+        VectorLayer layer = layer(zone("west", 0, 0, 2, 2), zone("east", 1, 0, 3, 2), zone("far", 10, 10, 11, 11),
+                "{\"type\":\"point\",\"id\":\"point\",\"location\":{\"lon\":0.5,\"lat\":0.5,\"alt\":0}}");
+        GeofenceService service = new GeofenceService(layer);
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        service.setGeofenceListener(new RecordingListener(events));
+
+        Assert.assertEquals(3, service.getZones().size());
+
+        Assert.assertEquals(1, service.update("a", 0.5, 0.5));
+        Assert.assertEquals(2, service.update("a", 1.5, 0.5));
+        Assert.assertEquals(2, service.update("a", 1.6, 0.6));
+        Assert.assertEquals(1, service.update("a", 2.5, 0.5));
+        Assert.assertEquals(0, service.update("a", 5, 5));
+        Assert.assertEquals(1, service.update("b", 10.5, 10.5));
+
+        Assert.assertEquals(Arrays.asList("a+west", "a+east", "a-west", "a-east", "b+far"), events);
+        Assert.assertEquals("far", service.getZonesOf("b").get(0).getId());
+        Assert.assertTrue(service.getZonesOf("a").isEmpty());
+
+        service.forget("b");
+        Assert.assertEquals(1, service.getTrackCount());
+    }
+
+    @Test
+    public void findZones() {
+        GeofenceService service = new GeofenceService(layer(zone("west", 0, 0, 2, 2), zone("east", 1, 0, 3, 2)));
+        int[] zones = new int[1];
+
+        Assert.assertEquals(2, service.findZones(1.5, 1, zones));
+        Assert.assertEquals(0, zones[0]);
+        Assert.assertEquals(1, service.findZones(2.5, 1, zones));
+        Assert.assertEquals(1, zones[0]);
+        Assert.assertEquals(0, service.findZones(-1, 1, zones));
+        Assert.assertEquals(0, service.findZones(1, 3, zones));
+    }
+
+    @Test
+    public void parallelBatch() {
+        List<String> zones = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            zones.add(zone("zone" + i, i, 0, i + 1, 1));
+        }
+        GeofenceService service = new GeofenceService(layer(zones.toArray(new String[0])), new ForkJoinPool(4));
+        Map<String, Integer> enters = new ConcurrentHashMap<>();
+        service.setGeofenceListener(new GeofenceListener() {
+            @Override
+            public void onEnter(String trackId, Polygon zone, double lon, double lat) {
+                enters.merge(trackId, 1, Integer::sum);
+            }
+
+            @Override
+            public void onExit(String trackId, Polygon zone, double lon, double lat) {
+            }
+        });
+
+        // every track walks east through all the zones, one fix in every zone
+        int tracks = 200;
+        int count = tracks * 10;
+        String[] trackIds = new String[count];
+        double[] positions = new double[2 * count];
+        for (int step = 0; step < 10; step++) {
+            for (int track = 0; track < tracks; track++) {
+                int fix = step * tracks + track;
+                trackIds[fix] = "track" + track;
+                positions[2 * fix] = step + 0.5;
+                positions[2 * fix + 1] = 0.5;
+            }
+        }
+
+        service.updateAll(trackIds, positions, count);
+
+        Assert.assertEquals(tracks, service.getTrackCount());
+        for (int track = 0; track < tracks; track++) {
+            Assert.assertEquals(Integer.valueOf(10), enters.get("track" + track));
+            Assert.assertEquals("zone9", service.getZonesOf("track" + track).get(0).getId());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stubZone() {
+        new GeofenceService(layer("{\"type\":\"polygon\",\"id\":\"stub\",\"isStub\":true}"));
+    }
+
+    private static VectorLayer layer(String... entities) {
+        return sGson.fromJson("{\"id\":\"layer\",\"entities\":[" + String.join(",", entities) + "]}",
+                VectorLayer.class);
+    }
+
+    private static String zone(String id, double west, double south, double east, double north) {
+        return String.format("{\"type\":\"polygon\",\"id\":\"%s\",\"perimeter\":[%s,%s,%s,%s]}", id,
+                position(west, south), position(east, south), position(east, north), position(west, north));
+    }
+
+    private static String position(double lon, double lat) {
+        return String.format("{\"lon\":%s,\"lat\":%s,\"alt\":0}", lon, lat);
+    }
+
+    private static class RecordingListener implements GeofenceListener {
+        private final List<String> mEvents;
+
+        RecordingListener(List<String> events) {
+            mEvents = events;
+        }
+
+        @Override
+        public void onEnter(String trackId, Polygon zone, double lon, double lat) {
+            mEvents.add(trackId + "+" + zone.getId());
+        }
+
+        @Override
+        public void onExit(String trackId, Polygon zone, double lon, double lat) {
+            mEvents.add(trackId + "-" + zone.getId());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.github.dormesica.mapcontroller;
+
+import com.github.dormesica.mapcontroller.cluster.GridAggregator;
+import com.github.dormesica.mapcontroller.layers.Entity;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.github.dormesica.mapcontroller.util.JsonConverter;
+import com.google.gson.Gson;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class GridAggregatorTest {
+
+    private static final Gson sGson = JsonConverter.getConverter();
+    private static final Rectangle WORLD = new Rectangle(90, -180, -90, 180);
+
+    @Test
+    public void everyPointAtEveryZoom() {
+        for (int lattice : new int[]{GridAggregator.SQUARE, GridAggregator.HEXAGON}) {
+            // enough points to be aggregated in parallel
+            GridAggregator aggregator = GridAggregator.Builder.create()
+                    .setLattice(lattice)
+                    .setWeightKey("weight")
+                    .build(randomPoints(20000, 1));
+
+            for (int zoom = aggregator.getMinZoom(); zoom <= aggregator.getMaxZoom(); zoom += 3) {
+                double[] cells = new double[GridAggregator.PACKED_STRIDE * 20000];
+                int count = aggregator.getCells(WORLD, zoom, cells);
+
+                Assert.assertEquals(20000, sum(cells, count, 2), 0);
+                Assert.assertEquals(2 * 20000, sum(cells, count, 3), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void cellContainsPoint() {
+        for (int lattice : new int[]{GridAggregator.SQUARE, GridAggregator.HEXAGON}) {
+            List<Entity> points = new ArrayList<>();
+            points.add(point("point", 34.78, 32.08, 1));
+            GridAggregator aggregator = GridAggregator.Builder.create().setLattice(lattice).build(points);
+
+            for (int zoom = 0; zoom <= aggregator.getMaxZoom(); zoom++) {
+                double[] cells = new double[GridAggregator.PACKED_STRIDE];
+                Assert.assertEquals(1, aggregator.getCells(WORLD, zoom, cells));
+
+                // the center of the cell is within a cell's width of the point
+                double size = 360 * aggregator.getCellSize(zoom);
+                Assert.assertEquals(34.78, cells[0], size);
+                Assert.assertEquals(32.08, cells[1], size);
+            }
+        }
+    }
+
+    @Test
+    public void extent() {
+        GridAggregator aggregator = GridAggregator.Builder.create().build(randomPoints(1000, 2));
+        double[] cells = new double[GridAggregator.PACKED_STRIDE * 1000];
+
+        // all the points are inside the extent
+        Assert.assertEquals(aggregator.getCells(WORLD, 10, cells),
+                aggregator.getCells(new Rectangle(34, 33, 30, 37), 10, cells));
+        Assert.assertEquals(0, aggregator.getCells(new Rectangle(34, 40, 30, 50), 10, cells));
+        Assert.assertEquals(0, aggregator.getCells(new Rectangle(34, 170, 30, -170), 10, cells));
+    }
+
+    @Test
+    public void incrementalUpdates() {
+        for (int lattice : new int[]{GridAggregator.SQUARE, GridAggregator.HEXAGON}) {
+            List<Entity> points = randomPoints(500, 3);
+            GridAggregator aggregator = GridAggregator.Builder.create()
+                    .setLattice(lattice)
+                    .setWeightKey("weight")
+                    .build(points);
+            // aggregate some of the levels before the points change
+            double[] cells = new double[GridAggregator.PACKED_STRIDE * 1000];
+            for (int zoom = 0; zoom <= aggregator.getMaxZoom(); zoom += 2) {
+                aggregator.getCells(WORLD, zoom, cells);
+            }
+
+            Random random = new Random(4);
+            for (int i = 0; i < 100; i++) {
+                Entity moved = point("point" + random.nextInt(500), 34 + 2 * random.nextDouble(),
+                        31 + 2 * random.nextDouble(), 3);
+                aggregator.update(moved);
+                points.set(Integer.parseInt(moved.getId().substring(5)), moved);
+            }
+            for (int i = 0; i < 50; i++) {
+                Assert.assertTrue(aggregator.remove("point" + i));
+            }
+            Assert.assertFalse(aggregator.remove("point0"));
+            aggregator.update(point("added", 35, 32, 5));
+
+            List<Entity> expectedPoints = new ArrayList<>(points.subList(50, 500));
+            expectedPoints.add(point("added", 35, 32, 5));
+            GridAggregator expected = GridAggregator.Builder.create()
+                    .setLattice(lattice)
+                    .setWeightKey("weight")
+                    .build(expectedPoints);
+
+            Assert.assertEquals(451, aggregator.getPointCount());
+            for (int zoom = 0; zoom <= aggregator.getMaxZoom(); zoom++) {
+                Assert.assertArrayEquals(cells(expected, zoom), cells(aggregator, zoom), 1e-9);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooSmallCells() {
+        GridAggregator.Builder.create().setCellSize(0.001).setZoomRange(0, 24).build(new ArrayList<Entity>());
+    }
+
+    private static double[] cells(GridAggregator aggregator, int zoom) {
+        double[] cells = new double[GridAggregator.PACKED_STRIDE * 1000];
+        int count = aggregator.getCells(WORLD, zoom, cells);
+
+        // cells are written in the order of their keys, so equal aggregations write equal arrays
+        return Arrays.copyOf(cells, GridAggregator.PACKED_STRIDE * count);
+    }
+
+    private static double sum(double[] cells, int count, int offset) {
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += cells[GridAggregator.PACKED_STRIDE * i + offset];
+        }
+
+        return sum;
+    }
+
+    private static List<Entity> randomPoints(int count, long seed) {
+        Random random = new Random(seed);
+        List<Entity> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(point("point" + i, 34 + 2 * random.nextDouble(), 31 + 2 * random.nextDouble(), 2));
+        }
+
+        return points;
+    }
+
+    private static Entity point(String id, double lon, double lat, double weight) {
+        return sGson.fromJson(String.format("{\"type\":\"point\",\"id\":\"%s\",\"isVisible\":true," +
+                        "\"location\":{\"lon\":%s,\"lat\":%s,\"alt\":0},\"properties\":{\"weight\":%s}}",
+                id, lon, lat, weight), Entity.class);
+    }
+}
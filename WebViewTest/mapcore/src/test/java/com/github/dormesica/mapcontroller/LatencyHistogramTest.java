@@ -0,0 +1,71 @@
+package com.github.dormesica.mapcontroller;
+
+import com.github.dormesica.mapcontroller.util.LatencyHistogram;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(6);
+        long[] values = new long[10000];
+        for (int i = 0; i < values.length; i++) {
+            // from nanoseconds to seconds
+            values[i] = (long) Math.pow(10, 1 + 8 * random.nextDouble());
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        Assert.assertEquals(values.length, histogram.getCount());
+        Assert.assertEquals(values[values.length - 1], histogram.getMax());
+        for (double percentile : new double[]{0, 50, 90, 99, 99.9, 100}) {
+            long expected = values[Math.max(0, (int) Math.ceil(percentile / 100 * values.length) - 1)];
+            long actual = histogram.getValueAtPercentile(percentile);
+
+            // the value is the top of its bucket, which is at most 1/32 above the value
+            Assert.assertTrue(actual >= expected);
+            Assert.assertTrue(actual <= expected + expected / 32 + 1);
+        }
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 64; i++) {
+            histogram.record(i);
+        }
+
+        Assert.assertEquals(31, histogram.getValueAtPercentile(50));
+        Assert.assertEquals(63, histogram.getValueAtPercentile(100));
+        Assert.assertEquals(31.5, histogram.getMean(), 0);
+    }
+
+    @Test
+    public void concurrentRecords() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 100000; j++) {
+                    histogram.record(j);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(400000, histogram.getCount());
+        Assert.assertEquals(99999, histogram.getMax());
+
+        histogram.reset();
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+}
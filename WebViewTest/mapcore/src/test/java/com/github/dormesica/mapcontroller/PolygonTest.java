@@ -0,0 +1,145 @@
+package com.github.dormesica.mapcontroller;
+
+import com.github.dormesica.mapcontroller.layers.Polygon;
+import com.github.dormesica.mapcontroller.layers.PreparedPolygon;
+import com.github.dormesica.mapcontroller.location.Coordinates;
+import com.github.dormesica.mapcontroller.location.Geodesy;
+import com.github.dormesica.mapcontroller.util.JsonConverter;
+import com.google.gson.Gson;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class PolygonTest {
+
+    private static final Gson sGson = JsonConverter.getConverter();
+
+    private static final String SQUARE = "[[0,0],[1,0],[1,1],[0,1],[0,0]]";
+    private static final String HOLE = "[[0.25,0.25],[0.25,0.5],[0.5,0.5],[0.5,0.25]]";
+
+    @Test
+    public void area() {
+        Polygon square = polygon(SQUARE);
+        // exact area of a longitude/latitude rectangle on a sphere
+        double expected = Geodesy.EARTH_MEAN_RADIUS * Geodesy.EARTH_MEAN_RADIUS * Math.toRadians(1)
+                * Math.sin(Math.toRadians(1));
+        Assert.assertEquals(expected, square.area(), expected * 1e-9);
+        Assert.assertEquals(expected, polygon("[[0,0],[0,1],[1,1],[1,0]]").area(), expected * 1e-9);
+
+        double holeArea = Geodesy.EARTH_MEAN_RADIUS * Geodesy.EARTH_MEAN_RADIUS * Math.toRadians(0.25)
+                * (Math.sin(Math.toRadians(0.5)) - Math.sin(Math.toRadians(0.25)));
+        Assert.assertEquals(expected - holeArea, polygon(SQUARE, HOLE).area(), expected * 1e-9);
+
+        // crossing the antimeridian
+        Assert.assertEquals(expected, polygon("[[179.5,0],[-179.5,0],[-179.5,1],[179.5,1]]").area(), expected * 1e-9);
+    }
+
+    @Test
+    public void orientation() {
+        Assert.assertFalse(polygon(SQUARE).isClockwise());
+        Assert.assertTrue(polygon("[[0,0],[0,1],[1,1],[1,0],[0,0]]").isClockwise());
+        Assert.assertTrue(polygon("[[0,0],[0,1],[1,1],[1,0],[0,0]]").prepare().isClockwise());
+    }
+
+    @Test
+    public void perimeter() {
+        Polygon closed = polygon(SQUARE);
+        Polygon open = polygon("[[0,0],[1,0],[1,1],[0,1]]");
+
+        Assert.assertEquals(closed.perimeter(), open.perimeter(), 1e-6);
+        Assert.assertEquals(4 * 111_195, closed.perimeter(), 100);
+    }
+
+    @Test
+    public void centroid() {
+        Coordinates centroid = polygon(SQUARE).centroid();
+        Assert.assertEquals(0.5, centroid.getLon(), 1e-9);
+        Assert.assertEquals(0.5, centroid.getLat(), 1e-9);
+
+        // the hole pulls the centroid to the north east
+        centroid = polygon(SQUARE, HOLE).centroid();
+        Assert.assertTrue(centroid.getLon() > 0.5);
+        Assert.assertTrue(centroid.getLat() > 0.5);
+
+        centroid = polygon("[[179.5,10],[-179.5,10],[-179.5,11],[179.5,11]]").centroid();
+        Assert.assertEquals(-180, centroid.getLon(), 1e-6);
+        Assert.assertEquals(10.5, centroid.getLat(), 1e-9);
+    }
+
+    @Test
+    public void contains() {
+        PreparedPolygon prepared = polygon(SQUARE, HOLE).prepare();
+
+        Assert.assertTrue(prepared.contains(new Coordinates(0.75, 0.75)));
+        Assert.assertTrue(prepared.contains(0.1, 0.9));
+        Assert.assertFalse(prepared.contains(0.3, 0.3));
+        Assert.assertFalse(prepared.contains(1.5, 0.5));
+        Assert.assertFalse(prepared.contains(0.5, -0.5));
+
+        Assert.assertEquals(1, prepared.getBounds().getNorth(), 0);
+        Assert.assertEquals(0, prepared.getBounds().getWest(), 0);
+
+        PreparedPolygon antimeridian = polygon("[[179.5,0],[-179.5,0],[-179.5,1],[179.5,1]]").prepare();
+        Assert.assertTrue(antimeridian.contains(-179.9, 0.5));
+        Assert.assertTrue(antimeridian.contains(179.9, 0.5));
+        Assert.assertFalse(antimeridian.contains(0, 0.5));
+        Assert.assertEquals(179.5, antimeridian.getBounds().getWest(), 1e-9);
+        Assert.assertEquals(-179.5, antimeridian.getBounds().getEast(), 1e-9);
+    }
+
+    @Test
+    public void containsMatchesBruteForce() {
+        // a star with many spikes and a hole, which is indexed into many bands
+        int spikes = 500;
+        StringBuilder ring = new StringBuilder("[");
+        for (int i = 0; i < 2 * spikes; i++) {
+            double angle = Math.PI * i / spikes;
+            double radius = i % 2 == 0 ? 1 : 0.4;
+            ring.append(String.format("[%s,%s],", radius * Math.cos(angle), radius * Math.sin(angle)));
+        }
+        ring.setCharAt(ring.length() - 1, ']');
+        double[][] star = parse(ring.toString());
+        double[][] hole = parse("[[-0.1,-0.1],[0.1,-0.1],[0.1,0.1],[-0.1,0.1]]");
+
+        PreparedPolygon prepared = polygon(ring.toString(), "[[-0.1,-0.1],[0.1,-0.1],[0.1,0.1],[-0.1,0.1]]").prepare();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            double lon = random.nextDouble() * 2.2 - 1.1;
+            double lat = random.nextDouble() * 2.2 - 1.1;
+            boolean expected = crossings(star, lon, lat) && !crossings(hole, lon, lat);
+
+            Assert.assertEquals(lon + ", " + lat, expected, prepared.contains(lon, lat));
+        }
+    }
+
+    private static Polygon polygon(String perimeter, String... holes) {
+        String json = String.format("{\"type\":\"polygon\",\"id\":\"p\",\"perimeter\":%s,\"holes\":[%s]}",
+                toCoordinates(perimeter), holes.length == 0 ? "" : toCoordinates(holes[0]));
+        return sGson.fromJson(json, Polygon.class);
+    }
+
+    private static String toCoordinates(String ring) {
+        StringBuilder builder = new StringBuilder("[");
+        for (double[] position : parse(ring)) {
+            builder.append(String.format("{\"lon\":%s,\"lat\":%s,\"alt\":0},", position[0], position[1]));
+        }
+        builder.setCharAt(builder.length() - 1, ']');
+        return builder.toString();
+    }
+
+    private static double[][] parse(String ring) {
+        return sGson.fromJson(ring, double[][].class);
+    }
+
+    private static boolean crossings(double[][] ring, double x, double y) {
+        boolean isInside = false;
+        for (int i = 0, j = ring.length - 1; i < ring.length; j = i++) {
+            if ((ring[i][1] > y) != (ring[j][1] > y)
+                    && x < (ring[j][0] - ring[i][0]) * (y - ring[i][1]) / (ring[j][1] - ring[i][1]) + ring[i][0]) {
+                isInside = !isInside;
+            }
+        }
+        return isInside;
+    }
+}
@@ -0,0 +1,155 @@
+package com.github.dormesica.mapcontroller;
+
+import com.github.dormesica.mapcontroller.location.Coordinates;
+import com.github.dormesica.mapcontroller.location.Rectangle;
+import com.github.dormesica.mapcontroller.prefetch.PrefetchListener;
+import com.github.dormesica.mapcontroller.prefetch.PrefetchPlanner;
+import com.github.dormesica.mapcontroller.prefetch.PrefetchRegion;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class PrefetchPlannerTest {
+
+    private static final long SIZE = 1000;
+
+    @Test
+    public void prefetchesAlongThePan() {
+        // a row of 1 degree regions to the east of a 1 degree view
+        List<PrefetchRegion> regions = row(10);
+        RecordingListener listener = new RecordingListener();
+        PrefetchPlanner planner = PrefetchPlanner.Builder.create()
+                .setHorizon(1000)
+                .setSmoothing(1)
+                .build(regions);
+        planner.setPrefetchListener(listener);
+
+        // panning east at 1 degree per 250 milliseconds reaches 4 more degrees within the horizon
+        planner.onViewChanged(view(0.5), 1000);
+        Assert.assertTrue(listener.prefetched.isEmpty());
+        planner.onViewChanged(view(1.5), 1250);
+
+        Assert.assertEquals(Arrays.asList("2", "3", "4", "5"), listener.prefetched);
+        Assert.assertEquals(4 * SIZE, planner.getPrefetchedSize());
+        Assert.assertEquals(6, planner.predict(1000).getEast(), 1e-9);
+
+        // regions that enter the view are loaded by it, and are no longer prefetched
+        planner.onViewChanged(view(2.5), 1500);
+        Assert.assertEquals(Arrays.asList("2", "3", "4", "5", "6"), listener.prefetched);
+        Assert.assertEquals(4, planner.getPrefetched().size());
+        Assert.assertTrue(listener.cancelled.isEmpty());
+    }
+
+    @Test
+    public void cancelsWrongPrefetches() {
+        RecordingListener listener = new RecordingListener();
+        PrefetchPlanner planner = PrefetchPlanner.Builder.create()
+                .setSmoothing(1)
+                .build(row(10));
+        planner.setPrefetchListener(listener);
+
+        planner.onViewChanged(view(0.5), 1000);
+        planner.onViewChanged(view(1.5), 1250);
+        Assert.assertEquals(4, listener.prefetched.size());
+
+        // the pan reverses, so the regions to the east are no longer reached
+        planner.onViewChanged(view(1.4), 1500);
+        Assert.assertEquals(Arrays.asList("2", "3", "4", "5"), listener.cancelled);
+        Assert.assertTrue(planner.getPrefetched().isEmpty());
+
+        // once the view stops, nothing outside of it is reached
+        planner.onViewChanged(view(4.5), 2000);
+        Assert.assertFalse(planner.getPrefetched().isEmpty());
+        listener.cancelled.clear();
+        planner.onViewStopped(view(4.5));
+        Assert.assertFalse(listener.cancelled.isEmpty());
+        Assert.assertTrue(planner.getPrefetched().isEmpty());
+    }
+
+    @Test
+    public void respectsTheBudget() {
+        RecordingListener listener = new RecordingListener();
+        PrefetchPlanner planner = PrefetchPlanner.Builder.create()
+                .setBudget(2 * SIZE)
+                .setSmoothing(1)
+                .build(row(10));
+        planner.setPrefetchListener(listener);
+
+        planner.onViewChanged(view(0.5), 1000);
+        planner.onViewChanged(view(1.5), 1250);
+
+        // the nearest regions are prefetched first
+        Assert.assertEquals(Arrays.asList("2", "3"), listener.prefetched);
+        Assert.assertEquals(2 * SIZE, planner.getPrefetchedSize());
+    }
+
+    @Test
+    public void dragsMoveTheViewTheOtherWay() {
+        RecordingListener listener = new RecordingListener();
+        PrefetchPlanner planner = PrefetchPlanner.Builder.create()
+                .setSmoothing(1)
+                .build(row(10));
+        planner.setPrefetchListener(listener);
+
+        planner.onViewChanged(view(0.5), 1000);
+        planner.onDrag(new Coordinates(1, 0.5), new Coordinates(1, 0.5), 1000);
+        // dragging the map west moves the view east
+        planner.onDrag(new Coordinates(1, 0.5), new Coordinates(0, 0.5), 1250);
+
+        Assert.assertEquals(Arrays.asList("1", "2", "3", "4"), listener.prefetched);
+    }
+
+    @Test
+    public void idleViewsPrefetchNothing() {
+        RecordingListener listener = new RecordingListener();
+        PrefetchPlanner planner = PrefetchPlanner.Builder.create()
+                .setSmoothing(1)
+                .build(row(10));
+        planner.setPrefetchListener(listener);
+
+        planner.onViewChanged(view(0.5), 1000);
+        // samples that are far apart do not indicate motion
+        planner.onViewChanged(view(5.5), 10_000);
+
+        Assert.assertTrue(listener.prefetched.isEmpty());
+        Assert.assertNull(PrefetchPlanner.Builder.create().build(row(1)).predict(100));
+    }
+
+    /**
+     * Creates a row of 1 degree regions, between 0 and {@code count} degrees east.
+     */
+    private static List<PrefetchRegion> row(int count) {
+        List<PrefetchRegion> regions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // the regions do not touch, so a view touches only the regions it overlaps
+            regions.add(new PrefetchRegion(String.valueOf(i), new Rectangle(0.9, i + 0.01, 0.1, i + 0.99), SIZE));
+        }
+        return regions;
+    }
+
+    /**
+     * Creates a 1 degree view centered at the given longitude.
+     */
+    private static Rectangle view(double lon) {
+        return new Rectangle(1, lon - 0.5, 0, lon + 0.5);
+    }
+
+    private static class RecordingListener implements PrefetchListener {
+
+        final List<String> prefetched = new ArrayList<>();
+        final List<String> cancelled = new ArrayList<>();
+
+        @Override
+        public void onPrefetch(PrefetchRegion region) {
+            prefetched.add(region.getId());
+        }
+
+        @Override
+        public void onCancel(PrefetchRegion region) {
+            cancelled.add(region.getId());
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.github.dormesica.mapcontroller;
+
+import com.github.dormesica.mapcontroller.layers.TrackBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class TrackBufferTest {
+
+    @Test
+    public void coalesce() {
+        TrackBuffer buffer = new TrackBuffer(16);
+        TrackBuffer.Update update = new TrackBuffer.Update();
+
+        buffer.write("a", 1, 1, 0);
+        buffer.write("b", 2, 2, 0);
+        buffer.write("a", 3, 3, 0);
+        Assert.assertTrue(buffer.drain(update));
+
+        Assert.assertEquals(2, update.getAddedCount());
+        Assert.assertEquals(2, update.getPositionCount());
+        Assert.assertEquals(2, buffer.getTrackCount());
+        Assert.assertEquals(3, positionOf(update, indexOf(update, "a"))[0], 0);
+        Assert.assertEquals(2, positionOf(update, indexOf(update, "b"))[0], 0);
+        Assert.assertTrue(buffer.isEmpty());
+
+        // nothing was written since
+        Assert.assertFalse(buffer.drain(update));
+        Assert.assertTrue(update.isEmpty());
+    }
+
+    @Test
+    public void stableIndices() {
+        TrackBuffer buffer = new TrackBuffer(16);
+        TrackBuffer.Update update = new TrackBuffer.Update();
+
+        buffer.write("a", 1, 1, 0);
+        buffer.drain(update);
+        int index = update.getAddedIndex(0);
+
+        buffer.write("a", 2, 2, 0);
+        buffer.drain(update);
+        Assert.assertEquals(0, update.getAddedCount());
+        Assert.assertEquals(1, update.getPositionCount());
+        Assert.assertEquals(index, (int) update.getPositions()[0]);
+    }
+
+    @Test
+    public void remove() {
+        TrackBuffer buffer = new TrackBuffer(16);
+        TrackBuffer.Update update = new TrackBuffer.Update();
+
+        buffer.write("a", 1, 1, 0);
+        buffer.drain(update);
+        int index = update.getAddedIndex(0);
+
+        buffer.write("a", 2, 2, 0);
+        buffer.remove("a");
+        buffer.drain(update);
+        Assert.assertEquals(1, update.getRemovedCount());
+        Assert.assertEquals(index, update.getRemovedIndex(0));
+        Assert.assertEquals(0, update.getPositionCount());
+        Assert.assertEquals(0, buffer.getTrackCount());
+
+        // a fix after the removal adds the object again, reusing the freed index
+        buffer.remove("b");
+        buffer.write("b", 3, 3, 0);
+        buffer.drain(update);
+        Assert.assertEquals(0, update.getRemovedCount());
+        Assert.assertEquals(1, update.getAddedCount());
+        Assert.assertEquals(index, update.getAddedIndex(0));
+        Assert.assertEquals(1, buffer.getTrackCount());
+    }
+
+    @Test
+    public void overflow() {
+        TrackBuffer buffer = new TrackBuffer(4);
+        TrackBuffer.Update update = new TrackBuffer.Update();
+
+        for (int i = 0; i < 6; i++) {
+            buffer.write("track" + i, i, i, 0);
+        }
+        buffer.drain(update);
+
+        Assert.assertEquals(2, buffer.getDroppedCount());
+        Assert.assertEquals(4, update.getAddedCount());
+        Assert.assertEquals(-1, indexOf(update, "track0"));
+        Assert.assertNotEquals(-1, indexOf(update, "track5"));
+    }
+
+    @Test
+    public void grow() {
+        TrackBuffer buffer = new TrackBuffer(1000);
+        TrackBuffer.Update update = new TrackBuffer.Update();
+
+        for (int i = 0; i < 1000; i++) {
+            buffer.write("track" + i, i, i, 0);
+        }
+        buffer.drain(update);
+
+        Assert.assertEquals(1000, update.getAddedCount());
+        Assert.assertEquals(1000, update.getPositionCount());
+        Assert.assertEquals(999, positionOf(update, indexOf(update, "track999"))[1], 0);
+    }
+
+    @Test
+    public void merge() {
+        TrackBuffer buffer = new TrackBuffer(64);
+        TrackBuffer.Update update = new TrackBuffer.Update();
+        TrackBuffer.Update merged = new TrackBuffer.Update();
+        Map<Integer, String> applied = new HashMap<>();
+        Map<Integer, String> appliedMerged = new HashMap<>();
+
+        Random random = new Random(5);
+        for (int frame = 0; frame < 500; frame++) {
+            for (int i = 0; i < 20; i++) {
+                String trackId = "track" + random.nextInt(30);
+                if (random.nextInt(5) == 0) {
+                    buffer.remove(trackId);
+                } else {
+                    buffer.write(trackId, random.nextInt(100), frame, 0);
+                }
+            }
+            buffer.drain(update);
+            apply(update, applied);
+            merged.merge(update);
+
+            // the merged updates are applied every few frames
+            if (frame % 7 == 0) {
+                apply(merged, appliedMerged);
+                merged.clear();
+                Assert.assertEquals(applied, appliedMerged);
+            }
+        }
+        apply(merged, appliedMerged);
+        Assert.assertEquals(applied, appliedMerged);
+    }
+
+    /**
+     * Applies an update the way the map does, to a state that maps every index to its object and position.
+     */
+    private static void apply(TrackBuffer.Update update, Map<Integer, String> state) {
+        for (int i = 0; i < update.getRemovedCount(); i++) {
+            Assert.assertNotNull(state.remove(update.getRemovedIndex(i)));
+        }
+        for (int i = 0; i < update.getAddedCount(); i++) {
+            Assert.assertNull(state.put(update.getAddedIndex(i), update.getAddedId(i)));
+        }
+        double[] positions = update.getPositions();
+        for (int i = 0; i < update.getPositionCount(); i++) {
+            int index = (int) positions[4 * i];
+            String id = state.get(index);
+            Assert.assertNotNull(id);
+            String position = Arrays.toString(Arrays.copyOfRange(positions, 4 * i + 1, 4 * i + 4));
+            state.put(index, id.split("@")[0] + "@" + position);
+        }
+    }
+
+    private static int indexOf(TrackBuffer.Update update, String trackId) {
+        for (int i = 0; i < update.getAddedCount(); i++) {
+            if (update.getAddedId(i).equals(trackId)) {
+                return update.getAddedIndex(i);
+            }
+        }
+
+        return -1;
+    }
+
+    private static double[] positionOf(TrackBuffer.Update update, int index) {
+        double[] positions = update.getPositions();
+        for (int i = 0; i < update.getPositionCount(); i++) {
+            if ((int) positions[4 * i] == index) {
+                return new double[]{positions[4 * i + 1], positions[4 * i + 2], positions[4 * i + 3]};
+            }
+        }
+
+        throw new AssertionError("No position for index " + index);
+    }
+}
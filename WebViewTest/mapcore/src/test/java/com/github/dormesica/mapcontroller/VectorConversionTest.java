@@ -2,11 +2,15 @@ package com.github.dormesica.mapcontroller;
 
 import com.github.dormesica.mapcontroller.layers.*;
 import com.github.dormesica.mapcontroller.location.Coordinates;
+import com.github.dormesica.mapcontroller.location.Rectangle;
 import com.github.dormesica.mapcontroller.util.JsonConverter;
 import com.google.gson.Gson;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 public class VectorConversionTest {
 
     private static Gson sGson = JsonConverter.getConverter();
@@ -55,6 +59,19 @@ public class VectorConversionTest {
         assertCoordinateEquals(34.819788, end.getLon());
         assertCoordinateEquals(31.962320, end.getLat());
         assertCoordinateEquals(0, end.getAlt());
+
+        Assert.assertEquals(10, line.getVertexCount());
+        Rectangle bounds = line.getBounds();
+        assertCoordinateEquals(34.815539, bounds.getWest());
+        assertCoordinateEquals(34.819788, bounds.getEast());
+        assertCoordinateEquals(31.958438, bounds.getSouth());
+        assertCoordinateEquals(31.962484, bounds.getNorth());
+
+        double length = 0;
+        for (int i = 0; i < line.size() - 1; i++) {
+            length += Coordinates.distanceBetween(line.getPointAt(i), line.getPointAt(i + 1));
+        }
+        Assert.assertEquals(length, line.length(), 1e-6);
     }
 
     @Test
@@ -69,6 +86,40 @@ public class VectorConversionTest {
         // TODO finish
     }
 
+    @Test
+    public void createStub() {
+        final String stubString = "{\"type\":\"line\",\"id\":\"1ab57c41-ad10-4067-afd2-7f66ff348802\",\"isVisible\":true,\"isStub\":true}";
+        final String lineString = "{\"type\":\"line\",\"id\":\"1ab57c41-ad10-4067-afd2-7f66ff348802\",\"isVisible\":true,\"path\":[{\"lon\":34.815539717674255,\"lat\":31.95843875770725,\"alt\":0},{\"lon\":34.816033244132996,\"lat\":31.959057738588328,\"alt\":0}],\"properties\":{\"string\":\"string\"}}";
+        Entity stub = sGson.fromJson(stubString, Entity.class);
+
+        basicEntityTests(stub, "1ab57c41-ad10-4067-afd2-7f66ff348802");
+
+        Assert.assertTrue(stub instanceof Line);
+        Assert.assertTrue(stub.isStub());
+        Assert.assertNull(stub.getProperties());
+        try {
+            ((Line) stub).size();
+            Assert.fail("Accessing the geometry of a stub should fail");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            stub.getBounds();
+            Assert.fail("Accessing the bounds of a stub should fail");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        stub.hydrate(sGson.fromJson(lineString, Entity.class));
+
+        Assert.assertFalse(stub.isStub());
+        Assert.assertEquals(2, ((Line) stub).size());
+        Assert.assertEquals("string", stub.getProperties().getString("string"));
+        Assert.assertEquals(2, stub.getVertexCount());
+        assertCoordinateEquals(31.959057, stub.getBounds().getNorth());
+        Assert.assertTrue(((Line) stub).length() > 0);
+    }
+
     @Test
     public void createVectorLayer() {
         final String layerString = "{\"entities\":[{\"type\":\"point\",\"id\":\"1031744e-2a0a-4538-8230-b15f4bcdfeb0\",\"isVisible\":true,\"location\":{\"lon\":34.81548607349395,\"lat\":31.958445584725023,\"alt\":0}},{\"type\":\"line\",\"id\":\"1ab57c41-ad10-4067-afd2-7f66ff348802\",\"isVisible\":true,\"path\":[{\"lon\":34.815539717674255,\"lat\":31.95843875770725,\"alt\":0},{\"lon\":34.816033244132996,\"lat\":31.959057738588328,\"alt\":0},{\"lon\":34.81635510921478,\"lat\":31.958889339791128,\"alt\":0},{\"lon\":34.816827178001404,\"lat\":31.959503766342912,\"alt\":0},{\"lon\":34.816773533821106,\"lat\":31.959804151161002,\"alt\":9.313225746154785e-10},{\"lon\":34.817186594009385,\"lat\":31.95991338176036,\"alt\":0},{\"lon\":34.818050265312195,\"lat\":31.961096704925627,\"alt\":0},{\"lon\":34.81867790222167,\"lat\":31.961818069451187,\"alt\":0},{\"lon\":34.81929481029511,\"lat\":31.96248481458842,\"alt\":0},{\"lon\":34.81978833675385,\"lat\":31.962320973228596,\"alt\":0}]},{\"type\":\"polygon\",\"id\":\"270551bf-12fb-4ecb-9241-0d043ae42047\",\"isVisible\":true,\"perimeter\":[{\"lon\":34.81442660093306,\"lat\":31.959050911616067,\"alt\":-1.3969838619232178e-9},{\"lon\":34.813635349273675,\"lat\":31.957660474355507,\"alt\":0},{\"lon\":34.81424689292908,\"lat\":31.957319119927604,\"alt\":0},{\"lon\":34.81527954339981,\"lat\":31.958625362676855,\"alt\":0},{\"lon\":34.81442660093306,\"lat\":31.959050911616067,\"alt\":-1.3969838619232178e-9}]}],\"id\":\"99254066-460b-47b7-b434-c1c1fbbc70a7\"}";
@@ -79,6 +130,58 @@ public class VectorConversionTest {
         Assert.assertTrue(layer.get(0) instanceof Point);
         Assert.assertTrue(layer.get(1) instanceof Line);
         Assert.assertTrue(layer.get(2) instanceof Polygon);
+
+        Rectangle extent = layer.getExtent();
+        Assert.assertNotNull(extent);
+        Assert.assertEquals(layer.get(1).getBounds().union(layer.get(2).getBounds()), extent);
+        Assert.assertTrue(extent.contains(((Point) layer.get(0)).getLocation()));
+        Assert.assertEquals(1, layer.get(0).getVertexCount());
+        Assert.assertEquals(5, layer.get(2).getVertexCount());
+    }
+
+    @Test
+    public void vectorLayerExtentWithStubs() {
+        final String layerString = "{\"entities\":[{\"type\":\"point\",\"id\":\"a\",\"isVisible\":true,\"location\":{\"lon\":34.8,\"lat\":31.9,\"alt\":0}},{\"type\":\"point\",\"id\":\"b\",\"isVisible\":true,\"isStub\":true}],\"id\":\"layer\"}";
+        final String pointString = "{\"type\":\"point\",\"id\":\"b\",\"isVisible\":true,\"location\":{\"lon\":35.2,\"lat\":32.1,\"alt\":0}}";
+        final String batchString = "[{\"type\":\"point\",\"id\":\"c\",\"isVisible\":true,\"location\":{\"lon\":34.5,\"lat\":31.5,\"alt\":0}}]";
+        VectorLayer layer = sGson.fromJson(layerString, VectorLayer.class);
+
+        Assert.assertEquals(new Rectangle(31.9, 34.8, 31.9, 34.8), layer.getExtent());
+        Assert.assertFalse(layer.isExtentComplete());
+
+        layer.get(1).hydrate(sGson.fromJson(pointString, Entity.class));
+        Assert.assertEquals(new Rectangle(32.1, 34.8, 31.9, 35.2), layer.getExtent());
+        Assert.assertTrue(layer.isExtentComplete());
+
+        layer.addEntities(Arrays.asList(sGson.fromJson(batchString, Entity[].class)));
+        Assert.assertEquals(new Rectangle(32.1, 34.5, 31.5, 35.2), layer.getExtent());
+    }
+
+    @Test
+    public void vectorLayerUpdate() {
+        final String layerString = "{\"entities\":[{\"type\":\"point\",\"id\":\"a\",\"isVisible\":true,\"location\":{\"lon\":34.8,\"lat\":31.9,\"alt\":0}},{\"type\":\"point\",\"id\":\"b\",\"isVisible\":true,\"location\":{\"lon\":35.2,\"lat\":32.1,\"alt\":0}},{\"type\":\"point\",\"id\":\"c\",\"isVisible\":true,\"location\":{\"lon\":35,\"lat\":32,\"alt\":0}}],\"id\":\"layer\"}";
+        final String upsertsString = "[{\"type\":\"point\",\"id\":\"c\",\"isVisible\":true,\"location\":{\"lon\":34,\"lat\":31,\"alt\":0}},{\"type\":\"point\",\"id\":\"d\",\"isVisible\":true,\"location\":{\"lon\":34.9,\"lat\":32,\"alt\":0}}]";
+        VectorLayer layer = sGson.fromJson(layerString, VectorLayer.class);
+        Assert.assertEquals(new Rectangle(32.1, 34.8, 31.9, 35.2), layer.getExtent());
+
+        layer.removeEntities(Arrays.asList("a", "missing"));
+        Assert.assertEquals(2, layer.size());
+        Assert.assertEquals("c", layer.get(0).getId());
+        Assert.assertEquals("b", layer.get(1).getId());
+        Assert.assertEquals(new Rectangle(32.1, 35, 32, 35.2), layer.getExtent());
+
+        layer.upsertEntities(Arrays.asList(sGson.fromJson(upsertsString, Entity[].class)));
+        Assert.assertEquals(3, layer.size());
+        Assert.assertEquals("c", layer.get(0).getId());
+        Assert.assertEquals(34, ((Point) layer.get(0)).getLocation().getLon(), 0);
+        Assert.assertEquals("d", layer.get(2).getId());
+        Assert.assertEquals(new Rectangle(32.1, 34, 31, 35.2), layer.getExtent());
+
+        // the ID index follows the swapped entities
+        layer.removeEntities(Collections.singletonList("b"));
+        layer.removeEntities(Collections.singletonList("d"));
+        Assert.assertEquals(1, layer.size());
+        Assert.assertEquals(new Rectangle(31, 34, 31, 34), layer.getExtent());
     }
 
     private void basicEntityTests(Entity entity, String expectedId) {
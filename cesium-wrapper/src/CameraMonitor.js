@@ -0,0 +1,88 @@
+import { getView } from './utils/cesium';
+import { DEFAULT_CAMERA_MOVE_INTERVAL } from './constants';
+
+/**
+ * The types of camera events, matching the constants of CameraChangeEvent.
+ */
+const MOVE_START = 0;
+const MOVING = 1;
+const MOVE_END = 2;
+
+/**
+ * A class that reports the movement of the camera of a map to the Android framework: when it starts moving, at most
+ * once every interval while it moves, and when it stops, whether it is moved by gestures or by flights.
+ */
+export default class CameraMonitor {
+    /**
+     * Creates a new CameraMonitor.
+     * @param {MapComponent} mapComponent The map component whose camera is monitored.
+     */
+    constructor(mapComponent) {
+        this._scene = mapComponent._viewer.scene;
+
+        this._interval = DEFAULT_CAMERA_MOVE_INTERVAL;
+        this._isEnabled = false;
+        this._isMoving = false;
+        this._lastPublish = 0;
+
+        this._onMoveStart = this._onMoveStart.bind(this);
+        this._onPostRender = this._onPostRender.bind(this);
+        this._onMoveEnd = this._onMoveEnd.bind(this);
+    }
+
+    /**
+     * Sets the minimal interval between the events reported while the camera moves.
+     * @param {number} interval The interval in milliseconds.
+     */
+    setInterval(interval) {
+        this._interval = interval >= 0 ? interval : DEFAULT_CAMERA_MOVE_INTERVAL;
+    }
+
+    /**
+     * Sets whether the movement of the camera is reported, so a map without a listener does not send events.
+     * @param {boolean} isEnabled Whether to report the movement of the camera.
+     */
+    setEnabled(isEnabled) {
+        if (isEnabled === this._isEnabled) {
+            return;
+        }
+
+        this._isEnabled = isEnabled;
+        const camera = this._scene.camera;
+        if (isEnabled) {
+            camera.moveStart.addEventListener(this._onMoveStart);
+            camera.moveEnd.addEventListener(this._onMoveEnd);
+            this._scene.postRender.addEventListener(this._onPostRender);
+        } else {
+            camera.moveStart.removeEventListener(this._onMoveStart);
+            camera.moveEnd.removeEventListener(this._onMoveEnd);
+            this._scene.postRender.removeEventListener(this._onPostRender);
+            this._isMoving = false;
+        }
+    }
+
+    _onMoveStart() {
+        this._isMoving = true;
+        this._publish(MOVE_START);
+    }
+
+    _onPostRender() {
+        if (this._isMoving && performance.now() - this._lastPublish >= this._interval) {
+            this._publish(MOVING);
+        }
+    }
+
+    _onMoveEnd() {
+        this._isMoving = false;
+        this._publish(MOVE_END);
+    }
+
+    _publish(type) {
+        this._lastPublish = performance.now();
+        const view = getView(this._scene);
+
+        if (window.EventsEmitter) {
+            EventsEmitter.fireOnCameraChange(JSON.stringify({ type, extent: view.extent, height: view.height }));
+        }
+    }
+}
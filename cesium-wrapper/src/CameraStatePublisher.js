@@ -0,0 +1,84 @@
+/**
+ * A class that sends the state of the camera of a map to the Android framework after every rendered frame in which it
+ * changed, so the Android framework can project and unproject positions without accessing the map.
+ * The state is sent as a single message of comma separated values: the position, direction, up and right vectors of
+ * the camera in earth-fixed coordinates, the vertical field of view and the aspect ratio of its frustum, the width and
+ * height of the viewport in CSS pixels, the device pixel ratio, and the west, south, east and north of the extent of
+ * the view in degrees.
+ */
+export default class CameraStatePublisher {
+    /**
+     * Creates a new CameraStatePublisher and starts publishing.
+     * @param {MapComponent} mapComponent The map component whose camera is published.
+     */
+    constructor(mapComponent) {
+        this._scene = mapComponent._viewer.scene;
+
+        this._viewMatrix = new Cesium.Matrix4();
+        this._fovy = 0;
+        this._width = 0;
+        this._height = 0;
+        this._isPublished = false;
+
+        this._onPostRender = this._onPostRender.bind(this);
+        this._scene.postRender.addEventListener(this._onPostRender);
+    }
+
+    /**
+     * Publishes the state after the next rendered frame even if it did not change, e.g. for a new view of a reused map.
+     */
+    invalidate() {
+        this._isPublished = false;
+    }
+
+    _onPostRender() {
+        const scene = this._scene;
+        const camera = scene.camera;
+        const canvas = scene.canvas;
+        if (
+            this._isPublished &&
+            Cesium.Matrix4.equals(camera.viewMatrix, this._viewMatrix) &&
+            camera.frustum.fovy === this._fovy &&
+            canvas.clientWidth === this._width &&
+            canvas.clientHeight === this._height
+        ) {
+            return;
+        }
+
+        Cesium.Matrix4.clone(camera.viewMatrix, this._viewMatrix);
+        this._fovy = camera.frustum.fovy;
+        this._width = canvas.clientWidth;
+        this._height = canvas.clientHeight;
+        this._isPublished = true;
+
+        // the view does not contain the globe when looking at space
+        const rectangle = camera.computeViewRectangle(scene.globe.ellipsoid) || Cesium.Rectangle.MAX_VALUE;
+        const state = [
+            camera.positionWC.x,
+            camera.positionWC.y,
+            camera.positionWC.z,
+            camera.directionWC.x,
+            camera.directionWC.y,
+            camera.directionWC.z,
+            camera.upWC.x,
+            camera.upWC.y,
+            camera.upWC.z,
+            camera.rightWC.x,
+            camera.rightWC.y,
+            camera.rightWC.z,
+            camera.frustum.fovy,
+            camera.frustum.aspectRatio,
+            this._width,
+            this._height,
+            window.devicePixelRatio || 1,
+            Cesium.Math.toDegrees(rectangle.west),
+            Cesium.Math.toDegrees(rectangle.south),
+            Cesium.Math.toDegrees(rectangle.east),
+            Cesium.Math.toDegrees(rectangle.north),
+        ];
+
+        if (window.EventsEmitter) {
+            EventsEmitter.fireOnCameraState(state.join(','));
+        }
+    }
+}
@@ -2,8 +2,15 @@ import { areCoordiantesValid, hasValue } from './utils/validation';
 import MapError from './utils/MapError';
 import { convertRadiansToDegrees } from './utils/math';
 import { createEntityDescriptor } from './utils/cesium';
+import { DEFAULT_MAP_LOCATION, DEFAULT_RENDER_IDLE_TIMEOUT } from './constants';
 import EventsHandler from './EventsHandler';
+import RenderStatsMonitor from './RenderStatsMonitor';
+import CameraMonitor from './CameraMonitor';
+import CameraStatePublisher from './CameraStatePublisher';
 import VectorLayerManager from './managers/VectorLayerManager';
+import TrackLayerManager from './managers/TrackLayerManager';
+import ClusterLayerManager from './managers/ClusterLayerManager';
+import HeatmapLayerManager from './managers/HeatmapLayerManager';
 
 /**
  * @typedef {Object} Coordinates
@@ -21,6 +28,22 @@ import VectorLayerManager from './managers/VectorLayerManager';
  * @property {Coordinates} southEast The south-east corner.
  */
 
+/**
+ * @typedef {Object} MapOptions
+ * Options that trade the quality of the rendered map for its performance.
+ * @property {boolean} requestRenderMode Whether the map renders only when its content or camera changes.
+ * @property {number} renderIdleTimeout Milliseconds for which a map that renders on demand keeps rendering after a
+ * change, while the change is still being loaded or animated.
+ * @property {number} maximumScreenSpaceError The maximum screen space error of terrain and imagery tiles.
+ * @property {number} targetFrameRate The frame rate to render at, or 0 for the frame rate of the display.
+ * @property {number} resolutionScale The scale of the rendered resolution relative to that of the view.
+ * @property {number} tileCacheSize The amount of tiles kept in memory after they left the view.
+ * @property {String} [terrainUrl] The URL of a quantized-mesh terrain server, or none to load no terrain.
+ * @property {boolean} isImageryEnabled Whether imagery is loaded.
+ * @property {number} renderStatsInterval Milliseconds between samples of the rendering performance, or 0 for none.
+ * @property {number} cameraMoveInterval Minimal milliseconds between the events reported while the camera moves.
+ */
+
 /**
  * Class that represents a map.
  */
@@ -32,18 +55,43 @@ export default class MapComponent {
      */
     constructor(container) {
         this._container = container;
+        this._renderIdleTimeout = DEFAULT_RENDER_IDLE_TIMEOUT;
+        this._renderUntil = 0;
+
+        this.requestRender = this.requestRender.bind(this);
 
         this._initializeMap();
         this._eventsHandler = new EventsHandler(this, 500);
+        this._renderStatsMonitor = new RenderStatsMonitor(this);
+        this._cameraMonitor = new CameraMonitor(this);
+        this._cameraStatePublisher = new CameraStatePublisher(this);
         this._vectorLayerManager = new VectorLayerManager(this);
+        this._trackLayerManager = new TrackLayerManager(this);
+        this._clusterLayerManager = new ClusterLayerManager(this);
+        this._heatmapLayerManager = new HeatmapLayerManager(this);
 
         this._featuresMap = new Map();
+        this._terrainUrl = null;
+        // incremented whenever the map is reset, so layers that finish loading afterwards are dropped
+        this._generation = 0;
     }
 
     get vectorLayerManager() {
         return this._vectorLayerManager;
     }
 
+    get trackLayerManager() {
+        return this._trackLayerManager;
+    }
+
+    get clusterLayerManager() {
+        return this._clusterLayerManager;
+    }
+
+    get heatmapLayerManager() {
+        return this._heatmapLayerManager;
+    }
+
     /**
      * Gets the amount of milliseconds required for a click to become a long-click
      * @returns {number} The long click delay in milliseconds
@@ -60,6 +108,78 @@ export default class MapComponent {
         this._eventsHandler.longClickDelay = longClickDelay;
     }
 
+    /**
+     * Applies the given options to the map.
+     * Every option is applied, so the options of a map that is reused by another view are replaced entirely.
+     * @param {MapOptions} options The options of the map.
+     */
+    configure(options) {
+        const viewer = this._viewer;
+        const scene = viewer.scene;
+
+        scene.requestRenderMode = options.requestRenderMode;
+        scene.globe.maximumScreenSpaceError = options.maximumScreenSpaceError;
+        scene.globe.tileCacheSize = options.tileCacheSize;
+        viewer.targetFrameRate = options.targetFrameRate > 0 ? options.targetFrameRate : undefined;
+        viewer.resolutionScale = options.resolutionScale;
+        this._renderIdleTimeout = options.renderIdleTimeout;
+        this._renderStatsMonitor.setInterval(options.renderStatsInterval);
+        this._cameraMonitor.setInterval(options.cameraMoveInterval);
+        // the view that configures the map has no camera state yet
+        this._cameraStatePublisher.invalidate();
+
+        // replacing the terrain provider reloads every tile, so it is done only when the terrain changes
+        const terrainUrl = options.terrainUrl || null;
+        if (terrainUrl !== this._terrainUrl) {
+            this._terrainUrl = terrainUrl;
+            viewer.terrainProvider = terrainUrl
+                ? new Cesium.CesiumTerrainProvider({ url: terrainUrl })
+                : new Cesium.EllipsoidTerrainProvider();
+        }
+
+        for (let i = 0; i < scene.imageryLayers.length; i++) {
+            scene.imageryLayers.get(i).show = options.isImageryEnabled;
+        }
+
+        this.requestRender();
+    }
+
+    /**
+     * Sets whether the movement of the camera is reported to the Android framework.
+     * @param {boolean} isEnabled Whether to report the movement of the camera.
+     */
+    setCameraEventsEnabled(isEnabled) {
+        this._cameraMonitor.setEnabled(isEnabled);
+    }
+
+    /**
+     * Stops the render loop of the map, while its view is not visible.
+     * Tiles are loaded by the render loop, so they stop loading too.
+     */
+    pause() {
+        this._viewer.useDefaultRenderLoop = false;
+        this._renderStatsMonitor.stop();
+    }
+
+    /**
+     * Restarts the render loop of the map after it was paused.
+     */
+    resume() {
+        this._viewer.useDefaultRenderLoop = true;
+        this._renderStatsMonitor.start();
+        this.requestRender();
+    }
+
+    /**
+     * Requests the map to render when it renders on demand.
+     * The map keeps rendering for the idle timeout after the last request, so changes that are loaded or animated over
+     * several frames are displayed entirely. Requests made within the same frame are merged into a single render.
+     */
+    requestRender() {
+        this._renderUntil = performance.now() + this._renderIdleTimeout;
+        this._viewer.scene.requestRender();
+    }
+
     /**
      * Positions the camera above the given position
      * @param {Coordinates|Rectangle} location The location on which to focus
@@ -91,6 +211,32 @@ export default class MapComponent {
         this._viewer.camera.flyTo(options);
     }
 
+    /**
+     * Removes all the layers from the map and positions the camera at the default location, so the map can be reused
+     * by another view. Layers that are still loading are removed once they are created.
+     */
+    reset() {
+        this._generation++;
+        this._vectorLayerManager.removeAllLayers();
+        this._trackLayerManager.removeAllLayers();
+        this._clusterLayerManager.removeAllLayers();
+        this._heatmapLayerManager.removeAllLayers();
+        this._featuresMap.clear();
+        this.resume();
+        // the next view configures its own sampling and camera events
+        this._renderStatsMonitor.setInterval(0);
+        this._cameraMonitor.setEnabled(false);
+
+        this._viewer.camera.setView({
+            destination: Cesium.Rectangle.fromDegrees(
+                DEFAULT_MAP_LOCATION.northWest.lon,
+                DEFAULT_MAP_LOCATION.southEast.lat,
+                DEFAULT_MAP_LOCATION.southEast.lon,
+                DEFAULT_MAP_LOCATION.northWest.lat
+            ),
+        });
+    }
+
     /**
      * Returns the extent of the current view.
      * @returns {Rectangle}
@@ -158,13 +304,39 @@ export default class MapComponent {
         }
     }
 
+    /**
+     * Applies changes of the metadata of layers and entities that were made by the Android framework.
+     * Every change contains the ID of the changed object and only the fields that changed.
+     * @param {{layers: Array<Object>, entities: Array<Object>}} changes The changes to apply.
+     */
+    applyChanges(changes) {
+        changes.layers.forEach(change => this._vectorLayerManager.setMetadata(change.id, change));
+        changes.entities.forEach(change => {
+            const entity = this._featuresMap.get(change.id);
+            if (!entity) {
+                return;
+            }
+
+            if ('name' in change) {
+                entity.name = change.name;
+            }
+            if ('description' in change) {
+                entity.description = change.description;
+            }
+        });
+    }
+
     /**
      * Returns a list of the entity descriptors for the entities that lie under the given location.
      * @param {Coordinates} position The window position underwhich to look for features.
      * @return {Array<String>} list of entity descriptors.
      */
     getFeatures(position) {
-        return this._viewer.scene.drillPick(position).map(primitive => createEntityDescriptor(primitive.id));
+        // objects of track, cluster and heatmap layers are not entities
+        return this._viewer.scene
+            .drillPick(position)
+            .filter(primitive => primitive.id instanceof Cesium.Entity)
+            .map(primitive => createEntityDescriptor(primitive.id));
     }
 
     _changePointStyle(point, options) {
@@ -245,6 +417,17 @@ export default class MapComponent {
 
         this._viewer = new Cesium.Viewer(this._container, viewerOptions);
 
+        // a map that renders on demand renders until it has been idle for the idle timeout
+        const scene = this._viewer.scene;
+        scene.postRender.addEventListener(() => {
+            if (scene.requestRenderMode && performance.now() < this._renderUntil) {
+                scene.requestRender();
+            }
+        });
+        ['pointerdown', 'pointermove', 'wheel'].forEach(type =>
+            this._viewer.canvas.addEventListener(type, this.requestRender, { passive: true })
+        );
+
         // remove the cesium button from the viewer window
         const cesiumViewerElement = this._container.getElementsByClassName('cesium-viewer')[0];
         const cesiumLogo = cesiumViewerElement.getElementsByClassName('cesium-viewer-bottom')[0];
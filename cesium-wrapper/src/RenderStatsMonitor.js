@@ -0,0 +1,131 @@
+/**
+ * The amount of frame times kept between samples, the latest of which are used for the percentiles.
+ */
+const FRAME_TIME_CAPACITY = 1024;
+
+/**
+ * A class that samples the rendering performance of a map at an interval and publishes it to the Android framework.
+ * The stats are sent as a single message of comma separated values: frames per second, the 50th and 95th percentiles
+ * of the frame time, tiles loading, tiles loaded, entities, primitives, used heap size and total heap size.
+ */
+export default class RenderStatsMonitor {
+    /**
+     * Creates a new RenderStatsMonitor.
+     * @param {MapComponent} mapComponent The map component whose performance is sampled.
+     */
+    constructor(mapComponent) {
+        this._mapComponent = mapComponent;
+        this._scene = mapComponent._viewer.scene;
+
+        this._interval = 0;
+        this._timer = null;
+
+        this._frameTimes = new Float64Array(FRAME_TIME_CAPACITY);
+        this._frameCount = 0;
+        this._frameStart = 0;
+        this._sampleStart = 0;
+        this._tilesLoading = 0;
+
+        this._onPreRender = this._onPreRender.bind(this);
+        this._onPostRender = this._onPostRender.bind(this);
+        this._onTileLoadProgress = this._onTileLoadProgress.bind(this);
+        this._publish = this._publish.bind(this);
+    }
+
+    /**
+     * Sets the interval at which the performance is sampled.
+     * @param {number} interval The interval in milliseconds, or 0 to stop sampling.
+     */
+    setInterval(interval) {
+        this.stop();
+        this._interval = interval || 0;
+        this.start();
+    }
+
+    /**
+     * Starts sampling, if an interval is set.
+     */
+    start() {
+        if (this._interval <= 0 || this._timer) {
+            return;
+        }
+
+        this._scene.preRender.addEventListener(this._onPreRender);
+        this._scene.postRender.addEventListener(this._onPostRender);
+        this._scene.globe.tileLoadProgressEvent.addEventListener(this._onTileLoadProgress);
+
+        this._frameCount = 0;
+        this._sampleStart = performance.now();
+        this._timer = setInterval(this._publish, this._interval);
+    }
+
+    /**
+     * Stops sampling, e.g. while the map is paused.
+     */
+    stop() {
+        if (!this._timer) {
+            return;
+        }
+
+        this._scene.preRender.removeEventListener(this._onPreRender);
+        this._scene.postRender.removeEventListener(this._onPostRender);
+        this._scene.globe.tileLoadProgressEvent.removeEventListener(this._onTileLoadProgress);
+
+        clearInterval(this._timer);
+        this._timer = null;
+    }
+
+    _onPreRender() {
+        this._frameStart = performance.now();
+    }
+
+    _onPostRender() {
+        this._frameTimes[this._frameCount % FRAME_TIME_CAPACITY] = performance.now() - this._frameStart;
+        this._frameCount++;
+    }
+
+    _onTileLoadProgress(tilesLoading) {
+        this._tilesLoading = tilesLoading;
+    }
+
+    _publish() {
+        const now = performance.now();
+        const frameTimes = this._frameTimes.slice(0, Math.min(this._frameCount, FRAME_TIME_CAPACITY)).sort();
+        // performance.memory is not standard, and private members of the globe may change between Cesium versions
+        const memory = performance.memory;
+        const surface = this._scene.globe._surface;
+        const replacementQueue = surface && surface._tileReplacementQueue;
+
+        const stats = [
+            ((1000 * this._frameCount) / (now - this._sampleStart)).toFixed(1),
+            percentile(frameTimes, 0.5).toFixed(2),
+            percentile(frameTimes, 0.95).toFixed(2),
+            this._tilesLoading,
+            replacementQueue ? replacementQueue.count : -1,
+            this._mapComponent._featuresMap.size,
+            this._scene.primitives.length,
+            memory ? memory.usedJSHeapSize : -1,
+            memory ? memory.totalJSHeapSize : -1,
+        ];
+
+        this._frameCount = 0;
+        this._sampleStart = now;
+
+        if (window.EventsEmitter) {
+            EventsEmitter.fireOnRenderStats(stats.join(','));
+        }
+    }
+}
+
+/**
+ * Returns the given percentile of sorted values, or 0 if there are none.
+ * @param {Float64Array} sorted The sorted values.
+ * @param {number} p The percentile, between 0 and 1.
+ */
+function percentile(sorted, p) {
+    if (sorted.length === 0) {
+        return 0;
+    }
+
+    return sorted[Math.min(Math.floor(p * sorted.length), sorted.length - 1)];
+}
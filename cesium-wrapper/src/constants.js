@@ -10,4 +10,14 @@ export const DEFAULT_MAP_LOCATION = {
         lon: 35.9,  // east
         lat: 29.45, // south
     },
-};
\ No newline at end of file
+};
+
+/**
+ * Default amount of milliseconds for which a map that renders on demand keeps rendering after a change.
+ */
+export const DEFAULT_RENDER_IDLE_TIMEOUT = 500;
+
+/**
+ * Default minimal amount of milliseconds between the events a moving camera reports to the Android framework.
+ */
+export const DEFAULT_CAMERA_MOVE_INTERVAL = 100;
@@ -0,0 +1,183 @@
+import LayerManager from './LayerManager';
+import { getView } from '../utils/cesium';
+
+const SCALING_DEFINITIONS = new Cesium.NearFarScalar(1.5e2, 1.0, 1.5e7, 0.5);
+
+/**
+ * The amount of values of every cluster in a packed clusters array: id, longitude, latitude and count.
+ */
+const CLUSTER_STRIDE = 4;
+
+const MIN_CLUSTER_SIZE = 24;
+const MAX_CLUSTER_SIZE = 56;
+
+/**
+ * @typedef ClusterLayerOptions
+ * Describes the scheme for cluster layers.
+ * @param {String} type Layer type - should be set to Cluster.
+ * @param {String} color CSS color string of the clusters.
+ * @param {Number} opacity Opacity value betwween 0 and 1.
+ * @param {String} pointIcon The marker of single points, a URL or an SVG data URI.
+ */
+
+/**
+ * A layer of clusters of points.
+ * The layer does not know the points, it reports the view of the map to the Android framework and displays the
+ * clusters it is sent back.
+ */
+class ClusterLayer {
+    /**
+     * Creates a new ClusterLayer.
+     * @param {Cesium.Scene} scene The scene to which the layer is added.
+     * @param {ClusterLayerOptions} options The options of the layer.
+     */
+    constructor(scene, options) {
+        this._scene = scene;
+        this._pointIcon = options.pointIcon;
+        this._color = Cesium.Color.fromCssColorString(options.color).withAlpha(options.opacity);
+
+        this._clusters = scene.primitives.add(new Cesium.PointPrimitiveCollection());
+        this._labels = scene.primitives.add(new Cesium.LabelCollection());
+        this._points = scene.primitives.add(new Cesium.BillboardCollection());
+
+        this._publishView = null;
+    }
+
+    /**
+     * Reports the view of the map to the Android callback now and whenever the camera stops moving.
+     * @param {String} callbackId The Android callback to publish the view to.
+     */
+    watchView(callbackId) {
+        this._publishView = () => CallbackSync.publish(callbackId, JSON.stringify(getView(this._scene)));
+        this._scene.camera.moveEnd.addEventListener(this._publishView);
+
+        this._publishView();
+    }
+
+    /**
+     * Replaces the displayed clusters.
+     * @param {Array<number>} clusters The clusters, packed as [id, lon, lat, count] for every cluster.
+     */
+    render(clusters) {
+        this._clusters.removeAll();
+        this._labels.removeAll();
+        this._points.removeAll();
+
+        for (let i = 0; i < clusters.length; i += CLUSTER_STRIDE) {
+            const id = clusters[i];
+            const position = Cesium.Cartesian3.fromDegrees(clusters[i + 1], clusters[i + 2]);
+            const count = clusters[i + 3];
+
+            if (count === 1) {
+                this._points.add({ id, position, image: this._pointIcon, scaleByDistance: SCALING_DEFINITIONS });
+                continue;
+            }
+
+            this._clusters.add({
+                id,
+                position,
+                color: this._color,
+                pixelSize: Math.min(MIN_CLUSTER_SIZE + 8 * Math.log10(count), MAX_CLUSTER_SIZE),
+                outlineColor: Cesium.Color.WHITE,
+                outlineWidth: 2,
+                disableDepthTestDistance: Number.POSITIVE_INFINITY,
+            });
+            this._labels.add({
+                id,
+                position,
+                text: formatCount(count),
+                font: 'bold 12px sans-serif',
+                fillColor: Cesium.Color.WHITE,
+                horizontalOrigin: Cesium.HorizontalOrigin.CENTER,
+                verticalOrigin: Cesium.VerticalOrigin.CENTER,
+                disableDepthTestDistance: Number.POSITIVE_INFINITY,
+            });
+        }
+    }
+
+    /**
+     * Removes the layer from the scene.
+     * @returns {boolean} true if the layer was removed, otherwise false.
+     */
+    destroy() {
+        if (this._publishView) {
+            this._scene.camera.moveEnd.removeEventListener(this._publishView);
+        }
+
+        const primitives = this._scene.primitives;
+        return [this._clusters, this._labels, this._points].every(collection => primitives.remove(collection));
+    }
+}
+
+/**
+ * Formats the amount of points of a cluster for its label, e.g. 1234 as 1.2k.
+ * @param {number} count The amount of points.
+ */
+function formatCount(count) {
+    if (count >= 1e6) {
+        return `${(count / 1e6).toFixed(1)}M`;
+    }
+    if (count >= 1e4) {
+        return `${Math.round(count / 1e3)}k`;
+    }
+    if (count >= 1e3) {
+        return `${(count / 1e3).toFixed(1)}k`;
+    }
+
+    return `${count}`;
+}
+
+class ClusterLayerManager extends LayerManager {
+    /**
+     * Creates a new ClusterLayerManager
+     * @param {MapComponent} mapComponent The map component to which the layers are added.
+     */
+    constructor(mapComponent) {
+        super(mapComponent);
+
+        this.watchView = this.watchView.bind(this);
+        this.render = this.render.bind(this);
+    }
+
+    /**
+     * Reports the view of the map to the Android callback of a cluster layer whenever it changes.
+     * @param {String} layerId The ID of the layer.
+     * @param {String} callbackId The Android callback to publish the view to.
+     */
+    watchView(layerId, callbackId) {
+        const layer = this.get(layerId);
+        if (layer) {
+            layer.watchView(callbackId);
+        }
+    }
+
+    /**
+     * Replaces the displayed clusters of a cluster layer.
+     * Clusters of layers that were removed are ignored.
+     * @param {String} layerId The ID of the layer.
+     * @param {Array<number>} clusters The clusters, packed as [id, lon, lat, count] for every cluster.
+     */
+    render(layerId, clusters) {
+        const layer = this.get(layerId);
+        if (layer) {
+            layer.render(clusters);
+        }
+    }
+
+    _createLayer(options) {
+        const layer = new ClusterLayer(this._mapComponent._viewer.scene, options);
+
+        return Promise.resolve({ layer: {}, dataSource: layer, entities: [] });
+    }
+
+    _createEntityDescriptor(entity, options) {
+        // cluster layers have no entities
+        return null;
+    }
+
+    _removeLayer(layer) {
+        return layer.destroy();
+    }
+}
+
+export default ClusterLayerManager;
@@ -0,0 +1,189 @@
+import LayerManager from './LayerManager';
+import { getView } from '../utils/cesium';
+import { projectWebMercator, unprojectWebMercator } from '../utils/math';
+
+/**
+ * The amount of values of every cell in a packed cells array: longitude, latitude and weight.
+ */
+const CELL_STRIDE = 3;
+
+/**
+ * The lattices of the cells, as defined by the Android framework.
+ */
+const LATTICE_SQUARE = 0;
+const LATTICE_HEXAGON = 1;
+
+/**
+ * The offsets of the vertices of the cells of every lattice from their center, in cell widths.
+ */
+const CELL_VERTICES = {
+    [LATTICE_SQUARE]: [[-0.5, -0.5], [0.5, -0.5], [0.5, 0.5], [-0.5, 0.5]],
+    [LATTICE_HEXAGON]: [30, 90, 150, 210, 270, 330].map(angle => [
+        Math.cos((angle * Math.PI) / 180) / Math.sqrt(3),
+        Math.sin((angle * Math.PI) / 180) / Math.sqrt(3),
+    ]),
+};
+
+/**
+ * @typedef HeatmapLayerOptions
+ * Describes the scheme for heatmap layers.
+ * @param {String} type Layer type - should be set to Heatmap.
+ * @param {String} lowColor CSS color string of the lightest cells.
+ * @param {Number} lowOpacity Opacity value of the lightest cells betwween 0 and 1.
+ * @param {String} highColor CSS color string of the heaviest cells.
+ * @param {Number} highOpacity Opacity value of the heaviest cells betwween 0 and 1.
+ */
+
+/**
+ * A layer of the cells of a lattice over which points are aggregated, displayed as a single primitive.
+ * The layer does not know the points, it reports the view of the map to the Android framework and displays the cells
+ * it is sent back.
+ */
+class HeatmapLayer {
+    /**
+     * Creates a new HeatmapLayer.
+     * @param {Cesium.Scene} scene The scene to which the layer is added.
+     * @param {HeatmapLayerOptions} options The options of the layer.
+     */
+    constructor(scene, options) {
+        this._scene = scene;
+        this._lowColor = Cesium.Color.fromCssColorString(options.lowColor).withAlpha(options.lowOpacity);
+        this._highColor = Cesium.Color.fromCssColorString(options.highColor).withAlpha(options.highOpacity);
+
+        this._primitive = null;
+        this._publishView = null;
+    }
+
+    /**
+     * Reports the view of the map to the Android callback now and whenever the camera stops moving.
+     * @param {String} callbackId The Android callback to publish the view to.
+     */
+    watchView(callbackId) {
+        this._publishView = () => CallbackSync.publish(callbackId, JSON.stringify(getView(this._scene)));
+        this._scene.camera.moveEnd.addEventListener(this._publishView);
+
+        this._publishView();
+    }
+
+    /**
+     * Replaces the displayed cells.
+     * @param {number} lattice The lattice of the cells.
+     * @param {number} cellSize The width of the cells, as a fraction of the width of the world in Web Mercator.
+     * @param {number} maxWeight The weight of the heaviest cell, which is displayed in the high color.
+     * @param {Array<number>} cells The cells, packed as [lon, lat, weight] of the center of every cell.
+     */
+    render(lattice, cellSize, maxWeight, cells) {
+        const vertices = CELL_VERTICES[lattice];
+        const color = new Cesium.Color();
+        const instances = [];
+
+        for (let i = 0; i < cells.length; i += CELL_STRIDE) {
+            const center = projectWebMercator(cells[i], cells[i + 1]);
+            const positions = vertices.map(([dx, dy]) => {
+                const vertex = unprojectWebMercator(center.x + dx * cellSize, center.y + dy * cellSize);
+                return Cesium.Cartesian3.fromDegrees(vertex.lon, vertex.lat);
+            });
+
+            Cesium.Color.lerp(this._lowColor, this._highColor, maxWeight > 0 ? cells[i + 2] / maxWeight : 0, color);
+            instances.push(
+                new Cesium.GeometryInstance({
+                    geometry: new Cesium.PolygonGeometry({
+                        polygonHierarchy: new Cesium.PolygonHierarchy(positions),
+                        vertexFormat: Cesium.PerInstanceColorAppearance.FLAT_VERTEX_FORMAT,
+                    }),
+                    attributes: { color: Cesium.ColorGeometryInstanceAttribute.fromColor(color) },
+                })
+            );
+        }
+
+        this._removePrimitive();
+        if (instances.length > 0) {
+            // the cells of a view are few, so they are created synchronously rather than flicker
+            this._primitive = this._scene.primitives.add(
+                new Cesium.Primitive({
+                    geometryInstances: instances,
+                    appearance: new Cesium.PerInstanceColorAppearance({ flat: true, translucent: true }),
+                    asynchronous: false,
+                })
+            );
+        }
+    }
+
+    /**
+     * Removes the layer from the scene.
+     * @returns {boolean} true if the layer was removed, otherwise false.
+     */
+    destroy() {
+        if (this._publishView) {
+            this._scene.camera.moveEnd.removeEventListener(this._publishView);
+        }
+
+        this._removePrimitive();
+        return true;
+    }
+
+    _removePrimitive() {
+        if (this._primitive) {
+            this._scene.primitives.remove(this._primitive);
+            this._primitive = null;
+        }
+    }
+}
+
+class HeatmapLayerManager extends LayerManager {
+    /**
+     * Creates a new HeatmapLayerManager
+     * @param {MapComponent} mapComponent The map component to which the layers are added.
+     */
+    constructor(mapComponent) {
+        super(mapComponent);
+
+        this.watchView = this.watchView.bind(this);
+        this.render = this.render.bind(this);
+    }
+
+    /**
+     * Reports the view of the map to the Android callback of a heatmap layer whenever it changes.
+     * @param {String} layerId The ID of the layer.
+     * @param {String} callbackId The Android callback to publish the view to.
+     */
+    watchView(layerId, callbackId) {
+        const layer = this.get(layerId);
+        if (layer) {
+            layer.watchView(callbackId);
+        }
+    }
+
+    /**
+     * Replaces the displayed cells of a heatmap layer.
+     * Cells of layers that were removed are ignored.
+     * @param {String} layerId The ID of the layer.
+     * @param {number} lattice The lattice of the cells.
+     * @param {number} cellSize The width of the cells, as a fraction of the width of the world in Web Mercator.
+     * @param {number} maxWeight The weight of the heaviest cell.
+     * @param {Array<number>} cells The cells, packed as [lon, lat, weight] of the center of every cell.
+     */
+    render(layerId, lattice, cellSize, maxWeight, cells) {
+        const layer = this.get(layerId);
+        if (layer) {
+            layer.render(lattice, cellSize, maxWeight, cells);
+        }
+    }
+
+    _createLayer(options) {
+        const layer = new HeatmapLayer(this._mapComponent._viewer.scene, options);
+
+        return Promise.resolve({ layer: {}, dataSource: layer, entities: [] });
+    }
+
+    _createEntityDescriptor(entity, options) {
+        // heatmap layers have no entities
+        return null;
+    }
+
+    _removeLayer(layer) {
+        return layer.destroy();
+    }
+}
+
+export default HeatmapLayerManager;
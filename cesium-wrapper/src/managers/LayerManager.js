@@ -38,11 +38,16 @@ class LayerManager {
     /**
      * Adds the given layer to the viewer.
      * layer should be a cesium layer descriptor.
+     * When batchCallbackId is given, the descriptors of the layer's entities are sent to it in batches of batchSize
+     * entities and the callback is invoked without entities once all the batches have been sent.
      * @param {*} layer Layer descriptior
      * @param {String} callbackId The Android callback to invoke.
+     * @param {number} [batchSize] The maximal amount of entities in each batch.
+     * @param {String} [batchCallbackId] The Android callback to invoke with every batch.
      */
-    addLayer(layer, callbackId) {
+    addLayer(layer, callbackId, batchSize, batchCallbackId) {
         const layerId = uuid();
+        const generation = this._mapComponent._generation;
 
         // TODO can assume no collision
         const cesiumLayer = this._createLayer(layer);
@@ -51,9 +56,28 @@ class LayerManager {
         }
 
         // TODO cannot be done here
-        cesiumLayer.then(({ layer, dataSource }) => {
+        const options = layer;
+        cesiumLayer.then(({ layer, dataSource, entities }) => {
+            // the map was reset while the layer was loading, and belongs to another view now
+            if (generation !== this._mapComponent._generation) {
+                this._removeLayer(dataSource);
+                return;
+            }
+
             this._layers.set(layerId, dataSource);
-            CallbackSync.invoke(callbackId, JSON.stringify({ ...layer, id: layerId, isVisible: true }));
+            this._mapComponent.requestRender();
+
+            const layerDescriptor = { ...layer, id: layerId, isVisible: true };
+            if (!batchCallbackId) {
+                layerDescriptor.entities = entities.map(entity => this._createEntityDescriptor(entity, options));
+                CallbackSync.invoke(callbackId, JSON.stringify(layerDescriptor));
+                return;
+            }
+
+            // the callback is invoked even if the layer was removed while it was sent, so it is not left registered
+            this._sendInBatches(layerDescriptor, entities, options, batchSize, batchCallbackId).then(() =>
+                CallbackSync.invoke(callbackId, JSON.stringify(layerDescriptor))
+            );
         });
     }
 
@@ -71,6 +95,7 @@ class LayerManager {
         let value = 'false';
         if (success) {
             this._layers.delete(layerId);
+            this._mapComponent.requestRender();
             value = 'true';
         }
 
@@ -81,7 +106,48 @@ class LayerManager {
      * Removes all layers from the viewer.
      */
     removeAllLayers() {
-        this._layers.keys().array.forEach(this.removeLayer);
+        this._layers.forEach(layer => this._removeLayer(layer));
+        this._layers.clear();
+    }
+
+    /**
+     * Sends the descriptors of the given entities to the Android callback in batches.
+     * Every batch is created in a separate task so the map keeps rendering while a large layer is being sent. Sending
+     * stops once the layer is removed.
+     * @param {*} layerDescriptor Descriptor of the layer the entities belong to.
+     * @param {Array} entities The entities of the layer.
+     * @param {*} options The layer descriptor the layer was created from.
+     * @param {number} batchSize The maximal amount of entities in each batch.
+     * @param {String} batchCallbackId The Android callback to invoke with every batch.
+     * @returns {Promise} A promise that resolves once all the batches have been sent, or the layer has been removed.
+     */
+    _sendInBatches(layerDescriptor, entities, options, batchSize, batchCallbackId) {
+        const total = entities.length;
+
+        return new Promise(resolve => {
+            const sendBatch = offset => {
+                if (!this._layers.has(layerDescriptor.id)) {
+                    resolve();
+                    return;
+                }
+
+                const batch = entities
+                    .slice(offset, offset + batchSize)
+                    .map(entity => this._createEntityDescriptor(entity, options));
+                const data = { total, layer: { ...layerDescriptor, entities: batch } };
+                CallbackSync.publish(batchCallbackId, JSON.stringify(data));
+
+                const nextOffset = offset + batchSize;
+                if (nextOffset < total) {
+                    setTimeout(() => sendBatch(nextOffset), 0);
+                } else {
+                    resolve();
+                }
+            };
+
+            // an empty layer is still sent as a single empty batch
+            sendBatch(0);
+        });
     }
 
     /**
@@ -89,12 +155,23 @@ class LayerManager {
      * Should be implemented by any class that extends LayerManager.
      * @param {*} layer Layer descriptor
      * @param {String} callbackId The Android callback to invoke.
-     * @returns {*} Description to be saves about the layer.
+     * @returns {Promise<{layer: *, dataSource: *, entities: Array}>} Description to be saves about the layer and the
+     * entities it contains.
      */
     _createLayer(layer, callbackId) {
         MapError.notImplementedError(this, '_createLayer');
     }
 
+    /**
+     * Creates the descriptor of the given entity that is sent to the Android framework.
+     * Should be implemented by any class that extends LayerManager.
+     * @param {*} entity An entity of a layer that was returned from _createLayer.
+     * @param {*} options The layer descriptor the layer was created from.
+     */
+    _createEntityDescriptor(entity, options) {
+        MapError.notImplementedError(this, '_createEntityDescriptor');
+    }
+
     /**
      * Removes the layer from the view.
      * Should be implemented by any class that extends LayerManager.
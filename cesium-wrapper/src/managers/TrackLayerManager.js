@@ -0,0 +1,213 @@
+import LayerManager from './LayerManager';
+import { normalizeLongitude } from '../utils/math';
+
+const SCALING_DEFINITIONS = new Cesium.NearFarScalar(1.5e2, 1.0, 1.5e7, 0.5);
+
+/**
+ * The amount of values of every object in a packed positions array: index, longitude, latitude and altitude.
+ */
+const POSITION_STRIDE = 4;
+
+const scratchPosition = new Cesium.Cartesian3();
+
+/**
+ * @typedef TrackLayerOptions
+ * Describes the scheme for track layers.
+ * @param {String} type Layer type - should be set to Track.
+ * @param {String} icon The marker of the objects, a URL or an SVG data URI.
+ * @param {String} color CSS color string by which the markers are tinted.
+ * @param {Number} opacity Opacity value betwween 0 and 1.
+ * @param {Number} interpolationDuration Milliseconds over which markers move to a new position, 0 for none.
+ */
+
+/**
+ * A layer of moving objects, displayed as a collection of billboards.
+ * The objects are addressed by small indices that are assigned by the Android framework, so they are stored in an
+ * array rather than in a map.
+ */
+class TrackLayer {
+    /**
+     * Creates a new TrackLayer.
+     * @param {Cesium.Scene} scene The scene to which the layer is added.
+     * @param {TrackLayerOptions} options The options of the layer.
+     */
+    constructor(scene, options) {
+        this._scene = scene;
+        this._icon = options.icon;
+        this._color = Cesium.Color.fromCssColorString(options.color).withAlpha(options.opacity);
+        this._interpolationDuration = options.interpolationDuration || 0;
+
+        this._collection = scene.primitives.add(new Cesium.BillboardCollection());
+        this._tracks = [];
+        this._moving = new Set();
+
+        this._interpolate = this._interpolate.bind(this);
+        if (this._interpolationDuration > 0) {
+            this._removePreRenderListener = scene.preRender.addEventListener(this._interpolate);
+        }
+    }
+
+    /**
+     * Applies an update of the objects of the layer.
+     * @param {Array<Array>} added Pairs of the ID and index of every added object.
+     * @param {Array<number>} removed The indices of the removed objects.
+     * @param {Array<number>} positions The new positions, packed as [index, lon, lat, alt] for every object.
+     */
+    update(added, removed, positions) {
+        removed.forEach(index => this._removeTrack(index));
+        added.forEach(([id, index]) => this._addTrack(id, index));
+
+        const now = performance.now();
+        for (let i = 0; i < positions.length; i += POSITION_STRIDE) {
+            const track = this._tracks[positions[i]];
+            if (!track) {
+                continue;
+            }
+
+            const lon = positions[i + 1];
+            const lat = positions[i + 2];
+            const alt = positions[i + 3];
+            if (this._interpolationDuration === 0 || !track.hasPosition) {
+                this._setPosition(track, lon, lat, alt);
+                continue;
+            }
+
+            // move from wherever the marker is displayed now
+            track.from[0] = track.current[0];
+            track.from[1] = track.current[1];
+            track.from[2] = track.current[2];
+            track.to[0] = lon;
+            track.to[1] = lat;
+            track.to[2] = alt;
+            track.start = now;
+            this._moving.add(positions[i]);
+        }
+    }
+
+    /**
+     * Removes the layer from the scene.
+     * @returns {boolean} true if the layer was removed, otherwise false.
+     */
+    destroy() {
+        if (this._removePreRenderListener) {
+            this._removePreRenderListener();
+        }
+
+        return this._scene.primitives.remove(this._collection);
+    }
+
+    _addTrack(id, index) {
+        this._tracks[index] = {
+            billboard: this._collection.add({
+                id,
+                show: false,
+                image: this._icon,
+                color: this._color,
+                scaleByDistance: SCALING_DEFINITIONS,
+            }),
+            hasPosition: false,
+            current: [0, 0, 0],
+            from: [0, 0, 0],
+            to: [0, 0, 0],
+            start: 0,
+        };
+    }
+
+    _removeTrack(index) {
+        const track = this._tracks[index];
+        if (track) {
+            this._collection.remove(track.billboard);
+            this._tracks[index] = undefined;
+            this._moving.delete(index);
+        }
+    }
+
+    _setPosition(track, lon, lat, alt) {
+        track.current[0] = lon;
+        track.current[1] = lat;
+        track.current[2] = alt;
+        track.billboard.position = Cesium.Cartesian3.fromDegrees(lon, lat, alt, undefined, scratchPosition);
+
+        if (!track.hasPosition) {
+            track.hasPosition = true;
+            track.billboard.show = true;
+        }
+    }
+
+    /**
+     * Moves the markers that are in motion towards their latest position, before every frame.
+     */
+    _interpolate() {
+        if (this._moving.size === 0) {
+            return;
+        }
+
+        const now = performance.now();
+        this._moving.forEach(index => {
+            const track = this._tracks[index];
+            const t = Math.min((now - track.start) / this._interpolationDuration, 1);
+            // the shorter way around the antimeridian
+            const lonDelta = ((((track.to[0] - track.from[0]) % 360) + 540) % 360) - 180;
+
+            this._setPosition(
+                track,
+                normalizeLongitude(track.from[0] + lonDelta * t),
+                track.from[1] + (track.to[1] - track.from[1]) * t,
+                track.from[2] + (track.to[2] - track.from[2]) * t
+            );
+
+            if (t === 1) {
+                this._moving.delete(index);
+            }
+        });
+
+        // a map that renders on demand keeps rendering until the markers arrive
+        if (this._moving.size > 0) {
+            this._scene.requestRender();
+        }
+    }
+}
+
+class TrackLayerManager extends LayerManager {
+    /**
+     * Creates a new TrackLayerManager
+     * @param {MapComponent} mapComponent The map component to which the layers are added.
+     */
+    constructor(mapComponent) {
+        super(mapComponent);
+
+        this.update = this.update.bind(this);
+    }
+
+    /**
+     * Applies an update of the objects of a track layer.
+     * Updates of layers that were removed are ignored.
+     * @param {String} layerId The ID of the layer.
+     * @param {Array<Array>} added Pairs of the ID and index of every added object.
+     * @param {Array<number>} removed The indices of the removed objects.
+     * @param {Array<number>} positions The new positions, packed as [index, lon, lat, alt] for every object.
+     */
+    update(layerId, added, removed, positions) {
+        const layer = this.get(layerId);
+        if (layer) {
+            layer.update(added, removed, positions);
+        }
+    }
+
+    _createLayer(options) {
+        const layer = new TrackLayer(this._mapComponent._viewer.scene, options);
+
+        return Promise.resolve({ layer: {}, dataSource: layer, entities: [] });
+    }
+
+    _createEntityDescriptor(entity, options) {
+        // track layers have no entities
+        return null;
+    }
+
+    _removeLayer(layer) {
+        return layer.destroy();
+    }
+}
+
+export default TrackLayerManager;
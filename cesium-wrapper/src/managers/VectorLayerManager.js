@@ -1,6 +1,6 @@
 import LayerManager from './LayerManager';
 import MapError from '../utils/MapError';
-import { createEntityDescriptor } from '../utils/cesium';
+import { createEntityDescriptor, createEntityStub } from '../utils/cesium';
 
 const SCALING_DEFINITIONS = new Cesium.NearFarScalar(1.5e2, 1.0, 1.5e7, 0.5);
 
@@ -22,7 +22,118 @@ class VectorLayerManager extends LayerManager {
     constructor(mapComponent) {
         super(mapComponent);
 
+        // the descriptors the data sources were created from, by which updated features are styled
+        this._options = new WeakMap();
+        // the descriptions of the data sources, which are released along with the removed data sources
+        this._descriptions = new WeakMap();
+
+        // the IDs of the entities the Android framework knows to be hidden, and the visibility changes not sent yet
+        this._hiddenIds = new Set();
+        this._visibilityChanges = new Map();
+
         this.loadGeoJSON = this.loadGeoJSON.bind(this);
+        this.getEntities = this.getEntities.bind(this);
+        this.updateLayer = this.updateLayer.bind(this);
+        this.setMetadata = this.setMetadata.bind(this);
+        this._onEntitiesChanged = this._onEntitiesChanged.bind(this);
+        this._sendVisibilityChanges = this._sendVisibilityChanges.bind(this);
+    }
+
+    /**
+     * Sets the name and description of a layer.
+     * Only the fields that are present in metadata are changed.
+     * @param {String} layerId The ID of the layer.
+     * @param {{name: String, description: String}} metadata The new metadata of the layer.
+     */
+    setMetadata(layerId, metadata) {
+        const dataSource = this.get(layerId);
+        if (!dataSource) {
+            return;
+        }
+
+        if ('name' in metadata) {
+            dataSource.name = metadata.name;
+        }
+        if ('description' in metadata) {
+            this._descriptions.set(dataSource, metadata.description);
+        }
+    }
+
+    /**
+     * Returns the description of a layer.
+     * @param {String} layerId The ID of the layer.
+     * @returns {String|undefined} The description of the layer.
+     */
+    getDescription(layerId) {
+        const dataSource = this.get(layerId);
+        return dataSource && this._descriptions.get(dataSource);
+    }
+
+    /**
+     * Sends the complete descriptors of the entities with the given IDs to the Android callback.
+     * The descriptor of an entity that does not exist is null.
+     * @param {Array<String>} ids The IDs of the entities.
+     * @param {String} callbackId The Android callback to invoke.
+     */
+    getEntities(ids, callbackId) {
+        const featuresMap = this._mapComponent._featuresMap;
+        const descriptors = ids.map(id => (featuresMap.has(id) ? createEntityDescriptor(featuresMap.get(id)) : null));
+
+        CallbackSync.invoke(callbackId, JSON.stringify(descriptors));
+    }
+
+    /**
+     * Adds, replaces and removes entities of a layer by their IDs, without reloading the layer.
+     * Every feature of upserts replaces the entity with the same ID or is added to the layer, after the entities with
+     * the given IDs are removed. The descriptors of the upserted entities and the IDs of the entities that were
+     * actually removed are sent to the Android callback, or null if the layer does not exist or the features could
+     * not be loaded.
+     * @param {String} layerId The ID of the layer.
+     * @param {String} upserts Serialized GeoJSON of the features to add or replace, may be null.
+     * @param {Array<String>} deletes The IDs of the entities to remove.
+     * @param {String} callbackId The Android callback to invoke.
+     */
+    updateLayer(layerId, upserts, deletes, callbackId) {
+        const dataSource = this.get(layerId);
+        if (!dataSource) {
+            CallbackSync.invoke(callbackId, 'null');
+            return;
+        }
+
+        const options = this._options.get(dataSource);
+        const featuresMap = this._mapComponent._featuresMap;
+        const entities = dataSource.entities;
+
+        // the features are loaded into a detached data source, from which their entities are moved to the layer
+        Promise.resolve()
+            .then(() => (upserts ? loadGeoJsonDataSource(JSON.parse(upserts), options) : null))
+            .then(source => {
+                const removed = [];
+                const upserted = source ? source.entities.values.slice() : [];
+
+                entities.suspendEvents();
+                deletes.forEach(id => {
+                    if (entities.removeById(id)) {
+                        featuresMap.delete(id);
+                        this._hiddenIds.delete(id);
+                        removed.push(id);
+                    }
+                });
+                upserted.forEach(entity => {
+                    source.entities.remove(entity);
+                    entities.removeById(entity.id);
+                    this._hiddenIds.delete(entity.id);
+                    handleStyle(entity, options);
+                    entities.add(entity);
+                    featuresMap.set(entity.id, entity);
+                });
+                entities.resumeEvents();
+                this._mapComponent.requestRender();
+
+                const descriptors = upserted.map(entity => this._createEntityDescriptor(entity, options));
+                CallbackSync.invoke(callbackId, JSON.stringify({ entities: descriptors, removed }));
+            })
+            .catch(() => CallbackSync.invoke(callbackId, 'null'));
     }
 
     _createLayer(layer) {
@@ -34,10 +145,16 @@ class VectorLayerManager extends LayerManager {
         }
     }
 
+    _createEntityDescriptor(entity, options) {
+        return options.loadGeometry === false ? createEntityStub(entity) : createEntityDescriptor(entity);
+    }
+
     _removeLayer(layer) {
-        layer.dataSource.entities.values.  // TODO test
-            map(element => element.id).
-            forEach(id => mapComponent._featuresMap.delete(id));
+        const featuresMap = this._mapComponent._featuresMap;
+        layer.entities.values.forEach(entity => {
+            featuresMap.delete(entity.id);
+            this._hiddenIds.delete(entity.id);
+        });
 
         return this._mapComponent._viewer.dataSources.remove(layer, true);
     }
@@ -45,7 +162,7 @@ class VectorLayerManager extends LayerManager {
     /**
      * Loads the given GeoJSON string onto the viewer.
      * @param {Object} options layer options.
-     * @returns {Promise<Cesium.GeoJsonDataSource}
+     * @returns {Promise<{layer: Object, dataSource: Cesium.GeoJsonDataSource, entities: Array<Cesium.Entity>}>}
      */
     loadGeoJSON(options) {
         let source = null;
@@ -55,14 +172,11 @@ class VectorLayerManager extends LayerManager {
             return Promise.reject('Malformed JSON object');
         }
 
-        const promise = Cesium.GeoJsonDataSource.load(source, {
-            stroke: Cesium.Color.fromCssColorString(options.outlineColor).withAlpha(options.outlineOpacity),
-            fill: Cesium.Color.fromCssColorString(options.color).withAlpha(options.opacity),
-        });
-
-        return promise
+        return loadGeoJsonDataSource(source, options)
             .then(dataSource => {
+                this._options.set(dataSource, options);
                 this._mapComponent._viewer.dataSources.add(dataSource);
+                dataSource.entities.collectionChanged.addEventListener(this._onEntitiesChanged);
                 if (options.zoom) {
                     this._mapComponent._viewer.zoomTo(dataSource);
                 }
@@ -76,17 +190,70 @@ class VectorLayerManager extends LayerManager {
             })
             .then(dataSource => ({
                 dataSource,
-                layer: {
-                    entities: dataSource.entities.values.map(createEntityDescriptor),
-                },
+                layer: {},
+                entities: dataSource.entities.values,
             }));
     }
+
+    /**
+     * Collects the visibility changes of entities that were made on the map.
+     * The collection reports every entity whose definition changed, so only entities whose visibility differs from
+     * the one known to the Android framework are sent.
+     * @param {Cesium.EntityCollection} collection The collection that changed.
+     * @param {Array<Cesium.Entity>} added The entities that were added.
+     * @param {Array<Cesium.Entity>} removed The entities that were removed.
+     * @param {Array<Cesium.Entity>} changed The entities that changed.
+     */
+    _onEntitiesChanged(collection, added, removed, changed) {
+        changed.forEach(entity => {
+            const isHidden = !entity.show;
+            if (isHidden === this._hiddenIds.has(entity.id)) {
+                return;
+            }
+
+            if (isHidden) {
+                this._hiddenIds.add(entity.id);
+            } else {
+                this._hiddenIds.delete(entity.id);
+            }
+
+            if (this._visibilityChanges.size === 0) {
+                // changes made during the same task are sent together
+                setTimeout(this._sendVisibilityChanges, 0);
+            }
+            this._visibilityChanges.set(entity.id, entity.show);
+        });
+    }
+
+    /**
+     * Sends the collected visibility changes to the Android framework as a compact delta.
+     */
+    _sendVisibilityChanges() {
+        const changes = [];
+        this._visibilityChanges.forEach((isVisible, id) => changes.push({ id, isVisible }));
+        this._visibilityChanges.clear();
+
+        EventsEmitter.fireOnEntitiesChanged(JSON.stringify(changes));
+    }
 }
 
 VectorLayerManager.Types = Object.freeze({
     GeoJSON: 'GeoJSON',
 });
 
+/**
+ * Loads the given GeoJSON into a new data source, with the colors of the given layer options.
+ * @param {Object|String} source The GeoJSON object or its URL.
+ * @param {GeoJsonLayer} options The layer options.
+ * @returns {Promise<Cesium.GeoJsonDataSource>} The data source, which is not added to the viewer.
+ */
+function loadGeoJsonDataSource(source, options) {
+    return Cesium.GeoJsonDataSource.load(source, {
+        stroke: Cesium.Color.fromCssColorString(options.outlineColor).withAlpha(options.outlineOpacity),
+        fill: Cesium.Color.fromCssColorString(options.color).withAlpha(options.opacity),
+    });
+}
+
 function handleStyle(element, options) {
     if (element.billboard) {
         element.billboard.image = options.pointIcon;
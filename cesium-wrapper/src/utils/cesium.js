@@ -22,13 +22,66 @@ export function createEntityDescriptor(entity) {
             .map(mapRadianLocationToDegrees);
         typeSpecificContent.properties = entity.properties.getValue();
     } else if (entity.polygon) {
+        const hierarchy = entity.polygon.hierarchy.getValue();
         typeSpecificContent.type = 'polygon';
-        typeSpecificContent.perimeter = entity.polygon.hierarchy
-            .getValue()
-            .positions.map(pos => Cesium.Cartographic.fromCartesian(pos))
-            .map(mapRadianLocationToDegrees);
+        typeSpecificContent.perimeter = mapPositionsToDegrees(hierarchy.positions);
+        typeSpecificContent.holes = (hierarchy.holes || []).map(hole => mapPositionsToDegrees(hole.positions));
         typeSpecificContent.properties = entity.properties.getValue();
     }
 
     return { ...typeSpecificContent, id: entity.id, name: entity.name, isVisible: entity.show };
 }
+
+/**
+ * Maps the given cartesian positions to locations in degrees.
+ * @param {Cesium.Cartesian3[]} positions
+ */
+function mapPositionsToDegrees(positions) {
+    return positions.map(pos => Cesium.Cartographic.fromCartesian(pos)).map(mapRadianLocationToDegrees);
+}
+
+/**
+ * Creates an entity stub from the given entity.
+ * An entity stub is an entity descriptor without the geometry and properties of the entity, which can be fetched
+ * later on by the Android framework.
+ * @param {Cesium.Entity} entity
+ */
+export function createEntityStub(entity) {
+    let type = null;
+    if (entity.billboard) {
+        type = 'point';
+    } else if (entity.polyline) {
+        type = 'line';
+    } else if (entity.polygon) {
+        type = 'polygon';
+    }
+
+    return { type, id: entity.id, name: entity.name, isVisible: entity.show, isStub: true };
+}
+
+/**
+ * Returns the view of the map, as reported to the Android framework by layers that display what is in the view.
+ * @param {Cesium.Scene} scene The scene of the map.
+ */
+export function getView(scene) {
+    const camera = scene.camera;
+    // the view does not contain the globe when looking at space
+    const rectangle = camera.computeViewRectangle(scene.globe.ellipsoid) || Cesium.Rectangle.MAX_VALUE;
+
+    return {
+        extent: {
+            northWest: {
+                lon: Cesium.Math.toDegrees(rectangle.west),
+                lat: Cesium.Math.toDegrees(rectangle.north),
+            },
+            southEast: {
+                lon: Cesium.Math.toDegrees(rectangle.east),
+                lat: Cesium.Math.toDegrees(rectangle.south),
+            },
+        },
+        height: camera.positionCartographic.height,
+        latitude: Cesium.Math.toDegrees(camera.positionCartographic.latitude),
+        fieldOfView: camera.frustum.fovy,
+        viewportHeight: scene.canvas.clientHeight,
+    };
+}
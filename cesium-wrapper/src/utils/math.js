@@ -37,3 +37,36 @@ export function mapRadianLocationToDegrees(location) {
     };
 }
 
+/**
+ * Normalizes the given longitude to the range [-180, 180).
+ * @param {Number} lon The longitude in degrees.
+ */
+export function normalizeLongitude(lon) {
+    return ((((lon + 180) % 360) + 360) % 360) - 180;
+}
+
+/**
+ * Projects the given location to Web Mercator, normalized so the world is the square between (0, 0) at its north-west
+ * corner and (1, 1) at its south-east corner.
+ * @param {Number} lon The longitude in degrees.
+ * @param {Number} lat The latitude in degrees.
+ * @returns {{x: Number, y: Number}} The projected location.
+ */
+export function projectWebMercator(lon, lat) {
+    const sin = Math.sin((lat * Math.PI) / 180);
+    const y = 0.5 - (0.25 * Math.log((1 + sin) / (1 - sin))) / Math.PI;
+
+    return { x: lon / 360 + 0.5, y: Math.min(Math.max(y, 0), 1) };
+}
+
+/**
+ * Converts the given normalized Web Mercator location back to degrees.
+ * @param {Number} x The projected x coordinate.
+ * @param {Number} y The projected y coordinate.
+ * @returns {{lon: Number, lat: Number}} The location in degrees.
+ */
+export function unprojectWebMercator(x, y) {
+    const lat = (360 * Math.atan(Math.exp(Math.PI * (1 - 2 * y)))) / Math.PI - 90;
+
+    return { lon: (x - 0.5) * 360, lat };
+}